@@ -40,6 +40,7 @@
 package org.glassfish.jersey.grizzly2.httpserver;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -49,6 +50,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,6 +61,7 @@ import javax.ws.rs.core.UriBuilder;
 
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.ExtendedLogger;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.ApplicationHandler;
@@ -66,10 +69,11 @@ import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.ConfigHelper;
 import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
-import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.glassfish.jersey.server.spi.NonBlockingContainerResponseWriter;
 import org.glassfish.jersey.server.spi.RequestScopedInitializer;
 
 import org.glassfish.hk2.api.PerLookup;
@@ -79,6 +83,8 @@ import org.glassfish.hk2.utilities.Binder;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 
 import org.glassfish.grizzly.CompletionHandler;
+import org.glassfish.grizzly.ReadHandler;
+import org.glassfish.grizzly.http.io.NIOInputStream;
 import org.glassfish.grizzly.http.server.HttpHandler;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Response;
@@ -155,10 +161,37 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         }
     };
 
-    private final static class ResponseWriter implements ContainerResponseWriter {
+    private final static class ResponseWriter implements NonBlockingContainerResponseWriter {
 
         private final String name;
         private final Response grizzlyResponse;
+        private final AtomicBoolean suspended = new AtomicBoolean(false);
+        private volatile TimeoutHandler timeoutHandler;
+        private volatile RequestEntityBuffer entityBuffer;
+        private volatile org.glassfish.grizzly.http.server.TimeoutHandler entityTimeoutHandler;
+
+        private final org.glassfish.grizzly.http.server.TimeoutHandler grizzlyTimeoutHandler =
+                new org.glassfish.grizzly.http.server.TimeoutHandler() {
+
+                    @Override
+                    public boolean onTimeout(Response response) {
+                        final org.glassfish.grizzly.http.server.TimeoutHandler entityHandler = entityTimeoutHandler;
+                        if (entityHandler != null) {
+                            // the request entity is still being read
+                            return entityHandler.onTimeout(response);
+                        }
+
+                        final TimeoutHandler handler = timeoutHandler;
+                        if (handler != null) {
+                            handler.onTimeout(ResponseWriter.this);
+                        }
+
+                        // TODO should we return true ins some cases instead?
+                        // Returning false relies on the fact that the timeoutHandler
+                        // will resume the response.
+                        return false;
+                    }
+                };
 
         ResponseWriter(final Response response) {
             this.grizzlyResponse = response;
@@ -179,6 +212,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         @Override
         public void commit() {
             try {
+                releaseEntityBuffer();
                 if (grizzlyResponse.isSuspended()) {
                     grizzlyResponse.resume();
                 }
@@ -190,21 +224,19 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         @Override
         public boolean suspend(final long timeOut, final TimeUnit timeUnit, final TimeoutHandler timeoutHandler) {
             try {
-                grizzlyResponse.suspend(timeOut, timeUnit, EMPTY_COMPLETION_HANDLER,
-                        new org.glassfish.grizzly.http.server.TimeoutHandler() {
-
-                            @Override
-                            public boolean onTimeout(Response response) {
-                                if (timeoutHandler != null) {
-                                    timeoutHandler.onTimeout(ResponseWriter.this);
-                                }
-
-                                // TODO should we return true ins some cases instead?
-                                // Returning false relies on the fact that the timeoutHandler
-                                // will resume the response.
-                                return false;
-                            }
-                        });
+                if (entityBuffer != null) {
+                    // the response has been already suspended by the container while reading the request entity
+                    if (!suspended.compareAndSet(false, true)) {
+                        return false;
+                    }
+                    this.timeoutHandler = timeoutHandler;
+                    grizzlyResponse.getSuspendContext().setTimeout(timeOut, timeUnit);
+                    return true;
+                }
+
+                this.timeoutHandler = timeoutHandler;
+                grizzlyResponse.suspend(timeOut, timeUnit, EMPTY_COMPLETION_HANDLER, grizzlyTimeoutHandler);
+                suspended.set(true);
                 return true;
             } catch (IllegalStateException ex) {
                 return false;
@@ -213,6 +245,50 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
             }
         }
 
+        /**
+         * Suspend the Grizzly response while the request entity is being read into the entity buffer.
+         *
+         * @param buffer         request entity buffer that will be released once the response is committed.
+         * @param readTimeout    maximum time (in milliseconds) to wait for the whole request entity, value less or equal
+         *                       to zero means no timeout.
+         * @param timeoutHandler handler invoked if the request entity is not received within the read timeout.
+         */
+        private void suspendForEntity(final RequestEntityBuffer buffer,
+                                      final long readTimeout,
+                                      final org.glassfish.grizzly.http.server.TimeoutHandler timeoutHandler) {
+            this.entityBuffer = buffer;
+            this.entityTimeoutHandler = timeoutHandler;
+            grizzlyResponse.suspend(readTimeout, TimeUnit.MILLISECONDS, EMPTY_COMPLETION_HANDLER, grizzlyTimeoutHandler);
+        }
+
+        /**
+         * Cancel the request entity read timeout once the whole request entity has been received.
+         */
+        private void entityReceived() {
+            entityTimeoutHandler = null;
+            grizzlyResponse.getSuspendContext().setTimeout(-1, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Finish the request processing after the request has been dispatched to the application.
+         *
+         * The Grizzly response suspended while reading the request entity is resumed unless the request processing
+         * has been suspended by the application.
+         */
+        private void finishDispatch() {
+            if (!suspended.get() && grizzlyResponse.isSuspended()) {
+                releaseEntityBuffer();
+                grizzlyResponse.resume();
+            }
+        }
+
+        private void releaseEntityBuffer() {
+            final RequestEntityBuffer buffer = entityBuffer;
+            if (buffer != null) {
+                buffer.release();
+            }
+        }
+
         @Override
         public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
             try {
@@ -258,6 +334,10 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                 logger.log(Level.SEVERE, "Unable to send 500 error response.", e);
             } finally {
                 logger.debugLog("{0} - failure(...) called", name);
+                if (entityBuffer != null) {
+                    // response suspended by the container has to be resumed explicitly
+                    commit();
+                }
                 rethrow(error);
             }
         }
@@ -267,6 +347,27 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
             return true;
         }
 
+        @Override
+        public boolean isWritePossible() {
+            return grizzlyResponse.getOutputBuffer().canWrite();
+        }
+
+        @Override
+        public void notifyWritePossible(final WriteHandler handler) throws IllegalStateException {
+            grizzlyResponse.getOutputBuffer().notifyCanWrite(new org.glassfish.grizzly.WriteHandler() {
+
+                @Override
+                public void onWritePossible() {
+                    handler.onWritePossible();
+                }
+
+                @Override
+                public void onError(final Throwable error) {
+                    handler.onError(error);
+                }
+            });
+        }
+
         /**
          * Rethrow the original exception as required by JAX-RS, 3.3.4
          *
@@ -281,8 +382,129 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         }
     }
 
+    /**
+     * Grizzly read handler receiving the request entity into the {@link RequestEntityBuffer entity buffer}
+     * and dispatching the request to the application once the whole entity is received.
+     *
+     * The request is rejected if the entity is too large or if it is not received within the configured
+     * read timeout. In any case the entity buffer is released exactly once.
+     */
+    private final class EntityBufferingHandler implements ReadHandler, org.glassfish.grizzly.http.server.TimeoutHandler {
+
+        private final Request request;
+        private final Response response;
+        private final ResponseWriter responseWriter;
+        private final RequestEntityBuffer buffer;
+        private final NIOInputStream input;
+        private final byte[] data = new byte[8192];
+        private boolean finished;
+
+        private EntityBufferingHandler(final Request request,
+                                       final Response response,
+                                       final ResponseWriter responseWriter,
+                                       final RequestEntityBuffer buffer) {
+            this.request = request;
+            this.response = response;
+            this.responseWriter = responseWriter;
+            this.buffer = buffer;
+            this.input = request.getNIOInputStream();
+        }
+
+        private void start() {
+            responseWriter.suspendForEntity(buffer, bufferReadTimeout, this);
+            input.notifyAvailable(this);
+        }
+
+        @Override
+        public void onDataAvailable() throws Exception {
+            if (readAvailable()) {
+                input.notifyAvailable(this);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws Exception {
+            if (readAvailable() && finish()) {
+                responseWriter.entityReceived();
+                try {
+                    dispatch(request, response, responseWriter, buffer.getInputStream());
+                } finally {
+                    responseWriter.finishDispatch();
+                }
+            }
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            logger.log(Level.FINE, "Reading of the request entity failed.", error);
+            if (finish()) {
+                buffer.release();
+                if (response.isSuspended()) {
+                    response.resume();
+                }
+            }
+        }
+
+        @Override
+        public boolean onTimeout(final Response response) {
+            if (finish()) {
+                logger.debugLog("GrizzlyHttpContainer - request entity read timed out");
+                buffer.release();
+                reject(response, javax.ws.rs.core.Response.Status.REQUEST_TIMEOUT);
+            }
+            // the response has been already resumed
+            return false;
+        }
+
+        /**
+         * Read the available entity data into the buffer.
+         *
+         * @return {@code false} if the request has been rejected or timed out.
+         */
+        private synchronized boolean readAvailable() throws IOException {
+            if (finished) {
+                return false;
+            }
+            while (input.isReady()) {
+                final int read = input.read(data, 0, Math.min(data.length, input.readyData()));
+                if (read <= 0) {
+                    break;
+                }
+                if (!buffer.write(data, 0, read)) {
+                    rejectTooLarge();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rejectTooLarge() {
+            if (finish()) {
+                buffer.release();
+                reject(response, javax.ws.rs.core.Response.Status.REQUEST_ENTITY_TOO_LARGE);
+            }
+        }
+
+        /**
+         * Mark the entity reading as finished.
+         *
+         * @return {@code true} if the entity reading has not been finished before, {@code false} otherwise.
+         */
+        private synchronized boolean finish() {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+    }
+
     private volatile ApplicationHandler appHandler;
     private volatile ContainerLifecycleListener containerListener;
+    private volatile boolean asyncBuffering;
+    private volatile int bufferThreshold;
+    private volatile long bufferMaxSize;
+    private volatile long bufferReadTimeout;
 
     /**
      * Creates a new Grizzly container.
@@ -296,6 +518,15 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         this.appHandler.registerAdditionalBinders(new HashSet<Binder>() {{
             add(new GrizzlyBinder());
         }});
+        configureEntityBuffering(application.getConfiguration());
+    }
+
+    private void configureEntityBuffering(final ResourceConfig configuration) {
+        final Map<String, Object> properties = configuration.getProperties();
+        this.asyncBuffering = PropertiesHelper.getValue(properties, ServerProperties.INBOUND_ASYNC_BUFFERING, Boolean.FALSE);
+        this.bufferThreshold = PropertiesHelper.getValue(properties, ServerProperties.INBOUND_BUFFER_THRESHOLD, 65536);
+        this.bufferMaxSize = PropertiesHelper.getValue(properties, ServerProperties.INBOUND_BUFFER_MAX_SIZE, 10485760L);
+        this.bufferReadTimeout = PropertiesHelper.getValue(properties, ServerProperties.INBOUND_BUFFER_READ_TIMEOUT, 30000L);
     }
 
     @Override
@@ -307,13 +538,43 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
     @Override
     public void service(final Request request, final Response response) {
         final ResponseWriter responseWriter = new ResponseWriter(response);
+        if (asyncBuffering && (request.getContentLengthLong() > 0 || request.getRequest().isChunked())) {
+            final RequestEntityBuffer buffer = new RequestEntityBuffer(bufferThreshold, bufferMaxSize);
+            if (!buffer.accepts(request.getContentLengthLong())) {
+                reject(response, javax.ws.rs.core.Response.Status.REQUEST_ENTITY_TOO_LARGE);
+                return;
+            }
+            logger.debugLog("GrizzlyHttpContainer.service(...) reading request entity");
+            new EntityBufferingHandler(request, response, responseWriter, buffer).start();
+            return;
+        }
+
+        dispatch(request, response, responseWriter, request.getInputStream());
+    }
+
+    private void reject(final Response response, final javax.ws.rs.core.Response.Status status) {
+        try {
+            response.sendError(status.getStatusCode());
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Unable to send " + status.getStatusCode() + " error response.", e);
+        } finally {
+            if (response.isSuspended()) {
+                response.resume();
+            }
+        }
+    }
+
+    private void dispatch(final Request request,
+                          final Response response,
+                          final ResponseWriter responseWriter,
+                          final InputStream entityStream) {
         try {
             logger.debugLog("GrizzlyHttpContainer.service(...) started");
             URI baseUri = getBaseUri(request);
             ContainerRequest requestContext = new ContainerRequest(baseUri,
                     getRequestUri(baseUri, request), request.getMethod().getMethodString(),
                     getSecurityContext(request), new GrizzlyRequestPropertiesDelegate(request));
-            requestContext.setEntityStream(request.getInputStream());
+            requestContext.setEntityStream(entityStream);
             for (String headerName : request.getHeaderNames()) {
                 requestContext.headers(headerName, request.getHeaders(headerName));
             }
@@ -351,6 +612,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
             add(new GrizzlyBinder());
         }});
         this.containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
+        configureEntityBuffering(configuration);
         containerListener.onReload(this);
     }
 
@@ -0,0 +1,165 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Request entity buffer used to receive the request entity before the request is dispatched to the application.
+ * <p>
+ * The entity data are kept in memory up to the configured threshold, larger entities are spilled into a temporary
+ * file. The temporary file is deleted when the buffer is {@link #release() released}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class RequestEntityBuffer {
+
+    private static final Logger LOGGER = Logger.getLogger(RequestEntityBuffer.class.getName());
+
+    private final int threshold;
+    private final long maxSize;
+
+    private byte[] memory = new byte[0];
+    private long size;
+    private File file;
+    private OutputStream fileOutput;
+    private InputStream fileInput;
+
+    /**
+     * Create new request entity buffer.
+     *
+     * @param threshold maximum number of bytes kept in memory.
+     * @param maxSize   maximum size of the entity, value less or equal to zero means unlimited.
+     */
+    RequestEntityBuffer(final int threshold, final long maxSize) {
+        this.threshold = Math.max(0, threshold);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Check whether an entity of the given size can be accepted by the buffer.
+     *
+     * @param length entity size.
+     * @return {@code true} if the entity size does not exceed the maximum size.
+     */
+    boolean accepts(final long length) {
+        return maxSize <= 0 || length <= maxSize;
+    }
+
+    /**
+     * Append the entity data to the buffer.
+     *
+     * @param data   entity data.
+     * @param offset data offset.
+     * @param length data length.
+     * @return {@code false} if the maximum entity size has been exceeded, {@code true} otherwise.
+     * @throws IOException in case writing the temporary file failed.
+     */
+    boolean write(final byte[] data, final int offset, final int length) throws IOException {
+        if (!accepts(size + length)) {
+            return false;
+        }
+
+        if (fileOutput == null && size + length <= threshold) {
+            final int count = (int) size;
+            if (count + length > memory.length) {
+                memory = Arrays.copyOf(memory, Math.min(threshold, Math.max(count + length, memory.length * 2)));
+            }
+            System.arraycopy(data, offset, memory, count, length);
+        } else {
+            if (fileOutput == null) {
+                file = File.createTempFile("jersey-request", ".entity");
+                fileOutput = new BufferedOutputStream(new FileOutputStream(file));
+                fileOutput.write(memory, 0, (int) size);
+                memory = null;
+            }
+            fileOutput.write(data, offset, length);
+        }
+        size += length;
+        return true;
+    }
+
+    /**
+     * Get the stream of the buffered entity.
+     *
+     * @return buffered entity stream.
+     * @throws IOException in case reading the temporary file failed.
+     */
+    InputStream getInputStream() throws IOException {
+        if (file == null) {
+            return new ByteArrayInputStream(memory, 0, (int) size);
+        }
+        fileOutput.close();
+        fileInput = new FileInputStream(file);
+        return fileInput;
+    }
+
+    /**
+     * Release the buffer and delete the temporary file, if any.
+     */
+    void release() {
+        memory = null;
+        if (file != null) {
+            try {
+                if (fileInput != null) {
+                    fileInput.close();
+                }
+                fileOutput.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Unable to close the request entity buffer file.", e);
+            }
+            if (!file.delete()) {
+                LOGGER.log(Level.WARNING, "Unable to delete the request entity buffer file " + file + ".");
+            }
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Asynchronous request entity buffering tests.
+ *
+ * @author agent (agent at local)
+ */
+public class EntityBufferingTest {
+
+    private static final int PORT = 9998;
+
+    @Path("buffering")
+    public static class BufferingResource {
+
+        @POST
+        public String echo(final String entity) {
+            return entity;
+        }
+
+        @GET
+        public String get() {
+            return "get";
+        }
+
+        @POST
+        @Path("async")
+        public void asyncEcho(final String entity, @Suspended final AsyncResponse asyncResponse) {
+            new Thread() {
+                @Override
+                public void run() {
+                    asyncResponse.resume("async:" + entity);
+                }
+            }.start();
+        }
+
+        @POST
+        @Path("timeout")
+        public void timeout(final String entity, @Suspended final AsyncResponse asyncResponse) {
+            asyncResponse.setTimeout(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private HttpServer server;
+    private Client client;
+
+    @Before
+    public void setUp() throws IOException {
+        final URI baseUri = UriBuilder.fromUri("http://localhost/").port(PORT).build();
+        final ResourceConfig config = new ResourceConfig(BufferingResource.class)
+                .property(ServerProperties.INBOUND_ASYNC_BUFFERING, true)
+                .property(ServerProperties.INBOUND_BUFFER_THRESHOLD, 16)
+                .property(ServerProperties.INBOUND_BUFFER_MAX_SIZE, 1000L)
+                .property(ServerProperties.INBOUND_BUFFER_READ_TIMEOUT, 2000L);
+        server = GrizzlyHttpServerFactory.createHttpServer(baseUri, config, false);
+        // single worker thread - a request blocked on reading the entity would block all the other requests
+        server.getListener("grizzly").getTransport().setWorkerThreadPoolConfig(
+                ThreadPoolConfig.defaultConfig().setCorePoolSize(1).setMaxPoolSize(1));
+        server.start();
+
+        client = ClientBuilder.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    private WebTarget target() {
+        return client.target("http://localhost:" + PORT).path("buffering");
+    }
+
+    private static String entity(final int size) {
+        final char[] data = new char[size];
+        Arrays.fill(data, 'x');
+        return new String(data);
+    }
+
+    @Test
+    public void testBufferedEntity() {
+        assertEquals("small", target().request().post(Entity.text("small"), String.class));
+
+        final String spilled = entity(900);
+        assertEquals(spilled, target().request().post(Entity.text(spilled), String.class));
+    }
+
+    @Test
+    public void testEntityTooLarge() {
+        final Response response = target().request().post(Entity.text(entity(2000)));
+        assertEquals(413, response.getStatus());
+    }
+
+    @Test
+    public void testChunkedEntityTooLarge() throws Exception {
+        final String[] files = bufferFiles();
+
+        final Socket socket = new Socket("localhost", PORT);
+        try {
+            final OutputStream out = socket.getOutputStream();
+            out.write(("POST /buffering HTTP/1.1\r\nHost: localhost\r\nContent-Type: text/plain\r\n"
+                    + "Transfer-Encoding: chunked\r\nConnection: close\r\n\r\n").getBytes("US-ASCII"));
+            // the entity is spilled into a temporary file before it exceeds the maximum size
+            for (int i = 0; i < 4; i++) {
+                out.write(("1f4\r\n" + entity(500) + "\r\n").getBytes("US-ASCII"));
+            }
+            out.write("0\r\n\r\n".getBytes("US-ASCII"));
+            out.flush();
+
+            assertTrue(statusLine(socket).startsWith("HTTP/1.1 413"));
+        } finally {
+            socket.close();
+        }
+        // the temporary file has to be deleted
+        assertArrayEquals(files, bufferFiles());
+    }
+
+    @Test
+    public void testEntityReadTimeout() throws Exception {
+        final Socket socket = new Socket("localhost", PORT);
+        try {
+            final OutputStream out = socket.getOutputStream();
+            out.write(("POST /buffering HTTP/1.1\r\nHost: localhost\r\nContent-Type: text/plain\r\n"
+                    + "Content-Length: 10\r\nConnection: close\r\n\r\nstall").getBytes("US-ASCII"));
+            out.flush();
+
+            assertTrue(statusLine(socket).startsWith("HTTP/1.1 408"));
+        } finally {
+            socket.close();
+        }
+        assertEquals("get", target().request().get(String.class));
+    }
+
+    private static String statusLine(final Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII")).readLine();
+    }
+
+    private static String[] bufferFiles() {
+        final List<String> names = new ArrayList<String>();
+        final String[] files = new File(System.getProperty("java.io.tmpdir")).list();
+        if (files != null) {
+            for (final String name : files) {
+                if (name.startsWith("jersey-request") && name.endsWith(".entity")) {
+                    names.add(name);
+                }
+            }
+        }
+        Collections.sort(names);
+        return names.toArray(new String[names.size()]);
+    }
+
+    @Test
+    public void testSuspendedRequest() {
+        assertEquals("async:data", target().path("async").request().post(Entity.text("data"), String.class));
+        assertEquals(503, target().path("timeout").request().post(Entity.text("data")).getStatus());
+    }
+
+    @Test
+    public void testSlowUpload() throws Exception {
+        final Socket socket = new Socket("localhost", PORT);
+        try {
+            final OutputStream out = socket.getOutputStream();
+            out.write(("POST /buffering HTTP/1.1\r\nHost: localhost\r\nContent-Type: text/plain\r\n"
+                    + "Content-Length: 10\r\nConnection: close\r\n\r\nslow").getBytes("US-ASCII"));
+            out.flush();
+
+            // the slow upload must not block the only worker thread
+            assertEquals("get", target().request().get(String.class));
+            assertEquals("fast", target().request().post(Entity.text("fast"), String.class));
+
+            out.write("upload".getBytes("US-ASCII"));
+            out.flush();
+
+            final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            assertTrue(in.readLine().startsWith("HTTP/1.1 200"));
+            String line;
+            String last = null;
+            while ((line = in.readLine()) != null) {
+                last = line;
+            }
+            assertEquals("slowupload", last);
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Non-blocking chunked response writing tests.
+ *
+ * @author agent (agent at local)
+ */
+public class NonBlockingChunkedOutputTest {
+
+    private static final int PORT = 9998;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNK_COUNT = 1000;
+
+    @Path("chunks")
+    public static class ChunkedResource {
+
+        static volatile CountDownLatch written;
+
+        @GET
+        public ChunkedOutput<byte[]> get() {
+            final ChunkedOutput<byte[]> output = new ChunkedOutput<byte[]>(byte[].class);
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        final byte[] chunk = new byte[CHUNK_SIZE];
+                        Arrays.fill(chunk, (byte) 'x');
+                        for (int i = 0; i < CHUNK_COUNT; i++) {
+                            output.write(chunk);
+                        }
+                        output.close();
+                        written.countDown();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }.start();
+            return output;
+        }
+    }
+
+    private HttpServer server;
+    private Client client;
+
+    @Before
+    public void setUp() throws IOException {
+        final URI baseUri = UriBuilder.fromUri("http://localhost/").port(PORT).build();
+        server = GrizzlyHttpServerFactory.createHttpServer(baseUri, new ResourceConfig(ChunkedResource.class), false);
+        // limit the connection write queue so that the container stops accepting data while the client does not read
+        server.getListener("grizzly").getTransport().getAsyncQueueIO().getWriter()
+                .setMaxPendingBytesPerConnection(4 * CHUNK_SIZE);
+        server.start();
+        client = ClientBuilder.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testSlowReader() throws Exception {
+        ChunkedResource.written = new CountDownLatch(1);
+        final InputStream in = client.target("http://localhost:" + PORT).path("chunks").request()
+                .get(InputStream.class);
+        try {
+            // the writing thread is not blocked by the client not reading the response
+            assertTrue(ChunkedResource.written.await(10, TimeUnit.SECONDS));
+
+            final byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+            assertEquals((long) CHUNK_SIZE * CHUNK_COUNT, total);
+        } finally {
+            in.close();
+        }
+    }
+}
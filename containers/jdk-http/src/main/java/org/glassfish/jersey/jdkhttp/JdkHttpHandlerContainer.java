@@ -47,6 +47,7 @@ import java.net.URISyntaxException;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -64,6 +65,8 @@ import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.internal.ConfigHelper;
+import org.glassfish.jersey.server.internal.JerseyRequestTimeoutHandler;
+import org.glassfish.jersey.server.internal.RuntimeExecutorsBinder;
 import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
@@ -84,6 +87,7 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
     private volatile ApplicationHandler appHandler;
     private volatile ContainerLifecycleListener containerListener;
+    private volatile ScheduledExecutorService backgroundScheduler;
 
     /**
      * Creates a new Container connected to given {@link ApplicationHandler Jersey application}.
@@ -94,6 +98,12 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
     JdkHttpHandlerContainer(ApplicationHandler appHandler) {
         this.appHandler = appHandler;
         this.containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
+        this.backgroundScheduler = getBackgroundScheduler(appHandler);
+    }
+
+    private static ScheduledExecutorService getBackgroundScheduler(final ApplicationHandler appHandler) {
+        return appHandler.getServiceLocator()
+                .getService(ScheduledExecutorService.class, new RuntimeExecutorsBinder.BackgroundSchedulerLiteral());
     }
 
     @Override
@@ -153,7 +163,7 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
         final URI requestUri = baseUri.resolve(exchangeUri);
 
-        final ResponseWriter responseWriter = new ResponseWriter(exchange);
+        final ResponseWriter responseWriter = new ResponseWriter(exchange, backgroundScheduler);
         ContainerRequest requestContext = new ContainerRequest(baseUri, requestUri,
                 exchange.getRequestMethod(), getSecurityContext(exchange.getPrincipal(), isSecure),
                 new MapPropertiesDelegate());
@@ -163,9 +173,12 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
         try {
             appHandler.handle(requestContext);
         } finally {
-            // if the response was not committed yet by the JerseyApplication
-            // then commit it and log warning
-            responseWriter.closeAndLogWarning();
+            // if the response was neither committed nor suspended by the JerseyApplication
+            // then commit it and log warning; suspended response is committed later
+            // and the server thread is released without closing the exchange
+            if (!responseWriter.isSuspended()) {
+                responseWriter.closeAndLogWarning();
+            }
         }
     }
 
@@ -207,6 +220,7 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
     @Override
     public void reload(ResourceConfig configuration) {
         appHandler = new ApplicationHandler(configuration);
+        backgroundScheduler = getBackgroundScheduler(appHandler);
         containerListener.onReload(this);
         containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
     }
@@ -233,15 +247,20 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
         private final HttpExchange exchange;
         private final AtomicBoolean closed;
+        private final JerseyRequestTimeoutHandler requestTimeoutHandler;
+        private volatile boolean suspended;
 
         /**
          * Creates a new ResponseWriter for given {@link HttpExchange HTTP Exchange}.
          *
-         * @param exchange Exchange of the {@link HttpServer JDK Http Server}
+         * @param exchange            Exchange of the {@link HttpServer JDK Http Server}
+         * @param timeoutTaskExecutor Jersey runtime executor used for background execution of timeout
+         *                            handling tasks.
          */
-        ResponseWriter(HttpExchange exchange) {
+        ResponseWriter(HttpExchange exchange, ScheduledExecutorService timeoutTaskExecutor) {
             this.exchange = exchange;
             this.closed = new AtomicBoolean(false);
+            this.requestTimeoutHandler = new JerseyRequestTimeoutHandler(this, timeoutTaskExecutor);
         }
 
         @Override
@@ -283,12 +302,25 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
         @Override
         public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
-            throw new UnsupportedOperationException("Method suspend is not support by the container.");
+            if (requestTimeoutHandler.suspend(timeOut, timeUnit, timeoutHandler)) {
+                suspended = true;
+                return true;
+            }
+            return false;
         }
 
         @Override
         public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
-            throw new UnsupportedOperationException("Method suspend is not support by the container.");
+            requestTimeoutHandler.setSuspendTimeout(timeOut, timeUnit);
+        }
+
+        /**
+         * Check if the response writer has been suspended.
+         *
+         * @return {@code true} if the response writer has been suspended, {@code false} otherwise.
+         */
+        private boolean isSuspended() {
+            return suspended;
         }
 
         @Override
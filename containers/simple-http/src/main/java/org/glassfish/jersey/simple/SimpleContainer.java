@@ -47,6 +47,7 @@ import java.security.Principal;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -67,6 +68,8 @@ import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.internal.ConfigHelper;
+import org.glassfish.jersey.server.internal.JerseyRequestTimeoutHandler;
+import org.glassfish.jersey.server.internal.RuntimeExecutorsBinder;
 import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
@@ -132,12 +135,16 @@ public final class SimpleContainer implements org.simpleframework.http.core.Cont
 
     private volatile ApplicationHandler appHandler;
     private volatile ContainerLifecycleListener containerListener;
+    private volatile ScheduledExecutorService backgroundScheduler;
 
     private final static class Writer implements ContainerResponseWriter {
         private final Response response;
+        private final JerseyRequestTimeoutHandler requestTimeoutHandler;
+        private volatile boolean suspended;
 
-        Writer(final Response response) {
+        Writer(final Response response, final ScheduledExecutorService timeoutTaskExecutor) {
             this.response = response;
+            this.requestTimeoutHandler = new JerseyRequestTimeoutHandler(this, timeoutTaskExecutor);
         }
 
         @Override
@@ -165,12 +172,26 @@ public final class SimpleContainer implements org.simpleframework.http.core.Cont
 
         @Override
         public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
-            throw new UnsupportedOperationException("Method suspend is not supported by the container.");
+            if (requestTimeoutHandler.suspend(timeOut, timeUnit, timeoutHandler)) {
+                suspended = true;
+                logger.debugLog("suspend(...) called");
+                return true;
+            }
+            return false;
         }
 
         @Override
         public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
-            throw new UnsupportedOperationException("Method suspend is not supported by the container.");
+            requestTimeoutHandler.setSuspendTimeout(timeOut, timeUnit);
+        }
+
+        /**
+         * Check if the response writer has been suspended.
+         *
+         * @return {@code true} if the response writer has been suspended, {@code false} otherwise.
+         */
+        private boolean isSuspended() {
+            return suspended;
         }
 
         @Override
@@ -221,7 +242,7 @@ public final class SimpleContainer implements org.simpleframework.http.core.Cont
 
     @Override
     public void handle(final Request request, final Response response) {
-        final Writer responseWriter = new Writer(response);
+        final Writer responseWriter = new Writer(response, backgroundScheduler);
         final URI baseUri = getBaseUri(request);
         final URI requestUri = baseUri.resolve(request.getTarget());
 
@@ -251,7 +272,10 @@ public final class SimpleContainer implements org.simpleframework.http.core.Cont
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         } finally {
-            close(response);
+            // suspended response is closed later, once the response writer is committed
+            if (!responseWriter.isSuspended()) {
+                close(response);
+            }
         }
     }
 
@@ -318,6 +342,7 @@ public final class SimpleContainer implements org.simpleframework.http.core.Cont
     @Override
     public void reload(ResourceConfig configuration) {
         appHandler = new ApplicationHandler(configuration.register(new SimpleBinder()));
+        backgroundScheduler = getBackgroundScheduler(appHandler);
         containerListener.onReload(this);
         containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
     }
@@ -352,5 +377,11 @@ public final class SimpleContainer implements org.simpleframework.http.core.Cont
         this.appHandler.registerAdditionalBinders(new HashSet<Binder>() {{
             add(new SimpleBinder());
         }});
+        this.backgroundScheduler = getBackgroundScheduler(appHandler);
+    }
+
+    private static ScheduledExecutorService getBackgroundScheduler(final ApplicationHandler appHandler) {
+        return appHandler.getServiceLocator()
+                .getService(ScheduledExecutorService.class, new RuntimeExecutorsBinder.BackgroundSchedulerLiteral());
     }
 }
@@ -0,0 +1,367 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Buffered scanner splitting an input stream into chunks delimited by a fixed boundary.
+ * <p>
+ * The scanner reads the input stream in large blocks into an internal buffer and searches the buffered data for
+ * the boundary using the Boyer-Moore-Horspool algorithm. Chunks are exposed as views over the internal buffer,
+ * which is reused (and grown when a chunk does not fit in it) across the chunks. Alternatively, a chunk can be
+ * {@link #streamChunk(byte[], int[]) streamed} without being fully buffered.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class ChunkScanner {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int start;
+    private int limit;
+    private boolean eof;
+
+    private final ChunkView view = new ChunkView();
+    private final ChunkStream stream = new ChunkStream();
+
+    /**
+     * Create new chunk scanner.
+     *
+     * @param in scanned input stream.
+     */
+    ChunkScanner(final InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Create the Boyer-Moore-Horspool bad character shift table of a boundary.
+     *
+     * @param boundary chunk boundary.
+     * @return boundary shift table.
+     */
+    static int[] createShiftTable(final byte[] boundary) {
+        final int[] shift = new int[256];
+        Arrays.fill(shift, boundary.length);
+        for (int i = 0; i < boundary.length - 1; i++) {
+            shift[boundary[i] & 0xFF] = boundary.length - 1 - i;
+        }
+        return shift;
+    }
+
+    /**
+     * Read the next non-empty chunk into the internal buffer.
+     * <p>
+     * The returned view is valid only until the next invocation of any of the scanner methods.
+     * </p>
+     *
+     * @param boundary chunk boundary.
+     * @param shift    boundary {@link #createShiftTable(byte[]) shift table}.
+     * @return view of the chunk data, or {@code null} if the end of the stream has been reached.
+     * @throws IOException in case reading the input stream fails.
+     */
+    ByteArrayInputStream readChunk(final byte[] boundary, final int[] shift) throws IOException {
+        if (!skipEmptyChunks(boundary)) {
+            return null;
+        }
+
+        int from = start;
+        while (true) {
+            final int found = indexOf(boundary, shift, from);
+            if (found >= 0) {
+                view.set(buffer, start, found - start);
+                start = found + boundary.length;
+                return view;
+            }
+            from = Math.max(start, limit - boundary.length + 1);
+            final int offset = start;
+            if (!fill()) {
+                view.set(buffer, start, limit - start);
+                start = limit;
+                return view;
+            }
+            // the buffered data may have been moved
+            from -= offset - start;
+        }
+    }
+
+    /**
+     * Start streaming the next non-empty chunk.
+     * <p>
+     * The returned stream reads the chunk data up to the boundary. The boundary is consumed once the stream reaches
+     * the end of the chunk, or when the stream is {@link ChunkStream#skipRemaining() skipped} to the end of the chunk.
+     * The stream is valid only until the next invocation of any of the scanner methods.
+     * </p>
+     *
+     * @param boundary chunk boundary.
+     * @param shift    boundary {@link #createShiftTable(byte[]) shift table}.
+     * @return chunk data stream, or {@code null} if the end of the stream has been reached.
+     * @throws IOException in case reading the input stream fails.
+     */
+    ChunkStream streamChunk(final byte[] boundary, final int[] shift) throws IOException {
+        if (!skipEmptyChunks(boundary)) {
+            return null;
+        }
+        stream.start(boundary, shift);
+        return stream;
+    }
+
+    /**
+     * Get the stream of the data not consumed by the scanner yet, i.e. the buffered data followed by the rest
+     * of the scanned input stream.
+     *
+     * @return stream of the remaining data.
+     */
+    InputStream remaining() {
+        if (start == limit) {
+            return in;
+        }
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                return start < limit ? buffer[start++] & 0xFF : in.read();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                if (start < limit) {
+                    final int n = Math.min(len, limit - start);
+                    System.arraycopy(buffer, start, b, off, n);
+                    start += n;
+                    return n;
+                }
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public int available() throws IOException {
+                return start < limit ? limit - start : in.available();
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    /**
+     * Skip any empty chunks, i.e. boundaries at the current position.
+     *
+     * @return {@code true} if there are more data available, {@code false} if the end of the stream has been reached.
+     */
+    private boolean skipEmptyChunks(final byte[] boundary) throws IOException {
+        while (true) {
+            if (limit - start < boundary.length && !eof) {
+                fill();
+                continue;
+            }
+            if (start == limit) {
+                return false;
+            }
+            if (!startsWith(boundary, start)) {
+                return true;
+            }
+            start += boundary.length;
+        }
+    }
+
+    private boolean startsWith(final byte[] boundary, final int offset) {
+        if (limit - offset < boundary.length) {
+            return false;
+        }
+        for (int i = 0; i < boundary.length; i++) {
+            if (buffer[offset + i] != boundary[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(final byte[] boundary, final int[] shift, final int from) {
+        final int last = boundary.length - 1;
+        int i = from;
+        while (i + last < limit) {
+            int j = last;
+            while (j >= 0 && buffer[i + j] == boundary[j]) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            i += shift[buffer[i + last] & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * Read more data into the buffer, compacting or growing the buffer as needed.
+     *
+     * @return {@code false} if the end of the stream has been reached, {@code true} otherwise.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            limit -= start;
+            start = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int read;
+        do {
+            read = in.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    /**
+     * Reusable view of a chunk in the scanner buffer.
+     */
+    private static final class ChunkView extends ByteArrayInputStream {
+
+        private ChunkView() {
+            super(new byte[0]);
+        }
+
+        private void set(final byte[] data, final int offset, final int length) {
+            this.buf = data;
+            this.pos = offset;
+            this.mark = offset;
+            this.count = offset + length;
+        }
+    }
+
+    /**
+     * Stream of a single chunk read directly from the scanner buffer.
+     */
+    final class ChunkStream extends InputStream {
+
+        private byte[] boundary;
+        private int[] shift;
+        private boolean ended;
+
+        private void start(final byte[] boundary, final int[] shift) {
+            this.boundary = boundary;
+            this.shift = shift;
+            this.ended = false;
+        }
+
+        /**
+         * Get the number of the chunk bytes that can be read without blocking, filling the buffer if necessary.
+         *
+         * @return number of the readable chunk bytes, or {@code -1} if the end of the chunk has been reached.
+         */
+        private int readable() throws IOException {
+            while (!ended) {
+                final int found = indexOf(boundary, shift, start);
+                if (found == start) {
+                    start += boundary.length;
+                    ended = true;
+                } else if (found > start) {
+                    return found - start;
+                } else {
+                    // bytes that cannot be a part of a boundary
+                    final int safe = limit - start - boundary.length + 1;
+                    if (safe > 0) {
+                        return safe;
+                    }
+                    if (!fill()) {
+                        if (start < limit) {
+                            return limit - start;
+                        }
+                        ended = true;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return readable() < 0 ? -1 : buffer[start++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final int readable = readable();
+            if (readable < 0) {
+                return -1;
+            }
+            final int n = Math.min(len, readable);
+            System.arraycopy(buffer, start, b, off, n);
+            start += n;
+            return n;
+        }
+
+        /**
+         * Skip the rest of the chunk including the boundary.
+         *
+         * @throws IOException in case reading the input stream fails.
+         */
+        void skipRemaining() throws IOException {
+            int readable;
+            while ((readable = readable()) > 0) {
+                start += readable;
+            }
+        }
+    }
+}
@@ -46,8 +46,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -61,6 +64,8 @@ import org.glassfish.jersey.client.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Response entity type used for receiving messages in "typed" chunks.
  *
@@ -73,15 +78,31 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 public class ChunkedInput<T> extends GenericType<T> implements Closeable {
     private static final Logger LOGGER = Logger.getLogger(ChunkedInput.class.getName());
 
+    /**
+     * Chunk types whose message body readers are known to read the whole chunk stream before they return.
+     */
+    private static final Set<Class<?>> CONSUMED_CHUNK_TYPES = ImmutableSet.<Class<?>>of(
+            String.class, byte[].class, char[].class, Boolean.class, Character.class, Byte.class, Short.class,
+            Integer.class, Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class);
+
+    /**
+     * Names of the JAXB annotations of the bean types un-marshalled by the JAXB message body readers.
+     */
+    private static final Set<String> JAXB_ANNOTATIONS = ImmutableSet.of(
+            "javax.xml.bind.annotation.XmlRootElement", "javax.xml.bind.annotation.XmlType");
+
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private ChunkParser parser = createParser("\r\n");
     private MediaType mediaType;
+    private boolean streaming;
+    private ChunkScanner scanner;
 
     private final InputStream inputStream;
     private final Annotation[] annotations;
     private final MultivaluedMap<String, String> headers;
     private final MessageBodyWorkers messageBodyWorkers;
     private final PropertiesDelegate propertiesDelegate;
+    private final boolean consumedChunkType;
 
     /**
      * Create new chunk parser that will split the response entity input stream
@@ -105,11 +126,21 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         return new FixedBoundaryParser(boundary);
     }
 
+    /**
+     * Fixed boundary chunk parser.
+     * <p>
+     * When used by a chunked input, the chunks are not read using the {@link #readChunk(java.io.InputStream)} method,
+     * but instead the input stream is scanned in large blocks for the {@link #delimiter} by the
+     * {@link ChunkScanner buffered chunk scanner} of the chunked input.
+     * </p>
+     */
     private static class FixedBoundaryParser implements ChunkParser {
         private final byte[] delimiter;
+        private final int[] shift;
 
         public FixedBoundaryParser(byte[] boundary) {
             delimiter = Arrays.copyOf(boundary, boundary.length);
+            shift = ChunkScanner.createShiftTable(delimiter);
         }
 
         @Override
@@ -170,6 +201,27 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         this.headers = headers;
         this.messageBodyWorkers = messageBodyWorkers;
         this.propertiesDelegate = propertiesDelegate;
+        this.consumedChunkType = isConsumedType(getRawType());
+    }
+
+    /**
+     * Check whether the message body readers of a chunk type are known to read the whole chunk stream
+     * before they return, i.e. that the chunk stream is not referenced by the read chunk instances.
+     *
+     * @param type chunk type.
+     * @return {@code true} if the chunk stream is fully consumed when reading chunks of the type.
+     */
+    private static boolean isConsumedType(final Class<?> type) {
+        if (CONSUMED_CHUNK_TYPES.contains(type)) {
+            return true;
+        }
+        // JAXB beans; the annotations are checked by name to not depend on the JAXB API
+        for (final Annotation annotation : type.getAnnotations()) {
+            if (JAXB_ANNOTATIONS.contains(annotation.annotationType().getName())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -198,6 +250,41 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         this.parser = parser;
     }
 
+    /**
+     * Check if the chunks are streamed to the {@link javax.ws.rs.ext.MessageBodyReader message body readers}.
+     *
+     * @return {@code true} if the chunks are streamed, {@code false} otherwise.
+     * @see #setStreaming(boolean)
+     * @since 2.4
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Set the chunk streaming mode.
+     * <p>
+     * By default, each chunk is fully read before it is passed to the {@link javax.ws.rs.ext.MessageBodyReader
+     * message body reader}. In the streaming mode, the message body reader reads the chunk data directly from
+     * the response entity stream as the data arrive, which avoids buffering of large chunks. Any chunk data not
+     * consumed by the message body reader are skipped. The streaming mode is supported only by the
+     * {@link #createParser(byte[]) fixed boundary parsers}, custom chunk parsers always read the whole chunk.
+     * Only chunks of types whose message body readers are known to read the whole chunk before they return (such
+     * as {@link String}, {@code byte[]} or JAXB beans) are streamed, chunks of other types (for example
+     * {@link InputStream} or {@link javax.xml.transform.Source}) are always read fully.
+     * </p>
+     * <p>
+     * Note: Access to internal chunk streaming mode is not a thread-safe operation and has to be explicitly
+     * synchronized in case the chunked input is used from multiple threads.
+     * </p>
+     *
+     * @param streaming if {@code true}, the chunks will be streamed to the message body readers.
+     * @since 2.4
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     /**
      * Get chunk data media type.
      *
@@ -300,17 +387,32 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         }
 
         try {
-            final byte[] chunk = parser.readChunk(inputStream);
-            if (chunk == null) {
+            final InputStream chunkStream;
+            ChunkScanner.ChunkStream streamedChunk = null;
+            if (parser instanceof FixedBoundaryParser) {
+                final FixedBoundaryParser boundaryParser = (FixedBoundaryParser) parser;
+                if (scanner == null) {
+                    scanner = new ChunkScanner(inputStream);
+                }
+                if (streaming && consumedChunkType) {
+                    chunkStream = streamedChunk = scanner.streamChunk(boundaryParser.delimiter, boundaryParser.shift);
+                } else {
+                    chunkStream = viewChunk(scanner.readChunk(boundaryParser.delimiter, boundaryParser.shift));
+                }
+            } else {
+                final byte[] chunk = parser.readChunk(scanner == null ? inputStream : scanner.remaining());
+                chunkStream = (chunk == null) ? null : new ByteArrayInputStream(chunk);
+            }
+
+            if (chunkStream == null) {
                 close();
             } else {
-                ByteArrayInputStream chunkStream = new ByteArrayInputStream(chunk);
                 // TODO: add interceptors: interceptors are used in ChunkedOutput, so the stream should
                 // be intercepted in the ChunkedInput too. Interceptors cannot be easily added to the readFrom
                 // method as they should wrap the stream before it is processed by ChunkParser. Also please check todo
                 // in ChunkedInput (this should be fixed together with this todo)
                 // issue: JERSEY-1809
-                return (T) messageBodyWorkers.readFrom(
+                final T chunk = (T) messageBodyWorkers.readFrom(
                         getRawType(),
                         getType(),
                         annotations,
@@ -320,6 +422,10 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
                         chunkStream,
                         Collections.<ReaderInterceptor>emptyList(),
                         false);
+                if (streamedChunk != null) {
+                    streamedChunk.skipRemaining();
+                }
+                return chunk;
             }
         } catch (IOException e) {
             Logger.getLogger(this.getClass().getName()).log(Level.FINE, e.getMessage(), e);
@@ -327,4 +433,25 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
         }
         return null;
     }
+
+    /**
+     * Get the stream passed to the message body reader for a chunk read into the scanner buffer.
+     * <p>
+     * The chunk view is backed by the reused scanner buffer and is reset when the next chunk is read. Unless
+     * the message body readers of the chunk type are known to fully read the chunk, the read chunk instances
+     * (such as {@link InputStream} or {@link javax.xml.transform.stream.StreamSource}) may keep reading
+     * the chunk stream later on, hence a copy of the chunk is passed to the message body readers of such types.
+     * </p>
+     *
+     * @param view chunk view, may be {@code null}.
+     * @return chunk stream or {@code null} if the view is {@code null}.
+     */
+    private InputStream viewChunk(final ByteArrayInputStream view) {
+        if (view == null || consumedChunkType) {
+            return view;
+        }
+        final byte[] chunk = new byte[view.available()];
+        view.read(chunk, 0, chunk.length);
+        return new ByteArrayInputStream(chunk);
+    }
 }
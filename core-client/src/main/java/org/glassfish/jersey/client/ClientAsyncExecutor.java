@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Metered thread pool executor used to run the asynchronous client requests.
+ * <p>
+ * Unless the {@link ClientProperties#ASYNC_THREADPOOL_SIZE maximum pool size} is configured, the executor behaves
+ * as a {@link java.util.concurrent.Executors#newCachedThreadPool() cached thread pool}. Otherwise the number of threads
+ * as well as the number of queued requests is bounded and a request that cannot be accepted is rejected immediately.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+class ClientAsyncExecutor extends ThreadPoolExecutor implements ClientAsyncExecutorStatistics {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong waitedCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    private ClientAsyncExecutor(final int coreSize, final int maxSize, final BlockingQueue<Runnable> queue) {
+        super(coreSize, maxSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue,
+                new ThreadFactoryBuilder().setNameFormat("jersey-client-async-executor-%d").build());
+        setRejectedExecutionHandler(new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException(LocalizationMessages.CLIENT_ASYNC_EXECUTOR_SATURATED(
+                        executor.getMaximumPoolSize(), executor.getQueue().size()));
+            }
+        });
+    }
+
+    /**
+     * Create new asynchronous request executor configured using the client configuration properties.
+     *
+     * @param properties client configuration properties.
+     * @return new asynchronous request executor.
+     */
+    static ClientAsyncExecutor create(final Map<String, Object> properties) {
+        final int maxSize = PropertiesHelper.getValue(properties, ClientProperties.ASYNC_THREADPOOL_SIZE, 0);
+        if (maxSize <= 0) {
+            return new ClientAsyncExecutor(0, Integer.MAX_VALUE, new SynchronousQueue<Runnable>());
+        }
+
+        final int coreSize = Math.min(maxSize,
+                PropertiesHelper.getValue(properties, ClientProperties.ASYNC_THREADPOOL_CORE_SIZE, maxSize));
+        final int queueCapacity = PropertiesHelper.getValue(properties, ClientProperties.ASYNC_QUEUE_CAPACITY,
+                Integer.MAX_VALUE);
+
+        final ClientAsyncExecutor executor = new ClientAsyncExecutor(Math.max(coreSize, 0), maxSize, queueCapacity > 0
+                ? new LinkedBlockingQueue<Runnable>(queueCapacity) : new SynchronousQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return getCompletedTaskCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getAverageWaitTime(final TimeUnit unit) {
+        final long count = waitedCount.get();
+        return count == 0 ? 0 : unit.convert(totalWaitTime.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long getMaxWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private void waited(final long waitTime) {
+        waitedCount.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+
+        long max;
+        while ((max = maxWaitTime.get()) < waitTime) {
+            if (maxWaitTime.compareAndSet(max, waitTime)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Task wrapper measuring the time the task waited for an executor thread.
+     */
+    private class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submitted = System.nanoTime();
+
+        private TimedTask(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            waited(System.nanoTime() - submitted);
+            task.run();
+        }
+    }
+}
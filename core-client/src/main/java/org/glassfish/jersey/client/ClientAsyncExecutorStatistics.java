@@ -0,0 +1,103 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of the executor used to run the asynchronous requests of a {@link JerseyClient client}.
+ *
+ * @author agent (agent at local)
+ * @see JerseyClient#getAsyncExecutorStatistics()
+ * @since 2.4
+ */
+public interface ClientAsyncExecutorStatistics {
+
+    /**
+     * Get the number of the asynchronous requests waiting in the queue for an executor thread.
+     *
+     * @return current queue depth.
+     */
+    public int getQueueDepth();
+
+    /**
+     * Get the number of the executor threads that are actively processing asynchronous requests.
+     *
+     * @return current number of active threads.
+     */
+    public int getActiveCount();
+
+    /**
+     * Get the current number of the executor threads.
+     *
+     * @return current executor thread pool size.
+     */
+    public int getPoolSize();
+
+    /**
+     * Get the number of the asynchronous requests whose processing has been completed.
+     *
+     * @return number of completed requests.
+     */
+    public long getCompletedCount();
+
+    /**
+     * Get the number of the asynchronous requests rejected because the executor was saturated.
+     *
+     * @return number of rejected requests.
+     */
+    public long getRejectedCount();
+
+    /**
+     * Get the average time the asynchronous requests waited for an executor thread.
+     *
+     * @param unit time unit of the returned value.
+     * @return average wait time.
+     */
+    public long getAverageWaitTime(TimeUnit unit);
+
+    /**
+     * Get the maximum time an asynchronous request waited for an executor thread.
+     *
+     * @param unit time unit of the returned value.
+     * @return maximum wait time.
+     */
+    public long getMaxWaitTime(TimeUnit unit);
+}
@@ -41,7 +41,6 @@
 package org.glassfish.jersey.client;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.glassfish.jersey.process.internal.ExecutorsFactory;
 import org.glassfish.jersey.spi.RequestExecutorsProvider;
@@ -50,7 +49,6 @@ import org.glassfish.jersey.spi.ResponseExecutorsProvider;
 import org.glassfish.hk2.api.ServiceLocator;
 
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * {@link ExecutorsFactory Executors factory} used on the client side for asynchronous request
@@ -67,15 +65,15 @@ class ClientAsyncExecutorsFactory extends ExecutorsFactory<ClientRequest> {
      * Creates a new instance.
      *
      * @param locator Injected HK2 service locator.
+     * @param client  client instance providing the default requesting executor.
      */
-    public ClientAsyncExecutorsFactory(ServiceLocator locator) {
+    public ClientAsyncExecutorsFactory(ServiceLocator locator, final JerseyClient client) {
         super(locator);
         this.requestingExecutor = getInitialRequestingExecutor(new RequestExecutorsProvider() {
 
             @Override
             public ExecutorService getRequestingExecutor() {
-                return Executors.newCachedThreadPool(
-                        new ThreadFactoryBuilder().setNameFormat("jersey-client-async-executor-%d").build());
+                return client.getAsyncExecutor();
             }
         });
         this.respondingExecutor = getInitialRespondingExecutor(new ResponseExecutorsProvider() {
@@ -377,7 +377,7 @@ public class ClientConfig implements Configurable<ClientConfig>, Configuration {
             // Bind providers.
             ProviderBinder.bindProviders(runtimeConfig.getComponentBag(), RuntimeType.CLIENT, null, locator);
 
-            final ClientRuntime crt = new ClientRuntime(configuration, connector, locator);
+            final ClientRuntime crt = new ClientRuntime(configuration, connector, locator, client);
             client.addListener(new JerseyClient.LifecycleListener() {
                 @Override
                 public void onClose() {
@@ -0,0 +1,341 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Client monitor collecting the {@link ClientMonitoringStatistics client request processing statistics}.
+ * <p>
+ * The monitor is shared by all the run-times of a single client. The statistics are updated using atomic counters
+ * only, the only object allocated per monitored request is the {@link InvocationTimer invocation timer} (and the
+ * response entity stream wrapper).
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class ClientMonitor implements ClientMonitoringStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger(ClientMonitor.class.getName());
+    private static final AtomicInteger CLIENT_COUNTER = new AtomicInteger();
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * Maximum number of the collected web targets.
+     */
+    static final int MAX_TARGETS = 1000;
+    /**
+     * Key of the statistics collecting the requests to the web targets over the {@link #MAX_TARGETS limit}.
+     */
+    static final String OVERFLOW_TARGET = "*";
+
+    private final ConcurrentMap<String, TargetStatistics> targets = new ConcurrentHashMap<String, TargetStatistics>();
+    private final String domain = "org.glassfish.jersey:type=Client,client=" + CLIENT_COUNTER.incrementAndGet();
+    private final AtomicBoolean exposed = new AtomicBoolean(false);
+
+    @Override
+    public Map<String, Target> getTargets() {
+        return Collections.<String, Target>unmodifiableMap(targets);
+    }
+
+    /**
+     * Start monitoring of the client request invocation.
+     *
+     * @param request invoked client request.
+     * @return invocation timer of the request.
+     */
+    InvocationTimer start(final ClientRequest request) {
+        final JerseyWebTarget target = request.getTarget();
+        return new InvocationTimer(getTarget(target != null ? target.getUriTemplate() : stripQuery(request.getUri())));
+    }
+
+    private static String stripQuery(final URI uri) {
+        final String uriString = uri.toString();
+        final int query = uriString.indexOf('?');
+        return query < 0 ? uriString : uriString.substring(0, query);
+    }
+
+    private TargetStatistics getTarget(final String uriTemplate) {
+        TargetStatistics target = targets.get(uriTemplate);
+        if (target != null) {
+            return target;
+        }
+
+        final String key = targets.size() < MAX_TARGETS ? uriTemplate : OVERFLOW_TARGET;
+        target = new TargetStatistics(key);
+        final TargetStatistics existing = targets.putIfAbsent(key, target);
+        if (existing != null) {
+            return existing;
+        }
+        if (exposed.get()) {
+            registerMBean(target);
+        }
+        return target;
+    }
+
+    /**
+     * Expose the collected statistics as JMX MXBeans. The method has no effect if the MXBeans have already been
+     * exposed.
+     */
+    void exposeMBeans() {
+        if (exposed.compareAndSet(false, true)) {
+            for (TargetStatistics target : targets.values()) {
+                registerMBean(target);
+            }
+        }
+    }
+
+    private void registerMBean(final TargetStatistics target) {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mBeanServer.registerMBean(target, getObjectName(target));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // registered concurrently by the exposeMBeans() call
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING,
+                    LocalizationMessages.CLIENT_MONITORING_MBEAN_REGISTRATION_FAILED(target.getUriTemplate()), e);
+        }
+    }
+
+    private ObjectName getObjectName(final TargetStatistics target) throws JMException {
+        return new ObjectName(domain + ",subType=Targets,target=" + ObjectName.quote(target.getUriTemplate()));
+    }
+
+    /**
+     * Close the monitor and unregister the exposed JMX MXBeans.
+     */
+    void close() {
+        if (exposed.compareAndSet(true, false)) {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            for (TargetStatistics target : targets.values()) {
+                try {
+                    final ObjectName name = getObjectName(target);
+                    if (mBeanServer.isRegistered(name)) {
+                        mBeanServer.unregisterMBean(name);
+                    }
+                } catch (JMException e) {
+                    LOGGER.log(Level.FINE,
+                            LocalizationMessages.CLIENT_MONITORING_MBEAN_UNREGISTRATION_FAILED(target.getUriTemplate()), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Statistics of a single web target.
+     */
+    static final class TargetStatistics implements Target, ClientTargetMXBean {
+
+        private final String uriTemplate;
+        private final AtomicLong requestCount = new AtomicLong();
+        private final AtomicLong failureCount = new AtomicLong();
+        private final AtomicLong clientErrorCount = new AtomicLong();
+        private final AtomicLong serverErrorCount = new AtomicLong();
+        private final TimingStatistics[] timings = new TimingStatistics[PHASES.length];
+
+        private TargetStatistics(final String uriTemplate) {
+            this.uriTemplate = uriTemplate;
+            for (int i = 0; i < timings.length; i++) {
+                timings[i] = new TimingStatistics();
+            }
+        }
+
+        /**
+         * Record a new request invocation.
+         */
+        void started() {
+            requestCount.incrementAndGet();
+        }
+
+        /**
+         * Record a request failure.
+         */
+        void failed() {
+            failureCount.incrementAndGet();
+        }
+
+        /**
+         * Record a received response.
+         *
+         * @param status response status code.
+         */
+        void completed(final int status) {
+            if (status >= 500) {
+                serverErrorCount.incrementAndGet();
+            } else if (status >= 400) {
+                clientErrorCount.incrementAndGet();
+            }
+        }
+
+        /**
+         * Record the execution time of a request processing phase.
+         *
+         * @param phase request processing phase.
+         * @param nanos phase execution time in nanoseconds.
+         */
+        void record(final Phase phase, final long nanos) {
+            timings[phase.ordinal()].add(nanos);
+        }
+
+        @Override
+        public String getUriTemplate() {
+            return uriTemplate;
+        }
+
+        @Override
+        public long getRequestCount() {
+            return requestCount.get();
+        }
+
+        @Override
+        public long getFailureCount() {
+            return failureCount.get();
+        }
+
+        @Override
+        public long getClientErrorCount() {
+            return clientErrorCount.get();
+        }
+
+        @Override
+        public long getServerErrorCount() {
+            return serverErrorCount.get();
+        }
+
+        @Override
+        public Timing getTiming(final Phase phase) {
+            return timings[phase.ordinal()];
+        }
+
+        @Override
+        public Map<String, Long> getAverageTimes() {
+            final Map<String, Long> times = Maps.newLinkedHashMap();
+            for (Phase phase : PHASES) {
+                times.put(phase.name(), timings[phase.ordinal()].getAverageTime(TimeUnit.MICROSECONDS));
+            }
+            return times;
+        }
+
+        @Override
+        public Map<String, Long> getMaxTimes() {
+            final Map<String, Long> times = Maps.newLinkedHashMap();
+            for (Phase phase : PHASES) {
+                times.put(phase.name(), timings[phase.ordinal()].getMaxTime(TimeUnit.MICROSECONDS));
+            }
+            return times;
+        }
+
+        @Override
+        public String toString() {
+            return uriTemplate + " [requests=" + requestCount + ", failures=" + failureCount + ']';
+        }
+    }
+
+    /**
+     * Execution time statistics of a single request processing phase.
+     */
+    private static final class TimingStatistics implements Timing {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong();
+
+        private void add(final long nanos) {
+            count.incrementAndGet();
+            total.addAndGet(nanos);
+
+            long current;
+            while (nanos < (current = min.get()) && !min.compareAndSet(current, nanos)) {
+                // retry
+            }
+            while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+                // retry
+            }
+        }
+
+        @Override
+        public long getCount() {
+            return count.get();
+        }
+
+        @Override
+        public long getMinTime(final TimeUnit unit) {
+            final long current = min.get();
+            return current == Long.MAX_VALUE ? 0 : unit.convert(current, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getMaxTime(final TimeUnit unit) {
+            return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getAverageTime(final TimeUnit unit) {
+            final long executions = count.get();
+            return executions == 0 ? 0 : unit.convert(total.get() / executions, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getTotalTime(final TimeUnit unit) {
+            return unit.convert(total.get(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
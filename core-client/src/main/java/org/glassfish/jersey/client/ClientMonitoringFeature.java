@@ -0,0 +1,96 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.Map;
+
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+/**
+ * Feature that enables collecting of the {@link ClientMonitoringStatistics client monitoring statistics} and
+ * optionally also the exposure of the {@link ClientTargetMXBean monitoring MXBeans}.
+ * <p>
+ * Registering the feature has the same effect as setting the {@link ClientProperties#MONITORING_STATISTICS_ENABLED}
+ * property (and the {@link ClientProperties#MONITORING_STATISTICS_MBEANS_ENABLED} property, if
+ * {@link #setMBeansEnabled(boolean) MXBeans are enabled}). The properties, if set explicitly, override the
+ * feature settings.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @see JerseyClient#getMonitoringStatistics()
+ * @since 2.4
+ */
+public class ClientMonitoringFeature implements Feature {
+
+    private boolean mBeansEnabled;
+
+    /**
+     * Set whether the feature should also enable exposure of the monitoring statistics MXBeans.
+     *
+     * @param mBeansEnabled {@code true} if the monitoring MXBeans should be exposed.
+     * @return updated feature instance.
+     */
+    public ClientMonitoringFeature setMBeansEnabled(boolean mBeansEnabled) {
+        this.mBeansEnabled = mBeansEnabled;
+        return this;
+    }
+
+    @Override
+    public boolean configure(FeatureContext context) {
+        final Map<String, Object> properties = context.getConfiguration().getProperties();
+
+        final Boolean enabled = PropertiesHelper.getValue(properties,
+                ClientProperties.MONITORING_STATISTICS_ENABLED, null, Boolean.class);
+        if (enabled == null) {
+            context.property(ClientProperties.MONITORING_STATISTICS_ENABLED, true);
+        } else if (!enabled) {
+            return false;
+        }
+
+        if (mBeansEnabled && PropertiesHelper.getValue(properties,
+                ClientProperties.MONITORING_STATISTICS_MBEANS_ENABLED, null, Boolean.class) == null) {
+            context.property(ClientProperties.MONITORING_STATISTICS_MBEANS_ENABLED, true);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side request processing statistics.
+ * <p>
+ * The statistics are collected per invoked {@link javax.ws.rs.client.WebTarget web target}, keyed by the target
+ * URI template (without the query part). The template is captured before any
+ * {@link javax.ws.rs.client.WebTarget#resolveTemplate(String, Object) template resolution}, so that the invocations
+ * of e.g. {@code client.target("http://example.com/users/{id}").resolveTemplate("id", id)} are all collected under
+ * the {@code http://example.com/users/{id}} key. Requests that have not been created from a web target are
+ * collected under the request URI without the query part.
+ * </p>
+ * <p>
+ * The statistics are collected only if enabled by the {@link ClientProperties#MONITORING_STATISTICS_ENABLED}
+ * property or by registering the {@link ClientMonitoringFeature}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @see JerseyClient#getMonitoringStatistics()
+ * @since 2.4
+ */
+public interface ClientMonitoringStatistics {
+
+    /**
+     * Client request processing phase.
+     */
+    public static enum Phase {
+        /**
+         * Execution of the client request filters.
+         */
+        REQUEST_FILTERING,
+        /**
+         * Opening of the connection to the target server. Reported only by connectors that support it,
+         * such as the default {@link HttpUrlConnector}.
+         */
+        CONNECT,
+        /**
+         * Writing of the request entity. Reported only by connectors that support it, such as the default
+         * {@link HttpUrlConnector}.
+         */
+        SEND,
+        /**
+         * Waiting for the response status and headers. For connectors that do not report the individual
+         * phases, the whole time spent in the connector.
+         */
+        WAIT,
+        /**
+         * Execution of the client response filters.
+         */
+        RESPONSE_FILTERING,
+        /**
+         * Reading of the response entity, from the moment the response is returned to the application until
+         * the entity stream has been fully read or closed.
+         */
+        READ,
+        /**
+         * Overall request processing time, from the request invocation until the response is returned to
+         * the application (excluding the response entity reading).
+         */
+        TOTAL
+    }
+
+    /**
+     * Execution time statistics of a request processing phase.
+     */
+    public static interface Timing {
+
+        /**
+         * Get the number of the measured executions.
+         *
+         * @return number of the executions.
+         */
+        public long getCount();
+
+        /**
+         * Get the minimum execution time.
+         *
+         * @param unit time unit of the returned value.
+         * @return minimum execution time or {@code 0} if there was no execution.
+         */
+        public long getMinTime(TimeUnit unit);
+
+        /**
+         * Get the maximum execution time.
+         *
+         * @param unit time unit of the returned value.
+         * @return maximum execution time or {@code 0} if there was no execution.
+         */
+        public long getMaxTime(TimeUnit unit);
+
+        /**
+         * Get the average execution time.
+         *
+         * @param unit time unit of the returned value.
+         * @return average execution time or {@code 0} if there was no execution.
+         */
+        public long getAverageTime(TimeUnit unit);
+
+        /**
+         * Get the total execution time.
+         *
+         * @param unit time unit of the returned value.
+         * @return sum of the execution times.
+         */
+        public long getTotalTime(TimeUnit unit);
+    }
+
+    /**
+     * Statistics of the requests invoked on a single web target URI template.
+     */
+    public static interface Target {
+
+        /**
+         * Get the target URI template.
+         *
+         * @return target URI template.
+         */
+        public String getUriTemplate();
+
+        /**
+         * Get the number of the invoked requests.
+         *
+         * @return number of the requests.
+         */
+        public long getRequestCount();
+
+        /**
+         * Get the number of the requests that failed with an exception (e.g. connection failure, timeout or
+         * a filter failure) instead of a response.
+         *
+         * @return number of the failed requests.
+         */
+        public long getFailureCount();
+
+        /**
+         * Get the number of the responses with a client error ({@code 4xx}) status code.
+         *
+         * @return number of the client error responses.
+         */
+        public long getClientErrorCount();
+
+        /**
+         * Get the number of the responses with a server error ({@code 5xx}) status code.
+         *
+         * @return number of the server error responses.
+         */
+        public long getServerErrorCount();
+
+        /**
+         * Get the execution time statistics of the request processing phase.
+         *
+         * @param phase request processing phase.
+         * @return phase execution time statistics.
+         */
+        public Timing getTiming(Phase phase);
+    }
+
+    /**
+     * Get statistics of the invoked web targets, keyed by the target URI template.
+     * <p>
+     * The number of the collected targets is limited; requests to targets over the limit are collected under
+     * the {@code "*"} key.
+     * </p>
+     *
+     * @return web target statistics.
+     */
+    public Map<String, Target> getTargets();
+}
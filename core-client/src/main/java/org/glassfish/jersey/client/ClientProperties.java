@@ -124,14 +124,56 @@ public final class ClientProperties {
 	 * be initialized as default cached thread pool, which creates new thread
 	 * for every new request, see {@link java.util.concurrent.Executors}. When a
 	 * value &gt; 0 is provided, the created cached thread pool limited to that
-	 * number of threads will be utilized.
+	 * number of threads will be utilized. Requests that cannot be executed
+	 * immediately are queued, see {@link #ASYNC_QUEUE_CAPACITY}.
+	 * <p />
+	 * The thread pool is shared by all the asynchronous requests of a single
+	 * {@link JerseyClient} instance and is configured using the client
+	 * configuration properties. The pool statistics are available via
+	 * {@link JerseyClient#getAsyncExecutorStatistics()}.
 	 * <p />
 	 * A default value is not set.
 	 * <p />
 	 * The name of the configuration property is <tt>{@value}</tt>.
 	 */
-	// TODO add support (ported from Jersey 1.x).
 	public static final String ASYNC_THREADPOOL_SIZE = "jersey.config.client.async.threadPoolSize";
+	/**
+	 * Asynchronous thread pool core size.
+	 *
+	 * The value MUST be an instance convertible to {@link java.lang.Integer}.
+	 * <p />
+	 * The property is used only if the {@link #ASYNC_THREADPOOL_SIZE maximum thread pool size}
+	 * is set. Core threads of the pool are started before the pool starts queueing the requests.
+	 * Threads in excess of the core size are started only when the request queue is full.
+	 * All the threads are released when idle for a minute.
+	 * <p />
+	 * The default value is equal to the {@link #ASYNC_THREADPOOL_SIZE maximum thread pool size}.
+	 * <p />
+	 * The name of the configuration property is <tt>{@value}</tt>.
+	 *
+	 * @since 2.4
+	 */
+	public static final String ASYNC_THREADPOOL_CORE_SIZE = "jersey.config.client.async.threadPoolCoreSize";
+	/**
+	 * Capacity of the queue of the asynchronous requests waiting for a thread of the bounded
+	 * asynchronous thread pool.
+	 *
+	 * The value MUST be an instance convertible to {@link java.lang.Integer}.
+	 * <p />
+	 * The property is used only if the {@link #ASYNC_THREADPOOL_SIZE maximum thread pool size}
+	 * is set. Once the thread pool is fully utilized and the queue is full, any new asynchronous
+	 * request is rejected: the returned {@link java.util.concurrent.Future} fails immediately
+	 * with a {@link javax.ws.rs.ProcessingException} caused by a
+	 * {@link java.util.concurrent.RejectedExecutionException} and the invocation callback, if any,
+	 * is notified about the failure. A value of zero (0) means that the requests are never queued.
+	 * <p />
+	 * If the property is absent, the queue is not bounded.
+	 * <p />
+	 * The name of the configuration property is <tt>{@value}</tt>.
+	 *
+	 * @since 2.4
+	 */
+	public static final String ASYNC_QUEUE_CAPACITY = "jersey.config.client.async.queueCapacity";
 	/**
 	 * If {@link org.glassfish.jersey.client.filter.EncodingFilter} is
 	 * registered, this property indicates the value of Content-Encoding
@@ -296,6 +338,82 @@ public final class ClientProperties {
 			"jersey.config.client.suppressHttpComplianceValidation";
 
 
+	/**
+	 * Maximum number of the concurrently used connections per route (a scheme, host and port combination)
+	 * of the default {@link HttpUrlConnector} connector.
+	 *
+	 * The value MUST be an instance convertible to {@link java.lang.Integer}.
+	 * <p />
+	 * A request that would exceed the limit waits until a connection to the route is returned to the pool,
+	 * at most for the {@link #CONNECT_TIMEOUT connect timeout}, or for 60 seconds if no connect timeout is set.
+	 * A connection is returned to the pool once the response entity has been completely read or the response
+	 * has been closed. Applications MUST therefore close the responses whose entities they do not read,
+	 * otherwise the connection is held until the response is garbage collected. A value of zero (0) means
+	 * that the number of the connections is not limited.
+	 * <p />
+	 * The default value is {@code 0}.
+	 * <p />
+	 * The name of the configuration property is <tt>{@value}</tt>.
+	 *
+	 * @since 2.4
+	 */
+	public static final String MAX_CONNECTIONS_PER_ROUTE = "jersey.config.client.maxConnectionsPerRoute";
+
+	/**
+	 * Maximum size (in bytes) of a request entity sent by the {@link NioConnector}.
+	 *
+	 * The value MUST be an instance convertible to {@link java.lang.Integer}.
+	 * <p />
+	 * The NIO connector does not stream request entities: the whole request entity is serialized into memory
+	 * by the thread invoking the request before the request is sent. Requests with larger entities fail with
+	 * a {@link javax.ws.rs.ProcessingException} without being sent. Large request entities should be sent using
+	 * the default {@link HttpUrlConnector} connector instead. A value of zero (0) or less means that the size
+	 * of the request entities is not limited.
+	 * <p />
+	 * The default value is {@code 8388608} (8 MiB).
+	 * <p />
+	 * The name of the configuration property is <tt>{@value}</tt>.
+	 *
+	 * @since 2.4
+	 */
+	public static final String NIO_MAX_REQUEST_ENTITY_SIZE = "jersey.config.client.nio.maxRequestEntitySize";
+
+	/**
+	 * If {@code true} then the client collects the {@link ClientMonitoringStatistics request processing statistics}
+	 * available via {@link JerseyClient#getMonitoringStatistics()}.
+	 *
+	 * The value MUST be an instance of {@link java.lang.Boolean} or a {@link String} convertible to it.
+	 * <p />
+	 * The statistics can also be enabled by registering the {@link ClientMonitoringFeature}.
+	 * <p />
+	 * The default value is {@code false}.
+	 * <p />
+	 * The name of the configuration property is <tt>{@value}</tt>.
+	 *
+	 * @since 2.4
+	 */
+	public static final String MONITORING_STATISTICS_ENABLED = "jersey.config.client.monitoring.statistics.enabled";
+
+	/**
+	 * If {@code true} then the client exposes the {@link ClientMonitoringStatistics request processing statistics}
+	 * as JMX {@link ClientTargetMXBean MXBeans}. Enabling the MXBeans also enables the collection of the statistics
+	 * (see {@link #MONITORING_STATISTICS_ENABLED}).
+	 *
+	 * The value MUST be an instance of {@link java.lang.Boolean} or a {@link String} convertible to it.
+	 * <p />
+	 * The MXBeans are registered in the platform MBean server under the
+	 * {@code org.glassfish.jersey:type=Client,client=<client id>,subType=Targets,target=<URI template>} names
+	 * and unregistered when the client is closed.
+	 * <p />
+	 * The default value is {@code false}.
+	 * <p />
+	 * The name of the configuration property is <tt>{@value}</tt>.
+	 *
+	 * @since 2.4
+	 */
+	public static final String MONITORING_STATISTICS_MBEANS_ENABLED =
+			"jersey.config.client.monitoring.statistics.mbeans.enabled";
+
 	/**
 	 * The property defines the size of digest cache in the
      * {@link org.glassfish.jersey.client.filter.HttpDigestAuthFilter}. Cache contains authentication
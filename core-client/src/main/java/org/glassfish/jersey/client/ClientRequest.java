@@ -97,6 +97,10 @@ public class ClientRequest extends OutboundMessageContext implements ClientReque
     // reader interceptors used to write the request
     private Iterable<ReaderInterceptor> readerInterceptors;
 
+    private JerseyWebTarget target;
+
+    private InvocationTimer timer = InvocationTimer.DISABLED;
+
     private static final Logger LOGGER = Logger.getLogger(ClientRequest.class.getName());
 
     /**
@@ -129,6 +133,8 @@ public class ClientRequest extends OutboundMessageContext implements ClientReque
         this.asynchronous = original.isAsynchronous();
         this.readerInterceptors = original.readerInterceptors;
         this.writerInterceptors = original.writerInterceptors;
+        this.target = original.target;
+        this.timer = original.timer;
         this.propertiesDelegate = new MapPropertiesDelegate(original.propertiesDelegate);
     }
 
@@ -394,6 +400,42 @@ public class ClientRequest extends OutboundMessageContext implements ClientReque
         asynchronous = async;
     }
 
+    /**
+     * Get the web target the request has been created from.
+     *
+     * @return web target of the request or {@code null} if the request has not been created from a web target.
+     */
+    JerseyWebTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * Set the web target the request has been created from.
+     *
+     * @param target web target of the request.
+     */
+    void setTarget(JerseyWebTarget target) {
+        this.target = target;
+    }
+
+    /**
+     * Get the timer measuring the request invocation.
+     *
+     * @return request invocation timer, never {@code null}.
+     */
+    InvocationTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Set the timer measuring the request invocation.
+     *
+     * @param timer request invocation timer.
+     */
+    void setTimer(InvocationTimer timer) {
+        this.timer = timer;
+    }
+
 
     /**
      * Enable a buffering of serialized entity. The buffering will be configured from runtime configuration
@@ -43,14 +43,17 @@ package org.glassfish.jersey.client;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.HttpHeaders;
 
 import org.glassfish.jersey.ExtendedConfig;
+import org.glassfish.jersey.client.internal.LocalizationMessages;
 import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
 import org.glassfish.jersey.client.spi.Connector;
 import org.glassfish.jersey.internal.Version;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.process.internal.ChainableStage;
 import org.glassfish.jersey.process.internal.RequestScope;
@@ -73,6 +76,7 @@ class ClientRuntime {
 
     private final RequestScope requestScope;
     private final ClientAsyncExecutorsFactory asyncExecutorsFactory;
+    private final ClientMonitor monitor;
 
     private final ServiceLocator locator;
 
@@ -82,8 +86,10 @@ class ClientRuntime {
      * @param config    client runtime configuration.
      * @param connector client transport connector.
      * @param locator   HK2 service locator.
+     * @param client    client instance the runtime belongs to.
      */
-    public ClientRuntime(final ExtendedConfig config, final Connector connector, final ServiceLocator locator) {
+    public ClientRuntime(final ExtendedConfig config, final Connector connector, final ServiceLocator locator,
+                         final JerseyClient client) {
         final Stage.Builder<ClientRequest> requestingChainBuilder = Stages
                 .chain(locator.createAndInitialize(RequestProcessingInitializationStage.class));
         final ChainableStage<ClientRequest> requestFilteringStage = ClientFilteringStages.createRequestFilteringStage(locator);
@@ -98,7 +104,19 @@ class ClientRuntime {
         this.connector = connector;
 
         this.requestScope = locator.getService(RequestScope.class);
-        this.asyncExecutorsFactory = new ClientAsyncExecutorsFactory(locator);
+        this.asyncExecutorsFactory = new ClientAsyncExecutorsFactory(locator, client);
+
+        final boolean mBeansEnabled = PropertiesHelper.isProperty(
+                config.getProperties(), ClientProperties.MONITORING_STATISTICS_MBEANS_ENABLED);
+        if (mBeansEnabled || PropertiesHelper.isProperty(
+                config.getProperties(), ClientProperties.MONITORING_STATISTICS_ENABLED)) {
+            this.monitor = client.getMonitor();
+            if (mBeansEnabled) {
+                monitor.exposeMBeans();
+            }
+        } else {
+            this.monitor = null;
+        }
 
         this.locator = locator;
     }
@@ -109,20 +127,36 @@ class ClientRuntime {
      * Both, the request processing as well as response callback invocation will be executed
      * in a context of an active {@link RequestScope.Instance request scope instance}.
      * </p>
+     * <p>
+     * In case the request is rejected by the requesting executor, the response callback is
+     * {@link ResponseCallback#failed(javax.ws.rs.ProcessingException) notified} immediately.
+     * </p>
      *
      * @param request  client request to be sent.
      * @param callback asynchronous response callback.
      */
     public void submit(final ClientRequest request, final ResponseCallback callback) {
+        final InvocationTimer timer = startTimer(request);
+        try {
+            submitRequest(request, callback);
+        } catch (RejectedExecutionException rejected) {
+            timer.failed();
+            callback.failed(new ProcessingException(LocalizationMessages.CLIENT_ASYNC_REQUEST_REJECTED(), rejected));
+        }
+    }
+
+    private void submitRequest(final ClientRequest request, final ResponseCallback callback) {
         submit(asyncExecutorsFactory.getRequestingExecutor(request), new Runnable() {
 
             @Override
             public void run() {
                 final RequestScope.Instance currentScopeInstance = requestScope.referenceCurrent();
+                final InvocationTimer timer = request.getTimer();
                 final AsyncConnectorCallback connectorCallback = new AsyncConnectorCallback() {
 
                     @Override
                     public void response(final ClientResponse response) {
+                        timer.connectorCompleted();
                         submit(asyncExecutorsFactory.getRespondingExecutor(request), currentScopeInstance, new Runnable() {
                             @Override
                             public void run() {
@@ -133,6 +167,7 @@ class ClientRuntime {
                                     failure(throwable);
                                     return;
                                 }
+                                timer.responseProcessed(processedResponse);
                                 try {
                                     callback.completed(processedResponse, requestScope);
                                 } finally {
@@ -144,6 +179,7 @@ class ClientRuntime {
 
                     @Override
                     public void failure(Throwable failure) {
+                        timer.failed();
                         try {
                             callback.failed(failure instanceof ProcessingException ?
                                     (ProcessingException) failure : new ProcessingException(failure));
@@ -153,10 +189,11 @@ class ClientRuntime {
                     }
                 };
                 try {
-                    connector.apply(
-                            addUserAgent(Stages.process(request, requestProcessingRoot), connector.getName()),
-                            connectorCallback);
+                    final ClientRequest processedRequest = Stages.process(request, requestProcessingRoot);
+                    timer.requestFiltered();
+                    connector.apply(addUserAgent(processedRequest, connector.getName()), connectorCallback);
                 } catch (AbortException aborted) {
+                    timer.aborted();
                     connectorCallback.response(aborted.getAbortResponse());
                 } catch (Throwable throwable) {
                     connectorCallback.failure(throwable);
@@ -183,6 +220,12 @@ class ClientRuntime {
         });
     }
 
+    private InvocationTimer startTimer(final ClientRequest request) {
+        final InvocationTimer timer = monitor == null ? InvocationTimer.DISABLED : monitor.start(request);
+        request.setTimer(timer);
+        return timer;
+    }
+
     private ClientRequest addUserAgent(ClientRequest clientRequest, String connectorName) {
         if (!clientRequest.getHeaders().containsKey(HttpHeaders.USER_AGENT)) {
             if (connectorName != null && !connectorName.equals("")) {
@@ -211,18 +254,27 @@ class ClientRuntime {
      * @throws javax.ws.rs.ProcessingException in case of an invocation failure.
      */
     public ClientResponse invoke(final ClientRequest request) throws ProcessingException {
+        final InvocationTimer timer = startTimer(request);
         ClientResponse response;
         try {
             try {
-                response = connector.apply(addUserAgent(Stages.process(request, requestProcessingRoot), connector.getName()));
+                final ClientRequest processedRequest = Stages.process(request, requestProcessingRoot);
+                timer.requestFiltered();
+                response = connector.apply(addUserAgent(processedRequest, connector.getName()));
+                timer.connectorCompleted();
             } catch (AbortException aborted) {
+                timer.aborted();
                 response = aborted.getAbortResponse();
             }
 
-            return Stages.process(response, responseProcessingRoot);
+            response = Stages.process(response, responseProcessingRoot);
+            timer.responseProcessed(response);
+            return response;
         } catch (ProcessingException ex) {
+            timer.failed();
             throw ex;
         } catch (Throwable t) {
+            timer.failed();
             throw new ProcessingException(t.getMessage(), t);
         }
     }
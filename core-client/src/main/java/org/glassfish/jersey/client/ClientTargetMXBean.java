@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.Map;
+
+/**
+ * JMX MXBean exposing the {@link ClientMonitoringStatistics.Target statistics of a single web target}.
+ * <p>
+ * The MXBeans are registered only if enabled by the {@link ClientProperties#MONITORING_STATISTICS_MBEANS_ENABLED}
+ * property.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public interface ClientTargetMXBean {
+
+    /**
+     * Get the target URI template.
+     *
+     * @return target URI template.
+     */
+    public String getUriTemplate();
+
+    /**
+     * Get the number of the invoked requests.
+     *
+     * @return number of the requests.
+     */
+    public long getRequestCount();
+
+    /**
+     * Get the number of the requests that failed with an exception instead of a response.
+     *
+     * @return number of the failed requests.
+     */
+    public long getFailureCount();
+
+    /**
+     * Get the number of the responses with a client error ({@code 4xx}) status code.
+     *
+     * @return number of the client error responses.
+     */
+    public long getClientErrorCount();
+
+    /**
+     * Get the number of the responses with a server error ({@code 5xx}) status code.
+     *
+     * @return number of the server error responses.
+     */
+    public long getServerErrorCount();
+
+    /**
+     * Get the average execution times of the {@link ClientMonitoringStatistics.Phase request processing phases}
+     * in microseconds, keyed by the phase name.
+     *
+     * @return average phase execution times.
+     */
+    public Map<String, Long> getAverageTimes();
+
+    /**
+     * Get the maximum execution times of the {@link ClientMonitoringStatistics.Phase request processing phases}
+     * in microseconds, keyed by the phase name.
+     *
+     * @return maximum phase execution times.
+     */
+    public Map<String, Long> getMaxTimes();
+}
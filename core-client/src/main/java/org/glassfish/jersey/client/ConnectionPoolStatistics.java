@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.Map;
+
+/**
+ * Statistics of the client connection pool.
+ * <p>
+ * A connection is leased from the pool before a request is sent and returned to the pool once the response entity
+ * has been completely read or the response has been closed.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @see HttpUrlConnector#getConnectionPoolStatistics()
+ * @since 2.4
+ */
+public interface ConnectionPoolStatistics {
+
+    /**
+     * Statistics of the connections to a single route, i.e. a single scheme, host and port combination.
+     */
+    public static interface Route {
+
+        /**
+         * Get the number of the connections to the route currently leased from the pool.
+         *
+         * @return number of the leased connections.
+         */
+        public int getLeasedCount();
+
+        /**
+         * Get the number of the requests currently waiting for a connection to the route.
+         *
+         * @return number of the pending requests.
+         */
+        public int getPendingCount();
+
+        /**
+         * Get the total number of the connections to the route leased from the pool.
+         *
+         * @return total number of the leases.
+         */
+        public long getLeaseCount();
+    }
+
+    /**
+     * Get the number of the connections currently leased from the pool.
+     *
+     * @return number of the leased connections.
+     */
+    public int getLeasedCount();
+
+    /**
+     * Get the number of the requests currently waiting for a connection.
+     *
+     * @return number of the pending requests.
+     */
+    public int getPendingCount();
+
+    /**
+     * Get the total number of the connections leased from the pool.
+     *
+     * @return total number of the leases.
+     */
+    public long getLeaseCount();
+
+    /**
+     * Get the number of the requests that failed because no connection could be leased in time.
+     *
+     * @return number of the lease timeouts.
+     */
+    public long getLeaseTimeoutCount();
+
+    /**
+     * Get the number of the connections whose unread response entity has been drained on close so that the
+     * connection could be kept alive.
+     *
+     * @return number of the drained connections.
+     */
+    public long getDrainedCount();
+
+    /**
+     * Get the number of the connections that have been closed instead of being kept alive, because the unread
+     * response entity could not be drained or the response processing failed.
+     *
+     * @return number of the discarded connections.
+     */
+    public long getDiscardedCount();
+
+    /**
+     * Get statistics of the active routes, keyed by the route ({@code scheme://host:port}).
+     * Routes that have not been used for some time are evicted from the pool.
+     *
+     * @return route statistics.
+     */
+    public Map<String, Route> getRoutes();
+}
@@ -0,0 +1,367 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.ProcessingException;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+
+/**
+ * Per-route connection pool of the {@link HttpUrlConnector}.
+ * <p>
+ * The physical connections of {@link java.net.HttpURLConnection} are owned and kept alive by the JDK. The pool
+ * therefore governs the connection leases: it limits the number of the concurrently leased connections per route
+ * and keeps track of the leases so that a lease is returned once the response entity has been read, drained
+ * or closed.
+ * </p>
+ * <p>
+ * Leases of responses that have been garbage collected without being closed are reclaimed (and counted as
+ * {@link #getDiscardedCount() discarded}), so that an application not closing its responses does not exhaust
+ * a route permanently.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class HttpUrlConnectionPool implements ConnectionPoolStatistics {
+
+    /**
+     * Time after which state of an unused route is evicted from the pool.
+     */
+    private static final long ROUTE_IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(1);
+    /**
+     * Maximum time to wait for a lease in milliseconds used if no lease timeout is specified.
+     */
+    static final int DEFAULT_LEASE_TIMEOUT = 60000;
+    /**
+     * Maximum time a thread waits for a lease before it checks for the abandoned leases again.
+     */
+    private static final long RECLAIM_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private enum LeaseResult {
+        LEASED, BUSY, EVICTED
+    }
+
+    private final ConcurrentMap<String, RouteEntry> routes = new ConcurrentHashMap<String, RouteEntry>();
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong leaseTimeoutCount = new AtomicLong();
+    private final AtomicLong drainedCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final ReferenceQueue<Object> abandonedOwners = new ReferenceQueue<Object>();
+    private final Set<OwnerReference> owners =
+            Collections.newSetFromMap(new ConcurrentHashMap<OwnerReference, Boolean>());
+    private volatile long nextEviction = System.nanoTime() + ROUTE_IDLE_TIMEOUT;
+
+    /**
+     * Leased connection handle.
+     */
+    final class Lease {
+
+        private final RouteEntry route;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile OwnerReference owner;
+
+        private Lease(final RouteEntry route) {
+            this.route = route;
+        }
+
+        /**
+         * Set the owner of the lease, typically the response entity stream. The lease is reclaimed by the pool
+         * if the owner is garbage collected before the lease is released.
+         *
+         * @param owner lease owner. The owner must not be referenced by the lease.
+         */
+        void track(final Object owner) {
+            final OwnerReference reference = new OwnerReference(owner, this);
+            owners.add(reference);
+            this.owner = reference;
+            if (released.get()) {
+                forget(reference);
+            }
+        }
+
+        /**
+         * Return the lease to the pool. Subsequent invocations of the method have no effect.
+         *
+         * @param kept    {@code true} if the connection has been kept alive, {@code false} if it has been closed.
+         * @param drained {@code true} if the unread response entity has been drained.
+         */
+        void release(final boolean kept, final boolean drained) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            final OwnerReference reference = owner;
+            if (reference != null) {
+                forget(reference);
+            }
+            if (!kept) {
+                discardedCount.incrementAndGet();
+            } else if (drained) {
+                drainedCount.incrementAndGet();
+            }
+            route.release();
+        }
+    }
+
+    /**
+     * Weak reference to a lease owner.
+     */
+    private final class OwnerReference extends WeakReference<Object> {
+
+        private final Lease lease;
+
+        private OwnerReference(final Object owner, final Lease lease) {
+            super(owner, abandonedOwners);
+            this.lease = lease;
+        }
+    }
+
+    private void forget(final OwnerReference reference) {
+        owners.remove(reference);
+        reference.clear();
+    }
+
+    /**
+     * Release the leases whose owners have been garbage collected.
+     */
+    private void reclaimAbandonedLeases() {
+        OwnerReference reference;
+        while ((reference = (OwnerReference) abandonedOwners.poll()) != null) {
+            if (owners.remove(reference)) {
+                reference.lease.release(false, false);
+            }
+        }
+    }
+
+    /**
+     * Lease a connection to the route of the given URL.
+     *
+     * @param url         request URL.
+     * @param maxPerRoute maximum number of the concurrently leased connections per route, {@code 0} for unlimited.
+     * @param timeout     maximum time to wait for the lease in milliseconds, value less or equal to zero means
+     *                    the {@link #DEFAULT_LEASE_TIMEOUT default lease timeout}.
+     * @return connection lease.
+     * @throws ProcessingException in case the lease could not be acquired in time or the waiting thread has been
+     *                             interrupted.
+     */
+    Lease lease(final URL url, final int maxPerRoute, final int timeout) throws ProcessingException {
+        evictIdleRoutes();
+        reclaimAbandonedLeases();
+
+        final String key = routeKey(url);
+        final int leaseTimeout = timeout > 0 ? timeout : DEFAULT_LEASE_TIMEOUT;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeout);
+        while (true) {
+            RouteEntry route = routes.get(key);
+            if (route == null) {
+                final RouteEntry newRoute = new RouteEntry();
+                route = routes.putIfAbsent(key, newRoute);
+                if (route == null) {
+                    route = newRoute;
+                }
+            }
+            switch (route.lease(maxPerRoute, Math.min(deadline - System.nanoTime(), RECLAIM_INTERVAL))) {
+                case LEASED:
+                    leaseCount.incrementAndGet();
+                    return new Lease(route);
+                case BUSY:
+                    if (System.nanoTime() - deadline >= 0) {
+                        leaseTimeoutCount.incrementAndGet();
+                        throw new ProcessingException(
+                                LocalizationMessages.CONNECTION_POOL_LEASE_TIMEOUT(key, maxPerRoute, leaseTimeout));
+                    }
+                    reclaimAbandonedLeases();
+                    break;
+                default:
+                    // route has been evicted concurrently, retry with a new route entry
+            }
+        }
+    }
+
+    private static String routeKey(final URL url) {
+        final int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+        return url.getProtocol() + "://" + url.getHost() + ':' + port;
+    }
+
+    private void evictIdleRoutes() {
+        final long now = System.nanoTime();
+        if (now - nextEviction < 0) {
+            return;
+        }
+        nextEviction = now + ROUTE_IDLE_TIMEOUT;
+        for (Map.Entry<String, RouteEntry> route : routes.entrySet()) {
+            if (route.getValue().evictIfIdle(now)) {
+                routes.remove(route.getKey(), route.getValue());
+            }
+        }
+    }
+
+    @Override
+    public int getLeasedCount() {
+        int leased = 0;
+        for (RouteEntry route : routes.values()) {
+            leased += route.getLeasedCount();
+        }
+        return leased;
+    }
+
+    @Override
+    public int getPendingCount() {
+        int pending = 0;
+        for (RouteEntry route : routes.values()) {
+            pending += route.getPendingCount();
+        }
+        return pending;
+    }
+
+    @Override
+    public long getLeaseCount() {
+        return leaseCount.get();
+    }
+
+    @Override
+    public long getLeaseTimeoutCount() {
+        return leaseTimeoutCount.get();
+    }
+
+    @Override
+    public long getDrainedCount() {
+        return drainedCount.get();
+    }
+
+    @Override
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    @Override
+    public Map<String, Route> getRoutes() {
+        return Collections.<String, Route>unmodifiableMap(new HashMap<String, RouteEntry>(routes));
+    }
+
+    /**
+     * Lease accounting of a single route.
+     */
+    private final class RouteEntry implements Route {
+
+        private int leased;
+        private int pending;
+        private long leases;
+        private long lastUsed = System.nanoTime();
+        private boolean evicted;
+
+        /**
+         * Lease a connection to the route.
+         *
+         * @param maxPerRoute maximum number of the concurrently leased connections, {@code 0} for unlimited.
+         * @param wait        maximum time to wait for the lease in nanoseconds.
+         * @return lease result.
+         */
+        synchronized LeaseResult lease(final int maxPerRoute, final long wait) {
+            if (evicted) {
+                return LeaseResult.EVICTED;
+            }
+
+            if (maxPerRoute > 0 && leased >= maxPerRoute) {
+                final long deadline = System.nanoTime() + wait;
+                pending++;
+                try {
+                    while (leased >= maxPerRoute) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return LeaseResult.BUSY;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ProcessingException(e);
+                } finally {
+                    pending--;
+                }
+            }
+
+            leased++;
+            leases++;
+            lastUsed = System.nanoTime();
+            return LeaseResult.LEASED;
+        }
+
+        synchronized void release() {
+            leased--;
+            lastUsed = System.nanoTime();
+            notify();
+        }
+
+        synchronized boolean evictIfIdle(final long now) {
+            if (leased == 0 && pending == 0 && now - lastUsed >= ROUTE_IDLE_TIMEOUT) {
+                evicted = true;
+            }
+            return evicted;
+        }
+
+        @Override
+        public synchronized int getLeasedCount() {
+            return leased;
+        }
+
+        @Override
+        public synchronized int getPendingCount() {
+            return pending;
+        }
+
+        @Override
+        public synchronized long getLeaseCount() {
+            return leases;
+        }
+    }
+}
@@ -78,11 +78,24 @@ import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * Default client transport connector using {@link HttpURLConnection}.
+ * <p>
+ * The physical connections are kept alive by the JDK. The connector leases the connections from a per-route
+ * connection pool which limits the number of the concurrently used connections per route (see
+ * {@link ClientProperties#MAX_CONNECTIONS_PER_ROUTE}). A lease is returned to the pool once the response entity
+ * has been read or the response has been closed; an unread response entity is drained on close so that the
+ * connection can be kept alive. The pool statistics are available via {@link #getConnectionPoolStatistics()}.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 public class HttpUrlConnector implements Connector {
+    /**
+     * Maximum number of the unread response entity bytes drained when the response is closed.
+     */
+    private static final int DRAIN_LIMIT = 64 * 1024;
+
     private final ConnectionFactory connectionFactory;
+    private final HttpUrlConnectionPool pool = new HttpUrlConnectionPool();
 
     /**
      * A factory for {@link HttpURLConnection} instances.
@@ -128,7 +141,8 @@ public class HttpUrlConnector implements Connector {
         this.connectionFactory = connectionFactory;
     }
 
-    private static InputStream getInputStream(final HttpURLConnection uc) throws IOException {
+    private static InputStream getInputStream(final HttpURLConnection uc, final HttpUrlConnectionPool.Lease lease)
+            throws IOException {
         return new InputStream() {
             private final UnsafeValue<InputStream, IOException> in = Values.lazy(new UnsafeValue<InputStream, IOException>() {
                 @Override
@@ -141,25 +155,42 @@ public class HttpUrlConnector implements Connector {
                     }
                 }
             });
+            private long count;
+            private boolean eof;
+            private boolean closed;
+
+            private int count(final int read) {
+                if (read == -1) {
+                    eof = true;
+                    lease.release(true, false);
+                } else {
+                    count += read;
+                }
+                return read;
+            }
 
             @Override
             public int read() throws IOException {
-                return in.get().read();
+                final int b = in.get().read();
+                count(b == -1 ? -1 : 1);
+                return b;
             }
 
             @Override
             public int read(byte[] b) throws IOException {
-                return in.get().read(b);
+                return count(in.get().read(b));
             }
 
             @Override
             public int read(byte[] b, int off, int len) throws IOException {
-                return in.get().read(b, off, len);
+                return count(in.get().read(b, off, len));
             }
 
             @Override
             public long skip(long n) throws IOException {
-                return in.get().skip(n);
+                final long skipped = in.get().skip(n);
+                count += skipped;
+                return skipped;
             }
 
             @Override
@@ -169,7 +200,39 @@ public class HttpUrlConnector implements Connector {
 
             @Override
             public void close() throws IOException {
-                in.get().close();
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (eof) {
+                    try {
+                        in.get().close();
+                    } finally {
+                        lease.release(true, false);
+                    }
+                    return;
+                }
+
+                final int length = uc.getContentLength();
+                boolean drained = false;
+                boolean failed = false;
+                try {
+                    drained = drain(in.get(), length < 0 ? -1 : length - count);
+                } catch (IOException e) {
+                    failed = true;
+                }
+
+                if (drained || (length < 0 && !failed)) {
+                    // the JDK keeps an entity of an unknown length alive if its end has already been received
+                    try {
+                        in.get().close();
+                    } finally {
+                        lease.release(true, drained);
+                    }
+                } else {
+                    uc.disconnect();
+                    lease.release(false, false);
+                }
             }
 
             @Override
@@ -197,6 +260,38 @@ public class HttpUrlConnector implements Connector {
         };
     }
 
+    /**
+     * Drain the unread rest of a response entity so that the underlying connection can be kept alive.
+     * <p>
+     * An entity of a known length is drained if the unread rest does not exceed {@link #DRAIN_LIMIT}.
+     * An entity of an unknown length (e.g. a chunked or a streamed entity) is drained only as far as
+     * it can be read without blocking.
+     * </p>
+     *
+     * @param in        entity input stream.
+     * @param remaining number of the unread entity bytes or {@code -1} if unknown.
+     * @return {@code true} if the entity has been drained completely, {@code false} otherwise.
+     * @throws IOException in case of an I/O error.
+     */
+    private static boolean drain(final InputStream in, final long remaining) throws IOException {
+        if (remaining > DRAIN_LIMIT) {
+            return false;
+        }
+        final byte[] buffer = new byte[4096];
+        long drained = 0;
+        while (drained <= DRAIN_LIMIT) {
+            if (remaining < 0 && in.available() <= 0) {
+                return false;
+            }
+            final int read = in.read(buffer);
+            if (read == -1) {
+                return true;
+            }
+            drained += read;
+        }
+        return false;
+    }
+
     @Override
     public ClientResponse apply(ClientRequest request) {
         try {
@@ -227,12 +322,43 @@ public class HttpUrlConnector implements Connector {
         // do nothing
     }
 
+    /**
+     * Get statistics of the connector connection pool.
+     *
+     * @return connection pool statistics.
+     * @see ClientProperties#MAX_CONNECTIONS_PER_ROUTE
+     * @since 2.4
+     */
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return pool;
+    }
+
     private ClientResponse _apply(final ClientRequest request) throws IOException {
         final Map<String, Object> configurationProperties = request.getConfiguration().getProperties();
+        final URL endpointUrl = request.getUri().toURL();
 
-        final HttpURLConnection uc;
+        final HttpUrlConnectionPool.Lease lease = pool.lease(endpointUrl,
+                PropertiesHelper.getValue(configurationProperties, ClientProperties.MAX_CONNECTIONS_PER_ROUTE, 0),
+                PropertiesHelper.getValue(configurationProperties, ClientProperties.CONNECT_TIMEOUT, 0));
+        try {
+            return _apply(request, endpointUrl, lease);
+        } catch (IOException e) {
+            lease.release(false, false);
+            throw e;
+        } catch (RuntimeException e) {
+            lease.release(false, false);
+            throw e;
+        } catch (Error e) {
+            lease.release(false, false);
+            throw e;
+        }
+    }
 
-        final URL endpointUrl = request.getUri().toURL();
+    private ClientResponse _apply(final ClientRequest request, final URL endpointUrl,
+                                  final HttpUrlConnectionPool.Lease lease) throws IOException {
+        final Map<String, Object> configurationProperties = request.getConfiguration().getProperties();
+
+        final HttpURLConnection uc;
         if (this.connectionFactory == null) {
             uc = (HttpURLConnection) endpointUrl.openConnection();
         } else {
@@ -268,6 +394,7 @@ public class HttpUrlConnector implements Connector {
             suc.setSSLSocketFactory(client.getSslContext().getSocketFactory());
         }
 
+        final InvocationTimer timer = request.getTimer();
         final Object entity = request.getEntity();
         if (entity != null) {
             uc.setDoOutput(true);
@@ -284,27 +411,45 @@ public class HttpUrlConnector implements Connector {
                 @Override
                 public OutputStream getOutputStream(int contentLength) throws IOException {
                     setOutboundHeaders(request.getStringHeaders(), uc);
+                    connect(uc, timer);
                     return uc.getOutputStream();
                 }
             });
             request.writeEntity();
+            timer.sent();
 
         } else {
             setOutboundHeaders(request.getStringHeaders(), uc);
+            connect(uc, timer);
         }
 
         final int code = uc.getResponseCode();
+        timer.responseReceived();
         final String reasonPhrase = uc.getResponseMessage();
         final Response.StatusType status = reasonPhrase == null ?
                 Statuses.from(code) : Statuses.from(code, reasonPhrase);
         ClientResponse responseContext = new ClientResponse(
                 status, request);
         responseContext.headers(Maps.<String, List<String>>filterKeys(uc.getHeaderFields(), Predicates.notNull()));
-        responseContext.setEntityStream(getInputStream(uc));
+        final InputStream entityStream = getInputStream(uc, lease);
+        lease.track(entityStream);
+        responseContext.setEntityStream(entityStream);
+        if (code == 204 || code == 304 || uc.getContentLength() == 0 || "HEAD".equalsIgnoreCase(httpMethod)) {
+            // no response entity
+            lease.release(true, false);
+        }
 
         return responseContext;
     }
 
+    private static void connect(final HttpURLConnection uc, final InvocationTimer timer) throws IOException {
+        if (timer.isEnabled()) {
+            // connect explicitly only when monitored, to measure the connect phase separately
+            uc.connect();
+            timer.connected();
+        }
+    }
+
     private void setOutboundHeaders(MultivaluedMap<String, String> headers, HttpURLConnection uc) {
         for (Map.Entry<String, List<String>> header : headers.entrySet()) {
             List<String> headerValues = header.getValue();
@@ -0,0 +1,246 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.glassfish.jersey.client.ClientMonitoringStatistics.Phase;
+
+/**
+ * Timer measuring the {@link Phase processing phases} of a single client request invocation.
+ * <p>
+ * Each phase is measured from the end of the previous one, the phases are expected to be reported sequentially
+ * (possibly from different threads). Connectors may report the {@link #connected() connect},
+ * {@link #sent() send} and {@link #responseReceived() wait} phases; if they do not, the whole time spent in the
+ * connector is reported as the {@link Phase#WAIT wait} phase.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class InvocationTimer {
+
+    /**
+     * Timer of a request that is not monitored. All the timer methods are no-op.
+     */
+    static final InvocationTimer DISABLED = new InvocationTimer(null);
+
+    private final ClientMonitor.TargetStatistics target;
+    private final long start;
+    private long mark;
+    private boolean connectorReported;
+
+    /**
+     * Create new invocation timer and record the request invocation.
+     *
+     * @param target statistics of the invoked web target.
+     */
+    InvocationTimer(final ClientMonitor.TargetStatistics target) {
+        this.target = target;
+        if (target != null) {
+            target.started();
+            this.start = System.nanoTime();
+        } else {
+            this.start = 0;
+        }
+        this.mark = start;
+    }
+
+    /**
+     * Check if the request is monitored.
+     *
+     * @return {@code true} if the request is monitored, {@code false} otherwise.
+     */
+    boolean isEnabled() {
+        return target != null;
+    }
+
+    /**
+     * Report the request filters have been executed.
+     */
+    void requestFiltered() {
+        if (target != null) {
+            mark(Phase.REQUEST_FILTERING);
+        }
+    }
+
+    /**
+     * Report the request has been aborted by a request filter.
+     */
+    void aborted() {
+        if (target != null) {
+            connectorReported = true;
+            mark(Phase.REQUEST_FILTERING);
+        }
+    }
+
+    /**
+     * Report the connection to the target server has been opened. Invoked by a connector.
+     */
+    void connected() {
+        if (target != null) {
+            connectorReported = true;
+            mark(Phase.CONNECT);
+        }
+    }
+
+    /**
+     * Report the request entity has been written. Invoked by a connector.
+     */
+    void sent() {
+        if (target != null) {
+            connectorReported = true;
+            mark(Phase.SEND);
+        }
+    }
+
+    /**
+     * Report the response status and headers have been received. Invoked by a connector.
+     */
+    void responseReceived() {
+        if (target != null) {
+            connectorReported = true;
+            mark(Phase.WAIT);
+        }
+    }
+
+    /**
+     * Report the connector returned the response.
+     */
+    void connectorCompleted() {
+        if (target != null) {
+            if (connectorReported) {
+                mark = System.nanoTime();
+            } else {
+                mark(Phase.WAIT);
+            }
+        }
+    }
+
+    /**
+     * Report the response filters have been executed and the response is returned to the application.
+     * The response entity stream gets wrapped to measure the entity {@link Phase#READ reading}.
+     *
+     * @param response processed response.
+     */
+    void responseProcessed(final ClientResponse response) {
+        if (target != null) {
+            final long now = mark(Phase.RESPONSE_FILTERING);
+            target.record(Phase.TOTAL, now - start);
+            target.completed(response.getStatus());
+
+            final InputStream entityStream;
+            try {
+                entityStream = response.getEntityStream();
+            } catch (IllegalStateException closed) {
+                // response closed by a filter
+                return;
+            }
+            if (entityStream != null) {
+                response.setEntityStream(new TimedEntityStream(entityStream, now));
+            }
+        }
+    }
+
+    /**
+     * Report the request invocation failed.
+     */
+    void failed() {
+        if (target != null) {
+            target.failed();
+        }
+    }
+
+    private long mark(final Phase phase) {
+        final long now = System.nanoTime();
+        target.record(phase, now - mark);
+        mark = now;
+        return now;
+    }
+
+    /**
+     * Entity stream recording the {@link Phase#READ read phase} once the stream is exhausted or closed.
+     */
+    private final class TimedEntityStream extends FilterInputStream {
+
+        private final long readStart;
+        private boolean recorded;
+
+        private TimedEntityStream(final InputStream in, final long readStart) {
+            super(in);
+            this.readStart = readStart;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b < 0) {
+                record();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = in.read(b, off, len);
+            if (n < 0) {
+                record();
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                record();
+            }
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                target.record(Phase.READ, System.nanoTime() - readStart);
+            }
+        }
+    }
+}
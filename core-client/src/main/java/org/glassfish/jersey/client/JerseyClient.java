@@ -75,6 +75,10 @@ public class JerseyClient implements javax.ws.rs.client.Client {
     private final HostnameVerifier hostnameVerifier;
     private final UnsafeValue<SSLContext, IllegalStateException> sslContext;
     private final LinkedBlockingDeque<LifecycleListener> listeners = new LinkedBlockingDeque<LifecycleListener>();
+    private final Object asyncExecutorLock = new Object();
+    private volatile ClientAsyncExecutor asyncExecutor;
+    private final Object monitorLock = new Object();
+    private volatile ClientMonitor monitor;
 
     /**
      * Client life-cycle event listener contract.
@@ -142,6 +146,92 @@ public class JerseyClient implements javax.ws.rs.client.Client {
         while ((listener = listeners.pollFirst()) != null) {
             listener.onClose();
         }
+        synchronized (asyncExecutorLock) {
+            if (asyncExecutor != null) {
+                asyncExecutor.shutdown();
+            }
+        }
+        synchronized (monitorLock) {
+            if (monitor != null) {
+                monitor.close();
+            }
+        }
+    }
+
+    /**
+     * Get the default executor used to run the asynchronous requests of the client.
+     * <p>
+     * The executor is shared by all the client run-times and is configured using the client
+     * configuration properties.
+     * </p>
+     *
+     * @return asynchronous request executor.
+     */
+    ClientAsyncExecutor getAsyncExecutor() {
+        ClientAsyncExecutor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (asyncExecutorLock) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = ClientAsyncExecutor.create(config.getProperties());
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Get statistics of the executor used to run the asynchronous requests of the client.
+     * <p>
+     * Note that the statistics do not cover asynchronous requests executed by a custom
+     * {@link org.glassfish.jersey.spi.RequestExecutorsProvider requesting executor}, if registered.
+     * </p>
+     *
+     * @return asynchronous request executor statistics.
+     * @see ClientProperties#ASYNC_THREADPOOL_SIZE
+     * @since 2.4
+     */
+    public ClientAsyncExecutorStatistics getAsyncExecutorStatistics() {
+        return getAsyncExecutor();
+    }
+
+    /**
+     * Get the monitor collecting the request processing statistics of the client.
+     * <p>
+     * The monitor is shared by all the client run-times that have the monitoring enabled.
+     * </p>
+     *
+     * @return client monitor.
+     */
+    ClientMonitor getMonitor() {
+        ClientMonitor clientMonitor = monitor;
+        if (clientMonitor == null) {
+            synchronized (monitorLock) {
+                clientMonitor = monitor;
+                if (clientMonitor == null) {
+                    clientMonitor = new ClientMonitor();
+                    monitor = clientMonitor;
+                }
+            }
+        }
+        return clientMonitor;
+    }
+
+    /**
+     * Get the request processing statistics of the client.
+     * <p>
+     * The statistics are collected only for the requests invoked with the monitoring enabled, see
+     * {@link ClientProperties#MONITORING_STATISTICS_ENABLED}. If the monitoring has not been enabled,
+     * the returned statistics are empty.
+     * </p>
+     *
+     * @return client monitoring statistics.
+     * @see ClientMonitoringFeature
+     * @since 2.4
+     */
+    public ClientMonitoringStatistics getMonitoringStatistics() {
+        return getMonitor();
     }
 
     /**
@@ -61,6 +61,8 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
 
     private final ClientConfig config;
     private final UriBuilder targetUri;
+    private JerseyWebTarget templateSource = this;
+    private volatile String uriTemplate;
 
     /**
      * Create new web target instance.
@@ -148,6 +150,34 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
         return targetUri.clone();
     }
 
+    /**
+     * Get the URI template of the target (without the query part) used as the key of the collected
+     * {@link ClientMonitoringStatistics client monitoring statistics}.
+     * <p>
+     * Targets created by resolving the templates or by setting the query parameters of a parent target share
+     * the URI template of the parent target.
+     * </p>
+     *
+     * @return target URI template.
+     */
+    String getUriTemplate() {
+        if (templateSource != this) {
+            return templateSource.getUriTemplate();
+        }
+
+        String template = uriTemplate;
+        if (template == null) {
+            template = targetUri.clone().replaceQuery(null).toTemplate();
+            uriTemplate = template;
+        }
+        return template;
+    }
+
+    private JerseyWebTarget sharingUriTemplate(JerseyWebTarget target) {
+        target.templateSource = templateSource;
+        return target;
+    }
+
     @Override
     public JerseyWebTarget path(String path) throws NullPointerException {
         checkNotClosed();
@@ -172,7 +202,7 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
     @Override
     public JerseyWebTarget queryParam(String name, Object... values) throws NullPointerException {
         checkNotClosed();
-        return new JerseyWebTarget(JerseyWebTarget.setQueryParam(getUriBuilder(), name, values), this);
+        return sharingUriTemplate(new JerseyWebTarget(JerseyWebTarget.setQueryParam(getUriBuilder(), name, values), this));
     }
 
     private static UriBuilder setQueryParam(UriBuilder uriBuilder, String name, Object[] values) {
@@ -214,13 +244,16 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
     @Override
     public JerseyInvocation.Builder request() {
         checkNotClosed();
-        return new JerseyInvocation.Builder(getUri(), config.snapshot());
+        JerseyInvocation.Builder b = new JerseyInvocation.Builder(getUri(), config.snapshot());
+        b.request().setTarget(this);
+        return b;
     }
 
     @Override
     public JerseyInvocation.Builder request(String... acceptedResponseTypes) {
         checkNotClosed();
         JerseyInvocation.Builder b = new JerseyInvocation.Builder(getUri(), config.snapshot());
+        b.request().setTarget(this);
         b.request().accept(acceptedResponseTypes);
         return b;
     }
@@ -229,6 +262,7 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
     public JerseyInvocation.Builder request(MediaType... acceptedResponseTypes) {
         checkNotClosed();
         JerseyInvocation.Builder b = new JerseyInvocation.Builder(getUri(), config.snapshot());
+        b.request().setTarget(this);
         b.request().accept(acceptedResponseTypes);
         return b;
     }
@@ -244,7 +278,7 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
         Preconditions.checkNotNull(name, "name is 'null'.");
         Preconditions.checkNotNull(value, "value is 'null'.");
 
-        return new JerseyWebTarget(getUriBuilder().resolveTemplate(name, value, encodeSlashInPath), this);
+        return sharingUriTemplate(new JerseyWebTarget(getUriBuilder().resolveTemplate(name, value, encodeSlashInPath), this));
     }
 
     @Override
@@ -254,7 +288,7 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
         Preconditions.checkNotNull(name, "name is 'null'.");
         Preconditions.checkNotNull(value, "value is 'null'.");
 
-        return new JerseyWebTarget(getUriBuilder().resolveTemplateFromEncoded(name, value), this);
+        return sharingUriTemplate(new JerseyWebTarget(getUriBuilder().resolveTemplateFromEncoded(name, value), this));
     }
 
     @Override
@@ -271,7 +305,7 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
         if(templateValues.isEmpty()) {
             return this;
         } else {
-            return new JerseyWebTarget(getUriBuilder().resolveTemplates(templateValues, encodeSlashInPath), this);
+            return sharingUriTemplate(new JerseyWebTarget(getUriBuilder().resolveTemplates(templateValues, encodeSlashInPath), this));
         }
     }
 
@@ -284,7 +318,7 @@ public class JerseyWebTarget implements javax.ws.rs.client.WebTarget {
         if(templateValues.isEmpty()) {
             return this;
         } else {
-            return new JerseyWebTarget(getUriBuilder().resolveTemplatesFromEncoded(templateValues), this);
+            return sharingUriTemplate(new JerseyWebTarget(getUriBuilder().resolveTemplatesFromEncoded(templateValues), this));
         }
     }
 
@@ -0,0 +1,572 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+import org.glassfish.jersey.message.internal.Statuses;
+
+/**
+ * Single HTTP/1.1 connection of the {@link NioConnector}.
+ * <p>
+ * The connection serves one {@link NioConnector.Exchange request-response exchange} at a time; a new request is sent
+ * over the connection only after the previous response has been received completely, i.e. the requests are never
+ * pipelined. Once the response status line and headers are parsed, the response is handed over to the connector while
+ * the response entity is being streamed into a {@link NioEntityInputStream}.
+ * </p>
+ * <p>
+ * All the methods, except for the {@link NioEntityInputStream.Producer} callbacks, are invoked by the connector
+ * selector thread only.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class NioConnection implements NioEntityInputStream.Producer {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private static enum State {
+        STATUS_LINE, HEADERS, BODY, BODY_UNTIL_CLOSE, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS
+    }
+
+    private final NioConnector connector;
+    private final String hostKey;
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder();
+
+    private SocketChannel channel;
+    private SelectionKey key;
+    private boolean connected;
+    private boolean reused;
+    private long deadline;
+
+    private NioConnector.Exchange exchange;
+    private ByteBuffer out;
+    private boolean received;
+    private State state;
+    private int status;
+    private String reasonPhrase;
+    private boolean http11;
+    private final Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+    private String lastHeader;
+    private boolean keepAlive;
+    private long remaining;
+    private NioEntityInputStream entity;
+    private URI redirect;
+    private boolean suspended;
+
+    /**
+     * Create new connection.
+     *
+     * @param connector connector managing the connection.
+     * @param hostKey   key of the connection destination used to pool the idle connection.
+     */
+    NioConnection(final NioConnector connector, final String hostKey) {
+        this.connector = connector;
+        this.hostKey = hostKey;
+    }
+
+    /**
+     * Get the key of the connection destination.
+     *
+     * @return connection destination key.
+     */
+    String getHostKey() {
+        return hostKey;
+    }
+
+    /**
+     * Open the connection and register it with the connector selector.
+     *
+     * @param selector connector selector.
+     * @param address  address to connect to.
+     * @throws IOException in case the connection could not be opened.
+     */
+    void open(final Selector selector, final InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        connected = channel.connect(address);
+        key = channel.register(selector, connected ? 0 : SelectionKey.OP_CONNECT, this);
+    }
+
+    /**
+     * Start a new request-response exchange on the connection.
+     *
+     * @param exchange request-response exchange.
+     */
+    void start(final NioConnector.Exchange exchange) {
+        this.reused = out != null;
+        this.exchange = exchange;
+        this.out = ByteBuffer.wrap(exchange.data);
+        this.received = false;
+        this.state = State.STATUS_LINE;
+        this.redirect = null;
+        this.entity = null;
+        resetMessage();
+
+        if (connected) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            deadline = deadline(exchange.readTimeout);
+        } else {
+            deadline = deadline(exchange.connectTimeout);
+        }
+    }
+
+    /**
+     * Handle the I/O events selected for the connection.
+     */
+    void handle() {
+        try {
+            if (key.isConnectable() && channel.finishConnect()) {
+                connected = true;
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                deadline = deadline(exchange.readTimeout);
+            }
+            if (key.isValid() && key.isWritable()) {
+                write();
+            }
+            if (key.isValid() && key.isReadable()) {
+                read();
+            }
+        } catch (IOException e) {
+            failure(e);
+        } catch (CancelledKeyException e) {
+            failure(new IOException(e));
+        }
+    }
+
+    /**
+     * Check whether the connection I/O timeout has expired and fail the connection if so.
+     *
+     * @param now current {@link System#nanoTime() time}.
+     */
+    void checkTimeout(final long now) {
+        if (deadline != 0 && now - deadline >= 0) {
+            if (exchange == null) {
+                close();
+            } else {
+                failure(new SocketTimeoutException(connected
+                        ? LocalizationMessages.NIO_CONNECTOR_READ_TIMEOUT()
+                        : LocalizationMessages.NIO_CONNECTOR_CONNECT_TIMEOUT()));
+            }
+        }
+    }
+
+    /**
+     * Close the connection and fail the current exchange, if any.
+     *
+     * @param cause cause of the failure.
+     */
+    void failure(final IOException cause) {
+        final NioConnector.Exchange failed = exchange;
+        final NioEntityInputStream failedEntity = entity;
+        exchange = null;
+        entity = null;
+        close();
+
+        if (failed == null) {
+            return;
+        }
+        if (failedEntity != null) {
+            failedEntity.fail(cause);
+        } else {
+            connector.failed(failed, reused && !received, cause);
+        }
+    }
+
+    /**
+     * Close the connection. Any current exchange is abandoned.
+     */
+    void close() {
+        if (key != null) {
+            key.cancel();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        connector.closed(this);
+    }
+
+    @Override
+    public void resume(final NioEntityInputStream stream) {
+        connector.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (entity == stream && suspended && key.isValid()) {
+                    suspended = false;
+                    key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                    deadline = deadline(exchange.readTimeout);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void abort(final NioEntityInputStream stream) {
+        connector.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (entity == stream) {
+                    exchange = null;
+                    entity = null;
+                    close();
+                }
+            }
+        });
+    }
+
+    private void write() throws IOException {
+        channel.write(out);
+        if (!out.hasRemaining()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+        deadline = deadline(exchange.readTimeout);
+    }
+
+    private void read() throws IOException {
+        final int read = channel.read(in);
+        if (read == -1) {
+            endOfStream();
+            return;
+        }
+        if (read == 0) {
+            return;
+        }
+        if (exchange == null) {
+            // unsolicited data on an idle connection
+            close();
+            return;
+        }
+
+        received = true;
+        in.flip();
+        try {
+            parse();
+        } finally {
+            in.clear();
+        }
+        if (exchange != null && !suspended) {
+            deadline = deadline(exchange.readTimeout);
+        }
+    }
+
+    private void endOfStream() throws IOException {
+        if (exchange != null && state == State.BODY_UNTIL_CLOSE) {
+            complete();
+        } else if (exchange != null) {
+            throw new IOException(LocalizationMessages.NIO_CONNECTOR_CONNECTION_CLOSED());
+        }
+        close();
+    }
+
+    private void parse() throws IOException {
+        while (in.hasRemaining() && exchange != null) {
+            switch (state) {
+                case BODY:
+                    final int length = (int) Math.min(in.remaining(), remaining);
+                    body(length);
+                    remaining -= length;
+                    if (remaining == 0) {
+                        complete();
+                    }
+                    break;
+                case CHUNK_DATA:
+                    final int chunk = (int) Math.min(in.remaining(), remaining);
+                    body(chunk);
+                    remaining -= chunk;
+                    if (remaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                    break;
+                case BODY_UNTIL_CLOSE:
+                    body(in.remaining());
+                    break;
+                default:
+                    if (readLine()) {
+                        line(line.toString());
+                        line.setLength(0);
+                    }
+            }
+        }
+    }
+
+    private boolean readLine() throws IOException {
+        while (in.hasRemaining()) {
+            final char c = (char) (in.get() & 0xFF);
+            if (c == '\n') {
+                final int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return true;
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new IOException(LocalizationMessages.NIO_CONNECTOR_INVALID_RESPONSE(line));
+            }
+            line.append(c);
+        }
+        return false;
+    }
+
+    private void line(final String value) throws IOException {
+        switch (state) {
+            case STATUS_LINE:
+                if (!value.isEmpty()) {
+                    statusLine(value);
+                    state = State.HEADERS;
+                }
+                break;
+            case HEADERS:
+                if (value.isEmpty()) {
+                    headersComplete();
+                } else {
+                    header(value);
+                }
+                break;
+            case CHUNK_SIZE:
+                final int extension = value.indexOf(';');
+                try {
+                    remaining = Long.parseLong((extension < 0 ? value : value.substring(0, extension)).trim(), 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException(LocalizationMessages.NIO_CONNECTOR_INVALID_RESPONSE(value));
+                }
+                state = remaining == 0 ? State.TRAILERS : State.CHUNK_DATA;
+                break;
+            case CHUNK_END:
+                state = State.CHUNK_SIZE;
+                break;
+            case TRAILERS:
+                if (value.isEmpty()) {
+                    complete();
+                }
+                break;
+            default:
+                throw new IllegalStateException(state.toString());
+        }
+    }
+
+    private void statusLine(final String value) throws IOException {
+        final int first = value.indexOf(' ');
+        if (first < 0 || !value.startsWith("HTTP/")) {
+            throw new IOException(LocalizationMessages.NIO_CONNECTOR_INVALID_RESPONSE(value));
+        }
+        int second = value.indexOf(' ', first + 1);
+        if (second < 0) {
+            second = value.length();
+        }
+        try {
+            status = Integer.parseInt(value.substring(first + 1, second));
+        } catch (NumberFormatException e) {
+            throw new IOException(LocalizationMessages.NIO_CONNECTOR_INVALID_RESPONSE(value));
+        }
+        reasonPhrase = second < value.length() ? value.substring(second + 1) : null;
+        http11 = value.startsWith("HTTP/1.1");
+    }
+
+    private void header(final String value) throws IOException {
+        if ((value.charAt(0) == ' ' || value.charAt(0) == '\t') && lastHeader != null) {
+            // obsolete line folding
+            final List<String> values = headers.get(lastHeader);
+            final int last = values.size() - 1;
+            values.set(last, values.get(last) + ' ' + value.trim());
+            return;
+        }
+
+        final int colon = value.indexOf(':');
+        if (colon <= 0) {
+            throw new IOException(LocalizationMessages.NIO_CONNECTOR_INVALID_RESPONSE(value));
+        }
+        lastHeader = value.substring(0, colon).trim();
+        List<String> values = headers.get(lastHeader);
+        if (values == null) {
+            values = new ArrayList<String>(1);
+            headers.put(lastHeader, values);
+        }
+        values.add(value.substring(colon + 1).trim());
+    }
+
+    private void headersComplete() throws IOException {
+        if (status >= 100 && status < 200 && status != 101) {
+            // interim response
+            resetMessage();
+            state = State.STATUS_LINE;
+            return;
+        }
+
+        final String connection = lowerCase(headerValue("Connection"));
+        if (connection != null && connection.contains("close")) {
+            keepAlive = false;
+        } else {
+            keepAlive = http11 || (connection != null && connection.contains("keep-alive"));
+        }
+
+        final String transferEncoding = lowerCase(headerValue("Transfer-Encoding"));
+        final String contentLength = headerValue(HttpHeaders.CONTENT_LENGTH);
+        boolean hasBody = true;
+        if (HttpMethod.HEAD.equals(exchange.method) || status == 204 || status == 304 || status < 200) {
+            hasBody = false;
+        } else if (transferEncoding != null && transferEncoding.contains("chunked")) {
+            state = State.CHUNK_SIZE;
+        } else if (contentLength != null) {
+            try {
+                remaining = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException(LocalizationMessages.NIO_CONNECTOR_INVALID_RESPONSE(contentLength));
+            }
+            hasBody = remaining > 0;
+            state = State.BODY;
+        } else {
+            keepAlive = false;
+            state = State.BODY_UNTIL_CLOSE;
+        }
+
+        redirect = connector.redirectLocation(exchange, status, headerValue(HttpHeaders.LOCATION));
+        if (redirect == null) {
+            entity = new NioEntityInputStream(this);
+            final ClientResponse response = new ClientResponse(reasonPhrase == null
+                    ? Statuses.from(status) : Statuses.from(status, reasonPhrase), exchange.request);
+            response.headers(new LinkedHashMap<String, List<String>>(headers));
+            response.setEntityStream(entity);
+            connector.respond(exchange, response);
+        }
+
+        if (!hasBody) {
+            complete();
+        }
+    }
+
+    private String headerValue(final String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                final List<String> values = header.getValue();
+                if (values.size() == 1) {
+                    return values.get(0);
+                }
+                final StringBuilder joined = new StringBuilder();
+                for (String value : values) {
+                    if (joined.length() > 0) {
+                        joined.append(',');
+                    }
+                    joined.append(value);
+                }
+                return joined.toString();
+            }
+        }
+        return null;
+    }
+
+    private static String lowerCase(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ENGLISH);
+    }
+
+    private void body(final int length) {
+        if (entity != null && !entity.offer(in.array(), in.position(), length) && !suspended) {
+            suspended = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            deadline = 0;
+        }
+        in.position(in.position() + length);
+    }
+
+    private void complete() {
+        final NioConnector.Exchange completed = exchange;
+        final NioEntityInputStream completedEntity = entity;
+        final URI location = redirect;
+        final boolean reusable = keepAlive && !in.hasRemaining() && key.isValid();
+
+        exchange = null;
+        entity = null;
+        redirect = null;
+        suspended = false;
+        if (completedEntity != null) {
+            completedEntity.complete();
+        }
+
+        if (reusable) {
+            key.interestOps(SelectionKey.OP_READ);
+            deadline = deadline(NioConnector.IDLE_TIMEOUT);
+            connector.release(this);
+        } else {
+            close();
+        }
+
+        if (location != null) {
+            connector.redirect(completed, location);
+        }
+    }
+
+    private void resetMessage() {
+        headers.clear();
+        lastHeader = null;
+        line.setLength(0);
+        status = 0;
+        reasonPhrase = null;
+        remaining = 0;
+        suspended = false;
+    }
+
+    private static long deadline(final int timeout) {
+        return timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+    }
+}
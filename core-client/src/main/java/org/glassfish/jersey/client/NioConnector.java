@@ -0,0 +1,707 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.Charset;
+import java.security.AccessController;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.message.internal.OutboundMessageContext;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Non-blocking client transport connector based on a {@link Selector NIO selector}.
+ * <p>
+ * All the connections of the connector are served by a single selector thread, so that a request that waits for
+ * a response does not block any thread. The {@link AsyncConnectorCallback asynchronous connector callback} is notified
+ * as soon as the response status line and headers are received; the response entity is streamed into the response
+ * entity input stream as it arrives. Both plain (delimited by {@code Content-Length}) and {@code chunked} response
+ * entities are supported. The callbacks are invoked using a callback executor, never by the selector thread.
+ * </p>
+ * <p>
+ * HTTP/1.1 connections are kept alive and reused for subsequent requests to the same destination. A request is sent
+ * over a connection only after the previous response has been received completely, i.e. requests are never pipelined.
+ * The request entity is not streamed: it is serialized into memory by the thread invoking the request and sent with
+ * a {@code Content-Length} header. The maximum size of the request entity is limited by the
+ * {@link ClientProperties#NIO_MAX_REQUEST_ENTITY_SIZE} property.
+ * </p>
+ * <p>
+ * The connector supports the {@link ClientProperties#CONNECT_TIMEOUT}, {@link ClientProperties#READ_TIMEOUT} and
+ * {@link ClientProperties#FOLLOW_REDIRECTS} properties. Only the {@code http} URI scheme is supported, requests
+ * cannot be sent via a proxy.
+ * </p>
+ * <p>
+ * The connector instance may be registered with a {@link JerseyClient} configuration via
+ * {@link ClientConfig#connector(org.glassfish.jersey.client.spi.Connector)}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public class NioConnector implements Connector {
+
+    private static final Logger LOGGER = Logger.getLogger(NioConnector.class.getName());
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * Time (in milliseconds) after which an idle kept-alive connection is closed.
+     */
+    static final int IDLE_TIMEOUT = 60000;
+    /**
+     * Maximum number of idle connections kept alive per destination.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 32;
+    private static final int MAX_REDIRECTS = 20;
+    private static final long TIMEOUT_CHECK_INTERVAL = 100;
+    /**
+     * Default maximum size of a request entity.
+     */
+    private static final int MAX_REQUEST_ENTITY_SIZE = 8 * 1024 * 1024;
+
+    private final Selector selector;
+    private final Thread selectorThread;
+    private final ExecutorService callbackExecutor;
+    private final boolean ownCallbackExecutor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+    // accessed by the selector thread only
+    private final Map<String, Deque<NioConnection>> idleConnections = new HashMap<String, Deque<NioConnection>>();
+    private final Set<NioConnection> connections = new LinkedHashSet<NioConnection>();
+
+    private volatile boolean closed;
+    private volatile boolean terminated;
+
+    /**
+     * Single request-response exchange.
+     */
+    static final class Exchange {
+
+        /**
+         * Client request.
+         */
+        final ClientRequest request;
+        /**
+         * Request URI.
+         */
+        final URI uri;
+        /**
+         * Request method.
+         */
+        final String method;
+        /**
+         * Serialized request.
+         */
+        final byte[] data;
+        /**
+         * Request outbound headers.
+         */
+        final MultivaluedMap<String, String> headers;
+        /**
+         * Connect timeout in milliseconds.
+         */
+        final int connectTimeout;
+        /**
+         * Read timeout in milliseconds.
+         */
+        final int readTimeout;
+        /**
+         * Whether redirects should be followed.
+         */
+        final boolean followRedirects;
+        /**
+         * Number of redirects followed so far.
+         */
+        final int redirects;
+
+        private final InetSocketAddress address;
+        private final String hostKey;
+        private final AsyncConnectorCallback callback;
+        private final SettableFuture<ClientResponse> future;
+        private boolean retried;
+
+        private Exchange(final ClientRequest request, final URI uri, final String method, final byte[] entity,
+                         final MultivaluedMap<String, String> headers, final int connectTimeout, final int readTimeout,
+                         final boolean followRedirects, final int redirects,
+                         final AsyncConnectorCallback callback, final SettableFuture<ClientResponse> future) {
+            this.request = request;
+            this.uri = uri;
+            this.method = method;
+            this.headers = headers;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.followRedirects = followRedirects;
+            this.redirects = redirects;
+            this.callback = callback;
+            this.future = future;
+
+            final int port = uri.getPort() == -1 ? 80 : uri.getPort();
+            this.address = new InetSocketAddress(uri.getHost(), port);
+            this.hostKey = uri.getHost() + ':' + port;
+            this.data = serialize(uri, method, headers, entity);
+        }
+    }
+
+    /**
+     * Create new NIO connector. The connector callbacks are invoked using a cached thread pool executor owned by
+     * the connector.
+     */
+    public NioConnector() {
+        this(null);
+    }
+
+    /**
+     * Create new NIO connector.
+     *
+     * @param callbackExecutor executor used to invoke the {@link AsyncConnectorCallback asynchronous connector callbacks}
+     *                         as well as to resolve redirect destinations. If {@code null}, a cached thread pool executor
+     *                         owned (and shut down) by the connector is used.
+     */
+    public NioConnector(final ExecutorService callbackExecutor) {
+        if (callbackExecutor == null) {
+            this.callbackExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat("jersey-client-nio-callback-%d").setDaemon(true).build());
+            this.ownCallbackExecutor = true;
+        } else {
+            this.callbackExecutor = callbackExecutor;
+            this.ownCallbackExecutor = false;
+        }
+
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        }
+        this.selectorThread = new ThreadFactoryBuilder().setNameFormat("jersey-client-nio-selector-%d").setDaemon(true)
+                .build().newThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        select();
+                    }
+                });
+        this.selectorThread.start();
+    }
+
+    @Override
+    public ClientResponse apply(final ClientRequest request) {
+        final Future<ClientResponse> future = submit(request, null);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ProcessingException) {
+                throw (ProcessingException) cause;
+            }
+            throw new ProcessingException(cause);
+        }
+    }
+
+    @Override
+    public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+        return submit(request, callback);
+    }
+
+    @Override
+    public String getName() {
+        return "NioConnector " + AccessController.doPrivileged(PropertiesHelper.getSystemProperty("java.version"));
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        selector.wakeup();
+        if (Thread.currentThread() != selectorThread) {
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ownCallbackExecutor) {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    private SettableFuture<ClientResponse> submit(final ClientRequest request, final AsyncConnectorCallback callback) {
+        final SettableFuture<ClientResponse> future = SettableFuture.create();
+        final Exchange exchange;
+        try {
+            exchange = createExchange(request, callback, future);
+        } catch (Throwable t) {
+            final ProcessingException failure = t instanceof ProcessingException
+                    ? (ProcessingException) t : new ProcessingException(t);
+            if (callback != null) {
+                callback.failure(failure);
+            }
+            future.setException(failure);
+            return future;
+        }
+
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                dispatch(exchange);
+            }
+        });
+        return future;
+    }
+
+    private Exchange createExchange(final ClientRequest request, final AsyncConnectorCallback callback,
+                                    final SettableFuture<ClientResponse> future) throws IOException {
+        if (closed) {
+            throw new ProcessingException(LocalizationMessages.NIO_CONNECTOR_CLOSED());
+        }
+        final URI uri = request.getUri();
+        if (!"http".equalsIgnoreCase(uri.getScheme())) {
+            throw new ProcessingException(LocalizationMessages.NIO_CONNECTOR_SCHEME_NOT_SUPPORTED(uri.getScheme()));
+        }
+
+        final Map<String, Object> properties = request.getConfiguration().getProperties();
+        byte[] entity = null;
+        if (request.getEntity() != null) {
+            final EntityBuffer buffer = new EntityBuffer(PropertiesHelper.getValue(properties,
+                    ClientProperties.NIO_MAX_REQUEST_ENTITY_SIZE, MAX_REQUEST_ENTITY_SIZE));
+            request.setStreamProvider(new OutboundMessageContext.StreamProvider() {
+
+                @Override
+                public OutputStream getOutputStream(final int contentLength) throws IOException {
+                    return buffer;
+                }
+            });
+            request.writeEntity();
+            entity = buffer.toByteArray();
+        }
+
+        return new Exchange(request, uri, request.getMethod(), entity, request.getStringHeaders(),
+                PropertiesHelper.getValue(properties, ClientProperties.CONNECT_TIMEOUT, 0),
+                PropertiesHelper.getValue(properties, ClientProperties.READ_TIMEOUT, 0),
+                PropertiesHelper.getValue(properties, ClientProperties.FOLLOW_REDIRECTS, true),
+                0, callback, future);
+    }
+
+    /**
+     * Request entity buffer limiting the size of the request entity.
+     */
+    private static final class EntityBuffer extends OutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final int maxSize;
+
+        private EntityBuffer(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            ensureCapacity(1);
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            ensureCapacity(len);
+            buffer.write(b, off, len);
+        }
+
+        private void ensureCapacity(final int length) throws IOException {
+            if (maxSize > 0 && buffer.size() + (long) length > maxSize) {
+                throw new IOException(LocalizationMessages.NIO_CONNECTOR_REQUEST_ENTITY_TOO_LARGE(maxSize));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+    }
+
+    private static byte[] serialize(final URI uri, final String method, final MultivaluedMap<String, String> headers,
+                                    final byte[] entity) {
+        final StringBuilder head = new StringBuilder(256);
+        final String path = uri.getRawPath();
+        head.append(method).append(' ').append(path == null || path.isEmpty() ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            head.append('?').append(uri.getRawQuery());
+        }
+        head.append(" HTTP/1.1\r\n");
+
+        if (!headers.containsKey(HttpHeaders.HOST)) {
+            head.append(HttpHeaders.HOST).append(": ").append(uri.getHost());
+            if (uri.getPort() != -1) {
+                head.append(':').append(uri.getPort());
+            }
+            head.append("\r\n");
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())
+                    || "Transfer-Encoding".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            head.append(header.getKey()).append(": ");
+            boolean add = false;
+            for (String value : header.getValue()) {
+                if (add) {
+                    head.append(',');
+                }
+                add = true;
+                head.append(value);
+            }
+            head.append("\r\n");
+        }
+        if (entity != null) {
+            head.append(HttpHeaders.CONTENT_LENGTH).append(": ").append(entity.length).append("\r\n");
+        } else if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)) {
+            head.append(HttpHeaders.CONTENT_LENGTH).append(": 0\r\n");
+        }
+        head.append("\r\n");
+
+        final byte[] headBytes = head.toString().getBytes(ISO_8859_1);
+        if (entity == null || entity.length == 0) {
+            return headBytes;
+        }
+        final byte[] data = new byte[headBytes.length + entity.length];
+        System.arraycopy(headBytes, 0, data, 0, headBytes.length);
+        System.arraycopy(entity, 0, data, headBytes.length, entity.length);
+        return data;
+    }
+
+    /**
+     * Execute a task on the selector thread.
+     *
+     * @param task task to be executed.
+     */
+    void execute(final Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+        if (terminated) {
+            // selector thread is gone, make sure the task does not get lost
+            runTasks();
+        }
+    }
+
+    /**
+     * Deliver the exchange response.
+     *
+     * @param exchange completed exchange.
+     * @param response exchange response.
+     */
+    void respond(final Exchange exchange, final ClientResponse response) {
+        if (exchange.callback == null) {
+            exchange.future.set(response);
+            return;
+        }
+        invokeCallback(exchange, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    exchange.callback.response(response);
+                } finally {
+                    exchange.future.set(response);
+                }
+            }
+        });
+    }
+
+    /**
+     * Handle failure of an exchange.
+     *
+     * @param exchange  failed exchange.
+     * @param retryable {@code true} if the exchange failed on a reused connection before any response data
+     *                  have been received, i.e. the failure may be caused by a stale kept-alive connection.
+     * @param cause     failure cause.
+     */
+    void failed(final Exchange exchange, final boolean retryable, final Throwable cause) {
+        if (retryable && !exchange.retried && !closed && isIdempotent(exchange.method)) {
+            exchange.retried = true;
+            dispatch(exchange);
+            return;
+        }
+
+        final ProcessingException failure = cause instanceof ProcessingException
+                ? (ProcessingException) cause : new ProcessingException(cause);
+        if (exchange.callback == null) {
+            exchange.future.setException(failure);
+            return;
+        }
+        invokeCallback(exchange, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    exchange.callback.failure(failure);
+                } finally {
+                    exchange.future.setException(failure);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the location the exchange should be redirected to.
+     *
+     * @param exchange exchange.
+     * @param status   response status code.
+     * @param location value of the response {@code Location} header.
+     * @return redirect location or {@code null} if the response should not be redirected.
+     */
+    URI redirectLocation(final Exchange exchange, final int status, final String location) {
+        if (location == null || !exchange.followRedirects || exchange.redirects >= MAX_REDIRECTS) {
+            return null;
+        }
+        switch (status) {
+            case 301:
+            case 302:
+            case 307:
+                if (!HttpMethod.GET.equals(exchange.method) && !HttpMethod.HEAD.equals(exchange.method)) {
+                    return null;
+                }
+                break;
+            case 303:
+                break;
+            default:
+                return null;
+        }
+        try {
+            final URI redirect = exchange.uri.resolve(location);
+            return "http".equalsIgnoreCase(redirect.getScheme()) ? redirect : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Redirect the exchange to a new location.
+     *
+     * @param exchange redirected exchange.
+     * @param location redirect location.
+     */
+    void redirect(final Exchange exchange, final URI location) {
+        // the new destination is resolved outside of the selector thread
+        invokeCallback(exchange, new Runnable() {
+            @Override
+            public void run() {
+                final String method = HttpMethod.HEAD.equals(exchange.method) ? HttpMethod.HEAD : HttpMethod.GET;
+                final Exchange redirected;
+                try {
+                    redirected = new Exchange(exchange.request, location, method, null, exchange.headers,
+                            exchange.connectTimeout, exchange.readTimeout, exchange.followRedirects,
+                            exchange.redirects + 1, exchange.callback, exchange.future);
+                } catch (final Throwable t) {
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            failed(exchange, false, t);
+                        }
+                    });
+                    return;
+                }
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatch(redirected);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Return a connection to the pool of idle connections.
+     *
+     * @param connection idle connection.
+     */
+    void release(final NioConnection connection) {
+        if (closed) {
+            connection.close();
+            return;
+        }
+        Deque<NioConnection> idle = idleConnections.get(connection.getHostKey());
+        if (idle == null) {
+            idle = new ArrayDeque<NioConnection>();
+            idleConnections.put(connection.getHostKey(), idle);
+        }
+        if (idle.size() >= MAX_IDLE_CONNECTIONS) {
+            connection.close();
+        } else {
+            idle.addFirst(connection);
+        }
+    }
+
+    /**
+     * Remove a closed connection.
+     *
+     * @param connection closed connection.
+     */
+    void closed(final NioConnection connection) {
+        connections.remove(connection);
+        final Deque<NioConnection> idle = idleConnections.get(connection.getHostKey());
+        if (idle != null && idle.remove(connection) && idle.isEmpty()) {
+            idleConnections.remove(connection.getHostKey());
+        }
+    }
+
+    private void dispatch(final Exchange exchange) {
+        if (closed) {
+            failed(exchange, false, new ProcessingException(LocalizationMessages.NIO_CONNECTOR_CLOSED()));
+            return;
+        }
+
+        NioConnection connection = null;
+        final Deque<NioConnection> idle = idleConnections.get(exchange.hostKey);
+        if (idle != null) {
+            connection = idle.pollFirst();
+            if (idle.isEmpty()) {
+                idleConnections.remove(exchange.hostKey);
+            }
+        }
+
+        if (connection == null) {
+            connection = new NioConnection(this, exchange.hostKey);
+            connections.add(connection);
+            try {
+                connection.open(selector, exchange.address);
+            } catch (IOException e) {
+                connection.close();
+                failed(exchange, false, e);
+                return;
+            }
+        }
+        connection.start(exchange);
+    }
+
+    private void invokeCallback(final Exchange exchange, final Runnable callback) {
+        try {
+            callbackExecutor.execute(callback);
+        } catch (RejectedExecutionException e) {
+            exchange.future.setException(new ProcessingException(LocalizationMessages.NIO_CONNECTOR_CLOSED(), e));
+        }
+    }
+
+    private static boolean isIdempotent(final String method) {
+        return !HttpMethod.POST.equals(method) && !"PATCH".equals(method);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, LocalizationMessages.NIO_CONNECTOR_TASK_FAILED(), e);
+            }
+        }
+    }
+
+    private void select() {
+        long nextTimeoutCheck = System.nanoTime();
+        try {
+            while (!closed) {
+                runTasks();
+                selector.select(TIMEOUT_CHECK_INTERVAL);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (key.isValid()) {
+                        ((NioConnection) key.attachment()).handle();
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                final long now = System.nanoTime();
+                if (now - nextTimeoutCheck >= 0) {
+                    nextTimeoutCheck = now + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_CHECK_INTERVAL);
+                    for (NioConnection connection : connections.toArray(new NioConnection[connections.size()])) {
+                        connection.checkTimeout(now);
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.log(Level.SEVERE, LocalizationMessages.NIO_CONNECTOR_SELECTOR_FAILED(), t);
+        } finally {
+            closed = true;
+            final IOException failure = new IOException(LocalizationMessages.NIO_CONNECTOR_CLOSED());
+            for (NioConnection connection : connections.toArray(new NioConnection[connections.size()])) {
+                connection.failure(failure);
+            }
+            terminated = true;
+            runTasks();
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
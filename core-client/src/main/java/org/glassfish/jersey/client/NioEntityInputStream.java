@@ -0,0 +1,221 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Response entity input stream of the {@link NioConnector}.
+ * <p>
+ * The stream is fed with the entity data by the connector selector thread and read by the (blocking) entity consumer.
+ * Once the amount of the buffered data exceeds a high water mark, the producer is asked to stop reading from the
+ * connection until the consumer drains the buffered data below a low water mark. This keeps the amount of memory
+ * held by a slow consumer bounded.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class NioEntityInputStream extends InputStream {
+
+    /**
+     * Entity data producer control contract.
+     */
+    static interface Producer {
+
+        /**
+         * Invoked when the consumer has drained the buffered data and the producer may resume reading
+         * the entity data.
+         *
+         * @param stream resumed stream.
+         */
+        void resume(NioEntityInputStream stream);
+
+        /**
+         * Invoked when the consumer has closed the stream before the whole entity has been received.
+         *
+         * @param stream aborted stream.
+         */
+        void abort(NioEntityInputStream stream);
+    }
+
+    private static final int HIGH_WATER_MARK = 64 * 1024;
+    private static final int LOW_WATER_MARK = 16 * 1024;
+
+    private final Producer producer;
+    private final Deque<byte[]> chunks = new ArrayDeque<byte[]>();
+    private final byte[] single = new byte[1];
+    private int position;
+    private int buffered;
+    private boolean suspended;
+    private boolean complete;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Create new entity input stream.
+     *
+     * @param producer entity data producer.
+     */
+    NioEntityInputStream(final Producer producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Add entity data to the stream.
+     *
+     * @param data   entity data.
+     * @param offset data offset.
+     * @param length data length.
+     * @return {@code true} if the producer may continue producing the data, {@code false} if the high water mark
+     *         has been reached and the producer should wait for the {@link Producer#resume(NioEntityInputStream)}
+     *         notification.
+     */
+    synchronized boolean offer(final byte[] data, final int offset, final int length) {
+        if (closed) {
+            return true;
+        }
+        final byte[] chunk = new byte[length];
+        System.arraycopy(data, offset, chunk, 0, length);
+        chunks.addLast(chunk);
+        buffered += length;
+        notifyAll();
+
+        if (buffered > HIGH_WATER_MARK) {
+            suspended = true;
+        }
+        return !suspended;
+    }
+
+    /**
+     * Mark the entity as completely received.
+     */
+    synchronized void complete() {
+        complete = true;
+        notifyAll();
+    }
+
+    /**
+     * Fail the entity stream. Any subsequent read of the not yet buffered data fails with the given exception.
+     *
+     * @param failure entity reading failure.
+     */
+    synchronized void fail(final IOException failure) {
+        if (!complete) {
+            this.failure = failure;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        final int read;
+        boolean resume = false;
+        synchronized (this) {
+            while (chunks.isEmpty()) {
+                if (closed || complete) {
+                    return -1;
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+
+            final byte[] chunk = chunks.peekFirst();
+            read = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, read);
+            position += read;
+            if (position == chunk.length) {
+                chunks.removeFirst();
+                position = 0;
+            }
+            buffered -= read;
+
+            if (suspended && buffered <= LOW_WATER_MARK) {
+                suspended = false;
+                resume = true;
+            }
+        }
+        if (resume) {
+            producer.resume(this);
+        }
+        return read;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        return buffered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        final boolean abort;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            chunks.clear();
+            buffered = 0;
+            abort = !complete && failure == null;
+            notifyAll();
+        }
+        if (abort) {
+            producer.abort(this);
+        }
+    }
+}
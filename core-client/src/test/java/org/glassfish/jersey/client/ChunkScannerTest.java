@@ -0,0 +1,178 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link ChunkScanner} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ChunkScannerTest {
+
+    private static final int[] READ_SIZES = {1, 2, 3, 7, 8192};
+
+    /**
+     * Input stream returning at most the given number of bytes per read.
+     */
+    private static class SlowInputStream extends FilterInputStream {
+
+        private final int readSize;
+
+        SlowInputStream(final String data, final int readSize) throws IOException {
+            super(new ByteArrayInputStream(data.getBytes("UTF-8")));
+            this.readSize = readSize;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, readSize));
+        }
+    }
+
+    private static String toString(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[5];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toString("UTF-8");
+    }
+
+    private static List<String> readChunks(final String data, final String boundary, final int readSize)
+            throws IOException {
+        final byte[] delimiter = boundary.getBytes("UTF-8");
+        final int[] shift = ChunkScanner.createShiftTable(delimiter);
+        final ChunkScanner scanner = new ChunkScanner(new SlowInputStream(data, readSize));
+
+        final List<String> chunks = new ArrayList<String>();
+        InputStream chunk;
+        while ((chunk = scanner.readChunk(delimiter, shift)) != null) {
+            chunks.add(toString(chunk));
+        }
+        return chunks;
+    }
+
+    private static List<String> streamChunks(final String data, final String boundary, final int readSize,
+                                             final int consumed) throws IOException {
+        final byte[] delimiter = boundary.getBytes("UTF-8");
+        final int[] shift = ChunkScanner.createShiftTable(delimiter);
+        final ChunkScanner scanner = new ChunkScanner(new SlowInputStream(data, readSize));
+
+        final List<String> chunks = new ArrayList<String>();
+        ChunkScanner.ChunkStream chunk;
+        while ((chunk = scanner.streamChunk(delimiter, shift)) != null) {
+            final StringBuilder sb = new StringBuilder();
+            int b;
+            while (sb.length() < consumed && (b = chunk.read()) != -1) {
+                sb.append((char) b);
+            }
+            chunk.skipRemaining();
+            chunks.add(sb.toString());
+        }
+        return chunks;
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        for (int readSize : READ_SIZES) {
+            assertEquals(Arrays.asList("a", "bc", "def"), readChunks("a\r\nbc\r\ndef\r\n", "\r\n", readSize));
+            assertEquals(Arrays.asList("a", "bc", "def"), readChunks("a\r\nbc\r\ndef", "\r\n", readSize));
+            assertEquals(Arrays.asList("a", "bc"), readChunks("\r\n\r\na\r\n\r\n\r\nbc\r\n\r\n", "\r\n", readSize));
+            assertEquals(Arrays.asList("x", "y"), readChunks("x|y|", "|", readSize));
+            assertEquals(Arrays.<String>asList(), readChunks("", "\r\n", readSize));
+            assertEquals(Arrays.<String>asList(), readChunks("\r\n\r\n", "\r\n", readSize));
+        }
+    }
+
+    @Test
+    public void testPartialBoundary() throws IOException {
+        for (int readSize : READ_SIZES) {
+            assertEquals(Arrays.asList("a\r", "b\rc"), readChunks("a\r\r\nb\rc\r\n", "\r\n", readSize));
+            assertEquals(Arrays.asList("a\n\n", "b\n"), readChunks("a\n\n\n--\nb\n\n--\n", "\n--\n", readSize));
+            assertEquals(Arrays.asList("a", "b\n-"), readChunks("a\n--\nb\n-", "\n--\n", readSize));
+        }
+    }
+
+    @Test
+    public void testLargeChunk() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        final String large = sb.toString();
+        assertEquals(Arrays.asList(large, "b"), readChunks(large + "\r\nb\r\n", "\r\n", 8192));
+        assertEquals(Arrays.asList(large, "b"), streamChunks(large + "\r\nb\r\n", "\r\n", 8192, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testStreamChunks() throws IOException {
+        for (int readSize : READ_SIZES) {
+            assertEquals(Arrays.asList("a", "bc", "def"),
+                    streamChunks("\r\na\r\nbc\r\n\r\ndef\r\n", "\r\n", readSize, Integer.MAX_VALUE));
+            assertEquals(Arrays.asList("a\r", "b\rc"), streamChunks("a\r\r\nb\rc", "\r\n", readSize, Integer.MAX_VALUE));
+            assertEquals(Arrays.asList("a", "bc", "de"), streamChunks("a\r\nbcd\r\ndefgh\r\n", "\r\n", readSize, 2));
+        }
+    }
+
+    @Test
+    public void testRemaining() throws IOException {
+        final byte[] delimiter = "\r\n".getBytes("UTF-8");
+        final int[] shift = ChunkScanner.createShiftTable(delimiter);
+        final ChunkScanner scanner = new ChunkScanner(new SlowInputStream("a\r\nbc\r\nd", 8192));
+
+        assertEquals("a", toString(scanner.readChunk(delimiter, shift)));
+        assertEquals("bc\r\nd", toString(scanner.remaining()));
+        assertNull(scanner.readChunk(delimiter, shift));
+    }
+}
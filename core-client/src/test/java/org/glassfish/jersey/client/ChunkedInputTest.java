@@ -0,0 +1,186 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2011-2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Scanner;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link ChunkedInput} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ChunkedInputTest {
+
+    private static final String CHUNKS = "first\r\nsecond\r\nthird\r\n";
+
+    /**
+     * Connector returning a fixed chunked response entity.
+     */
+    public static class ChunksConnector implements Connector {
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+            response.header("Content-Type", MediaType.TEXT_PLAIN);
+            response.setEntityStream(new ByteArrayInputStream(CHUNKS.getBytes()));
+            return response;
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            throw new ProcessingException("not supported");
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+
+    /**
+     * Chunk type that keeps the chunk stream and reads it lazily, similarly to a {@link javax.xml.transform.Source}.
+     */
+    public static class LazyChunk {
+
+        private final InputStream stream;
+
+        public LazyChunk(final InputStream stream) {
+            this.stream = stream;
+        }
+
+        public String text() {
+            return new Scanner(stream).useDelimiter("\\A").next();
+        }
+    }
+
+    public static class LazyChunkReader implements MessageBodyReader<LazyChunk> {
+
+        @Override
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == LazyChunk.class;
+        }
+
+        @Override
+        public LazyChunk readFrom(Class<LazyChunk> type, Type genericType, Annotation[] annotations,
+                                  MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
+                                  InputStream entityStream) throws IOException, WebApplicationException {
+            return new LazyChunk(entityStream);
+        }
+    }
+
+    private ChunkedInput<LazyChunk> lazyChunks(final boolean streaming) {
+        final Client client = ClientBuilder.newClient(new ClientConfig()
+                .connector(new ChunksConnector()).register(LazyChunkReader.class).getConfiguration());
+        final ChunkedInput<LazyChunk> input = client.target("http://localhost/").request()
+                .get(new GenericType<ChunkedInput<LazyChunk>>() {});
+        input.setStreaming(streaming);
+        return input;
+    }
+
+    @Test
+    public void testRetainedChunkStream() {
+        final ChunkedInput<LazyChunk> input = lazyChunks(false);
+
+        final LazyChunk first = input.read();
+        final LazyChunk second = input.read();
+        final LazyChunk third = input.read();
+        assertNull(input.read());
+
+        assertEquals("first", first.text());
+        assertEquals("second", second.text());
+        assertEquals("third", third.text());
+    }
+
+    @Test
+    public void testRetainedChunkStreamStreaming() {
+        final ChunkedInput<LazyChunk> input = lazyChunks(true);
+
+        final LazyChunk first = input.read();
+        final LazyChunk second = input.read();
+
+        assertEquals("first", first.text());
+        assertEquals("second", second.text());
+        input.close();
+    }
+
+    @Test
+    public void testStringChunks() {
+        final Client client = ClientBuilder.newClient(new ClientConfig()
+                .connector(new ChunksConnector()).getConfiguration());
+        for (final boolean streaming : new boolean[] {false, true}) {
+            final ChunkedInput<String> input = client.target("http://localhost/").request()
+                    .get(new GenericType<ChunkedInput<String>>() {});
+            input.setStreaming(streaming);
+
+            assertEquals("first", input.read());
+            assertEquals("second", input.read());
+            assertEquals("third", input.read());
+            assertNull(input.read());
+        }
+    }
+}
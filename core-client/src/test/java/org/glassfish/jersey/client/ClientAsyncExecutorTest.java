@@ -0,0 +1,160 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Bounded client async executor tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ClientAsyncExecutorTest {
+
+    /**
+     * Connector blocking the asynchronous requests until released.
+     */
+    private static class BlockingConnector implements Connector {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            return new ClientResponse(Response.Status.OK, request);
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            callback.response(new ClientResponse(Response.Status.OK, request));
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+    }
+
+    @Test
+    public void testSaturatedExecutorRejectsRequests() throws Exception {
+        final BlockingConnector connector = new BlockingConnector();
+        final JerseyClient client = (JerseyClient) ClientBuilder.newClient(new ClientConfig()
+                .connector(connector)
+                .property(ClientProperties.ASYNC_THREADPOOL_SIZE, 1)
+                .property(ClientProperties.ASYNC_QUEUE_CAPACITY, 1));
+        try {
+            final Future<Response> first = client.target("http://localhost/").request().async().get();
+            final Future<Response> second = client.target("http://localhost/").request().async().get();
+            final Future<Response> third = client.target("http://localhost/").request().async().get();
+
+            assertTrue(third.isDone());
+            try {
+                third.get();
+                fail("Rejected request expected.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ProcessingException);
+                assertTrue(e.getCause().getCause() instanceof RejectedExecutionException);
+            }
+
+            final ClientAsyncExecutorStatistics statistics = client.getAsyncExecutorStatistics();
+            assertEquals(1, statistics.getPoolSize());
+            assertEquals(1, statistics.getActiveCount());
+            assertEquals(1, statistics.getQueueDepth());
+            assertEquals(1, statistics.getRejectedCount());
+
+            connector.release.countDown();
+            assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatus());
+            assertEquals(200, second.get(10, TimeUnit.SECONDS).getStatus());
+
+            assertEquals(0, statistics.getQueueDepth());
+            assertTrue(statistics.getMaxWaitTime(TimeUnit.NANOSECONDS) > 0);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testUnboundedExecutorStatistics() throws Exception {
+        final JerseyClient client = (JerseyClient) ClientBuilder.newClient(new ClientConfig()
+                .connector(new BlockingConnector() {
+                    @Override
+                    public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+                        callback.response(new ClientResponse(Response.Status.OK, request));
+                        return null;
+                    }
+                }));
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(200, client.target("http://localhost/").request().async().get().get().getStatus());
+            }
+            final ClientAsyncExecutorStatistics statistics = client.getAsyncExecutorStatistics();
+            assertEquals(0, statistics.getRejectedCount());
+            assertEquals(0, statistics.getQueueDepth());
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.client.ClientMonitoringStatistics.Phase;
+import org.glassfish.jersey.client.ClientMonitoringStatistics.Target;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Client monitoring statistics tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ClientMonitoringTest {
+
+    private HttpServer server;
+    private JerseyClient client;
+    private String baseUri;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", new StatusHandler(200));
+        server.createContext("/missing", new StatusHandler(404));
+        server.createContext("/failing", new StatusHandler(500));
+        server.start();
+
+        baseUri = "http://localhost:" + server.getAddress().getPort();
+        client = (JerseyClient) ClientBuilder.newClient(new ClientConfig().register(ClientMonitoringFeature.class));
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    private Target statistics(final String uriTemplate) {
+        final Target target = client.getMonitoringStatistics().getTargets().get(baseUri + uriTemplate);
+        assertTrue("Statistics of " + uriTemplate + " not collected.", target != null);
+        return target;
+    }
+
+    @Test
+    public void testStatisticsCollectedPerUriTemplate() {
+        final WebTarget users = client.target(baseUri).path("users/{id}");
+        assertEquals("users", users.resolveTemplate("id", 1).request().get(String.class));
+        assertEquals("users", users.resolveTemplate("id", 2).queryParam("q", "x").request().get(String.class));
+        assertEquals("users", users.resolveTemplate("id", 3).request().post(Entity.text("data"), String.class));
+
+        assertEquals(1, client.getMonitoringStatistics().getTargets().size());
+        final Target target = statistics("/users/{id}");
+        assertEquals(3, target.getRequestCount());
+        assertEquals(0, target.getFailureCount());
+        assertEquals(0, target.getClientErrorCount());
+        for (Phase phase : new Phase[] {Phase.REQUEST_FILTERING, Phase.CONNECT, Phase.WAIT, Phase.RESPONSE_FILTERING,
+                Phase.READ, Phase.TOTAL}) {
+            assertEquals(phase.name(), 3, target.getTiming(phase).getCount());
+        }
+        assertEquals(1, target.getTiming(Phase.SEND).getCount());
+        assertTrue(target.getTiming(Phase.TOTAL).getMaxTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void testAsyncRequest() throws ExecutionException, InterruptedException {
+        final Response response = client.target(baseUri).path("users").request().async().get().get();
+        assertEquals("users", response.readEntity(String.class));
+
+        final Target target = statistics("/users");
+        assertEquals(1, target.getRequestCount());
+        assertEquals(1, target.getTiming(Phase.TOTAL).getCount());
+        assertEquals(1, target.getTiming(Phase.READ).getCount());
+    }
+
+    @Test
+    public void testErrorCounters() {
+        assertEquals(404, client.target(baseUri).path("missing").request().get().getStatus());
+        assertEquals(500, client.target(baseUri).path("failing").request().get().getStatus());
+        assertEquals(1, statistics("/missing").getClientErrorCount());
+        assertEquals(1, statistics("/failing").getServerErrorCount());
+
+        server.stop(0);
+        try {
+            client.target(baseUri).path("users").request().get();
+            fail("Connection failure expected.");
+        } catch (ProcessingException expected) {
+            // ignored
+        }
+        assertEquals(1, statistics("/users").getFailureCount());
+        assertEquals(0, statistics("/users").getTiming(Phase.TOTAL).getCount());
+    }
+
+    @Test
+    public void testAbortedRequest() {
+        final Response response = client.target(baseUri).path("users").register(new ClientRequestFilter() {
+            @Override
+            public void filter(final ClientRequestContext requestContext) throws IOException {
+                requestContext.abortWith(Response.status(404).build());
+            }
+        }).request().get();
+        assertEquals(404, response.getStatus());
+
+        final Target target = statistics("/users");
+        assertEquals(1, target.getClientErrorCount());
+        assertEquals(1, target.getTiming(Phase.REQUEST_FILTERING).getCount());
+        assertEquals(0, target.getTiming(Phase.CONNECT).getCount());
+        assertEquals(0, target.getTiming(Phase.WAIT).getCount());
+    }
+
+    @Test
+    public void testMonitoringDisabled() {
+        final JerseyClient plain = (JerseyClient) ClientBuilder.newClient();
+        try {
+            plain.target(baseUri).path("users").request().get().close();
+            assertTrue(plain.getMonitoringStatistics().getTargets().isEmpty());
+        } finally {
+            plain.close();
+        }
+    }
+
+    @Test
+    public void testMBeansExposed() throws Exception {
+        final Client mBeansClient = ClientBuilder.newClient(
+                new ClientConfig().register(new ClientMonitoringFeature().setMBeansEnabled(true)));
+        final ObjectName names = new ObjectName("org.glassfish.jersey:type=Client,subType=Targets,*");
+        try {
+            mBeansClient.target(baseUri).path("users").request().get().close();
+
+            boolean found = false;
+            for (ObjectName name : ManagementFactory.getPlatformMBeanServer().queryNames(names, null)) {
+                if (ObjectName.unquote(name.getKeyProperty("target")).equals(baseUri + "/users")) {
+                    assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RequestCount"));
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        } finally {
+            mBeansClient.close();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().queryNames(names, null).size() > 0);
+    }
+
+    private static class StatusHandler implements HttpHandler {
+
+        private final int status;
+
+        private StatusHandler(final int status) {
+            this.status = status;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            final InputStream in = exchange.getRequestBody();
+            while (in.read() != -1) {
+                // consume the request entity
+            }
+            final byte[] data = exchange.getRequestURI().getPath().substring(1, 6).getBytes("UTF-8");
+            exchange.sendResponseHeaders(status, data.length);
+            final OutputStream out = exchange.getResponseBody();
+            out.write(data);
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link HttpUrlConnector} connection pool tests.
+ *
+ * @author agent (agent at local)
+ */
+public class HttpUrlConnectionPoolTest {
+
+    private HttpServer server;
+    private HttpUrlConnector connector;
+    private Client client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/text", new EntityHandler(5));
+        server.createContext("/large", new EntityHandler(256 * 1024));
+        server.createContext("/empty", new EntityHandler(-1));
+        server.start();
+
+        connector = new HttpUrlConnector();
+        client = ClientBuilder.newClient(new ClientConfig().connector(connector));
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    private WebTarget target(final String path) {
+        return client.target("http://localhost:" + server.getAddress().getPort()).path(path);
+    }
+
+    @Test
+    public void testLeaseReleasedWhenEntityRead() {
+        assertEquals("xxxxx", target("text").request().get(String.class));
+
+        final ConnectionPoolStatistics statistics = connector.getConnectionPoolStatistics();
+        assertEquals(0, statistics.getLeasedCount());
+        assertEquals(1, statistics.getLeaseCount());
+        assertEquals(1, statistics.getRoutes().size());
+    }
+
+    @Test
+    public void testLeaseReleasedWithoutEntity() {
+        assertEquals(204, target("empty").request().get().getStatus());
+        assertEquals(0, connector.getConnectionPoolStatistics().getLeasedCount());
+    }
+
+    @Test
+    public void testMaxConnectionsPerRoute() {
+        final WebTarget target = target("text")
+                .property(ClientProperties.MAX_CONNECTIONS_PER_ROUTE, 1)
+                .property(ClientProperties.CONNECT_TIMEOUT, 100);
+        final ConnectionPoolStatistics statistics = connector.getConnectionPoolStatistics();
+
+        final Response first = target.request().get();
+        assertEquals(1, statistics.getLeasedCount());
+        try {
+            target.request().get();
+            fail("Lease timeout expected.");
+        } catch (ProcessingException e) {
+            assertEquals(1, statistics.getLeaseTimeoutCount());
+        }
+
+        // closing the response with an unread entity drains the entity and returns the lease
+        first.close();
+        assertEquals(0, statistics.getLeasedCount());
+        assertEquals(1, statistics.getDrainedCount());
+
+        assertEquals("xxxxx", target.request().get(String.class));
+        assertEquals(0, statistics.getLeasedCount());
+    }
+
+    @Test
+    public void testAbandonedLeaseReclaimed() {
+        final WebTarget target = target("text").property(ClientProperties.MAX_CONNECTIONS_PER_ROUTE, 1);
+        final ConnectionPoolStatistics statistics = connector.getConnectionPoolStatistics();
+
+        // the response is not closed
+        assertEquals(200, target.request().get().getStatus());
+        assertEquals(1, statistics.getLeasedCount());
+
+        // the lease of the garbage collected response is reclaimed
+        System.gc();
+        assertEquals("xxxxx", target.request().get(String.class));
+        assertEquals(0, statistics.getLeasedCount());
+        assertEquals(1, statistics.getDiscardedCount());
+        assertEquals(0, statistics.getLeaseTimeoutCount());
+    }
+
+    @Test
+    public void testLargeUnreadEntityDiscarded() {
+        final Response response = target("large").request().get();
+        response.close();
+
+        final ConnectionPoolStatistics statistics = connector.getConnectionPoolStatistics();
+        assertEquals(0, statistics.getLeasedCount());
+        assertEquals(1, statistics.getDiscardedCount());
+    }
+
+    private static class EntityHandler implements HttpHandler {
+
+        private final int length;
+
+        private EntityHandler(final int length) {
+            this.length = length;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            if (length < 0) {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, length);
+            final OutputStream out = exchange.getResponseBody();
+            final byte[] data = new byte[length];
+            Arrays.fill(data, (byte) 'x');
+            out.write(data);
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link NioConnector} tests run against an in-process HTTP/1.1 stub server.
+ *
+ * @author agent (agent at local)
+ */
+public class NioConnectorTest {
+
+    private StubServer server;
+    private Client client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StubServer();
+        client = ClientBuilder.newClient(new ClientConfig().connector(new NioConnector()));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testGetWithContentLength() {
+        final Response response = client.target(server.uri("text")).request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("text/plain", response.getHeaderString("Content-Type"));
+        assertEquals("hello", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testChunkedResponse() {
+        assertEquals("chunk-1 chunk-2 chunk-3", client.target(server.uri("chunked")).request().get(String.class));
+    }
+
+    @Test
+    public void testPostEntity() {
+        final String entity = client.target(server.uri("echo")).request().post(Entity.text("echo me"), String.class);
+        assertEquals("echo me", entity);
+    }
+
+    @Test
+    public void testRequestEntityTooLarge() {
+        try {
+            client.target(server.uri("echo")).property(ClientProperties.NIO_MAX_REQUEST_ENTITY_SIZE, 4)
+                    .request().post(Entity.text("echo me"), String.class);
+            fail("ProcessingException expected.");
+        } catch (ProcessingException expected) {
+            // ok
+        }
+        assertEquals(0, server.connections.get());
+
+        final String entity = client.target(server.uri("echo")).property(ClientProperties.NIO_MAX_REQUEST_ENTITY_SIZE, 7)
+                .request().post(Entity.text("echo me"), String.class);
+        assertEquals("echo me", entity);
+    }
+
+    @Test
+    public void testResponseDelimitedByClose() {
+        assertEquals("until close", client.target(server.uri("close")).request().get(String.class));
+        assertEquals("until close", client.target(server.uri("close")).request().get(String.class));
+        assertEquals(2, server.connections.get());
+    }
+
+    @Test
+    public void testNoContent() {
+        final Response response = client.target(server.uri("empty")).request().get();
+        assertEquals(204, response.getStatus());
+        assertFalse(response.hasEntity());
+    }
+
+    @Test
+    public void testKeepAlive() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("hello", client.target(server.uri("text")).request().get(String.class));
+            assertEquals("chunk-1 chunk-2 chunk-3", client.target(server.uri("chunked")).request().get(String.class));
+        }
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    public void testStaleConnectionRetried() throws IOException {
+        assertEquals("hello", client.target(server.uri("text")).request().get(String.class));
+        server.closeConnections();
+        assertEquals("hello", client.target(server.uri("text")).request().get(String.class));
+    }
+
+    @Test
+    public void testRedirect() {
+        assertEquals("hello", client.target(server.uri("redirect")).request().get(String.class));
+
+        final Response response = client.target(server.uri("redirect")).property(ClientProperties.FOLLOW_REDIRECTS, false)
+                .request().get();
+        assertEquals(302, response.getStatus());
+        response.close();
+    }
+
+    @Test
+    public void testReadTimeout() {
+        try {
+            client.target(server.uri("slow")).property(ClientProperties.READ_TIMEOUT, 200).request().get();
+            fail("Read timeout expected.");
+        } catch (ProcessingException e) {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+    }
+
+    @Test
+    public void testUnsupportedScheme() {
+        try {
+            client.target("https://localhost:" + server.port + "/text").request().get();
+            fail("Processing exception expected.");
+        } catch (ProcessingException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testResponseDeliveredBeforeEntityCompleted() throws Exception {
+        final Future<Response> future = client.target(server.uri("stream")).request().async().get();
+        final Response response = future.get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatus());
+
+        final InputStream entity = response.readEntity(InputStream.class);
+        final byte[] first = new byte[5];
+        assertEquals(5, entity.read(first));
+        assertEquals("first", new String(first, "ISO-8859-1"));
+
+        server.streamLatch.countDown();
+        assertEquals("second", readAll(entity));
+    }
+
+    @Test
+    public void testConcurrentAsyncRequests() throws InterruptedException {
+        final int count = 200;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final AtomicInteger successes = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            client.target(server.uri("text")).request().async().get(new InvocationCallback<String>() {
+                @Override
+                public void completed(final String response) {
+                    if ("hello".equals(response)) {
+                        successes.incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+
+                @Override
+                public void failed(final Throwable throwable) {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(count, successes.get());
+    }
+
+    private static String readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[256];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toString("ISO-8859-1");
+    }
+
+    /**
+     * Minimal blocking HTTP/1.1 server serving a fixed set of resources.
+     */
+    private static class StubServer {
+
+        private final ServerSocket serverSocket;
+        private final int port;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<Socket> sockets = new ArrayList<Socket>();
+        private final CountDownLatch streamLatch = new CountDownLatch(1);
+
+        StubServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            port = serverSocket.getLocalPort();
+            final Thread acceptor = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    accept();
+                }
+            }, "stub-server-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        URI uri(final String path) {
+            return URI.create("http://localhost:" + port + "/" + path);
+        }
+
+        synchronized void closeConnections() throws IOException {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            sockets.clear();
+        }
+
+        void close() throws IOException {
+            streamLatch.countDown();
+            serverSocket.close();
+            closeConnections();
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    final Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    synchronized (this) {
+                        sockets.add(socket);
+                    }
+                    final Thread handler = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            serve(socket);
+                        }
+                    }, "stub-server-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException e) {
+                // server closed
+            }
+        }
+
+        private void serve(final Socket socket) {
+            try {
+                final InputStream in = socket.getInputStream();
+                final OutputStream out = socket.getOutputStream();
+                String requestLine;
+                while ((requestLine = readLine(in)) != null) {
+                    final Map<String, String> headers = new HashMap<String, String>();
+                    String header;
+                    while ((header = readLine(in)) != null && !header.isEmpty()) {
+                        final int colon = header.indexOf(':');
+                        headers.put(header.substring(0, colon).trim().toLowerCase(Locale.ENGLISH),
+                                header.substring(colon + 1).trim());
+                    }
+                    final byte[] body = new byte[headers.containsKey("content-length")
+                            ? Integer.parseInt(headers.get("content-length")) : 0];
+                    for (int read = 0; read < body.length; ) {
+                        read += in.read(body, read, body.length - read);
+                    }
+
+                    final String path = requestLine.split(" ")[1];
+                    if (!respond(path, body, out)) {
+                        socket.close();
+                        return;
+                    }
+                }
+                socket.close();
+            } catch (Exception e) {
+                // connection closed
+            }
+        }
+
+        private boolean respond(final String path, final byte[] body, final OutputStream out) throws Exception {
+            if ("/text".equals(path)) {
+                write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 5\r\n\r\nhello");
+            } else if ("/chunked".equals(path)) {
+                write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n"
+                        + "8\r\nchunk-1 \r\n8;ext=1\r\nchunk-2 \r\n7\r\nchunk-3\r\n0\r\nTrailer: x\r\n\r\n");
+            } else if ("/echo".equals(path)) {
+                write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length + "\r\n\r\n");
+                out.write(body);
+                out.flush();
+            } else if ("/close".equals(path)) {
+                write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nConnection: close\r\n\r\nuntil close");
+                return false;
+            } else if ("/empty".equals(path)) {
+                write(out, "HTTP/1.1 204 No Content\r\n\r\n");
+            } else if ("/redirect".equals(path)) {
+                write(out, "HTTP/1.1 302 Found\r\nLocation: /text\r\nContent-Length: 5\r\n\r\nmoved");
+            } else if ("/slow".equals(path)) {
+                Thread.sleep(2000);
+                return false;
+            } else if ("/stream".equals(path)) {
+                write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nfirst\r\n");
+                streamLatch.await(10, TimeUnit.SECONDS);
+                write(out, "6\r\nsecond\r\n0\r\n\r\n");
+            } else {
+                write(out, "HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n");
+            }
+            return true;
+        }
+
+        private static void write(final OutputStream out, final String data) throws IOException {
+            out.write(data.getBytes("ISO-8859-1"));
+            out.flush();
+        }
+
+        private static String readLine(final InputStream in) throws IOException {
+            final StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') {
+                    final int length = line.length();
+                    return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+                }
+                line.append((char) c);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+    }
+}
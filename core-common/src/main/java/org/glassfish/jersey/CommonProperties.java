@@ -126,6 +126,54 @@ public final class CommonProperties {
      */
     public static final String OUTBOUND_CONTENT_LENGTH_BUFFER = "jersey.config.contentLength.buffer";
 
+    /**
+     * Strategy of pooling the buffers used to buffer the outbound message entity
+     * (see {@link #OUTBOUND_CONTENT_LENGTH_BUFFER}).
+     * <p>
+     * The value MUST be a {@code String} naming one of the following strategies:
+     * <ul>
+     * <li><tt>none</tt> - a new buffer is allocated for every buffered entity,</li>
+     * <li><tt>threadLocal</tt> - a few buffers are kept per thread,</li>
+     * <li><tt>shared</tt> - buffers are kept in a bounded lock-free pool shared by all threads.</li>
+     * </ul>
+     * The strategy names are case insensitive, an unknown strategy name disables the pooling.
+     * Buffers are returned to the pool once the underlying output stream of the entity has been closed, hence
+     * containers or connectors that keep a reference to the written byte arrays until then are safe.
+     * </p>
+     * The value of this property may be overridden by the client/server variant of this property by defining the suffix
+     * to this property "<tt>.server</tt>" or "<tt>.client</tt>"
+     * (<tt>{@value}.server</tt> or  <tt>{@value}.client</tt>).
+     * <p>
+     * The default value is <tt>none</tt>.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String OUTBOUND_CONTENT_LENGTH_BUFFER_POOL = "jersey.config.contentLength.buffer.pool";
+
+    /**
+     * A long value that defines the maximum number of bytes retained in the pooled entity buffers that are not
+     * in use (see {@link #OUTBOUND_CONTENT_LENGTH_BUFFER_POOL}). Value less or equal to zero disables the pooling.
+     * <p>
+     * The value of this property may be overridden by the client/server variant of this property by defining the suffix
+     * to this property "<tt>.server</tt>" or "<tt>.client</tt>"
+     * (<tt>{@value}.server</tt> or  <tt>{@value}.client</tt>).
+     * </p>
+     * <p>
+     * The default value is <tt>4194304</tt> (4 MiB).
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String OUTBOUND_CONTENT_LENGTH_BUFFER_POOL_MAX_MEMORY =
+            "jersey.config.contentLength.buffer.pool.maxMemory";
+
     /**
      * Prevent instantiation.
      */
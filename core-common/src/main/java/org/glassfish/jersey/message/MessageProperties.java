@@ -124,6 +124,29 @@ public final class MessageProperties {
      */
     public static final String LEGACY_WORKERS_ORDERING = "jersey.config.workers.legacyOrdering";
 
+    /**
+     * Maximum number of cached {@link javax.ws.rs.ext.MessageBodyReader message body reader} and
+     * {@link javax.ws.rs.ext.MessageBodyWriter message body writer} selections. Selected workers are cached
+     * by entity raw type, generic type, annotations and media type. The property value is expected to be an integer;
+     * value less or equal to zero disables the caching.
+     * <p />
+     * The worker selection cache is bypassed when tracing of the worker selection is enabled.
+     * <p />
+     * The default value is <code>{@value #WORKERS_SELECTION_CACHE_DEFAULT_SIZE}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     *
+     * @since 2.4
+     */
+    public static final String WORKERS_SELECTION_CACHE_SIZE = "jersey.config.workers.selectionCache.size";
+
+    /**
+     * The default maximum number ({@value}) of cached message body worker selections.
+     *
+     * @since 2.4
+     */
+    public static final int WORKERS_SELECTION_CACHE_DEFAULT_SIZE = 1024;
+
     /**
      * Prevents instantiation.
      */
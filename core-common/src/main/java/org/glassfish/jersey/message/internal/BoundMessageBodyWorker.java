@@ -0,0 +1,230 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.internal.PropertiesDelegate;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Message body reader or writer selected in advance for an entity type and a set of media types that are
+ * statically known (e.g. declared by a resource method).
+ * <p>
+ * A bound worker is attached to a request via
+ * {@link TracingAwarePropertiesDelegate#setBoundWorkers(BoundMessageBodyWorker, BoundMessageBodyWorker)}. The terminal
+ * reader and writer interceptors then use the bound worker instead of asking {@link MessageBodyWorkers} to select one,
+ * provided the actual entity type, annotations and media type match the ones the worker has been selected for.
+ * Otherwise the worker is selected dynamically as usual.
+ * </p>
+ * <p>
+ * The workers are selected via {@link MessageBodyWorkers}, hence binding also populates the worker selection cache
+ * of the message body workers for the bound entity and media types.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public final class BoundMessageBodyWorker {
+
+    private final Class<?> rawType;
+    private final Type genericType;
+    private final Annotation[] annotations;
+    private final MediaType[] mediaTypes;
+    private final Object[] workers;
+
+    private BoundMessageBodyWorker(final Class<?> rawType,
+                                   final Type genericType,
+                                   final Annotation[] annotations,
+                                   final List<MediaType> mediaTypes,
+                                   final List<Object> workers) {
+        this.rawType = rawType;
+        this.genericType = genericType;
+        this.annotations = annotations;
+        this.mediaTypes = mediaTypes.toArray(new MediaType[mediaTypes.size()]);
+        this.workers = workers.toArray();
+    }
+
+    /**
+     * Select message body readers for the given entity type and each of the concrete media types.
+     *
+     * @param workers     message body workers.
+     * @param rawType     raw entity type.
+     * @param genericType generic entity type.
+     * @param annotations entity annotations.
+     * @param mediaTypes  candidate entity media types; wildcard media types are ignored.
+     * @return bound message body reader or {@code null} if no reader could be selected in advance.
+     */
+    public static BoundMessageBodyWorker bindReader(final MessageBodyWorkers workers,
+                                                    final Class<?> rawType,
+                                                    final Type genericType,
+                                                    final Annotation[] annotations,
+                                                    final Collection<MediaType> mediaTypes) {
+        final List<MediaType> boundTypes = Lists.newArrayList();
+        final List<Object> boundReaders = Lists.newArrayList();
+        for (MediaType mediaType : mediaTypes) {
+            if (isConcrete(mediaType)) {
+                final MessageBodyReader<?> reader = workers.getMessageBodyReader(rawType, genericType, annotations, mediaType);
+                if (reader != null) {
+                    boundTypes.add(mediaType);
+                    boundReaders.add(reader);
+                }
+            }
+        }
+        return boundTypes.isEmpty() ? null
+                : new BoundMessageBodyWorker(rawType, genericType, annotations, boundTypes, boundReaders);
+    }
+
+    /**
+     * Select message body writers for the given entity type and each of the concrete media types.
+     *
+     * @param workers     message body workers.
+     * @param rawType     raw entity type.
+     * @param genericType generic entity type.
+     * @param annotations entity annotations.
+     * @param mediaTypes  candidate entity media types; wildcard media types are ignored.
+     * @return bound message body writer or {@code null} if no writer could be selected in advance.
+     */
+    public static BoundMessageBodyWorker bindWriter(final MessageBodyWorkers workers,
+                                                    final Class<?> rawType,
+                                                    final Type genericType,
+                                                    final Annotation[] annotations,
+                                                    final Collection<MediaType> mediaTypes) {
+        final List<MediaType> boundTypes = Lists.newArrayList();
+        final List<Object> boundWriters = Lists.newArrayList();
+        for (MediaType mediaType : mediaTypes) {
+            if (isConcrete(mediaType)) {
+                final MessageBodyWriter<?> writer = workers.getMessageBodyWriter(rawType, genericType, annotations, mediaType);
+                if (writer != null) {
+                    boundTypes.add(mediaType);
+                    boundWriters.add(writer);
+                }
+            }
+        }
+        return boundTypes.isEmpty() ? null
+                : new BoundMessageBodyWorker(rawType, genericType, annotations, boundTypes, boundWriters);
+    }
+
+    private static boolean isConcrete(final MediaType mediaType) {
+        return !mediaType.isWildcardType() && !mediaType.isWildcardSubtype();
+    }
+
+    /**
+     * Get the message body reader bound to the message processing context.
+     *
+     * @param propertiesDelegate message properties delegate.
+     * @return bound message body reader or {@code null} if there is no reader bound.
+     */
+    static BoundMessageBodyWorker boundReader(final PropertiesDelegate propertiesDelegate) {
+        return (propertiesDelegate instanceof TracingAwarePropertiesDelegate)
+                ? ((TracingAwarePropertiesDelegate) propertiesDelegate).getBoundReader() : null;
+    }
+
+    /**
+     * Get the message body writer bound to the message processing context.
+     *
+     * @param propertiesDelegate message properties delegate.
+     * @return bound message body writer or {@code null} if there is no writer bound.
+     */
+    static BoundMessageBodyWorker boundWriter(final PropertiesDelegate propertiesDelegate) {
+        return (propertiesDelegate instanceof TracingAwarePropertiesDelegate)
+                ? ((TracingAwarePropertiesDelegate) propertiesDelegate).getBoundWriter() : null;
+    }
+
+    /**
+     * Get the bound message body reader if it matches the entity being read.
+     *
+     * @param rawType     raw entity type.
+     * @param genericType generic entity type.
+     * @param annotations entity annotations.
+     * @param mediaType   entity media type.
+     * @return bound message body reader or {@code null} if the bound reader does not match the entity.
+     */
+    MessageBodyReader<?> getReader(final Class<?> rawType,
+                                   final Type genericType,
+                                   final Annotation[] annotations,
+                                   final MediaType mediaType) {
+        return (MessageBodyReader<?>) match(rawType, genericType, annotations, mediaType);
+    }
+
+    /**
+     * Get the bound message body writer if it matches the entity being written.
+     *
+     * @param rawType     raw entity type.
+     * @param genericType generic entity type.
+     * @param annotations entity annotations.
+     * @param mediaType   entity media type.
+     * @return bound message body writer or {@code null} if the bound writer does not match the entity.
+     */
+    MessageBodyWriter<?> getWriter(final Class<?> rawType,
+                                   final Type genericType,
+                                   final Annotation[] annotations,
+                                   final MediaType mediaType) {
+        return (MessageBodyWriter<?>) match(rawType, genericType, annotations, mediaType);
+    }
+
+    private Object match(final Class<?> rawType,
+                         final Type genericType,
+                         final Annotation[] annotations,
+                         final MediaType mediaType) {
+        if (mediaType == null
+                || this.rawType != rawType
+                || (this.genericType != genericType && (genericType == null || !genericType.equals(this.genericType)))
+                || (this.annotations != annotations && !Arrays.equals(this.annotations, annotations))) {
+            return null;
+        }
+        for (int i = 0; i < mediaTypes.length; i++) {
+            if (MediaTypes.typeEqual(mediaTypes[i], mediaType)) {
+                return workers[i];
+            }
+        }
+        return null;
+    }
+}
@@ -39,7 +39,6 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.logging.Level;
@@ -73,6 +72,12 @@ import com.google.common.base.Preconditions;
  * method enables buffering with the default size
  * <tt>{@value CommittingOutputStream#DEFAULT_BUFFER_SIZE}</tt> bytes specified in {@link #DEFAULT_BUFFER_SIZE}.
  * </p>
+ * <p>
+ * The internal buffer is acquired from an {@link EntityBufferPool entity buffer pool} (see
+ * {@link #enableBuffering(int, EntityBufferPool)}) when the first byte is written and it is returned to the pool
+ * once the adapted output stream has been closed. Containers that keep a reference to the written array instead
+ * of copying it (e.g. to write it asynchronously) therefore never see the buffer reused by another message.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -108,9 +113,17 @@ final class CommittingOutputStream extends OutputStream {
      */
     private int bufferSize = 0;
     /**
-     * Entity buffer.
+     * Pool of entity buffers.
+     */
+    private EntityBufferPool bufferPool = EntityBufferPools.NO_POOL;
+    /**
+     * Entity buffer (acquired lazily from the buffer pool).
+     */
+    private byte[] buffer;
+    /**
+     * Number of bytes in the entity buffer.
      */
-    private ByteArrayOutputStream buffer;
+    private int bufferCount;
     /**
      * When {@code true}, the data are written directly to output stream and not to the buffer.
      */
@@ -158,16 +171,26 @@ final class CommittingOutputStream extends OutputStream {
      *                   {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#getOutputStream(int) callback}.
      */
     public void enableBuffering(int bufferSize) {
-        Preconditions.checkState(!isCommitted && (this.buffer == null || this.buffer.size() == 0),
+        enableBuffering(bufferSize, EntityBufferPools.NO_POOL);
+    }
+
+    /**
+     * Enable buffering of the serialized entity using a buffer acquired from the buffer pool.
+     *
+     * @param bufferSize size of the buffer. When the value is less or equal to zero then
+     *                   buffering will be disabled and -1 will be passed to the
+     *                   {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#getOutputStream(int) callback}.
+     * @param bufferPool non-null pool of entity buffers.
+     */
+    public void enableBuffering(int bufferSize, EntityBufferPool bufferPool) {
+        Preconditions.checkState(!isCommitted && bufferCount == 0,
                 LocalizationMessages.COMMITTING_STREAM_BUFFERING_ILLEGAL_STATE());
+        Preconditions.checkNotNull(bufferPool);
+
+        releaseBuffer();
         this.bufferSize = bufferSize;
-        if (bufferSize <= 0) {
-            this.directWrite = true;
-            this.buffer = null;
-        } else {
-            directWrite = false;
-            buffer = new ByteArrayOutputStream(bufferSize);
-        }
+        this.bufferPool = bufferPool;
+        this.directWrite = bufferSize <= 0;
     }
 
 
@@ -211,11 +234,12 @@ final class CommittingOutputStream extends OutputStream {
             commitStream();
             adaptedOutput.write(b);
         } else {
-            if (b.length + buffer.size() > bufferSize) {
+            if (b.length + bufferCount > bufferSize) {
                 flushBuffer(false);
                 adaptedOutput.write(b);
             } else {
-                buffer.write(b);
+                System.arraycopy(b, 0, buffer(), bufferCount, b.length);
+                bufferCount += b.length;
             }
         }
     }
@@ -226,11 +250,12 @@ final class CommittingOutputStream extends OutputStream {
             commitStream();
             adaptedOutput.write(b, off, len);
         } else {
-            if (len + buffer.size() > bufferSize) {
+            if (len + bufferCount > bufferSize) {
                 flushBuffer(false);
                 adaptedOutput.write(b, off, len);
             } else {
-                buffer.write(b, off, len);
+                System.arraycopy(b, off, buffer(), bufferCount, len);
+                bufferCount += len;
             }
         }
     }
@@ -241,15 +266,31 @@ final class CommittingOutputStream extends OutputStream {
             commitStream();
             adaptedOutput.write(b);
         } else {
-            if (buffer.size() + 1 > bufferSize) {
+            if (bufferCount + 1 > bufferSize) {
                 flushBuffer(false);
                 adaptedOutput.write(b);
             } else {
-                buffer.write(b);
+                buffer()[bufferCount++] = (byte) b;
             }
         }
     }
 
+    private byte[] buffer() {
+        if (buffer == null) {
+            buffer = bufferPool.acquire(bufferSize);
+        }
+        return buffer;
+    }
+
+    private void releaseBuffer() {
+        if (buffer != null) {
+            final byte[] released = buffer;
+            buffer = null;
+            bufferCount = 0;
+            bufferPool.release(released);
+        }
+    }
+
     /**
      * Commit the output stream.
      *
@@ -273,6 +314,8 @@ final class CommittingOutputStream extends OutputStream {
         }
         commit();
         adaptedOutput.close();
+        // the adapted stream may still reference the buffer until it is closed
+        releaseBuffer();
     }
 
     /**
@@ -295,14 +338,16 @@ final class CommittingOutputStream extends OutputStream {
         if (!directWrite) {
             int currentSize;
             if (endOfStream) {
-                currentSize = buffer == null ? 0 : buffer.size();
+                currentSize = bufferCount;
             } else {
                 currentSize = -1;
             }
 
             commitStream(currentSize);
-            if (buffer != null) {
-                buffer.writeTo(adaptedOutput);
+            if (bufferCount > 0) {
+                final int count = bufferCount;
+                bufferCount = 0;
+                adaptedOutput.write(buffer, 0, count);
             }
         }
     }
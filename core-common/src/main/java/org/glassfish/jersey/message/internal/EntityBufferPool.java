@@ -0,0 +1,71 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+/**
+ * Pool of byte array buffers used to buffer serialized outbound message entities
+ * (see {@link org.glassfish.jersey.CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER}).
+ * <p>
+ * The pool used by the runtime is selected by the
+ * {@link org.glassfish.jersey.CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER_POOL} property, see {@link EntityBufferPools}.
+ * Implementations must be thread-safe; a buffer may be released by a different thread than the one which acquired it.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public interface EntityBufferPool {
+
+    /**
+     * Acquire a buffer of at least the given size. The content of the returned buffer is undefined.
+     *
+     * @param size required buffer size in bytes.
+     * @return buffer with length greater than or equal to {@code size}.
+     */
+    public byte[] acquire(int size);
+
+    /**
+     * Return a buffer to the pool. The buffer must not be used by the caller after it has been released.
+     *
+     * @param buffer buffer previously {@link #acquire(int) acquired} from this pool; its length may differ from
+     *               the size it has been acquired for.
+     */
+    public void release(byte[] buffer);
+}
@@ -0,0 +1,307 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.RuntimeType;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.jersey.CommonProperties;
+import org.glassfish.jersey.internal.LocalizationMessages;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+/**
+ * Factory of the {@link EntityBufferPool entity buffer pools} supported out of the box.
+ * <p>
+ * Pools are shared by all the runtimes that use the same pool configuration. Every pool keeps at most
+ * {@link CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER_POOL_MAX_MEMORY configured number of bytes} in buffers
+ * that are not in use; buffers released into a full pool are left to the garbage collector.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public final class EntityBufferPools {
+
+    private static final Logger LOGGER = Logger.getLogger(EntityBufferPools.class.getName());
+
+    /**
+     * Pool strategy that does not pool buffers at all; a new buffer is allocated for every buffered entity.
+     */
+    public static final String NONE = "none";
+    /**
+     * Pool strategy that keeps a few buffers per thread.
+     */
+    public static final String THREAD_LOCAL = "threadLocal";
+    /**
+     * Pool strategy that keeps buffers in a bounded pool shared by all threads.
+     */
+    public static final String SHARED = "shared";
+    /**
+     * Default maximum number of bytes retained by a pool in buffers that are not in use.
+     */
+    public static final long DEFAULT_MAX_MEMORY = 4 * 1024 * 1024;
+
+    /**
+     * Pool that does not pool buffers.
+     */
+    static final EntityBufferPool NO_POOL = new EntityBufferPool() {
+        @Override
+        public byte[] acquire(int size) {
+            return new byte[size];
+        }
+
+        @Override
+        public void release(byte[] buffer) {
+            // do nothing
+        }
+    };
+
+    private static final ConcurrentMap<String, EntityBufferPool> POOLS = new ConcurrentHashMap<String, EntityBufferPool>();
+
+    /**
+     * Prevent instantiation.
+     */
+    private EntityBufferPools() {
+    }
+
+    /**
+     * Get the entity buffer pool configured in the {@code configuration}.
+     *
+     * @param configuration runtime configuration.
+     * @return configured buffer pool.
+     * @see CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER_POOL
+     * @see CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER_POOL_MAX_MEMORY
+     */
+    public static EntityBufferPool getPool(final Configuration configuration) {
+        final RuntimeType runtimeType = configuration.getRuntimeType();
+        final Object pool = PropertiesHelper.getValue(configuration.getProperties(), runtimeType,
+                CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL, Object.class);
+
+        if (pool == null) {
+            return NO_POOL;
+        }
+
+        final Long maxMemory = PropertiesHelper.getValue(configuration.getProperties(), runtimeType,
+                CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL_MAX_MEMORY, DEFAULT_MAX_MEMORY, Long.class);
+        return getPool(pool.toString(), maxMemory);
+    }
+
+    /**
+     * Get a shared entity buffer pool.
+     *
+     * @param strategy  pool strategy, one of {@link #NONE}, {@link #THREAD_LOCAL} or {@link #SHARED}.
+     * @param maxMemory maximum number of bytes retained by the pool in buffers that are not in use.
+     * @return buffer pool.
+     */
+    public static EntityBufferPool getPool(final String strategy, final long maxMemory) {
+        if (NONE.equalsIgnoreCase(strategy) || maxMemory <= 0) {
+            return NO_POOL;
+        }
+
+        final String key = strategy + ':' + maxMemory;
+        EntityBufferPool pool = POOLS.get(key);
+        if (pool == null) {
+            final EntityBufferPool newPool;
+            if (THREAD_LOCAL.equalsIgnoreCase(strategy)) {
+                newPool = new ThreadLocalPool(maxMemory);
+            } else if (SHARED.equalsIgnoreCase(strategy)) {
+                newPool = new SharedPool(maxMemory);
+            } else {
+                LOGGER.log(Level.WARNING, LocalizationMessages.ENTITY_BUFFER_POOL_UNKNOWN(strategy));
+                return NO_POOL;
+            }
+            pool = POOLS.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Pool base that tracks the memory retained in the pooled buffers.
+     */
+    private abstract static class BoundedPool implements EntityBufferPool {
+
+        private final long maxMemory;
+        private final AtomicLong retainedMemory = new AtomicLong();
+
+        BoundedPool(long maxMemory) {
+            this.maxMemory = maxMemory;
+        }
+
+        final boolean reserve(int size) {
+            long current;
+            do {
+                current = retainedMemory.get();
+                if (current + size > maxMemory) {
+                    return false;
+                }
+            } while (!retainedMemory.compareAndSet(current, current + size));
+            return true;
+        }
+
+        final void unreserve(int size) {
+            retainedMemory.addAndGet(-size);
+        }
+    }
+
+    /**
+     * Pool keeping a few buffers per thread.
+     */
+    private static final class ThreadLocalPool extends BoundedPool {
+
+        /**
+         * Maximum number of buffers kept per thread (e.g. for streams of nested or interleaved messages).
+         */
+        private static final int SLOTS = 4;
+
+        private final ThreadLocal<byte[][]> buffers = new ThreadLocal<byte[][]>() {
+            @Override
+            protected byte[][] initialValue() {
+                return new byte[SLOTS][];
+            }
+        };
+
+        ThreadLocalPool(long maxMemory) {
+            super(maxMemory);
+        }
+
+        @Override
+        public byte[] acquire(int size) {
+            final byte[][] slots = buffers.get();
+            for (int i = 0; i < SLOTS; i++) {
+                final byte[] buffer = slots[i];
+                if (buffer != null && buffer.length >= size) {
+                    slots[i] = null;
+                    unreserve(buffer.length);
+                    return buffer;
+                }
+            }
+            return new byte[size];
+        }
+
+        @Override
+        public void release(byte[] buffer) {
+            final byte[][] slots = buffers.get();
+            int target = -1;
+            for (int i = 0; i < SLOTS; i++) {
+                if (slots[i] == null) {
+                    target = i;
+                    break;
+                } else if (slots[i].length < buffer.length && (target < 0 || slots[i].length < slots[target].length)) {
+                    target = i;
+                }
+            }
+            if (target < 0) {
+                // all the slots keep buffers at least as large as the released one
+                return;
+            }
+
+            final byte[] replaced = slots[target];
+            if (replaced != null) {
+                unreserve(replaced.length);
+                slots[target] = null;
+            }
+            if (reserve(buffer.length)) {
+                slots[target] = buffer;
+            }
+        }
+    }
+
+    /**
+     * Lock-free pool of buffers shared by all threads. Buffers are kept in an array of slots; every thread
+     * starts to look for a free or occupied slot at a position derived from its id to reduce contention.
+     */
+    private static final class SharedPool extends BoundedPool {
+
+        private static final int MAX_SLOTS = 1024;
+        private static final int MAX_PROBES = 8;
+
+        private final AtomicReferenceArray<byte[]> slots;
+
+        SharedPool(long maxMemory) {
+            super(maxMemory);
+            // number of slots is bounded by the memory cap for the default buffer size
+            final long slotCount = maxMemory / CommittingOutputStream.DEFAULT_BUFFER_SIZE;
+            this.slots = new AtomicReferenceArray<byte[]>((int) Math.max(MAX_PROBES, Math.min(MAX_SLOTS, slotCount)));
+        }
+
+        @Override
+        public byte[] acquire(int size) {
+            final int start = start();
+            for (int i = 0; i < MAX_PROBES; i++) {
+                final int index = (start + i) % slots.length();
+                final byte[] buffer = slots.get(index);
+                if (buffer != null && buffer.length >= size && slots.compareAndSet(index, buffer, null)) {
+                    unreserve(buffer.length);
+                    return buffer;
+                }
+            }
+            return new byte[size];
+        }
+
+        @Override
+        public void release(byte[] buffer) {
+            if (!reserve(buffer.length)) {
+                return;
+            }
+            final int start = start();
+            for (int i = 0; i < MAX_PROBES; i++) {
+                final int index = (start + i) % slots.length();
+                if (slots.get(index) == null && slots.compareAndSet(index, null, buffer)) {
+                    return;
+                }
+            }
+            unreserve(buffer.length);
+        }
+
+        private int start() {
+            return (int) (Thread.currentThread().getId() % slots.length());
+        }
+    }
+}
@@ -82,7 +82,6 @@ import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper.DeclaringClassInterfacePair;
-import org.glassfish.jersey.internal.util.collection.DataStructures;
 import org.glassfish.jersey.internal.util.collection.KeyComparator;
 import org.glassfish.jersey.internal.util.collection.KeyComparatorHashMap;
 import org.glassfish.jersey.internal.util.collection.KeyComparatorLinkedHashMap;
@@ -94,6 +93,8 @@ import org.glassfish.hk2.utilities.binding.AbstractBinder;
 
 import org.jvnet.hk2.annotations.Optional;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Primitives;
@@ -184,30 +185,55 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             };
 
+    /**
+     * Maximum number of entries in the (raw type, media type) to compatible worker models lookup caches
+     * and in the Java type to workers lookup caches.
+     */
+    private static final int MODEL_LOOKUP_CACHE_SIZE = 1024;
+    /**
+     * Marker of a cached unsuccessful worker selection.
+     */
+    private static final Object NO_WORKER = new Object();
+
     private final Boolean legacyProviderOrdering;
 
     private final List<MbrModel> readers;
     private final List<MbwModel> writers;
 
+    // legacy ordering media type to workers maps; filled in the constructor only and never modified afterwards
     private final Map<MediaType, List<MessageBodyReader>> readersCache =
             new KeyComparatorHashMap<MediaType, List<MessageBodyReader>>(MEDIA_TYPE_COMPARATOR);
     private final Map<MediaType, List<MessageBodyWriter>> writersCache =
             new KeyComparatorHashMap<MediaType, List<MessageBodyWriter>>(MEDIA_TYPE_COMPARATOR);
 
-    private final Map<Class<?>, List<MessageBodyReader>> mbrTypeLookupCache =
-            DataStructures.createConcurrentMap(32, 0.75f, DataStructures.DEFAULT_CONCURENCY_LEVEL);
-    private final Map<Class<?>, List<MessageBodyWriter>> mbwTypeLookupCache =
-            DataStructures.createConcurrentMap(32, 0.75f, DataStructures.DEFAULT_CONCURENCY_LEVEL);
+    // workers and their media types by Java type; both are kept in a single entry to be evicted together
+    private final Cache<Class<?>, TypeLookup<MessageBodyReader>> mbrTypeLookupCache =
+            CacheBuilder.newBuilder().maximumSize(MODEL_LOOKUP_CACHE_SIZE).build();
+    private final Cache<Class<?>, TypeLookup<MessageBodyWriter>> mbwTypeLookupCache =
+            CacheBuilder.newBuilder().maximumSize(MODEL_LOOKUP_CACHE_SIZE).build();
+
+    private final Cache<ModelLookupKey, List<MbrModel>> mbrLookupCache =
+            CacheBuilder.newBuilder().maximumSize(MODEL_LOOKUP_CACHE_SIZE).build();
+    private final Cache<ModelLookupKey, List<MbwModel>> mbwLookupCache =
+            CacheBuilder.newBuilder().maximumSize(MODEL_LOOKUP_CACHE_SIZE).build();
+
+    // selected worker (or NO_WORKER marker) caches; null if worker selection caching is disabled
+    private final Cache<WorkerLookupKey, Object> mbrSelectionCache;
+    private final Cache<WorkerLookupKey, Object> mbwSelectionCache;
 
-    private final Map<Class<?>, List<MediaType>> typeToMediaTypeReadersCache =
-            DataStructures.createConcurrentMap(32, 0.75f, DataStructures.DEFAULT_CONCURENCY_LEVEL);
-    private final Map<Class<?>, List<MediaType>> typeToMediaTypeWritersCache =
-            DataStructures.createConcurrentMap(32, 0.75f, DataStructures.DEFAULT_CONCURENCY_LEVEL);
+    /**
+     * Workers suitable for a Java type together with their supported media types.
+     */
+    private static final class TypeLookup<T> {
 
-    private final Map<ModelLookupKey, List<MbrModel>> mbrLookupCache =
-            DataStructures.createConcurrentMap(32, 0.75f, DataStructures.DEFAULT_CONCURENCY_LEVEL);
-    private final Map<ModelLookupKey, List<MbwModel>> mbwLookupCache =
-            DataStructures.createConcurrentMap(32, 0.75f, DataStructures.DEFAULT_CONCURENCY_LEVEL);
+        final List<T> workers;
+        final List<MediaType> mediaTypes;
+
+        TypeLookup(List<T> workers, List<MediaType> mediaTypes) {
+            this.workers = workers;
+            this.mediaTypes = mediaTypes;
+        }
+    }
 
     private static class WorkerModel<T> {
 
@@ -292,6 +318,17 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         this.legacyProviderOrdering = configuration != null
                 && PropertiesHelper.isProperty(configuration.getProperty(MessageProperties.LEGACY_WORKERS_ORDERING));
 
+        final int selectionCacheSize = configuration == null ? MessageProperties.WORKERS_SELECTION_CACHE_DEFAULT_SIZE
+                : PropertiesHelper.getValue(configuration.getProperties(), MessageProperties.WORKERS_SELECTION_CACHE_SIZE,
+                MessageProperties.WORKERS_SELECTION_CACHE_DEFAULT_SIZE);
+        if (selectionCacheSize > 0) {
+            this.mbrSelectionCache = CacheBuilder.newBuilder().maximumSize(selectionCacheSize).build();
+            this.mbwSelectionCache = CacheBuilder.newBuilder().maximumSize(selectionCacheSize).build();
+        } else {
+            this.mbrSelectionCache = null;
+            this.mbwSelectionCache = null;
+        }
+
 
         // Initialize readers
         this.readers = new ArrayList<MbrModel>();
@@ -409,6 +446,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
         final Class wantedType;
         final MediaType wantedMediaType;
+        // type distances computed during a single sort
+        private final Map<Class<?>, Integer> typeDistances = new HashMap<Class<?>, Integer>();
 
         private WorkerComparator(Class wantedType, MediaType wantedMediaType) {
             this.wantedType = wantedType;
@@ -460,8 +499,15 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
 
         private int getTypeDistance(Class<?> classParam) {
-            // cache?
+            Integer distance = typeDistances.get(classParam);
+            if (distance == null) {
+                distance = computeTypeDistance(classParam);
+                typeDistances.put(classParam, distance);
+            }
+            return distance;
+        }
 
+        private int computeTypeDistance(Class<?> classParam) {
             Class<?> tmp1 = wantedType;
             Class<?> tmp2 = classParam;
 
@@ -573,6 +619,59 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
     }
 
+    /**
+     * Worker selection cache key.
+     * <p>
+     * Annotations are compared by value; the hash code is computed only from annotation types as the hash codes
+     * of annotation instances are expensive to compute.
+     * </p>
+     */
+    private static final class WorkerLookupKey {
+        private final Class<?> rawType;
+        private final Type genericType;
+        private final MediaType mediaType;
+        private final Annotation[] annotations;
+        private final int hash;
+
+        private WorkerLookupKey(Class<?> rawType, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            this.rawType = rawType;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = mediaType;
+
+            int result = rawType != null ? rawType.hashCode() : 0;
+            result = 31 * result + (genericType != null ? genericType.hashCode() : 0);
+            result = 31 * result + (mediaType != null ? mediaType.hashCode() : 0);
+            if (annotations != null) {
+                for (Annotation annotation : annotations) {
+                    result = 31 * result + annotation.annotationType().hashCode();
+                }
+            }
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WorkerLookupKey)) {
+                return false;
+            }
+            final WorkerLookupKey that = (WorkerLookupKey) o;
+            return hash == that.hash
+                    && rawType == that.rawType
+                    && (genericType == null ? that.genericType == null : genericType.equals(that.genericType))
+                    && (mediaType == null ? that.mediaType == null : mediaType.equals(that.mediaType))
+                    && (annotations == that.annotations || Arrays.equals(annotations, that.annotations));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     private static void addReaders(List<MbrModel> models, Set<MessageBodyReader> readers, boolean custom) {
         for (MessageBodyReader provider : readers) {
             List<MediaType> values = MediaTypes.createFrom(provider.getClass().getAnnotation(Consumes.class));
@@ -639,11 +738,23 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> c, Type t,
                                                          Annotation[] as,
                                                          MediaType mediaType,
                                                          PropertiesDelegate propertiesDelegate) {
 
+        // the selection cache cannot be used when tracing of the worker selection is enabled
+        final WorkerLookupKey selectionKey = mbrSelectionCache == null
+                || TracingLogger.getInstance(propertiesDelegate).isLogEnabled(MsgTraceEvent.MBR_SELECTED)
+                ? null : new WorkerLookupKey(c, t, as, mediaType);
+        if (selectionKey != null) {
+            final Object selected = mbrSelectionCache.getIfPresent(selectionKey);
+            if (selected != null) {
+                return selected == NO_WORKER ? null : (MessageBodyReader<T>) selected;
+            }
+        }
+
         MessageBodyReader<T> p = null;
         if (legacyProviderOrdering) {
             if (mediaType != null) {
@@ -659,6 +770,9 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             p = _getMessageBodyReader(c, t, as, mediaType, readers, propertiesDelegate);
         }
 
+        if (selectionKey != null) {
+            mbrSelectionCache.put(selectionKey, p == null ? NO_WORKER : p);
+        }
         return p;
     }
 
@@ -719,7 +833,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            List<MbrModel> models,
                                                            PropertiesDelegate propertiesDelegate) {
 
-        List<MbrModel> readers = mbrLookupCache.get(new ModelLookupKey(c, mediaType));
+        final ModelLookupKey lookupKey = new ModelLookupKey(c, mediaType);
+        List<MbrModel> readers = mbrLookupCache.getIfPresent(lookupKey);
         if (readers == null) {
             readers = new ArrayList<MbrModel>();
 
@@ -729,7 +844,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             }
             Collections.sort(readers, new WorkerComparator<MessageBodyReader>(c, mediaType));
-            mbrLookupCache.put(new ModelLookupKey(c, mediaType), readers);
+            mbrLookupCache.put(lookupKey, readers);
         }
 
         if (readers.isEmpty()) {
@@ -802,10 +917,22 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> c, Type t,
                                                          Annotation[] as,
                                                          MediaType mediaType,
                                                          PropertiesDelegate propertiesDelegate) {
+        // the selection cache cannot be used when tracing of the worker selection is enabled
+        final WorkerLookupKey selectionKey = mbwSelectionCache == null
+                || TracingLogger.getInstance(propertiesDelegate).isLogEnabled(MsgTraceEvent.MBW_SELECTED)
+                ? null : new WorkerLookupKey(c, t, as, mediaType);
+        if (selectionKey != null) {
+            final Object selected = mbwSelectionCache.getIfPresent(selectionKey);
+            if (selected != null) {
+                return selected == NO_WORKER ? null : (MessageBodyWriter<T>) selected;
+            }
+        }
+
         MessageBodyWriter<T> p = null;
 
         if (legacyProviderOrdering) {
@@ -822,6 +949,9 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             p = _getMessageBodyWriter(c, t, as, mediaType, writers, propertiesDelegate);
         }
 
+        if (selectionKey != null) {
+            mbwSelectionCache.put(selectionKey, p == null ? NO_WORKER : p);
+        }
         return p;
     }
 
@@ -832,7 +962,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            List<MbwModel> models,
                                                            PropertiesDelegate propertiesDelegate) {
 
-        List<MbwModel> writers = mbwLookupCache.get(new ModelLookupKey(c, mediaType));
+        final ModelLookupKey lookupKey = new ModelLookupKey(c, mediaType);
+        List<MbwModel> writers = mbwLookupCache.getIfPresent(lookupKey);
         if (writers == null) {
 
             writers = new ArrayList<MbwModel>();
@@ -843,7 +974,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             }
             Collections.sort(writers, new WorkerComparator<MessageBodyWriter>(c, mediaType));
-            mbwLookupCache.put(new ModelLookupKey(c, mediaType), writers);
+            mbwLookupCache.put(lookupKey, writers);
         }
 
         if (writers.isEmpty()) {
@@ -971,13 +1102,19 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     @Override
     @SuppressWarnings("unchecked")
     public List<MessageBodyWriter> getMessageBodyWritersForType(final Class<?> clazz) {
-        if (!mbwTypeLookupCache.containsKey(clazz)) {
-            processMessageBodyWritersForType(clazz);
+        return getWriterTypeLookup(clazz).workers;
+    }
+
+    private TypeLookup<MessageBodyWriter> getWriterTypeLookup(final Class<?> clazz) {
+        TypeLookup<MessageBodyWriter> lookup = mbwTypeLookupCache.getIfPresent(clazz);
+        if (lookup == null) {
+            lookup = processMessageBodyWritersForType(clazz);
+            mbwTypeLookupCache.put(clazz, lookup);
         }
-        return mbwTypeLookupCache.get(clazz);
+        return lookup;
     }
 
-    private void processMessageBodyWritersForType(final Class<?> clazz) {
+    private TypeLookup<MessageBodyWriter> processMessageBodyWritersForType(final Class<?> clazz) {
         final List<WorkerModel<MessageBodyWriter>> suitableWriters = Lists.newArrayList();
 
         if (Response.class.isAssignableFrom(clazz)) {
@@ -996,7 +1133,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
 
         // Type -> MediaType.
-        typeToMediaTypeWritersCache.put(clazz, getMessageBodyWorkersMediaTypesByType(suitableWriters));
+        final List<MediaType> mediaTypes = getMessageBodyWorkersMediaTypesByType(suitableWriters);
 
         // Type -> Writer.
         Collections.sort(suitableWriters, WORKER_BY_TYPE_COMPARATOR);
@@ -1005,23 +1142,17 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         for (final WorkerModel<MessageBodyWriter> workerPair : suitableWriters) {
             writers.add(workerPair.provider);
         }
-        mbwTypeLookupCache.put(clazz, writers);
+        return new TypeLookup<MessageBodyWriter>(writers, mediaTypes);
     }
 
     @Override
     public List<MediaType> getMessageBodyWriterMediaTypesByType(final Class<?> type) {
-        if (!typeToMediaTypeWritersCache.containsKey(type)) {
-            processMessageBodyWritersForType(type);
-        }
-        return typeToMediaTypeWritersCache.get(type);
+        return getWriterTypeLookup(type).mediaTypes;
     }
 
     @Override
     public List<MediaType> getMessageBodyReaderMediaTypesByType(final Class<?> type) {
-        if (!typeToMediaTypeReadersCache.containsKey(type)) {
-            processMessageBodyReadersForType(type);
-        }
-        return typeToMediaTypeReadersCache.get(type);
+        return getReaderTypeLookup(type).mediaTypes;
     }
 
     @SuppressWarnings("unchecked")
@@ -1039,14 +1170,19 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     @Override
     @SuppressWarnings("unchecked")
     public List<MessageBodyReader> getMessageBodyReadersForType(final Class<?> clazz) {
-        if (!mbrTypeLookupCache.containsKey(clazz)) {
-            processMessageBodyReadersForType(clazz);
-        }
+        return getReaderTypeLookup(clazz).workers;
+    }
 
-        return mbrTypeLookupCache.get(clazz);
+    private TypeLookup<MessageBodyReader> getReaderTypeLookup(final Class<?> clazz) {
+        TypeLookup<MessageBodyReader> lookup = mbrTypeLookupCache.getIfPresent(clazz);
+        if (lookup == null) {
+            lookup = processMessageBodyReadersForType(clazz);
+            mbrTypeLookupCache.put(clazz, lookup);
+        }
+        return lookup;
     }
 
-    private void processMessageBodyReadersForType(final Class<?> clazz) {
+    private TypeLookup<MessageBodyReader> processMessageBodyReadersForType(final Class<?> clazz) {
         final List<MbrModel> suitableReaders = Lists.newArrayList();
 
         for (MbrModel reader : readers) {
@@ -1060,7 +1196,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
 
         // Type -> MediaType.
-        typeToMediaTypeReadersCache.put(clazz, getMessageBodyWorkersMediaTypesByType(suitableReaders));
+        final List<MediaType> mediaTypes = getMessageBodyWorkersMediaTypesByType(suitableReaders);
 
         // Type -> Writer.
         Collections.sort(suitableReaders, WORKER_BY_TYPE_COMPARATOR);
@@ -1069,7 +1205,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         for (final MbrModel reader : suitableReaders) {
             readers.add(reader.provider);
         }
-        mbrTypeLookupCache.put(clazz, readers);
+        return new TypeLookup<MessageBodyReader>(readers, mediaTypes);
     }
 
     @Override
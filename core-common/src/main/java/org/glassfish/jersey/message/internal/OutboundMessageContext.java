@@ -771,7 +771,8 @@ public class OutboundMessageContext {
 
     /**
      * Enable a buffering of serialized entity. The buffering will be configured from configuration. The property
-     * determining the size of the buffer is {@link CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER}.
+     * determining the size of the buffer is {@link CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER}, the buffers are
+     * pooled as configured by {@link CommonProperties#OUTBOUND_CONTENT_LENGTH_BUFFER_POOL}.
      * </p>
      * The buffering functionality is by default disabled and could be enabled by calling this method. In this case
      * this method must be called before first bytes are written to the {@link #getEntityStream() entity stream}.
@@ -781,11 +782,8 @@ public class OutboundMessageContext {
     public void enableBuffering(Configuration configuration) {
         final Integer bufferSize = PropertiesHelper.getValue(configuration.getProperties(),
                 configuration.getRuntimeType(), CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, Integer.class);
-        if (bufferSize != null) {
-            committingOutputStream.enableBuffering(bufferSize);
-        } else {
-            committingOutputStream.enableBuffering();
-        }
+        committingOutputStream.enableBuffering(bufferSize != null ? bufferSize : CommittingOutputStream.DEFAULT_BUFFER_SIZE,
+                EntityBufferPools.getPool(configuration));
     }
 
     /**
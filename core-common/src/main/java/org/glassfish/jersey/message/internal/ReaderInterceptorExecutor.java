@@ -81,6 +81,7 @@ public final class ReaderInterceptorExecutor extends InterceptorExecutor<ReaderI
     private final Iterator<ReaderInterceptor> interceptors;
     private int processedCount;
     private final MessageBodyWorkers workers;
+    private final BoundMessageBodyWorker boundReader;
     private final boolean translateNce;
 
     /**
@@ -113,6 +114,7 @@ public final class ReaderInterceptorExecutor extends InterceptorExecutor<ReaderI
         this.headers = headers;
         this.inputStream = inputStream;
         this.workers = workers;
+        this.boundReader = BoundMessageBodyWorker.boundReader(propertiesDelegate);
         this.translateNce = translateNce;
 
         final List<ReaderInterceptor> effectiveInterceptors = Lists.newArrayList(readerInterceptors);
@@ -191,12 +193,20 @@ public final class ReaderInterceptorExecutor extends InterceptorExecutor<ReaderI
                             String.valueOf(context.getMediaType()), java.util.Arrays.toString(context.getAnnotations()));
                 }
 
-                final MessageBodyReader bodyReader = workers.getMessageBodyReader(
+                MessageBodyReader bodyReader = (boundReader == null || tracingLogger.isLogEnabled(MsgTraceEvent.MBR_SELECTED))
+                        ? null : boundReader.getReader(
                         context.getType(),
                         context.getGenericType(),
                         context.getAnnotations(),
-                        context.getMediaType(),
-                        ReaderInterceptorExecutor.this);
+                        context.getMediaType());
+                if (bodyReader == null) {
+                    bodyReader = workers.getMessageBodyReader(
+                            context.getType(),
+                            context.getGenericType(),
+                            context.getAnnotations(),
+                            context.getMediaType(),
+                            ReaderInterceptorExecutor.this);
+                }
 
                 final EntityInputStream input = new EntityInputStream(context.getInputStream());
 
@@ -46,6 +46,11 @@ import org.glassfish.jersey.internal.PropertiesDelegate;
 /**
  * Delegating properties delegate backed by another {@code PropertiesDelegate} with implemented "cache" or direct reference to
  * tracing support related classes (e.g. {@code TracingLogger}) to improve performance of lookup tracing context instance.
+ * <p>
+ * The delegate also carries the {@link BoundMessageBodyWorker message body workers bound} to the processed message.
+ * These are kept in dedicated fields, not as properties, so that they are not visible to (nor modifiable by)
+ * the user code.
+ * </p>
  *
  * @author Libor Kramolis (libor.kramolis at oracle.com)
  * @since 2.3
@@ -55,6 +60,8 @@ public final class TracingAwarePropertiesDelegate implements PropertiesDelegate
     private final PropertiesDelegate propertiesDelegate;
 
     private TracingLogger tracingLogger;
+    private BoundMessageBodyWorker boundReader;
+    private BoundMessageBodyWorker boundWriter;
 
     /**
      * Create new tracing aware properties delegate wrapper.
@@ -93,4 +100,33 @@ public final class TracingAwarePropertiesDelegate implements PropertiesDelegate
     public Collection<String> getPropertyNames() {
         return propertiesDelegate.getPropertyNames();
     }
+
+    /**
+     * Set the message body workers selected in advance for the processed message.
+     *
+     * @param reader bound message body reader, may be {@code null}.
+     * @param writer bound message body writer, may be {@code null}.
+     */
+    public void setBoundWorkers(BoundMessageBodyWorker reader, BoundMessageBodyWorker writer) {
+        this.boundReader = reader;
+        this.boundWriter = writer;
+    }
+
+    /**
+     * Get the message body reader selected in advance for the processed message.
+     *
+     * @return bound message body reader or {@code null} if not set.
+     */
+    BoundMessageBodyWorker getBoundReader() {
+        return boundReader;
+    }
+
+    /**
+     * Get the message body writer selected in advance for the processed message.
+     *
+     * @return bound message body writer or {@code null} if not set.
+     */
+    BoundMessageBodyWorker getBoundWriter() {
+        return boundWriter;
+    }
 }
@@ -78,6 +78,7 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor<WriterI
 
     private final Iterator<WriterInterceptor> iterator;
     private int processedCount;
+    private final BoundMessageBodyWorker boundWriter;
 
     /**
      * Constructs a new executor to write given type to provided {@link InputStream entityStream}.
@@ -114,6 +115,7 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor<WriterI
         this.entity = entity;
         this.headers = headers;
         this.outputStream = entityStream;
+        this.boundWriter = BoundMessageBodyWorker.boundWriter(propertiesDelegate);
 
         final List<WriterInterceptor> effectiveInterceptors = Lists.newArrayList(writerInterceptors);
         effectiveInterceptors.add(new TerminalWriterInterceptor(workers));
@@ -220,8 +222,13 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor<WriterI
                             context.getMediaType(), java.util.Arrays.toString(context.getAnnotations()));
                 }
 
-                final MessageBodyWriter writer = workers.getMessageBodyWriter(context.getType(), context.getGenericType(),
-                        context.getAnnotations(), context.getMediaType(), WriterInterceptorExecutor.this);
+                MessageBodyWriter writer = (boundWriter == null || tracingLogger.isLogEnabled(MsgTraceEvent.MBW_SELECTED))
+                        ? null : boundWriter.getWriter(context.getType(),
+                        context.getGenericType(), context.getAnnotations(), context.getMediaType());
+                if (writer == null) {
+                    writer = workers.getMessageBodyWriter(context.getType(), context.getGenericType(),
+                            context.getAnnotations(), context.getMediaType(), WriterInterceptorExecutor.this);
+                }
 
                 if (writer == null) {
                     throw new MessageBodyProviderNotFoundException(LocalizationMessages.ERROR_NOTFOUND_MESSAGEBODYWRITER(
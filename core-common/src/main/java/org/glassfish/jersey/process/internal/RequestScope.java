@@ -40,9 +40,9 @@
 package org.glassfish.jersey.process.internal;
 
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -129,6 +129,13 @@ import static com.google.common.base.Preconditions.checkState;
  * which may change it's state during each request-scoped task execution for
  * which this scope instance is used.
  * </p>
+ * <p>
+ * Each request-scoped {@link ActiveDescriptor descriptor} is assigned a dense integer
+ * slot the first time an instance of the service is stored in the scope. The scope
+ * instances keep the request-scoped inhabitants in a plain array indexed by these
+ * slots, so that entering a new request scope costs a single small array allocation
+ * once the set of request-scoped services used by the application is known.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
@@ -142,6 +149,15 @@ public class RequestScope implements Context<RequestScoped> {
      * A thread local copy of the current scope instance.
      */
     private ThreadLocal<Instance> currentScopeInstance = new ThreadLocal<Instance>();
+    /**
+     * Store slots assigned to the request-scoped descriptors.
+     */
+    private final ConcurrentHashMap<ActiveDescriptor<?>, Integer> slots =
+            new ConcurrentHashMap<ActiveDescriptor<?>, Integer>();
+    /**
+     * Number of the store slots assigned so far; used as the initial store size of new scope instances.
+     */
+    private volatile int slotCount = 0;
 
     @Override
     public Class<? extends Annotation> getScope() {
@@ -152,13 +168,15 @@ public class RequestScope implements Context<RequestScoped> {
     public <U> U findOrCreate(ActiveDescriptor<U> activeDescriptor, ServiceHandle<?> root) {
 
         final Instance instance = current();
+        final int slot = assignSlot(activeDescriptor);
 
-        U retVal = instance.get(activeDescriptor);
-        if (retVal == null) {
-            retVal = activeDescriptor.create(root);
-            instance.put(activeDescriptor, retVal);
+        final Object value = instance.get(slot);
+        if (value == null) {
+            final U retVal = activeDescriptor.create(root);
+            instance.put(slot, activeDescriptor, retVal);
+            return retVal;
         }
-        return retVal;
+        return Instance.unmask(value);
     }
 
     @Override
@@ -188,6 +206,38 @@ public class RequestScope implements Context<RequestScoped> {
         currentScopeInstance = null;
     }
 
+    /**
+     * Get the store slot assigned to the descriptor.
+     *
+     * @param descriptor request-scoped descriptor.
+     * @return assigned store slot or {@code -1} if no slot has been assigned to the descriptor yet.
+     */
+    private int slotOf(final ActiveDescriptor<?> descriptor) {
+        final Integer slot = slots.get(descriptor);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Get the store slot assigned to the descriptor, assigning a new slot if necessary.
+     *
+     * @param descriptor request-scoped descriptor.
+     * @return assigned store slot.
+     */
+    private int assignSlot(final ActiveDescriptor<?> descriptor) {
+        Integer slot = slots.get(descriptor);
+        if (slot == null) {
+            synchronized (slots) {
+                slot = slots.get(descriptor);
+                if (slot == null) {
+                    slot = slotCount;
+                    slots.put(descriptor, slot);
+                    slotCount = slot + 1;
+                }
+            }
+        }
+        return slot;
+    }
+
     /**
      * Request scope injection binder.
      */
@@ -272,7 +322,7 @@ public class RequestScope implements Context<RequestScoped> {
      * @return New suspended request scope instance.
      */
     public Instance createInstance() {
-        return new Instance();
+        return new Instance(this, slotCount);
     }
 
     /**
@@ -430,6 +480,10 @@ public class RequestScope implements Context<RequestScoped> {
      * Implementation of the request scope instance.
      */
     public static final class Instance {
+        /**
+         * Marker stored in place of {@code null} inhabitants.
+         */
+        private static final Object NULL_VALUE = new Object();
         /*
          * Scope instance UUID.
          *
@@ -439,16 +493,25 @@ public class RequestScope implements Context<RequestScoped> {
 
         private final LazyUid id = new LazyUid();
         /**
-         * A map of injectable instances in this scope.
+         * Request scope that assigns store slots to the descriptors.
+         */
+        private final RequestScope scope;
+        /**
+         * Injectable instances in this scope indexed by the descriptor slots.
+         */
+        private Object[] store;
+        /**
+         * Number of injectable instances in this scope.
          */
-        private final Map<ActiveDescriptor<?>, Object> store;
+        private int size;
         /**
          * Holds the number of snapshots of this scope.
          */
         private final AtomicInteger referenceCounter;
 
-        private Instance() {
-            this.store = new HashMap<ActiveDescriptor<?>, Object>();
+        private Instance(final RequestScope scope, final int capacity) {
+            this.scope = scope;
+            this.store = new Object[capacity];
             this.referenceCounter = new AtomicInteger(1);
         }
 
@@ -457,10 +520,15 @@ public class RequestScope implements Context<RequestScoped> {
          * the internal reference counter which prevents the scope instance
          * to be destroyed until a {@link #release()} method is explicitly
          * called (once per each {@code getReference()} method call).
+         * <p>
+         * Code that already holds the scope instance should use this method instead of
+         * {@link RequestScope#referenceCurrent()} to avoid the thread-local lookup of
+         * the current scope instance.
+         * </p>
          *
          * @return referenced scope instance.
          */
-        private Instance getReference() {
+        public Instance getReference() {
             // TODO: replace counter with a phantom reference + reference queue-based solution
             referenceCounter.incrementAndGet();
             return this;
@@ -473,9 +541,19 @@ public class RequestScope implements Context<RequestScoped> {
          * @param descriptor inhabitant descriptor.
          * @return matched inhabitant stored in the scope instance or {@code null} if not matched.
          */
-        @SuppressWarnings("unchecked")
         <T> T get(ActiveDescriptor<T> descriptor) {
-            return (T) store.get(descriptor);
+            final Object value = get(scope.slotOf(descriptor));
+            return value == null ? null : Instance.<T>unmask(value);
+        }
+
+        /**
+         * Get the (possibly {@link #NULL_VALUE masked}) inhabitant stored in the slot.
+         *
+         * @param slot store slot.
+         * @return stored inhabitant or {@code null} if the slot is empty.
+         */
+        private Object get(final int slot) {
+            return slot >= 0 && slot < store.length ? store[slot] : null;
         }
 
         /**
@@ -487,15 +565,28 @@ public class RequestScope implements Context<RequestScoped> {
          * @return old inhabitant previously stored for the given descriptor or
          *         {@code null} if none stored.
          */
-        @SuppressWarnings("unchecked")
         <T> T put(ActiveDescriptor<T> descriptor, T value) {
-            checkState(!store.containsKey(descriptor),
+            put(scope.assignSlot(descriptor), descriptor, value);
+            return null;
+        }
+
+        private void put(final int slot, final ActiveDescriptor<?> descriptor, final Object value) {
+            if (slot >= store.length) {
+                store = Arrays.copyOf(store, Math.max(slot + 1, scope.slotCount));
+            }
+            checkState(store[slot] == null,
                     "An instance for the descriptor %s was already seeded in this scope. Old instance: %s New instance: %s",
                     descriptor,
-                    store.get(descriptor),
+                    store[slot],
                     value);
 
-            return (T) store.put(descriptor, value);
+            store[slot] = value == null ? NULL_VALUE : value;
+            size++;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T unmask(final Object value) {
+            return value == NULL_VALUE ? null : (T) value;
         }
 
         /**
@@ -504,11 +595,15 @@ public class RequestScope implements Context<RequestScoped> {
          * @param descriptor key for the value to be removed.
          */
         void remove(ActiveDescriptor<?> descriptor) {
-            store.remove(descriptor);
+            final int slot = scope.slotOf(descriptor);
+            if (get(slot) != null) {
+                store[slot] = null;
+                size--;
+            }
         }
 
         private <T> boolean contains(ActiveDescriptor<T> provider) {
-            return store.containsKey(provider);
+            return get(scope.slotOf(provider)) != null;
         }
 
         /**
@@ -519,7 +614,8 @@ public class RequestScope implements Context<RequestScoped> {
         public void release() {
             if (referenceCounter.decrementAndGet() < 1) {
                 try {
-                    store.clear();
+                    Arrays.fill(store, null);
+                    size = 0;
                 } finally {
                     logger.debugLog("Released scope instance {0}", this);
                 }
@@ -529,7 +625,7 @@ public class RequestScope implements Context<RequestScoped> {
         @Override
         public String toString() {
             return Objects.toStringHelper(this).add("id", id.value()).add("referenceCounter", referenceCounter.get())
-                    .add("store size", store.size()).toString();
+                    .add("store size", size).toString();
         }
     }
 }
@@ -322,6 +322,150 @@ public class CommittingOutputStreamTest {
     }
 
 
+    private static class CountingPool implements EntityBufferPool {
+        private final EntityBufferPool delegate = EntityBufferPools.getPool(EntityBufferPools.THREAD_LOCAL, 1024);
+        int acquired;
+        int released;
+
+        @Override
+        public byte[] acquire(int size) {
+            acquired++;
+            return delegate.acquire(size);
+        }
+
+        @Override
+        public void release(byte[] buffer) {
+            released++;
+            delegate.release(buffer);
+        }
+    }
+
+    @Test
+    public void testPooledBuffer() throws IOException {
+        final CountingPool pool = new CountingPool();
+        byte[] previousBuffer = null;
+
+        for (int i = 0; i < 3; i++) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final CommittingOutputStream cos = new CommittingOutputStream();
+            final Passed passed = new Passed();
+            setupBufferedStreamProvider(passed, baos, cos, 3);
+            cos.enableBuffering(3, pool);
+
+            cos.write(new byte[] {1, 2});
+            cos.write(3);
+            checkNotYetCommitted(passed, baos, cos);
+            cos.close();
+
+            check(baos, new byte[] {1, 2, 3});
+            assertEquals(i + 1, pool.acquired);
+            assertEquals(i + 1, pool.released);
+
+            final byte[] buffer = pool.delegate.acquire(3);
+            if (previousBuffer != null) {
+                // buffer reused
+                assertTrue(previousBuffer == buffer);
+            }
+            previousBuffer = buffer;
+            pool.delegate.release(buffer);
+        }
+    }
+
+    @Test
+    public void testPooledBufferReleasedOnCloseWhenExceeded() throws IOException {
+        final CountingPool pool = new CountingPool();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final CommittingOutputStream cos = new CommittingOutputStream();
+        final Passed passed = new Passed();
+        setupBufferedStreamProvider(passed, baos, cos, -1);
+        cos.enableBuffering(3, pool);
+
+        cos.write(new byte[] {1, 2});
+        cos.write(new byte[] {3, 4});
+        checkCommitted(passed, cos);
+        // the adapted stream may still reference the buffer
+        assertEquals(0, pool.released);
+        cos.write(5);
+        cos.close();
+
+        check(baos, new byte[] {1, 2, 3, 4, 5});
+        assertEquals(1, pool.acquired);
+        assertEquals(1, pool.released);
+    }
+
+    @Test
+    public void testNoBufferAcquiredForEmptyEntity() throws IOException {
+        final CountingPool pool = new CountingPool();
+        final CommittingOutputStream cos = new CommittingOutputStream();
+        final Passed passed = new Passed();
+        setupBufferedStreamProvider(passed, new ByteArrayOutputStream(), cos, 0);
+        cos.enableBuffering(3, pool);
+        cos.close();
+
+        assertTrue(passed.b);
+        assertEquals(0, pool.acquired);
+    }
+
+    @Test
+    public void testBufferPoolConfiguration() {
+        final Map<String, Object> properties = Maps.newHashMap();
+        final CommonConfig configuration = new CommonConfig(RuntimeType.SERVER, ComponentBag.INCLUDE_ALL);
+        configuration.setProperties(properties);
+        assertTrue(EntityBufferPools.NO_POOL == EntityBufferPools.getPool(configuration));
+
+        properties.put(CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL, EntityBufferPools.SHARED);
+        configuration.setProperties(properties);
+        final EntityBufferPool shared = EntityBufferPools.getPool(configuration);
+        assertTrue(shared == EntityBufferPools.getPool(EntityBufferPools.SHARED, EntityBufferPools.DEFAULT_MAX_MEMORY));
+
+        final byte[] buffer = shared.acquire(100);
+        assertEquals(100, buffer.length);
+        shared.release(buffer);
+        assertTrue(buffer == shared.acquire(100));
+
+        properties.put(CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL + ".server", "unknown");
+        configuration.setProperties(properties);
+        assertTrue(EntityBufferPools.NO_POOL == EntityBufferPools.getPool(configuration));
+
+        // custom pool instances are not supported
+        properties.put(CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL + ".server", new CountingPool());
+        configuration.setProperties(properties);
+        assertTrue(EntityBufferPools.NO_POOL == EntityBufferPools.getPool(configuration));
+
+        properties.put(CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL + ".server", EntityBufferPools.SHARED);
+        properties.put(CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER_POOL_MAX_MEMORY, "0");
+        configuration.setProperties(properties);
+        assertTrue(EntityBufferPools.NO_POOL == EntityBufferPools.getPool(configuration));
+    }
+
+    @Test
+    public void testBufferPoolMemoryCap() {
+        final EntityBufferPool pool = EntityBufferPools.getPool(EntityBufferPools.SHARED, 100);
+        final byte[] first = pool.acquire(60);
+        final byte[] second = pool.acquire(60);
+        pool.release(first);
+        // exceeds the memory cap - not retained
+        pool.release(second);
+
+        assertTrue(first == pool.acquire(60));
+        assertFalse(second == pool.acquire(60));
+    }
+
+    @Test
+    public void testThreadLocalPoolToleratesBufferSize() {
+        final EntityBufferPool pool = EntityBufferPools.getPool(EntityBufferPools.THREAD_LOCAL, 1000);
+        final byte[] small = pool.acquire(10);
+        final byte[] large = pool.acquire(100);
+        pool.release(small);
+        pool.release(large);
+
+        // larger buffers satisfy smaller requests and both buffers are kept by the thread
+        final byte[] first = pool.acquire(50);
+        assertTrue(first == large);
+        assertTrue(small == pool.acquire(10));
+        assertFalse(large == pool.acquire(50));
+    }
+
     @Test
     public void testEnableBuffering() {
         CommittingOutputStream cos = new CommittingOutputStream();
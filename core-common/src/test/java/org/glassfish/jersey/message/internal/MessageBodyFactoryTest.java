@@ -0,0 +1,123 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import javax.ws.rs.RuntimeType;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.internal.TestBinder;
+import org.glassfish.jersey.internal.TestRuntimeDelegate;
+import org.glassfish.jersey.internal.inject.Injections;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.model.internal.CommonConfig;
+import org.glassfish.jersey.model.internal.ComponentBag;
+
+import org.glassfish.hk2.api.ServiceLocator;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link MessageBodyFactory} worker selection cache tests.
+ *
+ * @author agent (agent at local)
+ */
+public class MessageBodyFactoryTest {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private ServiceLocator locator;
+
+    @Before
+    public void setUp() {
+        RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+        locator = Injections.createLocator(new TestBinder());
+        TestBinder.initProviders(locator);
+    }
+
+    private MessageBodyFactory createFactory(final int selectionCacheSize) {
+        final CommonConfig config = new CommonConfig(RuntimeType.SERVER, ComponentBag.INCLUDE_ALL)
+                .property(MessageProperties.WORKERS_SELECTION_CACHE_SIZE, selectionCacheSize);
+        return new MessageBodyFactory(locator, config);
+    }
+
+    @Test
+    public void testCachedWorkerSelection() {
+        for (int size : new int[] {MessageProperties.WORKERS_SELECTION_CACHE_DEFAULT_SIZE, 0}) {
+            final MessageBodyFactory factory = createFactory(size);
+
+            final MessageBodyWriter<String> writer = factory.getMessageBodyWriter(
+                    String.class, String.class, NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE);
+            assertNotNull(writer);
+            assertSame(writer, factory.getMessageBodyWriter(
+                    String.class, String.class, NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE));
+
+            final MessageBodyReader<String> reader = factory.getMessageBodyReader(
+                    String.class, String.class, NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE);
+            assertNotNull(reader);
+            assertSame(reader, factory.getMessageBodyReader(
+                    String.class, String.class, NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE));
+        }
+    }
+
+    @Test
+    public void testCachedMissingWorker() {
+        final MessageBodyFactory factory = createFactory(MessageProperties.WORKERS_SELECTION_CACHE_DEFAULT_SIZE);
+        final GenericType<List<MessageBodyFactoryTest>> type = new GenericType<List<MessageBodyFactoryTest>>() {};
+
+        for (int i = 0; i < 2; i++) {
+            assertNull(factory.getMessageBodyWriter(
+                    type.getRawType(), type.getType(), NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE));
+        }
+        // a cached negative result for one media type must not affect another one
+        assertNotNull(factory.getMessageBodyWriter(
+                String.class, String.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE));
+    }
+}
@@ -182,6 +182,74 @@ public class RequestScopeTest {
         assertNull(instance.get(inhab));
     }
 
+    @Test
+    public void testStoreGrowsWithNewDescriptors() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final TestProvider a = new TestProvider("a");
+        final TestProvider b = new TestProvider("b");
+        // distinguish otherwise equal descriptors
+        a.setName("a");
+        b.setName("b");
+        instance.put(a, "1");
+
+        // instance created before the slot for "b" was assigned
+        final Instance other = requestScope.createInstance();
+        assertNull(other.get(a));
+        instance.put(b, "2");
+        other.put(b, "3");
+        assertEquals("1", instance.get(a));
+        assertEquals("2", instance.get(b));
+        assertEquals("3", other.get(b));
+
+        instance.remove(a);
+        assertNull(instance.get(a));
+        assertEquals("2", instance.get(b));
+
+        instance.release();
+        other.release();
+        assertNull(instance.get(b));
+        assertNull(other.get(b));
+    }
+
+    @Test
+    public void testFindOrCreateNullInstance() {
+        final RequestScope requestScope = new RequestScope();
+        final CountingNullProvider inhab = new CountingNullProvider();
+        requestScope.runInScope(new Runnable() {
+
+            @Override
+            public void run() {
+                assertFalse(requestScope.containsKey(inhab));
+                assertNull(requestScope.findOrCreate(inhab, null));
+                assertTrue(requestScope.containsKey(inhab));
+                assertNull(requestScope.findOrCreate(inhab, null));
+                assertEquals(1, inhab.created);
+
+                requestScope.destroyOne(inhab);
+                assertFalse(requestScope.containsKey(inhab));
+            }
+        });
+    }
+
+    /**
+     * Test request scope inhabitant creating {@code null} instances.
+     */
+    public static class CountingNullProvider extends AbstractActiveDescriptor<String> {
+        private int created;
+
+        @Override
+        public Class<?> getImplementationClass() {
+            return String.class;
+        }
+
+        @Override
+        public String create(ServiceHandle<?> root) {
+            created++;
+            return null;
+        }
+    }
+
     /**
      * Test request scope inhabitant.
      *
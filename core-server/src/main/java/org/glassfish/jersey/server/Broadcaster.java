@@ -40,9 +40,19 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,6 +60,15 @@ import org.glassfish.jersey.server.internal.LocalizationMessages;
 
 /**
  * Used for broadcasting response chunks to multiple {@link ChunkedOutput} instances.
+ * <p>
+ * By default, chunks are written to all the registered chunked outputs synchronously, on the thread calling
+ * {@link #broadcast(Object)}. Broadcasters created with an {@link ExecutorService executor} work asynchronously
+ * instead: every chunked output gets its own bounded queue of pending chunks which is written by the executor,
+ * so that a slow client does not delay the broadcasting thread nor the other clients. A chunk broadcast
+ * asynchronously is serialized only once for all the chunked outputs that share the same chunk type, media type
+ * and entity annotations. When the queue of a chunked output is full, the {@link SlowConsumerPolicy slow consumer policy}
+ * of the broadcaster decides what happens.
+ * </p>
  *
  * @param <T> broadcast type.
  * @author Pavel Bucek (pavel.bucek at oracle.com)
@@ -63,6 +82,31 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
     private final ConcurrentLinkedQueue<ChunkedOutput<T>> chunkedOutputs =
             new ConcurrentLinkedQueue<ChunkedOutput<T>>();
 
+    private final ExecutorService executor;
+    private final int queueCapacity;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final ConcurrentMap<ChunkedOutput<T>, Subscriber> subscribers =
+            new ConcurrentHashMap<ChunkedOutput<T>, Subscriber>();
+    private final AtomicLong droppedChunks = new AtomicLong();
+    private final AtomicLong disconnectedOutputs = new AtomicLong();
+
+    /**
+     * Policy applied by an asynchronous {@link Broadcaster} when the queue of pending chunks
+     * of a chunked output is full.
+     *
+     * @since 2.4
+     */
+    public static enum SlowConsumerPolicy {
+        /**
+         * Drop the oldest pending chunk to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard all the pending chunks and close the chunked output.
+         */
+        DISCONNECT
+    }
+
     /**
      * Creates a new instance.
      * If this constructor is called by a subclass, it assumes the the reason for the subclass to exist is to implement
@@ -84,6 +128,55 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * @see #Broadcaster()
      */
     protected Broadcaster(final Class<? extends Broadcaster> subclass) {
+        this(subclass, null, 0, null);
+    }
+
+    /**
+     * Creates a new asynchronous broadcaster.
+     * If this constructor is called by a subclass, it assumes the the reason for the subclass to exist is to implement
+     * {@link #onClose(ChunkedOutput)} and {@link #onException(ChunkedOutput, Exception)} methods, so it adds
+     * the newly created instance as the listener. To avoid this, subclasses may call
+     * {@link #Broadcaster(Class, ExecutorService, int, SlowConsumerPolicy)} passing their class as an argument.
+     *
+     * @param executor           executor used to write chunks to the registered chunked outputs.
+     * @param queueCapacity      maximum number of chunks pending to be written to a single chunked output.
+     * @param slowConsumerPolicy policy applied when the queue of a chunked output is full.
+     * @since 2.4
+     */
+    public Broadcaster(final ExecutorService executor, final int queueCapacity, final SlowConsumerPolicy slowConsumerPolicy) {
+        this(Broadcaster.class, executor, queueCapacity, slowConsumerPolicy);
+    }
+
+    /**
+     * Can be used by subclasses to create an asynchronous broadcaster and override the default functionality of adding
+     * self to the set of {@link BroadcasterListener listeners}. If creating a direct instance of a subclass passed
+     * in the parameter, the broadcaster will not register itself as a listener.
+     *
+     * @param subclass           subclass of Broadcaster that should not be registered as a listener - if creating a direct
+     *                           instance of this subclass, this constructor will not register the new instance as a listener.
+     * @param executor           executor used to write chunks to the registered chunked outputs. If {@code null},
+     *                           the broadcaster writes chunks synchronously and the remaining parameters are ignored.
+     * @param queueCapacity      maximum number of chunks pending to be written to a single chunked output.
+     * @param slowConsumerPolicy policy applied when the queue of a chunked output is full.
+     * @see #Broadcaster(ExecutorService, int, SlowConsumerPolicy)
+     * @since 2.4
+     */
+    protected Broadcaster(final Class<? extends Broadcaster> subclass,
+                          final ExecutorService executor,
+                          final int queueCapacity,
+                          final SlowConsumerPolicy slowConsumerPolicy) {
+        if (executor != null) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException(LocalizationMessages.BROADCASTER_QUEUE_CAPACITY_INVALID(queueCapacity));
+            }
+            if (slowConsumerPolicy == null) {
+                throw new NullPointerException(LocalizationMessages.BROADCASTER_SLOW_CONSUMER_POLICY_NULL());
+            }
+        }
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+
         if (subclass != getClass()) {
             listeners.add(this);
         }
@@ -108,6 +201,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * @return {@code true} if the instance was unregistered, {@code false} otherwise.
      */
     public <OUT extends ChunkedOutput<T>> boolean remove(final OUT chunkedOutput) {
+        subscribers.remove(chunkedOutput);
         return chunkedOutputs.remove(chunkedOutput);
     }
 
@@ -147,6 +241,11 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * @param chunk chunk to be sent.
      */
     public void broadcast(final T chunk) {
+        if (executor != null) {
+            broadcastAsync(chunk);
+            return;
+        }
+
         forEachOutput(new Task<ChunkedOutput<T>>() {
             @Override
             public void run(final ChunkedOutput<T> cr) throws IOException {
@@ -159,6 +258,15 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
      * Close all registered {@link ChunkedOutput} instances.
      */
     public void closeAll() {
+        if (executor != null) {
+            for (ChunkedOutput<T> chunkedOutput : chunkedOutputs) {
+                if (!retireIfClosed(chunkedOutput)) {
+                    getSubscriber(chunkedOutput).close();
+                }
+            }
+            return;
+        }
+
         forEachOutput(new Task<ChunkedOutput<T>>() {
             @Override
             public void run(final ChunkedOutput<T> cr) throws IOException {
@@ -167,6 +275,55 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
         });
     }
 
+    /**
+     * Get the number of chunks pending to be written to the chunked output by an asynchronous broadcaster.
+     *
+     * @param chunkedOutput chunked output registered in this broadcaster.
+     * @return number of chunks in the queue of the chunked output; always {@code 0} for a synchronous broadcaster
+     *         or an unknown chunked output.
+     * @since 2.4
+     */
+    public int getQueueDepth(final ChunkedOutput<T> chunkedOutput) {
+        final Subscriber subscriber = subscribers.get(chunkedOutput);
+        return subscriber == null ? 0 : subscriber.depth.get();
+    }
+
+    /**
+     * Get the number of chunks pending to be written by an asynchronous broadcaster, per registered chunked output.
+     *
+     * @return snapshot of the queue depths of the chunked outputs; always empty for a synchronous broadcaster.
+     * @since 2.4
+     */
+    public Map<ChunkedOutput<T>, Integer> getQueueDepths() {
+        final Map<ChunkedOutput<T>, Integer> depths = new IdentityHashMap<ChunkedOutput<T>, Integer>();
+        for (Subscriber subscriber : subscribers.values()) {
+            depths.put(subscriber.output, subscriber.depth.get());
+        }
+        return depths;
+    }
+
+    /**
+     * Get the total number of chunks dropped by an asynchronous broadcaster because of slow chunked outputs.
+     *
+     * @return number of dropped chunks.
+     * @since 2.4
+     */
+    public long getDroppedChunkCount() {
+        return droppedChunks.get();
+    }
+
+    /**
+     * Get the total number of chunked outputs closed by an asynchronous broadcaster because they were too slow
+     * to keep up with the broadcast chunks.
+     *
+     * @return number of disconnected chunked outputs.
+     * @see SlowConsumerPolicy#DISCONNECT
+     * @since 2.4
+     */
+    public long getDisconnectedCount() {
+        return disconnectedOutputs.get();
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -212,6 +369,160 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
         }
     }
 
+    private void broadcastAsync(final T chunk) {
+        Map<ChunkedOutput.SerializationKey, ChunkedOutput.SerializedChunk> serialized = null;
+
+        for (ChunkedOutput<T> chunkedOutput : chunkedOutputs) {
+            if (retireIfClosed(chunkedOutput)) {
+                continue;
+            }
+
+            Object item = chunk;
+            final ChunkedOutput.SerializationKey key = (chunk == null) ? null : chunkedOutput.getSerializationKey();
+            if (key != null) {
+                if (serialized == null) {
+                    serialized = new HashMap<ChunkedOutput.SerializationKey, ChunkedOutput.SerializedChunk>();
+                }
+                ChunkedOutput.SerializedChunk serializedChunk = serialized.get(key);
+                if (serializedChunk == null) {
+                    try {
+                        serializedChunk = chunkedOutput.serialize(chunk);
+                    } catch (Exception e) {
+                        fireOnException(chunkedOutput, e);
+                        retireIfClosed(chunkedOutput);
+                        continue;
+                    }
+                    serialized.put(key, serializedChunk);
+                }
+                item = serializedChunk;
+            }
+
+            getSubscriber(chunkedOutput).offer(item);
+        }
+    }
+
+    private Subscriber getSubscriber(final ChunkedOutput<T> chunkedOutput) {
+        Subscriber subscriber = subscribers.get(chunkedOutput);
+        if (subscriber == null) {
+            final Subscriber newSubscriber = new Subscriber(chunkedOutput);
+            subscriber = subscribers.putIfAbsent(chunkedOutput, newSubscriber);
+            if (subscriber == null) {
+                subscriber = newSubscriber;
+            }
+        }
+        return subscriber;
+    }
+
+    /**
+     * Un-register the chunked output and notify the listeners if the chunked output has been closed.
+     *
+     * @param chunkedOutput chunked output.
+     * @return {@code true} if the chunked output is closed, {@code false} otherwise.
+     */
+    private boolean retireIfClosed(final ChunkedOutput<T> chunkedOutput) {
+        if (!chunkedOutput.isClosed()) {
+            return false;
+        }
+        subscribers.remove(chunkedOutput);
+        // only the thread that actually un-registers the output fires the event
+        if (chunkedOutputs.remove(chunkedOutput)) {
+            fireOnClose(chunkedOutput);
+        }
+        return true;
+    }
+
+    /**
+     * Queue of chunks pending to be written to a single chunked output by an asynchronous broadcaster.
+     * At most one executor task is writing the queue at any time, so the chunks are written in the broadcast order.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final ChunkedOutput<T> output;
+        private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<Object>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closing;
+        private volatile boolean disconnected;
+
+        private Subscriber(final ChunkedOutput<T> output) {
+            this.output = output;
+        }
+
+        private void offer(final Object item) {
+            if (closing) {
+                return;
+            }
+
+            if (depth.incrementAndGet() > queueCapacity) {
+                switch (slowConsumerPolicy) {
+                    case DROP_OLDEST:
+                        if (queue.poll() != null) {
+                            depth.decrementAndGet();
+                            droppedChunks.incrementAndGet();
+                        }
+                        break;
+                    case DISCONNECT:
+                        depth.decrementAndGet();
+                        disconnect();
+                        return;
+                }
+            }
+            queue.offer(item);
+            schedule();
+        }
+
+        private void close() {
+            closing = true;
+            schedule();
+        }
+
+        private void disconnect() {
+            disconnected = true;
+            closing = true;
+            disconnectedOutputs.incrementAndGet();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    fireOnException(output, e);
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            try {
+                Object item;
+                while (!disconnected && (item = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    if (item instanceof ChunkedOutput.SerializedChunk) {
+                        output.write((ChunkedOutput.SerializedChunk) item);
+                    } else {
+                        output.write((T) item);
+                    }
+                }
+                if (closing) {
+                    queue.clear();
+                    depth.set(0);
+                    output.close();
+                }
+            } catch (Exception e) {
+                fireOnException(output, e);
+            } finally {
+                scheduled.set(false);
+                if (!retireIfClosed(output) && (closing || !queue.isEmpty())) {
+                    schedule();
+                }
+            }
+        }
+    }
+
     private void forEachListener(final Task<BroadcasterListener<T>> t) {
         for (BroadcasterListener<T> listener : listeners) {
             try {
@@ -39,22 +39,40 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.ext.WriterInterceptor;
 
 import javax.inject.Provider;
 
+import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.process.internal.RequestScope;
+import org.glassfish.jersey.server.internal.JsonWithPaddingInterceptor;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
+import org.glassfish.jersey.server.internal.MappableExceptionWrapperInterceptor;
 import org.glassfish.jersey.server.internal.process.AsyncContext;
 import org.glassfish.jersey.server.internal.process.MappableException;
 import org.glassfish.jersey.server.internal.routing.UriRoutingContext;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.glassfish.jersey.server.spi.NonBlockingContainerResponseWriter;
 
 /**
  * Used for sending messages in "typed" chunks. Useful for long running processes,
@@ -66,10 +84,14 @@ import org.glassfish.jersey.server.internal.routing.UriRoutingContext;
  */
 // TODO:  something like prequel/sequel - usable for EventChannelWriter and XML related writers
 public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
-    private final BlockingDeque<T> queue = new LinkedBlockingDeque<T>();
+    private static final Logger LOGGER = Logger.getLogger(ChunkedOutput.class.getName());
+
+    private final BlockingDeque<Object> queue = new LinkedBlockingDeque<Object>();
 
     private volatile boolean closed = false;
     private boolean flushing = false;
+    // set while waiting for the container to accept more data, guarded by the chunked output instance lock
+    private boolean awaitingWrite = false;
     private volatile RequestScope requestScope;
     private volatile RequestScope.Instance requestScopeInstance;
     private volatile ContainerRequest requestContext;
@@ -77,11 +99,97 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
     private volatile ServerRuntime.ConnectionCallbackRunner connectionCallbackRunner;
     private volatile Provider<AsyncContext> asyncContext;
     private volatile UriRoutingContext uriRoutingContext;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService flushExecutor;
+
+    private final FlushPolicy flushPolicy;
+    // coalescing state guarded by the flushing flag or by the chunked output instance lock
+    private CoalescingOutputStream coalescingStream;
+    private boolean flushDue = false;
+    private boolean flushScheduled = false;
+
+    /**
+     * Policy of coalescing written chunks into larger batches that are written and flushed to the underlying
+     * connection at once.
+     * <p>
+     * Chunks written to a {@link ChunkedOutput} with a flush policy are buffered until the maximal number of
+     * buffered chunks or bytes is reached, or until the maximal delay since the first buffered chunk elapses,
+     * whatever comes first. Closing the chunked output always writes the buffered chunks before closing the connection.
+     * Chunks are always written in the order they were written to the chunked output.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final class FlushPolicy {
+
+        private final long maxDelayNanos;
+        private final int maxBytes;
+        private final int maxChunks;
+
+        /**
+         * Create new flush policy.
+         *
+         * @param maxDelay  maximal time a chunk may stay buffered. If {@code 0}, the chunks are buffered only while
+         *                  there are more chunks waiting to be written.
+         * @param unit      time unit of the maximal delay.
+         * @param maxBytes  maximal number of buffered bytes.
+         * @param maxChunks maximal number of buffered chunks.
+         * @throws IllegalArgumentException in case the maximal delay is negative or any of the other limits is not positive.
+         */
+        public FlushPolicy(final long maxDelay, final TimeUnit unit, final int maxBytes, final int maxChunks) {
+            if (maxDelay < 0 || maxBytes <= 0 || maxChunks <= 0) {
+                throw new IllegalArgumentException(
+                        LocalizationMessages.CHUNKED_OUTPUT_FLUSH_POLICY_INVALID(maxDelay, maxBytes, maxChunks));
+            }
+            this.maxDelayNanos = unit.toNanos(maxDelay);
+            this.maxBytes = maxBytes;
+            this.maxChunks = maxChunks;
+        }
+
+        /**
+         * Get the maximal time a chunk may stay buffered.
+         *
+         * @param unit time unit of the returned value.
+         * @return maximal delay.
+         */
+        public long getMaxDelay(final TimeUnit unit) {
+            return unit.convert(maxDelayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Get the maximal number of buffered bytes.
+         *
+         * @return maximal number of buffered bytes.
+         */
+        public int getMaxBytes() {
+            return maxBytes;
+        }
+
+        /**
+         * Get the maximal number of buffered chunks.
+         *
+         * @return maximal number of buffered chunks.
+         */
+        public int getMaxChunks() {
+            return maxChunks;
+        }
+    }
 
     /**
      * Create new chunked response.
      */
     protected ChunkedOutput() {
+        this.flushPolicy = null;
+    }
+
+    /**
+     * Create new chunked response that coalesces written chunks according to the flush policy.
+     *
+     * @param flushPolicy chunk flush policy. If {@code null}, every chunk is written as soon as possible.
+     * @since 2.4
+     */
+    protected ChunkedOutput(final FlushPolicy flushPolicy) {
+        this.flushPolicy = flushPolicy;
     }
 
     /**
@@ -90,7 +198,19 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
      * @param chunkType chunk type
      */
     public ChunkedOutput(final Type chunkType) {
+        this(chunkType, null);
+    }
+
+    /**
+     * Create {@code ChunkedOutput} with specified type that coalesces written chunks according to the flush policy.
+     *
+     * @param chunkType   chunk type
+     * @param flushPolicy chunk flush policy. If {@code null}, every chunk is written as soon as possible.
+     * @since 2.4
+     */
+    public ChunkedOutput(final Type chunkType, final FlushPolicy flushPolicy) {
         super(chunkType);
+        this.flushPolicy = flushPolicy;
     }
 
     /**
@@ -111,23 +231,144 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         flushQueue();
     }
 
+    /**
+     * Write a chunk that has already been serialized by {@link #serialize(Object)}.
+     *
+     * @param chunk serialized chunk to be written.
+     * @throws IOException if this response is closed or when encountered any problem during writing a chunk.
+     */
+    void write(final SerializedChunk chunk) throws IOException {
+        if (closed) {
+            throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+        }
+
+        queue.add(chunk);
+        flushQueue();
+    }
+
+    /**
+     * Get the key identifying the way chunks are serialized by this chunked output. Chunks serialized by
+     * {@link #serialize(Object)} can be shared among all the chunked outputs with an equal serialization key.
+     * <p>
+     * Chunks are not shared if a writer interceptor may transform the entity stream of this chunked output,
+     * since such an interceptor may depend on the response headers or keep a per-response stream state
+     * (e.g. an encoding interceptor).
+     * </p>
+     *
+     * @return serialization key or {@code null} if this chunked output is not ready to serialize chunks yet
+     *         or its chunks cannot be shared.
+     */
+    SerializationKey getSerializationKey() {
+        final ContainerRequest request = requestContext;
+        final ContainerResponse response = responseContext;
+        if (closed || requestScopeInstance == null || request == null || response == null) {
+            return null;
+        }
+        final Annotation[] annotations = response.getEntityAnnotations();
+        if (!isSharable(uriRoutingContext.getBoundWriterInterceptors(), annotations)) {
+            return null;
+        }
+        return new SerializationKey(request.getWorkers(), getType(), response.getMediaType(), annotations);
+    }
+
+    /**
+     * Check that none of the writer interceptors changes the serialized chunks, so that the chunks may be serialized
+     * just by the message body writer.
+     *
+     * @param interceptors writer interceptors bound to the response.
+     * @param annotations  response entity annotations.
+     * @return {@code true} if the serialized chunks can be shared, {@code false} otherwise.
+     */
+    private static boolean isSharable(final Iterable<WriterInterceptor> interceptors, final Annotation[] annotations) {
+        for (final WriterInterceptor interceptor : interceptors) {
+            if (interceptor instanceof MappableExceptionWrapperInterceptor) {
+                continue;
+            }
+            if (interceptor instanceof JsonWithPaddingInterceptor && !isJsonp(annotations)) {
+                continue;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isJsonp(final Annotation[] annotations) {
+        if (annotations != null) {
+            for (final Annotation annotation : annotations) {
+                if (annotation instanceof JSONP) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serialize a chunk into bytes using the message body writer that would be used to write it to this chunked output.
+     * Must be called only if the chunked output provides a {@link #getSerializationKey() serialization key}, i.e. when
+     * the bound writer interceptors do not change the serialized chunks. The resulting bytes are written to the entity
+     * stream as they are once the serialized chunk is {@link #write(SerializedChunk) written}.
+     *
+     * @param chunk chunk to be serialized.
+     * @return serialized chunk.
+     * @throws IOException if this response is closed or when encountered any problem during serializing a chunk.
+     */
+    SerializedChunk serialize(final T chunk) throws IOException {
+        if (closed) {
+            throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+        }
+
+        try {
+            return requestScope.runInScope(requestScopeInstance, new Callable<SerializedChunk>() {
+                @Override
+                public SerializedChunk call() throws IOException {
+                    final FlushTrackingOutputStream out = new FlushTrackingOutputStream();
+                    requestContext.getWorkers().writeTo(
+                            chunk,
+                            chunk.getClass(),
+                            getType(),
+                            responseContext.getEntityAnnotations(),
+                            responseContext.getMediaType(),
+                            // response headers are already committed
+                            new MultivaluedHashMap<String, Object>(),
+                            requestContext.getPropertiesDelegate(),
+                            out,
+                            Collections.<WriterInterceptor>emptyList());
+                    return new SerializedChunk(out.toByteArray(), out.flushed);
+                }
+            });
+        } catch (IOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
     private void flushQueue() throws IOException {
         if (requestScopeInstance == null || requestContext == null || responseContext == null) {
             return;
         }
 
         Exception ex = null;
+        boolean deferred = false;
         try {
-            requestScope.runInScope(requestScopeInstance, new Callable<Void>() {
+            // returns true if the flushing has been deferred until the container accepts more data
+            deferred = requestScope.runInScope(requestScopeInstance, new Callable<Boolean>() {
                 @Override
-                public Void call() throws IOException {
+                public Boolean call() throws IOException {
                     boolean shouldClose;
-                    T t;
+                    Object t;
 
-                    synchronized (this) {
+                    synchronized (ChunkedOutput.this) {
+                        if (awaitingWrite) {
+                            // the queue will be flushed (and closed if needed) once the container accepts more data
+                            return true;
+                        }
                         if (flushing) {
                             // if another thread is already flushing the queue, we don't have to do anything
-                            return null;
+                            return false;
                         }
                         // remember the closed flag before polling the queue
                         // (if we did it after, we could miss the last chunk as some other thread may add
@@ -135,38 +376,38 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                         // but before we check if we should close - so we would close the stream leaving the last chunk undelivered)
                         shouldClose = closed;
                         t = queue.poll();
-                        if (t != null || shouldClose) {
-                            // no other thread is flushing this queue at the moment and it is not empty and/or we should close ->
-                            // set the flushing flag so that other threads know it is already being taken care of
-                            // and they don't have to bother
-                            flushing = true;
+                        if (t == null && !shouldClose && !flushDue) {
+                            return false;
                         }
+                        // no other thread is flushing this queue at the moment and it is not empty and/or we should close
+                        // and/or coalesced chunks should be flushed -> set the flushing flag so that other threads know
+                        // it is already being taken care of and they don't have to bother
+                        flushing = true;
                     }
 
-                    while (t != null) {
-                        try {
-                            responseContext.setEntityStream(requestContext.getWorkers().writeTo(
-                                    t,
-                                    t.getClass(),
-                                    getType(),
-                                    responseContext.getEntityAnnotations(),
-                                    responseContext.getMediaType(),
-                                    responseContext.getHeaders(),
-                                    requestContext.getPropertiesDelegate(),
-                                    responseContext.getEntityStream(),
-                                    // TODO: (MM) should intercept only for the very first chunk!
-                                    // TODO: from then on the stream is already wrapped by interceptor streams
-                                    // JERSEY-1809
-                                    uriRoutingContext.getBoundWriterInterceptors()));
-                        } catch (MappableException mpe) {
-                            if (mpe.getCause() instanceof IOException) {
-                                connectionCallbackRunner.onDisconnect(asyncContext.get());
+                    if (flushPolicy != null && coalescingStream == null) {
+                        coalescingStream = new CoalescingOutputStream(responseContext.getEntityStream());
+                        responseContext.setEntityStream(coalescingStream);
+                    }
+
+                    while (true) {
+                        if (t != null) {
+                            if (!isWritePossible()) {
+                                synchronized (ChunkedOutput.this) {
+                                    // return the chunk to the queue and release the thread, the queue is flushed
+                                    // by the container once it is ready to accept more data
+                                    queue.addFirst(t);
+                                    awaitingWrite = true;
+                                    flushing = false;
+                                }
+                                awaitWritePossible();
+                                return true;
                             }
-                            throw mpe;
+                            writeChunk(t);
                         }
                         t = queue.poll();
                         if (t == null) {
-                            synchronized (this) {
+                            synchronized (ChunkedOutput.this) {
                                 // queue seems empty
                                 // check again in the synchronized block before clearing the flushing flag
                                 // first remember the closed flag (this has to be before polling the queue,
@@ -179,6 +420,11 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                                     // the flushing flag at the very end (to make sure it is unset only if no
                                     // exception is thrown)
                                     responseContext.commitStream();
+                                    if (coalescingStream != null && !shouldClose) {
+                                        // closing flushes the coalesced chunks anyway
+                                        flushDue = false;
+                                        flushCoalesced(false);
+                                    }
                                     // if closing, we keep the "flushing" flag set, since no other thread needs to flush
                                     // this queue anymore - finally clause will take care of closing the stream
                                     flushing = shouldClose;
@@ -187,7 +433,57 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                             }
                         }
                     }
-                    return null;
+                    return false;
+                }
+
+                private void writeChunk(final Object t) throws IOException {
+                    if (t instanceof SerializedChunk) {
+                        writeSerializedChunk((SerializedChunk) t);
+                        return;
+                    }
+                    try {
+                        responseContext.setEntityStream(requestContext.getWorkers().writeTo(
+                                t,
+                                t.getClass(),
+                                getType(),
+                                responseContext.getEntityAnnotations(),
+                                responseContext.getMediaType(),
+                                responseContext.getHeaders(),
+                                requestContext.getPropertiesDelegate(),
+                                responseContext.getEntityStream(),
+                                // TODO: (MM) should intercept only for the very first chunk!
+                                // TODO: from then on the stream is already wrapped by interceptor streams
+                                // JERSEY-1809
+                                uriRoutingContext.getBoundWriterInterceptors()));
+                    } catch (MappableException mpe) {
+                        if (mpe.getCause() instanceof IOException) {
+                            connectionCallbackRunner.onDisconnect(asyncContext.get());
+                        }
+                        throw mpe;
+                    }
+                    chunkWritten();
+                }
+
+                private void writeSerializedChunk(final SerializedChunk chunk) throws IOException {
+                    // the chunk is shared only if the writer interceptors do not change it, see getSerializationKey()
+                    final OutputStream entityStream = responseContext.getEntityStream();
+                    try {
+                        entityStream.write(chunk.bytes);
+                        if (chunk.flush) {
+                            entityStream.flush();
+                        }
+                    } catch (IOException e) {
+                        connectionCallbackRunner.onDisconnect(asyncContext.get());
+                        throw e;
+                    }
+                    chunkWritten();
+                }
+
+                private void chunkWritten() throws IOException {
+                    if (coalescingStream != null) {
+                        coalescingStream.chunkWritten();
+                        flushCoalesced(true);
+                    }
                 }
             });
         } catch (Exception e) {
@@ -195,7 +491,7 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
             // remember the exception (it will get rethrown from finally clause, once it does it's work)
             ex = e;
         } finally {
-            if (closed) {
+            if (closed && !deferred) {
                 try {
                     responseContext.close();
                 } catch (Exception e) {
@@ -218,6 +514,186 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         }
     }
 
+    /**
+     * Check whether the container can accept the response entity data without blocking.
+     *
+     * @return {@code true} if the chunks can be written without blocking the writing thread.
+     */
+    private boolean isWritePossible() {
+        final ContainerResponseWriter writer = requestContext.getResponseWriter();
+        return !(writer instanceof NonBlockingContainerResponseWriter)
+                || ((NonBlockingContainerResponseWriter) writer).isWritePossible();
+    }
+
+    /**
+     * Register a container write handler that flushes the queued chunks once the container is ready to accept
+     * more data. Must be called only when the writing is not {@link #isWritePossible() possible}.
+     */
+    private void awaitWritePossible() {
+        final NonBlockingContainerResponseWriter writer =
+                (NonBlockingContainerResponseWriter) requestContext.getResponseWriter();
+        writer.notifyWritePossible(new NonBlockingContainerResponseWriter.WriteHandler() {
+            @Override
+            public void onWritePossible() {
+                synchronized (ChunkedOutput.this) {
+                    awaitingWrite = false;
+                }
+                try {
+                    flushQueue();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, LocalizationMessages.ERROR_WRITING_RESPONSE_ENTITY_CHUNK(), e);
+                }
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                LOGGER.log(Level.FINE, LocalizationMessages.ERROR_WRITING_RESPONSE_ENTITY_CHUNK(), error);
+                synchronized (ChunkedOutput.this) {
+                    awaitingWrite = false;
+                }
+                connectionCallbackRunner.onDisconnect(asyncContext.get());
+                queue.clear();
+                try {
+                    close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, LocalizationMessages.ERROR_WRITING_RESPONSE_ENTITY_CHUNK(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Flush the coalesced chunks if the flush policy says so. Must be called by the thread flushing the queue.
+     *
+     * @param onlyIfFull if {@code true}, the coalesced chunks are flushed only if the maximal number of buffered bytes
+     *                   or chunks has been reached. Otherwise they are flushed also if the maximal delay has elapsed
+     *                   and a delayed flush is scheduled if it has not.
+     * @throws IOException in case of writing to the underlying stream fails.
+     */
+    private void flushCoalesced(final boolean onlyIfFull) throws IOException {
+        final CoalescingOutputStream stream = coalescingStream;
+        if (!stream.hasPendingChunks()) {
+            return;
+        }
+
+        final long remainingDelay = stream.getRemainingDelay();
+        if (stream.isFull() || (!onlyIfFull && (remainingDelay <= 0 || scheduler == null))) {
+            stream.flushThrough(responseContext.getEntityStream());
+        } else if (!onlyIfFull && !flushScheduled) {
+            flushScheduled = true;
+            // the scheduler is shared by the whole application, it only hands the (possibly blocking) write over
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (ChunkedOutput.this) {
+                        flushScheduled = false;
+                        flushDue = true;
+                    }
+                    if (!closed) {
+                        flushExecutor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    flushQueue();
+                                } catch (IOException e) {
+                                    LOGGER.log(Level.FINE, LocalizationMessages.ERROR_WRITING_RESPONSE_ENTITY_CHUNK(), e);
+                                }
+                            }
+                        });
+                    }
+                }
+            }, remainingDelay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stream buffering the written chunks according to the {@link FlushPolicy flush policy}. The flushes requested by
+     * message body writers and writer interceptors are ignored; the buffered chunks are written and flushed to the underlying
+     * stream in a batch.
+     */
+    private final class CoalescingOutputStream extends OutputStream {
+
+        private final OutputStream target;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private int pendingChunks;
+        private long firstChunkTime;
+        private boolean flushThrough;
+
+        private CoalescingOutputStream(final OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (flushThrough) {
+                drain();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                target.close();
+            }
+        }
+
+        private void chunkWritten() {
+            if (pendingChunks++ == 0) {
+                firstChunkTime = System.nanoTime();
+            }
+        }
+
+        private boolean hasPendingChunks() {
+            return pendingChunks > 0 || buffer.size() > 0;
+        }
+
+        private boolean isFull() {
+            return pendingChunks >= flushPolicy.maxChunks || buffer.size() >= flushPolicy.maxBytes;
+        }
+
+        private long getRemainingDelay() {
+            return flushPolicy.maxDelayNanos - (System.nanoTime() - firstChunkTime);
+        }
+
+        /**
+         * Flush the whole stream chain on top of this stream, including the buffered chunks.
+         *
+         * @param top the top-most stream of the chain.
+         * @throws IOException in case of writing to the underlying stream fails.
+         */
+        private void flushThrough(final OutputStream top) throws IOException {
+            flushThrough = true;
+            try {
+                top.flush();
+                // make sure the buffered chunks are written even if a stream in the chain does not propagate flushes
+                drain();
+            } finally {
+                flushThrough = false;
+            }
+        }
+
+        private void drain() throws IOException {
+            pendingChunks = 0;
+            if (buffer.size() > 0) {
+                buffer.writeTo(target);
+                buffer.reset();
+                target.flush();
+            }
+        }
+    }
+
     /**
      * Close this response - it will be finalized and underlying connections will be closed
      * or made available for another response.
@@ -258,6 +734,78 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         return "ChunkedOutput<" + getType() + ">";
     }
 
+    /**
+     * Chunk serialized into bytes, ready to be written to any chunked output with the same
+     * {@link SerializationKey serialization key}.
+     */
+    static final class SerializedChunk {
+
+        private final byte[] bytes;
+        private final boolean flush;
+
+        private SerializedChunk(final byte[] bytes, final boolean flush) {
+            this.bytes = bytes;
+            this.flush = flush;
+        }
+    }
+
+    /**
+     * Identifies the message body writer and the parameters used to serialize chunks of a chunked output.
+     */
+    static final class SerializationKey {
+
+        private final MessageBodyWorkers workers;
+        private final Type type;
+        private final MediaType mediaType;
+        private final Annotation[] annotations;
+
+        private SerializationKey(final MessageBodyWorkers workers,
+                                 final Type type,
+                                 final MediaType mediaType,
+                                 final Annotation[] annotations) {
+            this.workers = workers;
+            this.type = type;
+            this.mediaType = mediaType;
+            this.annotations = annotations;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SerializationKey)) {
+                return false;
+            }
+            final SerializationKey that = (SerializationKey) o;
+            return workers == that.workers
+                    && type.equals(that.type)
+                    && (mediaType == null ? that.mediaType == null : mediaType.equals(that.mediaType))
+                    && Arrays.equals(annotations, that.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(workers);
+            result = 31 * result + type.hashCode();
+            result = 31 * result + (mediaType != null ? mediaType.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * Byte array output stream remembering whether the writer has flushed it.
+     */
+    private static final class FlushTrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean flushed;
+
+        @Override
+        public void flush() throws IOException {
+            flushed = true;
+        }
+    }
+
     /**
      * Set context used for writing chunks.
      *
@@ -268,6 +816,9 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
      * @param connectionCallbackRunner connection callback runner.
      * @param asyncContext             async context value.
      * @param uriRoutingContext        URI routing context.
+     * @param scheduler                scheduler used to time the flushes of chunks coalesced by the
+     *                                 {@link FlushPolicy flush policy}.
+     * @param flushExecutor            executor used to write the coalesced chunks once their flush is due.
      * @throws IOException when encountered any problem during serializing or writing a chunk.
      */
     void setContext(final RequestScope requestScope,
@@ -276,7 +827,9 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                     final ContainerResponse responseContext,
                     final ServerRuntime.ConnectionCallbackRunner connectionCallbackRunner,
                     final Provider<AsyncContext> asyncContext,
-                    final UriRoutingContext uriRoutingContext) throws IOException {
+                    final UriRoutingContext uriRoutingContext,
+                    final ScheduledExecutorService scheduler,
+                    final ExecutorService flushExecutor) throws IOException {
         this.requestScope = requestScope;
         this.requestScopeInstance = requestScopeInstance;
         this.requestContext = requestContext;
@@ -284,6 +837,8 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         this.connectionCallbackRunner = connectionCallbackRunner;
         this.asyncContext = asyncContext;
         this.uriRoutingContext = uriRoutingContext;
+        this.scheduler = scheduler;
+        this.flushExecutor = flushExecutor;
         flushQueue();
     }
 }
@@ -67,6 +67,7 @@ import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.internal.util.collection.Refs;
 import org.glassfish.jersey.message.internal.AcceptableLanguageTag;
 import org.glassfish.jersey.message.internal.AcceptableMediaType;
+import org.glassfish.jersey.message.internal.BoundMessageBodyWorker;
 import org.glassfish.jersey.message.internal.HttpHeaderReader;
 import org.glassfish.jersey.message.internal.InboundMessageContext;
 import org.glassfish.jersey.message.internal.MatchingEntityTag;
@@ -104,7 +105,7 @@ public class ContainerRequest extends InboundMessageContext
     }
 
     // Request-scoped properties delegate
-    private final PropertiesDelegate propertiesDelegate;
+    private final TracingAwarePropertiesDelegate propertiesDelegate;
     // Absolute application root URI (base URI)
     private URI baseUri;
     // Absolute request URI
@@ -273,6 +274,17 @@ public class ContainerRequest extends InboundMessageContext
         propertiesDelegate.removeProperty(name);
     }
 
+    /**
+     * Set the message body reader and writer selected in advance for the entities of the matched resource method.
+     * The workers are not exposed as request properties.
+     *
+     * @param reader bound message body reader or {@code null} if there is none.
+     * @param writer bound message body writer or {@code null} if there is none.
+     */
+    public void setBoundMessageBodyWorkers(final BoundMessageBodyWorker reader, final BoundMessageBodyWorker writer) {
+        propertiesDelegate.setBoundWorkers(reader, writer);
+    }
+
     /**
      * Get the underlying properties delegate.
      *
@@ -40,11 +40,12 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.security.AccessController;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -66,7 +67,8 @@ import org.glassfish.jersey.model.internal.ComponentBag;
 import org.glassfish.jersey.process.Inflector;
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
-import org.glassfish.jersey.server.internal.scanning.AnnotationAcceptingListener;
+import org.glassfish.jersey.server.internal.scanning.AnnotatedClassScanner;
+import org.glassfish.jersey.server.internal.scanning.AnnotationIndex;
 import org.glassfish.jersey.server.internal.scanning.FilesScanner;
 import org.glassfish.jersey.server.internal.scanning.PackageNamesScanner;
 import org.glassfish.jersey.server.model.Resource;
@@ -75,6 +77,7 @@ import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.Binder;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
@@ -858,11 +861,36 @@ public class ResourceConfig extends Application implements Configurable<Resource
             }
         }
 
+        final AnnotationIndex index = loadAnnotationIndex(_state.getClassLoader());
+
+        if (index != null) {
+            // look up the registered packages in the index, packages not covered by the index are scanned
+            final List<ResourceFinder> unindexed = Lists.newLinkedList();
+            final Iterator<ResourceFinder> iterator = rfs.iterator();
+            while (iterator.hasNext()) {
+                final ResourceFinder resourceFinder = iterator.next();
+                if (resourceFinder instanceof PackageNamesScanner) {
+                    final PackageNamesScanner scanner = (PackageNamesScanner) resourceFinder;
+                    final String[] scanned = addIndexedClasses(index, scanner.getPackages(), scanner.isRecursive(),
+                            _state.getClassLoader(), result);
+                    if (scanned.length > 0) {
+                        unindexed.add(new PackageNamesScanner(scanned, scanner.isRecursive()));
+                    }
+                    iterator.remove();
+                }
+            }
+            rfs.addAll(unindexed);
+        }
+
         final String[] packageNames = parsePropertyValue(ServerProperties.PROVIDER_PACKAGES);
         if (packageNames != null) {
             final Object p = getProperty(ServerProperties.PROVIDER_SCANNING_RECURSIVE);
             final boolean recursive = p == null || PropertiesHelper.isProperty(p);
-            rfs.add(new PackageNamesScanner(packageNames, recursive));
+            final String[] scanned = (index == null)
+                    ? packageNames : addIndexedClasses(index, packageNames, recursive, _state.getClassLoader(), result);
+            if (scanned.length > 0) {
+                rfs.add(new PackageNamesScanner(scanned, recursive));
+            }
         }
 
         final String[] classPathElements = parsePropertyValue(ServerProperties.PROVIDER_CLASSPATH);
@@ -870,30 +898,77 @@ public class ResourceConfig extends Application implements Configurable<Resource
             rfs.add(new FilesScanner(classPathElements, true));
         }
 
-        AnnotationAcceptingListener afl =
-                AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(_state.getClassLoader());
-        for (ResourceFinder resourceFinder : rfs) {
-            while (resourceFinder.hasNext()) {
-                final String next = resourceFinder.next();
-                if (afl.accept(next)) {
-                    final InputStream in = resourceFinder.open();
-                    try {
-                        afl.process(next, in);
-                    } catch (IOException e) {
-                        LOGGER.log(Level.WARNING, LocalizationMessages.RESOURCE_CONFIG_UNABLE_TO_PROCESS(next));
-                    } finally {
-                        try {
-                            in.close();
-                        } catch (IOException ex) {
-                            LOGGER.log(Level.FINER, "Error closing resource stream.", ex);
-                        }
-                    }
+        final boolean parallel = PropertiesHelper.isProperty(getProperty(ServerProperties.PROVIDER_SCANNING_PARALLEL));
+        result.addAll(AnnotatedClassScanner.scan(rfs, _state.getClassLoader(),
+                parallel ? Runtime.getRuntime().availableProcessors() : 1));
+        return result;
+    }
+
+    /**
+     * Load the build-time annotation index if {@link ServerProperties#PROVIDER_SCANNING_INDEX enabled}.
+     *
+     * @param classLoader class loader used to look up the index.
+     * @return annotation index or {@code null} if the index is not enabled or not available.
+     */
+    private AnnotationIndex loadAnnotationIndex(final ClassLoader classLoader) {
+        if (!PropertiesHelper.isProperty(getProperty(ServerProperties.PROVIDER_SCANNING_INDEX))) {
+            return null;
+        }
+
+        try {
+            final AnnotationIndex index = AnnotationIndex.load(classLoader);
+            if (index == null) {
+                LOGGER.log(Level.WARNING, LocalizationMessages.ANNOTATION_INDEX_NOT_FOUND(AnnotationIndex.RESOURCE_NAME));
+            }
+            return index;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, LocalizationMessages.RESOURCE_CONFIG_UNABLE_TO_PROCESS(AnnotationIndex.RESOURCE_NAME), e);
+            return null;
+        }
+    }
+
+    /**
+     * Add the indexed classes of the packages to the result. The packages that are (also) located in class path roots
+     * without an annotation index are not looked up in the index and need to be scanned instead.
+     *
+     * @param index       annotation index.
+     * @param packages    package names.
+     * @param recursive   if {@code true}, the classes of the nested packages are included as well.
+     * @param classLoader class loader used to load the indexed classes.
+     * @param result      set the loaded indexed classes are added to.
+     * @return names of the packages that need to be scanned.
+     */
+    private static String[] addIndexedClasses(final AnnotationIndex index,
+                                              final String[] packages,
+                                              final boolean recursive,
+                                              final ClassLoader classLoader,
+                                              final Set<Class<?>> result) {
+        final List<String> indexed = Lists.newArrayList();
+        final List<String> scanned = Lists.newArrayList();
+        for (String packageName : packages) {
+            try {
+                final List<String> locations = index.getUnindexedLocations(classLoader, packageName);
+                if (locations.isEmpty()) {
+                    indexed.add(packageName);
+                } else {
+                    LOGGER.log(Level.WARNING, LocalizationMessages.ANNOTATION_INDEX_PACKAGE_NOT_INDEXED(
+                            packageName, locations, AnnotationIndex.RESOURCE_NAME));
+                    scanned.add(packageName);
                 }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, LocalizationMessages.RESOURCE_CONFIG_UNABLE_TO_PROCESS(packageName), e);
+                scanned.add(packageName);
             }
         }
 
-        result.addAll(afl.getAnnotatedClasses());
-        return result;
+        for (String className : index.getClassNames(indexed.toArray(new String[indexed.size()]), recursive)) {
+            try {
+                result.add(classLoader.loadClass(className));
+            } catch (ClassNotFoundException e) {
+                LOGGER.log(Level.CONFIG, LocalizationMessages.UNABLE_TO_LOAD_CLASS(className));
+            }
+        }
+        return scanned.toArray(new String[scanned.size()]);
     }
 
     private String[] parsePropertyValue(final String propertyName) {
@@ -96,6 +96,57 @@ public final class ServerProperties {
      */
     public static final String PROVIDER_SCANNING_RECURSIVE = "jersey.config.server.provider.scanning.recursive";
 
+    /**
+     * If {@code true} then the build-time annotation index is used instead of the package scanning.
+     *
+     * The annotation index ({@code META-INF/jersey/index}
+     * resources) lists the {@link javax.ws.rs.Path &#64;Path} and {@link javax.ws.rs.ext.Provider &#64;Provider}
+     * annotated classes and is generated at build time by the
+     * {@link org.glassfish.jersey.server.scanning.AnnotationIndexProcessor annotation index processor}.
+     * When the index is used, the components of the {@link #PROVIDER_PACKAGES configured packages}
+     * (as well as of the packages registered via {@link ResourceConfig#packages(boolean, String...)}) are
+     * looked up in the index instead of parsing all the class files of the packages. A package is looked up
+     * in the index only if all the jars and directories containing the package have been indexed, otherwise
+     * the package is scanned as usual and a warning is logged.
+     * <p>
+     * The property value MUST be an instance of {@code Boolean} type or a {@code String} convertible
+     * to {@code Boolean} type.
+     * </p>
+     * <p>
+     * A default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @see #PROVIDER_PACKAGES
+     * @since 2.4
+     */
+    public static final String PROVIDER_SCANNING_INDEX = "jersey.config.server.provider.scanning.index";
+
+    /**
+     * If {@code true} then the jars and directories of the scanned packages are scanned in parallel.
+     *
+     * By default, the class files of the {@link #PROVIDER_PACKAGES scanned packages} are processed sequentially
+     * on the thread initializing the application. When the parallel scanning is enabled, the individual jars
+     * and directories are scanned concurrently by a pool of threads (one per available processor) that is
+     * shut down once the scanning is finished. The set of the discovered classes is the same in both modes.
+     * <p>
+     * The property value MUST be an instance of {@code Boolean} type or a {@code String} convertible
+     * to {@code Boolean} type.
+     * </p>
+     * <p>
+     * A default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @see #PROVIDER_PACKAGES
+     * @since 2.4
+     */
+    public static final String PROVIDER_SCANNING_PARALLEL = "jersey.config.server.provider.scanning.parallel";
+
     /**
      * Defines class-path that contains application-specific resources and
      * providers.
@@ -549,6 +600,138 @@ public final class ServerProperties {
      */
     public static final String TRACING_THRESHOLD = "jersey.config.server.tracing.threshold";
 
+    /**
+     * If {@code true} then the literal path prefix tree used to pre-select the candidate routes during
+     * request path matching is disabled.
+     *
+     * By default the routes of every routing level are indexed by the literal prefixes of their path patterns,
+     * so that the request path is matched only against the path patterns that may possibly match it, instead
+     * of sequentially matching the path against all the path patterns of the level. The order in which the
+     * candidate path patterns are matched (and thus the selected resource) is not affected. Disabling the
+     * prefix tree reverts to the sequential matching of all the path patterns.
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String ROUTING_PREFIX_TREE_DISABLE = "jersey.config.server.routing.prefixTree.disable";
+
+    /**
+     * An integer value that defines the maximum number of cached resource method selection results per resource
+     * path.
+     *
+     * The resource method handling a request is selected based on the request HTTP method and the {@code Content-Type}
+     * and {@code Accept} request header values. As the real traffic typically carries only a handful of distinct
+     * header combinations, the selection results (i.e. the selected resource method and, where possible, the response
+     * media type) are cached per resource path for each distinct (HTTP method, {@code Content-Type}, {@code Accept})
+     * tuple. When the cache is full, the least recently used entries are evicted. A value less or equal to zero
+     * disables the cache. The hit and miss counts of the caches are available via
+     * {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics#getMethodSelectionStatistics() monitoring
+     * statistics}.
+     * <p>
+     * The default value is {@code 64}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String METHOD_SELECTION_CACHE_SIZE = "jersey.config.server.routing.methodSelectionCache.size";
+
+    /**
+     * If {@code true}, containers that support non-blocking I/O read the whole request entity asynchronously
+     * before dispatching the request to the application.
+     *
+     * While the request entity is being received, no container worker thread is blocked waiting for the entity
+     * data, so that slowly uploading clients do not occupy the container threads. The received entity data are kept
+     * in memory up to the size configured via {@link #INBOUND_BUFFER_THRESHOLD}, larger entities are spilled into
+     * a temporary file. The size of the accepted request entities can be limited using
+     * {@link #INBOUND_BUFFER_MAX_SIZE}. The property is currently supported by the Grizzly HTTP container.
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String INBOUND_ASYNC_BUFFERING = "jersey.config.server.inbound.asyncBuffering";
+
+    /**
+     * An integer value that defines the maximum size (in bytes) of an {@link #INBOUND_ASYNC_BUFFERING asynchronously
+     * buffered} request entity kept in memory. Larger request entities are spilled into a temporary file, which is
+     * deleted once the request processing is finished.
+     * <p>
+     * The default value is {@code 65536}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String INBOUND_BUFFER_THRESHOLD = "jersey.config.server.inbound.buffer.threshold";
+
+    /**
+     * A long value that defines the maximum size (in bytes) of an {@link #INBOUND_ASYNC_BUFFERING asynchronously
+     * buffered} request entity. Requests with larger entities are rejected with the
+     * {@link javax.ws.rs.core.Response.Status#REQUEST_ENTITY_TOO_LARGE 413 (Request Entity Too Large)} response
+     * without being dispatched to the application. A value less or equal to zero means that the size of the request
+     * entities is not limited.
+     * <p>
+     * The default value is {@code 10485760} (10 MiB).
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String INBOUND_BUFFER_MAX_SIZE = "jersey.config.server.inbound.buffer.maxSize";
+
+    /**
+     * A long value that defines the maximum time (in milliseconds) to wait for the whole
+     * {@link #INBOUND_ASYNC_BUFFERING asynchronously buffered} request entity. Requests whose entity is not received
+     * within the timeout are rejected with the {@link javax.ws.rs.core.Response.Status#REQUEST_TIMEOUT 408 (Request
+     * Timeout)} response without being dispatched to the application. A value less or equal to zero means that
+     * the container waits for the request entity indefinitely.
+     * <p>
+     * The default value is {@code 30000}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String INBOUND_BUFFER_READ_TIMEOUT = "jersey.config.server.inbound.buffer.readTimeout";
+
+    /**
+     * If {@code true} then the generation of dedicated resource method invoker classes is disabled.
+     *
+     * By default, Jersey generates a small invoker class for every public resource method of a public resource
+     * class (with public parameter and return types) that invokes the resource method directly instead of using
+     * the reflective {@link java.lang.reflect.Method#invoke(Object, Object...)} call. Resource methods that do
+     * not meet the criteria, as well as invocations on proxied resource instances, are always invoked using
+     * reflection. Disabling the invoker generation reverts to the reflective invocation of all resource methods.
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.4
+     */
+    public static final String RESOURCE_METHOD_INVOKER_GENERATION_DISABLE =
+            "jersey.config.server.resource.invokerGeneration.disable";
+
     private ServerProperties() {
         // prevents instantiation
     }
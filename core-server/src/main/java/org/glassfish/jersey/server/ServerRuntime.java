@@ -232,41 +232,51 @@ class ServerRuntime {
         TracingUtils.initTracingSupport(tracingConfig, tracingThreshold, request);
         try {
             request.checkState();
-            requestScope.runInScope(new Runnable() {
-                @Override
-                public void run() {
-                    TracingUtils.logStart(request);
+            // the scope instance is passed around explicitly to avoid thread-local lookups of the current scope
+            final RequestScope.Instance scopeInstance = requestScope.createInstance();
+            try {
+                processInScope(request, scopeInstance);
+            } finally {
+                scopeInstance.release();
+            }
+        } finally {
+            request.triggerEvent(RequestEvent.Type.FINISHED);
+        }
+    }
 
-                    final Responder responder = new Responder(request, ServerRuntime.this);
-                    final AsyncResponderHolder asyncResponderHolder = new AsyncResponderHolder(
-                            responder, requestScope.referenceCurrent());
+    private void processInScope(final ContainerRequest request, final RequestScope.Instance scopeInstance) {
+        requestScope.runInScope(scopeInstance, new Runnable() {
+            @Override
+            public void run() {
+                TracingUtils.logStart(request);
 
-                    try {
-                        final Ref<Endpoint> endpointRef = Refs.emptyRef();
-                        final ContainerRequest data = Stages.process(request, requestProcessingRoot, endpointRef);
+                final Responder responder = new Responder(request, ServerRuntime.this, scopeInstance);
+                final AsyncResponderHolder asyncResponderHolder = new AsyncResponderHolder(
+                        responder, scopeInstance.getReference());
 
-                        final Endpoint endpoint = endpointRef.get();
-                        if (endpoint == null) {
-                            // not found
-                            throw new NotFoundException();
-                        }
+                try {
+                    final Ref<Endpoint> endpointRef = Refs.emptyRef();
+                    final ContainerRequest data = Stages.process(request, requestProcessingRoot, endpointRef);
 
-                        asyncContextFactoryProvider.get().set(asyncResponderHolder);
-                        final ContainerResponse response = endpoint.apply(data);
+                    final Endpoint endpoint = endpointRef.get();
+                    if (endpoint == null) {
+                        // not found
+                        throw new NotFoundException();
+                    }
 
-                        if (!asyncResponderHolder.isAsync()) {
-                            responder.process(response);
-                        }
-                    } catch (Throwable throwable) {
-                        responder.process(throwable);
-                    } finally {
-                        asyncResponderHolder.release();
+                    asyncContextFactoryProvider.get().set(asyncResponderHolder);
+                    final ContainerResponse response = endpoint.apply(data);
+
+                    if (!asyncResponderHolder.isAsync()) {
+                        responder.process(response);
                     }
+                } catch (Throwable throwable) {
+                    responder.process(throwable);
+                } finally {
+                    asyncResponderHolder.release();
                 }
-            });
-        } finally {
-            request.triggerEvent(RequestEvent.Type.FINISHED);
-        }
+            }
+        });
     }
 
     private void initRequestEventListeners(ContainerRequest request) {
@@ -328,6 +338,7 @@ class ServerRuntime {
 
         private final ContainerRequest request;
         private final ServerRuntime runtime;
+        private final RequestScope.Instance scopeInstance;
 
         private final CompletionCallbackRunner completionCallbackRunner = new CompletionCallbackRunner();
         private final ConnectionCallbackRunner connectionCallbackRunner = new ConnectionCallbackRunner();
@@ -335,9 +346,11 @@ class ServerRuntime {
         private final TracingLogger tracingLogger;
 
 
-        public Responder(final ContainerRequest request, final ServerRuntime runtime) {
+        public Responder(final ContainerRequest request, final ServerRuntime runtime,
+                         final RequestScope.Instance scopeInstance) {
             this.request = request;
             this.runtime = runtime;
+            this.scopeInstance = scopeInstance;
 
             this.tracingLogger = TracingLogger.getInstance(request);
         }
@@ -608,12 +621,14 @@ class ServerRuntime {
                         try {
                             ((ChunkedOutput) entity).setContext(
                                     runtime.requestScope,
-                                    runtime.requestScope.referenceCurrent(),
+                                    scopeInstance.getReference(),
                                     request,
                                     response,
                                     connectionCallbackRunner,
                                     runtime.asyncContextProvider,
-                                    runtime.uriRoutingContextProvider.get());
+                                    runtime.uriRoutingContextProvider.get(),
+                                    runtime.backgroundScheduler,
+                                    runtime.asyncExecutorsFactory.getRequestingExecutor(request));
                         } catch (IOException ex) {
                             LOGGER.log(Level.SEVERE, LocalizationMessages.ERROR_WRITING_RESPONSE_ENTITY_CHUNK(), ex);
                         }
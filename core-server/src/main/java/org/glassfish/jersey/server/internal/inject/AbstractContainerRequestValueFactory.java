@@ -70,4 +70,20 @@ public abstract class AbstractContainerRequestValueFactory<T> implements Factory
     protected final ContainerRequest getContainerRequest() {
         return request.get();
     }
+
+    /**
+     * Provide the value for the supplied container request.
+     * <p>
+     * The method is invoked by a {@link org.glassfish.jersey.server.spi.internal.ParameterExtractionPlan parameter
+     * extraction plan} that already holds the current container request. Value factories that extract the value
+     * from the container request should override the method to avoid the container request look-up. The default
+     * implementation ignores the supplied request and delegates to {@link #provide()}.
+     * </p>
+     *
+     * @param request current container request.
+     * @return provided value.
+     */
+    public T provide(ContainerRequest request) {
+        return provide();
+    }
 }
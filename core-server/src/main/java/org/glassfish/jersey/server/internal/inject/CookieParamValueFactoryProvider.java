@@ -39,8 +39,6 @@
  */
 package org.glassfish.jersey.server.internal.inject;
 
-import java.util.Map;
-
 import javax.ws.rs.CookieParam;
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.MultivaluedMap;
@@ -49,6 +47,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ParamException;
 import org.glassfish.jersey.server.model.Parameter;
 
@@ -87,11 +86,16 @@ final class CookieParamValueFactoryProvider extends AbstractValueFactoryProvider
 
         @Override
         public Object provide() {
-            // TODO: cache?
-            MultivaluedMap<String, String> cookies = new MultivaluedStringMap();
+            return provide(getContainerRequest());
+        }
 
-            for (Map.Entry<String, Cookie> e : getContainerRequest().getCookies().entrySet()) {
-                cookies.putSingle(e.getKey(), e.getValue().getValue());
+        @Override
+        public Object provide(final ContainerRequest request) {
+            // only the extracted cookie is needed, the other cookies are not copied
+            final MultivaluedMap<String, String> cookies = new MultivaluedStringMap(1);
+            final Cookie cookie = request.getCookies().get(extractor.getName());
+            if (cookie != null) {
+                cookies.putSingle(extractor.getName(), cookie.getValue());
             }
 
             try {
@@ -113,7 +117,12 @@ final class CookieParamValueFactoryProvider extends AbstractValueFactoryProvider
 
         @Override
         public Cookie provide() {
-            return getContainerRequest().getCookies().get(name);
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public Cookie provide(final ContainerRequest request) {
+            return request.getCookies().get(name);
         }
     }
 
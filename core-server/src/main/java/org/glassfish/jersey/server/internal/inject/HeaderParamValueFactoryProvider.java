@@ -44,6 +44,7 @@ import javax.ws.rs.HeaderParam;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ParamException;
 import org.glassfish.jersey.server.model.Parameter;
 
@@ -82,8 +83,13 @@ final class HeaderParamValueFactoryProvider extends AbstractValueFactoryProvider
 
         @Override
         public Object provide() {
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public Object provide(final ContainerRequest request) {
             try {
-                return extractor.extract(getContainerRequest().getHeaders());
+                return extractor.extract(request.getHeaders());
             } catch (ExtractorException e) {
                 throw new ParamException.HeaderParamException(e.getCause(),
                         extractor.getName(), extractor.getDefaultValueString());
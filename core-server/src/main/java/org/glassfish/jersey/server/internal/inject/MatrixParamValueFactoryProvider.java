@@ -39,16 +39,16 @@
  */
 package org.glassfish.jersey.server.internal.inject;
 
-import java.util.List;
-
 import javax.ws.rs.MatrixParam;
 import javax.ws.rs.core.PathSegment;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ParamException;
 import org.glassfish.jersey.server.model.Parameter;
+import org.glassfish.jersey.uri.UriComponent;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
@@ -87,8 +87,14 @@ final class MatrixParamValueFactoryProvider extends AbstractValueFactoryProvider
 
         @Override
         public Object provide() {
-            List<PathSegment> l = getContainerRequest().getUriInfo().getPathSegments(decode);
-            PathSegment p = l.get(l.size() - 1);
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public Object provide(final ContainerRequest request) {
+            // matrix parameters are extracted from the last path segment only, the other segments are not decoded
+            final String path = request.getPath(false);
+            final PathSegment p = UriComponent.decodePath(path.substring(path.lastIndexOf('/') + 1), decode).get(0);
             try {
                 return extractor.extract(p.getMatrixParameters());
             } catch (ExtractorException e) {
@@ -49,6 +49,7 @@ import javax.ws.rs.core.PathSegment;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ParamException.PathParamException;
 import org.glassfish.jersey.server.model.Parameter;
 
@@ -88,8 +89,13 @@ final class PathParamValueFactoryProvider extends AbstractValueFactoryProvider {
 
         @Override
         public Object provide() {
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public Object provide(final ContainerRequest request) {
             try {
-                return extractor.extract(getContainerRequest().getUriInfo().getPathParameters(decode));
+                return extractor.extract(request.getUriInfo().getPathParameters(decode));
             } catch (ExtractorException e) {
                 throw new PathParamException(e.getCause(), extractor.getName(), extractor.getDefaultValueString());
             }
@@ -108,7 +114,12 @@ final class PathParamValueFactoryProvider extends AbstractValueFactoryProvider {
 
         @Override
         public PathSegment provide() {
-            List<PathSegment> ps = getContainerRequest().getUriInfo().getPathSegments(name, decode);
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public PathSegment provide(final ContainerRequest request) {
+            List<PathSegment> ps = request.getUriInfo().getPathSegments(name, decode);
             if (ps.isEmpty()) {
                 return null;
             }
@@ -128,7 +139,12 @@ final class PathParamValueFactoryProvider extends AbstractValueFactoryProvider {
 
         @Override
         public List<PathSegment> provide() {
-            return getContainerRequest().getUriInfo().getPathSegments(name, decode);
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public List<PathSegment> provide(final ContainerRequest request) {
+            return request.getUriInfo().getPathSegments(name, decode);
         }
     }
 
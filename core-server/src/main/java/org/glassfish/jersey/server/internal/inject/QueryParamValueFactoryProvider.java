@@ -44,6 +44,7 @@ import javax.ws.rs.QueryParam;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ParamException;
 import org.glassfish.jersey.server.model.Parameter;
 
@@ -84,8 +85,13 @@ final class QueryParamValueFactoryProvider extends AbstractValueFactoryProvider
 
         @Override
         public Object provide() {
+            return provide(getContainerRequest());
+        }
+
+        @Override
+        public Object provide(final ContainerRequest request) {
             try {
-                return extractor.extract(getContainerRequest().getUriInfo().getQueryParameters(decode));
+                return extractor.extract(request.getUriInfo().getQueryParameters(decode));
             } catch (ExtractorException e) {
                 throw new ParamException.QueryParamException(e.getCause(),
                         extractor.getName(), extractor.getDefaultValueString());
@@ -67,8 +67,8 @@ class ExceptionMapperStatisticsImpl implements ExceptionMapperStatistics {
          * @param success True if mappings were successful.
          * @param count Number of mappings.
          */
-        void addMapping(boolean success, int count) {
-            totalMappings++;
+        void addMapping(boolean success, long count) {
+            totalMappings += count;
             if (success) {
                 successfulMappings += count;
             } else {
@@ -81,7 +81,7 @@ class ExceptionMapperStatisticsImpl implements ExceptionMapperStatistics {
          * @param mapper Exception mapper.
          * @param count Number of executions of the {@code mapper}.
          */
-        void addExceptionMapperExecution(Class<?> mapper, int count) {
+        void addExceptionMapperExecution(Class<?> mapper, long count) {
             Long cnt = exceptionMapperExecutionCount.get(mapper);
             cnt = cnt == null ? count : cnt + count;
             exceptionMapperExecutionCount.put(mapper, cnt);
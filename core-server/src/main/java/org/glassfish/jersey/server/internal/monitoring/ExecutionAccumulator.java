@@ -0,0 +1,331 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free accumulator of executions (e.g. request processing or resource method executions).
+ * <p>
+ * The accumulator is striped: every thread adds executions to one of the {@link #STRIPES} stripes
+ * (selected by the thread id), so that concurrent request threads do not contend on a single
+ * memory location. Adding an execution does not allocate any objects. The accumulated executions
+ * are periodically {@link #drain() drained} by the {@link MonitoringStatisticsProcessor} into
+ * an {@link Aggregate aggregate} that is merged into the statistics. No execution is ever lost:
+ * executions added concurrently with draining are reported by the next drain.
+ * </p>
+ * <p>
+ * Every stripe keeps its counters together with the {@link LatencyHistogram latency histogram} buckets of
+ * its executions in a single padded array of atomic values, so that the stripes do not share cache lines.
+ * A stripe is double-buffered: a drain makes the spare buffer active and waits for the writers still
+ * updating the previous one, hence the count, duration and histogram bucket of an execution are always
+ * reported by the same drain. Stripes are allocated by the first execution added by a thread mapped to them.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class ExecutionAccumulator {
+
+    /**
+     * Number of the accumulator stripes. A power of two not less than the number of available processors
+     * (but at most 64).
+     */
+    static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        final int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        while (stripes < processors) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    /**
+     * Get the stripe index assigned to the current thread.
+     *
+     * @return stripe index in the range {@code [0, STRIPES)}.
+     */
+    static int stripe() {
+        return (int) (Thread.currentThread().getId() & (STRIPES - 1));
+    }
+
+    /**
+     * Aggregated executions drained from an accumulator.
+     */
+    static final class Aggregate {
+
+        private final long lastStartTime;
+        private final long count;
+        private final long duration;
+        private final long minimumDuration;
+        private final long maximumDuration;
+        private final LatencyHistogram histogram;
+
+        /**
+         * Create new aggregate.
+         *
+         * @param lastStartTime   Start time of the latest aggregated execution (Unix timestamp format).
+         * @param count           Number of aggregated executions.
+         * @param duration        Total duration of the aggregated executions.
+         * @param minimumDuration Minimum duration of an aggregated execution.
+         * @param maximumDuration Maximum duration of an aggregated execution.
+         * @param histogram       Histogram of the aggregated execution durations.
+         */
+        Aggregate(long lastStartTime, long count, long duration, long minimumDuration, long maximumDuration,
+                  LatencyHistogram histogram) {
+            this.lastStartTime = lastStartTime;
+            this.count = count;
+            this.duration = duration;
+            this.minimumDuration = minimumDuration;
+            this.maximumDuration = maximumDuration;
+            this.histogram = histogram;
+        }
+
+        /**
+         * Get the start time of the latest aggregated execution.
+         * @return start time (Unix timestamp format).
+         */
+        long getLastStartTime() {
+            return lastStartTime;
+        }
+
+        /**
+         * Get the number of aggregated executions.
+         * @return execution count.
+         */
+        long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the total duration of the aggregated executions.
+         * @return total duration in milliseconds.
+         */
+        long getDuration() {
+            return duration;
+        }
+
+        /**
+         * Get the minimum duration of an aggregated execution.
+         * @return minimum duration in milliseconds.
+         */
+        long getMinimumDuration() {
+            return minimumDuration;
+        }
+
+        /**
+         * Get the maximum duration of an aggregated execution.
+         * @return maximum duration in milliseconds.
+         */
+        long getMaximumDuration() {
+            return maximumDuration;
+        }
+
+        /**
+         * Get the histogram of the aggregated execution durations.
+         * @return duration histogram.
+         */
+        LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    /**
+     * Number of padding values at the beginning and at the end of a stripe buffer (two cache lines).
+     */
+    private static final int PADDING = 16;
+    private static final int WRITERS = PADDING;
+    private static final int COUNT = PADDING + 1;
+    private static final int DURATION = PADDING + 2;
+    private static final int MINIMUM_DURATION = PADDING + 3;
+    private static final int MAXIMUM_DURATION = PADDING + 4;
+    private static final int LAST_START_TIME = PADDING + 5;
+    private static final int HISTOGRAM = PADDING + 6;
+    private static final int BUFFER_LENGTH = HISTOGRAM + LatencyHistogram.BUCKETS + PADDING;
+
+    private static AtomicLongArray newBuffer() {
+        final AtomicLongArray buffer = new AtomicLongArray(BUFFER_LENGTH);
+        buffer.set(MINIMUM_DURATION, Long.MAX_VALUE);
+        buffer.set(MAXIMUM_DURATION, Long.MIN_VALUE);
+        return buffer;
+    }
+
+    private static final class Stripe {
+
+        /**
+         * Buffer the executions are currently added to.
+         */
+        private volatile AtomicLongArray active = newBuffer();
+        /**
+         * Reset buffer that becomes active with the next drain (accessed by the draining thread only).
+         */
+        private AtomicLongArray spare = newBuffer();
+
+        private void add(long startTime, long executionDuration) {
+            AtomicLongArray buffer;
+            while (true) {
+                buffer = active;
+                buffer.incrementAndGet(WRITERS);
+                if (buffer == active) {
+                    break;
+                }
+                // buffers have been switched by a drain in the meantime
+                buffer.decrementAndGet(WRITERS);
+            }
+
+            buffer.addAndGet(DURATION, executionDuration);
+
+            long current;
+            while (executionDuration < (current = buffer.get(MINIMUM_DURATION))
+                    && !buffer.compareAndSet(MINIMUM_DURATION, current, executionDuration)) {
+                // retry
+            }
+            while (executionDuration > (current = buffer.get(MAXIMUM_DURATION))
+                    && !buffer.compareAndSet(MAXIMUM_DURATION, current, executionDuration)) {
+                // retry
+            }
+            while (startTime > (current = buffer.get(LAST_START_TIME))
+                    && !buffer.compareAndSet(LAST_START_TIME, current, startTime)) {
+                // retry
+            }
+            buffer.incrementAndGet(HISTOGRAM + LatencyHistogram.bucket(executionDuration));
+            buffer.incrementAndGet(COUNT);
+
+            buffer.decrementAndGet(WRITERS);
+        }
+
+        /**
+         * Make the spare buffer active and wait until the writers of the previously active buffer finish.
+         *
+         * @return previously active buffer. It has to be {@link #reset(AtomicLongArray) reset} once read.
+         */
+        private AtomicLongArray switchBuffers() {
+            final AtomicLongArray drained = active;
+            active = spare;
+            while (drained.get(WRITERS) != 0) {
+                Thread.yield();
+            }
+            return drained;
+        }
+
+        /**
+         * Reset a drained buffer and keep it as the spare one.
+         *
+         * @param buffer drained buffer.
+         */
+        private void reset(AtomicLongArray buffer) {
+            buffer.set(COUNT, 0);
+            buffer.set(DURATION, 0);
+            buffer.set(MINIMUM_DURATION, Long.MAX_VALUE);
+            buffer.set(MAXIMUM_DURATION, Long.MIN_VALUE);
+            buffer.set(LAST_START_TIME, 0);
+            spare = buffer;
+        }
+    }
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<Stripe>(STRIPES);
+
+    /**
+     * Add an execution.
+     *
+     * @param startTime Start time of the execution (Unix timestamp format).
+     * @param duration  Duration of the execution in milliseconds.
+     */
+    void add(long startTime, long duration) {
+        final int index = stripe();
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new Stripe());
+            stripe = stripes.get(index);
+        }
+        stripe.add(startTime, duration);
+    }
+
+    /**
+     * Drain the executions accumulated since the last drain.
+     * <p>
+     * The method must not be invoked concurrently.
+     * </p>
+     *
+     * @return aggregate of the drained executions or {@code null} if there were no executions added since
+     *         the last drain.
+     */
+    Aggregate drain() {
+        long count = 0;
+        long duration = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long lastStartTime = 0;
+        LatencyHistogram histogram = null;
+
+        for (int i = 0; i < STRIPES; i++) {
+            final Stripe stripe = stripes.get(i);
+            if (stripe == null || stripe.active.get(COUNT) == 0) {
+                continue;
+            }
+
+            final AtomicLongArray buffer = stripe.switchBuffers();
+            count += buffer.get(COUNT);
+            duration += buffer.get(DURATION);
+            min = Math.min(min, buffer.get(MINIMUM_DURATION));
+            max = Math.max(max, buffer.get(MAXIMUM_DURATION));
+            lastStartTime = Math.max(lastStartTime, buffer.get(LAST_START_TIME));
+
+            if (histogram == null) {
+                histogram = new LatencyHistogram();
+            }
+            for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+                final long bucketCount = buffer.get(HISTOGRAM + bucket);
+                if (bucketCount != 0) {
+                    histogram.recordBucket(bucket, bucketCount);
+                    buffer.set(HISTOGRAM + bucket, 0);
+                }
+            }
+            stripe.reset(buffer);
+        }
+
+        if (count == 0) {
+            return null;
+        }
+        return new Aggregate(lastStartTime, count, duration, min, max, histogram);
+    }
+}
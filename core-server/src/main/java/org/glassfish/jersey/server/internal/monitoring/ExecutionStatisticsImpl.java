@@ -97,6 +97,23 @@ class ExecutionStatisticsImpl implements ExecutionStatistics {
             this.lastStartTime = startTime;
         }
 
+        /**
+         * Add aggregated executions of a target.
+         * @param executions Executions drained from an {@link ExecutionAccumulator execution accumulator}
+         *                   (no-op if {@code null}).
+         */
+        void addExecutions(ExecutionAccumulator.Aggregate executions) {
+            if (executions == null) {
+                return;
+            }
+            for (TimeWindowStatisticsImpl.Builder statBuilder : intervalStatistics.values()) {
+                statBuilder.addRequests(executions.getLastStartTime(), executions.getCount(), executions.getDuration(),
+                        executions.getMinimumDuration(), executions.getMaximumDuration(), executions.getHistogram());
+            }
+
+            this.lastStartTime = executions.getLastStartTime();
+        }
+
         /**
          * Build a new instance of execution statistics.
          * @return new instance of execution statistics.
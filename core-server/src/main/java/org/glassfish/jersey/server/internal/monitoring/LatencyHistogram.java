@@ -0,0 +1,261 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, mergeable histogram of durations (in milliseconds) used to compute duration percentiles.
+ * <p>
+ * The histogram uses log-linear buckets (similar to HDR histograms): durations lower than {@value #LINEAR_BUCKETS}
+ * milliseconds are recorded exactly, every higher power of two range is split into {@value #SUB_BUCKETS} equally
+ * sized buckets. The relative error of a reported percentile is therefore bounded by {@code 1/16} (6.25%) and
+ * the memory footprint ({@link #BUCKETS} counters) does not depend on the number or values of recorded durations.
+ * Durations longer than {@code 2^36} milliseconds fall into the last bucket.
+ * </p>
+ * <p>
+ * Instances are not thread-safe. Concurrent recording is handled by {@link ExecutionAccumulator}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS << 1;
+    private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+    private static final int MAX_EXPONENT = 35;
+
+    /**
+     * Number of histogram buckets.
+     */
+    static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * Get the index of the bucket into which the {@code duration} falls.
+     *
+     * @param duration duration in milliseconds.
+     * @return bucket index in the range {@code [0, BUCKETS)}.
+     */
+    static int bucket(long duration) {
+        if (duration < LINEAR_BUCKETS) {
+            return duration < 0 ? 0 : (int) duration;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(duration);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int subBucket = (int) (duration >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the highest duration that falls into the bucket.
+     *
+     * @param bucket bucket index.
+     * @return highest duration in milliseconds recorded into the bucket.
+     */
+    static long highestDuration(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        final int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket) * width) + width - 1;
+    }
+
+    /**
+     * Immutable sparse copy of a histogram containing only the non-empty buckets.
+     */
+    static final class Compact {
+
+        /**
+         * Empty histogram.
+         */
+        static final Compact EMPTY = new Compact(new int[0], new long[0], 0);
+
+        private final int[] buckets;
+        private final long[] counts;
+        private final long totalCount;
+
+        private Compact(int[] buckets, long[] counts, long totalCount) {
+            this.buckets = buckets;
+            this.counts = counts;
+            this.totalCount = totalCount;
+        }
+
+        /**
+         * Get the number of recorded durations.
+         *
+         * @return total count.
+         */
+        long getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * Get the duration below or equal to which the given percentage of the recorded durations falls.
+         *
+         * @param percentile percentile in the range {@code [0, 100]}.
+         * @return duration in milliseconds or {@code -1} if the histogram is empty.
+         */
+        long getPercentile(double percentile) {
+            if (totalCount == 0) {
+                return -1;
+            }
+            final double p = Math.min(Math.max(percentile, 0d), 100d);
+            final long rank = Math.max(1, (long) Math.ceil(p / 100d * totalCount));
+
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestDuration(buckets[i]);
+                }
+            }
+            return highestDuration(buckets[buckets.length - 1]);
+        }
+    }
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+
+    /**
+     * Record a duration.
+     *
+     * @param duration duration in milliseconds.
+     */
+    void record(long duration) {
+        recordBucket(bucket(duration), 1);
+    }
+
+    /**
+     * Record durations into a bucket.
+     *
+     * @param bucket bucket index.
+     * @param count  number of durations to record.
+     */
+    void recordBucket(int bucket, long count) {
+        counts[bucket] += count;
+        totalCount += count;
+    }
+
+    /**
+     * Add all durations recorded in another histogram.
+     *
+     * @param histogram histogram to be added.
+     */
+    void add(LatencyHistogram histogram) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += histogram.counts[i];
+        }
+        totalCount += histogram.totalCount;
+    }
+
+    /**
+     * Add all durations recorded in a compact histogram.
+     *
+     * @param histogram histogram to be added.
+     */
+    void add(Compact histogram) {
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            counts[histogram.buckets[i]] += histogram.counts[i];
+        }
+        totalCount += histogram.totalCount;
+    }
+
+    /**
+     * Remove all durations recorded in a compact histogram previously {@link #add(Compact) added} to this histogram.
+     *
+     * @param histogram histogram to be subtracted.
+     */
+    void subtract(Compact histogram) {
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            counts[histogram.buckets[i]] -= histogram.counts[i];
+        }
+        totalCount -= histogram.totalCount;
+    }
+
+    /**
+     * Remove all recorded durations.
+     */
+    void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+
+    /**
+     * Get the number of recorded durations.
+     *
+     * @return total count.
+     */
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Create an immutable compact copy of this histogram.
+     *
+     * @return compact histogram.
+     */
+    Compact compact() {
+        if (totalCount == 0) {
+            return Compact.EMPTY;
+        }
+        int size = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                size++;
+            }
+        }
+        final int[] buckets = new int[size];
+        final long[] bucketCounts = new long[size];
+        int j = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                buckets[j] = i;
+                bucketCounts[j++] = counts[i];
+            }
+        }
+        return new Compact(buckets, bucketCounts, totalCount);
+    }
+}
@@ -41,7 +41,13 @@
 package org.glassfish.jersey.server.internal.monitoring;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.inject.Inject;
 
@@ -54,7 +60,9 @@ import org.glassfish.jersey.uri.UriTemplate;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 
 /**
@@ -66,6 +74,13 @@ import com.google.common.collect.Queues;
  * comes.
  * </p>
  * <p>
+ * Request events are recorded into lock-free striped accumulators ({@link ExecutionAccumulator execution accumulators}
+ * per resource method and matched uri, response status and exception mapping counters) that are periodically
+ * drained by the {@link MonitoringStatisticsProcessor}. Recording of a request does not block and (apart from the first
+ * execution of a resource method for a given uri) does not allocate any statistics objects; no request is dropped
+ * even under heavy load.
+ * </p>
+ * <p>
  * This event listener must be registered as a standard provider when monitoring statistics are required
  * in the runtime.
  * </p>
@@ -77,100 +92,135 @@ public class MonitoringEventListener implements ApplicationEventListener {
     private ServiceLocator serviceLocator;
 
     private final Queue<ApplicationEvent> applicationEvents = Queues.newArrayBlockingQueue(20);
-    private final Queue<RequestStats> requestQueuedItems = Queues.newArrayBlockingQueue(50000);
-    private final Queue<Integer> responseStatuses = Queues.newArrayBlockingQueue(50000);
-    private final Queue<RequestEvent> exceptionMapperEvents = Queues.newArrayBlockingQueue(50000);
+    private final ExecutionAccumulator requestExecutions = new ExecutionAccumulator();
+    private final ConcurrentMap<ResourceMethod, ConcurrentMap<List<UriTemplate>, MethodExecutions>> methodExecutions =
+            new ConcurrentHashMap<ResourceMethod, ConcurrentMap<List<UriTemplate>, MethodExecutions>>();
+    private final ResponseStatusCounters responseStatuses = new ResponseStatusCounters();
+    private final ConcurrentMap<Class<?>, AtomicLong> exceptionMapperExecutions =
+            new ConcurrentHashMap<Class<?>, AtomicLong>();
+    private final AtomicLong successfulMappings = new AtomicLong();
+    private final AtomicLong unsuccessfulMappings = new AtomicLong();
     private volatile long applicationStartTime;
 
-
     /**
-     * Time statistics.
+     * Accumulated executions of a resource method matched by a particular uri.
      */
-    static class TimeStats {
-        private final long duration;
-        private final long startTime;
+    static class MethodExecutions {
+        private final ResourceMethod method;
+        private final String uri;
+        private final ExecutionAccumulator methodExecutions = new ExecutionAccumulator();
+        private final ExecutionAccumulator requestExecutions = new ExecutionAccumulator();
 
-        private TimeStats(long startTime, long requestDuration) {
-            this.duration = requestDuration;
-            this.startTime = startTime;
+        private MethodExecutions(ResourceMethod method, String uri) {
+            this.method = method;
+            this.uri = uri;
         }
 
         /**
-         * Get duration.
-         * @return Duration in milliseconds.
+         * Get the resource method executed.
+         * @return resource method.
          */
-        long getDuration() {
-            return duration;
+        ResourceMethod getMethod() {
+            return method;
         }
 
         /**
-         * Get start time.
-         * @return Start time (Unix timestamp format).
+         * Get the request uri template.
+         * @return request uri.
          */
-        long getStartTime() {
-            return startTime;
+        String getUri() {
+            return uri;
         }
-    }
-
-    /**
-     * Method statistics
-     */
-    static class MethodStats extends TimeStats {
-        private final ResourceMethod method;
 
-        private MethodStats(ResourceMethod method, long startTime, long requestDuration) {
-            super(startTime, requestDuration);
-            this.method = method;
+        /**
+         * Get the accumulated executions of the resource method itself.
+         * @return resource method execution accumulator.
+         */
+        ExecutionAccumulator getMethodExecutions() {
+            return methodExecutions;
         }
 
         /**
-         * Get the resource method executed.
-         * @return resource method.
+         * Get the accumulated processing of the requests matched to the resource method.
+         * @return request execution accumulator.
          */
-        ResourceMethod getMethod() {
-            return method;
+        ExecutionAccumulator getRequestExecutions() {
+            return requestExecutions;
         }
     }
 
     /**
-     * Request statistics.
+     * Striped response status code counters.
      */
-    class RequestStats {
-        private final TimeStats requestStats;
-        private final MethodStats methodStats; // might be null if a method was not executed during a request
-        private final String requestUri;
-
-        private RequestStats(TimeStats requestStats, MethodStats methodStats, String requestUri) {
-            this.requestStats = requestStats;
-            this.methodStats = methodStats;
-            this.requestUri = requestUri;
-        }
+    static class ResponseStatusCounters {
+        private static final int MIN_STATUS = 100;
+        private static final int MAX_STATUS = 599;
+        private static final int STATUS_RANGE = MAX_STATUS - MIN_STATUS + 1;
+
+        private final AtomicLongArray counters = new AtomicLongArray(ExecutionAccumulator.STRIPES * STATUS_RANGE);
+        // status codes outside of the standard range
+        private final ConcurrentMap<Integer, AtomicLong> otherCounters = new ConcurrentHashMap<Integer, AtomicLong>();
+        private volatile int lastStatus = -1;
 
         /**
-         * Get request statistics.
-         * @return request statistics.
+         * Record a response status code.
+         * @param status Response status code.
          */
-        TimeStats getRequestStats() {
-            return requestStats;
+        void add(int status) {
+            if (status >= MIN_STATUS && status <= MAX_STATUS) {
+                counters.incrementAndGet(ExecutionAccumulator.stripe() * STATUS_RANGE + status - MIN_STATUS);
+            } else {
+                increment(otherCounters, status);
+            }
+            lastStatus = status;
         }
 
         /**
-         * Get method statistics.
-         * @return method statistics.
+         * Get the last recorded response status code.
+         * @return last response status code or {@code -1} if no response status has been recorded yet.
          */
-        MethodStats getMethodStats() {
-            return methodStats;
+        int getLastStatus() {
+            return lastStatus;
         }
 
         /**
-         * Get the request uri.
-         * @return request uri.
+         * Drain the response status codes recorded since the last drain.
+         * @return sorted map of response status codes to the number of their occurrences.
          */
-        String getRequestUri() {
-            return requestUri;
+        SortedMap<Integer, Long> drain() {
+            final SortedMap<Integer, Long> result = Maps.newTreeMap();
+            for (int i = 0; i < counters.length(); i++) {
+                if (counters.get(i) != 0) {
+                    final long count = counters.getAndSet(i, 0);
+                    if (count != 0) {
+                        final int status = MIN_STATUS + i % STATUS_RANGE;
+                        final Long current = result.get(status);
+                        result.put(status, current == null ? count : current + count);
+                    }
+                }
+            }
+            for (Map.Entry<Integer, AtomicLong> entry : otherCounters.entrySet()) {
+                final long count = entry.getValue().getAndSet(0);
+                if (count != 0) {
+                    result.put(entry.getKey(), count);
+                }
+            }
+            return result;
         }
     }
 
+    private static <K> void increment(final ConcurrentMap<K, AtomicLong> counters, final K key) {
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            final AtomicLong newCounter = new AtomicLong();
+            counter = counters.putIfAbsent(key, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
     @Override
     public ReqEventListener onRequest(RequestEvent requestEvent) {
         switch (requestEvent.getType()) {
@@ -205,7 +255,8 @@ public class MonitoringEventListener implements ApplicationEventListener {
     private class ReqEventListener implements RequestEventListener {
         private volatile long requestTimeStart;
         private volatile long methodTimeStart;
-        private volatile MethodStats methodStats;
+        private volatile long methodDuration;
+        private volatile ResourceMethod method;
 
         public ReqEventListener() {
             this.requestTimeStart = System.currentTimeMillis();
@@ -219,31 +270,72 @@ public class MonitoringEventListener implements ApplicationEventListener {
                     this.methodTimeStart = now;
                     break;
                 case RESOURCE_METHOD_FINISHED:
-                    final ResourceMethod method = event.getUriInfo().getMatchedResourceMethod();
-                    methodStats = new MethodStats(method, methodTimeStart, now - methodTimeStart);
+                    methodDuration = now - methodTimeStart;
+                    method = event.getUriInfo().getMatchedResourceMethod();
                     break;
                 case EXCEPTION_MAPPING_FINISHED:
-                    exceptionMapperEvents.add(event);
+                    if (event.getExceptionMapper() != null) {
+                        increment(exceptionMapperExecutions, event.getExceptionMapper().getClass());
+                    }
+                    if (event.isResponseSuccessfullyMapped()) {
+                        successfulMappings.incrementAndGet();
+                    } else {
+                        unsuccessfulMappings.incrementAndGet();
+                    }
                     break;
                 case FINISHED:
                     if (event.isResponseWritten()) {
                         responseStatuses.add(event.getContainerResponse().getStatus());
                     }
-                    StringBuilder sb = new StringBuilder();
-                    List<UriTemplate> orderedTemplates = Lists.reverse(event.getUriInfo().getMatchedTemplates());
-
-                    for (UriTemplate uriTemplate : orderedTemplates) {
-                        sb.append(uriTemplate.getTemplate());
-                        if (!uriTemplate.endsWithSlash()) {
-                            sb.append("/");
-                        }
-                        sb.setLength(sb.length() - 1);
+
+                    final long requestDuration = now - requestTimeStart;
+                    requestExecutions.add(requestTimeStart, requestDuration);
+
+                    final ResourceMethod resourceMethod = method;
+                    if (resourceMethod != null) {
+                        final MethodExecutions executions =
+                                getMethodExecutions(resourceMethod, event.getUriInfo().getMatchedTemplates());
+                        executions.methodExecutions.add(methodTimeStart, methodDuration);
+                        executions.requestExecutions.add(requestTimeStart, requestDuration);
                     }
+            }
+        }
+    }
 
-                    requestQueuedItems.add(new RequestStats(new TimeStats(requestTimeStart, now - requestTimeStart),
-                            methodStats, sb.toString()));
+    private MethodExecutions getMethodExecutions(final ResourceMethod method, final List<UriTemplate> matchedTemplates) {
+        ConcurrentMap<List<UriTemplate>, MethodExecutions> uriMap = methodExecutions.get(method);
+        if (uriMap == null) {
+            final ConcurrentMap<List<UriTemplate>, MethodExecutions> newUriMap =
+                    new ConcurrentHashMap<List<UriTemplate>, MethodExecutions>(4);
+            uriMap = methodExecutions.putIfAbsent(method, newUriMap);
+            if (uriMap == null) {
+                uriMap = newUriMap;
             }
         }
+
+        MethodExecutions executions = uriMap.get(matchedTemplates);
+        if (executions == null) {
+            final MethodExecutions newExecutions = new MethodExecutions(method, getUri(matchedTemplates));
+            executions = uriMap.putIfAbsent(ImmutableList.copyOf(matchedTemplates), newExecutions);
+            if (executions == null) {
+                executions = newExecutions;
+            }
+        }
+        return executions;
+    }
+
+    private static String getUri(final List<UriTemplate> matchedTemplates) {
+        StringBuilder sb = new StringBuilder();
+        List<UriTemplate> orderedTemplates = Lists.reverse(matchedTemplates);
+
+        for (UriTemplate uriTemplate : orderedTemplates) {
+            sb.append(uriTemplate.getTemplate());
+            if (!uriTemplate.endsWithSlash()) {
+                sb.append("/");
+            }
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.toString();
     }
 
 
@@ -264,28 +356,50 @@ public class MonitoringEventListener implements ApplicationEventListener {
     }
 
     /**
-     * Get the exception mapper event queue.
-     * @return Exception mapper event queue.
+     * Get the accumulator of all request executions.
+     * @return Request execution accumulator.
      */
-    Queue<RequestEvent> getExceptionMapperEvents() {
-        return exceptionMapperEvents;
+    ExecutionAccumulator getRequestExecutions() {
+        return requestExecutions;
     }
 
     /**
-     * Get the request event queue.
-     * @return Request event queue.
+     * Get the accumulated resource method executions.
+     * @return Map of resource methods to their executions accumulated per matched uri.
      */
-    Queue<RequestStats> getRequestQueuedItems() {
-        return requestQueuedItems;
+    ConcurrentMap<ResourceMethod, ConcurrentMap<List<UriTemplate>, MethodExecutions>> getMethodExecutions() {
+        return methodExecutions;
     }
 
     /**
-     * Get the queue with response status codes.
-     * @return response status queue.
+     * Get the response status code counters.
+     * @return response status counters.
      */
-    Queue<Integer> getResponseStatuses() {
+    ResponseStatusCounters getResponseStatuses() {
         return responseStatuses;
     }
 
+    /**
+     * Get the exception mapper execution counters.
+     * @return Map of exception mapper classes to the number of their executions.
+     */
+    ConcurrentMap<Class<?>, AtomicLong> getExceptionMapperExecutions() {
+        return exceptionMapperExecutions;
+    }
+
+    /**
+     * Get the counter of successful exception mappings.
+     * @return successful mapping counter.
+     */
+    AtomicLong getSuccessfulMappings() {
+        return successfulMappings;
+    }
 
+    /**
+     * Get the counter of unsuccessful exception mappings.
+     * @return unsuccessful mapping counter.
+     */
+    AtomicLong getUnsuccessfulMappings() {
+        return unsuccessfulMappings;
+    }
 }
@@ -51,6 +51,7 @@ import org.glassfish.jersey.server.model.ResourceModel;
 import org.glassfish.jersey.server.monitoring.ApplicationStatistics;
 import org.glassfish.jersey.server.monitoring.ExceptionMapperStatistics;
 import org.glassfish.jersey.server.monitoring.ExecutionStatistics;
+import org.glassfish.jersey.server.monitoring.MethodSelectionStatistics;
 import org.glassfish.jersey.server.monitoring.MonitoringStatistics;
 import org.glassfish.jersey.server.monitoring.ResourceStatistics;
 
@@ -73,6 +74,7 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
         private final ResponseStatisticsImpl.Builder responseStatisticsBuilder;
         private ApplicationStatisticsImpl applicationStatisticsImpl;
         private ExceptionMapperStatisticsImpl.Builder exceptionMapperStatisticsBuilder;
+        private MethodSelectionStatisticsImpl methodSelectionStatisticsImpl = MethodSelectionStatisticsImpl.EMPTY;
         private SortedMap<String, ResourceStatisticsImpl.Builder> uriStatistics = Maps.newTreeMap();
         private SortedMap<Class<?>, ResourceStatisticsImpl.Builder> resourceClassStatistics
                 = Maps.newTreeMap(new Comparator<Class<?>>() {
@@ -170,6 +172,27 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
                     requestTime, requestDuration);
         }
 
+        /**
+         * Add aggregated executions of a resource method.
+         *
+         * @param uri String uri which was executed.
+         * @param resourceMethod Resource method.
+         * @param methodExecutions Aggregated executions of the resource method itself.
+         * @param requestExecutions Aggregated processing of the requests matched to the resource method.
+         */
+        void addExecutions(String uri, ResourceMethod resourceMethod,
+                           ExecutionAccumulator.Aggregate methodExecutions,
+                           ExecutionAccumulator.Aggregate requestExecutions) {
+            ResourceStatisticsImpl.Builder uriStatsBuilder = uriStatistics.get(uri);
+            if (uriStatsBuilder == null) {
+                uriStatsBuilder = new ResourceStatisticsImpl.Builder(resourceMethod.getParent());
+                uriStatistics.put(uri, uriStatsBuilder);
+            }
+            uriStatsBuilder.addExecutions(resourceMethod, methodExecutions, requestExecutions);
+
+            getOrCreateResourceBuilder(resourceMethod).addExecutions(resourceMethod, methodExecutions, requestExecutions);
+        }
+
 
         /**
          * Add a response status code produces by Jersey.
@@ -179,6 +202,14 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
             responseStatisticsBuilder.addResponseCode(responseCode);
         }
 
+        /**
+         * Get the response statistics builder.
+         * @return Builder of internal response statistics.
+         */
+        ResponseStatisticsImpl.Builder getResponseStatisticsBuilder() {
+            return responseStatisticsBuilder;
+        }
+
 
         /**
          * Set the application statistics.
@@ -188,6 +219,14 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
             this.applicationStatisticsImpl = applicationStatisticsImpl;
         }
 
+        /**
+         * Set the method selection statistics.
+         * @param methodSelectionStatisticsImpl Method selection statistics.
+         */
+        void setMethodSelectionStatisticsImpl(MethodSelectionStatisticsImpl methodSelectionStatisticsImpl) {
+            this.methodSelectionStatisticsImpl = methodSelectionStatisticsImpl;
+        }
+
         /**
          * Build a new instance of monitoring statistics.
          * @return New instance of {@code MonitoringStatisticsImpl}.
@@ -212,7 +251,8 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
                     requestStatisticsBuilder.build(),
                     responseStatisticsBuilder.build(),
                     applicationStatisticsImpl,
-                    exceptionMapperStatisticsBuilder.build());
+                    exceptionMapperStatisticsBuilder.build(),
+                    methodSelectionStatisticsImpl);
         }
     }
 
@@ -220,6 +260,7 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
     private final ResponseStatisticsImpl responseStatisticsImpl;
     private final ApplicationStatistics applicationStatistics;
     private final ExceptionMapperStatistics exceptionMapperStatistics;
+    private final MethodSelectionStatistics methodSelectionStatistics;
     private final Map<String, ResourceStatistics> uriStatistics;
     private final Map<Class<?>, ResourceStatistics> resourceClassStatistics;
 
@@ -229,13 +270,15 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
                                      ExecutionStatistics requestStatistics,
                                      ResponseStatisticsImpl responseStatistics,
                                      ApplicationStatistics applicationStatistics,
-                                     ExceptionMapperStatistics exceptionMapperStatistics) {
+                                     ExceptionMapperStatistics exceptionMapperStatistics,
+                                     MethodSelectionStatistics methodSelectionStatistics) {
         this.uriStatistics = uriStatistics;
         this.resourceClassStatistics = resourceClassStatistics;
         this.requestStatistics = requestStatistics;
         this.responseStatisticsImpl = responseStatistics;
         this.applicationStatistics = applicationStatistics;
         this.exceptionMapperStatistics = exceptionMapperStatistics;
+        this.methodSelectionStatistics = methodSelectionStatistics;
     }
 
 
@@ -271,6 +314,11 @@ class MonitoringStatisticsImpl implements MonitoringStatistics {
         return exceptionMapperStatistics;
     }
 
+    @Override
+    public MethodSelectionStatistics getMethodSelectionStatistics() {
+        return methodSelectionStatistics;
+    }
+
     @Override
     public MonitoringStatistics snapshot() {
         // snapshot functionality not yet implemented
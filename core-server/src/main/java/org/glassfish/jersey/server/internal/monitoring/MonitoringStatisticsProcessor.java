@@ -43,9 +43,10 @@ package org.glassfish.jersey.server.internal.monitoring;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,14 +55,16 @@ import javax.ws.rs.ProcessingException;
 import org.glassfish.jersey.server.ExtendedResourceContext;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.RuntimeExecutorsBinder;
-import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.internal.routing.MethodSelectionCaches;
 import org.glassfish.jersey.server.model.ResourceModel;
 import org.glassfish.jersey.server.monitoring.ApplicationEvent;
 import org.glassfish.jersey.server.monitoring.MonitoringStatisticsListener;
-import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.uri.UriTemplate;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
+import com.google.common.cache.CacheStats;
+
 /**
  * Process events of application and request processing into
  * {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics monitoring statistics}.
@@ -78,6 +81,7 @@ class MonitoringStatisticsProcessor {
     private final MonitoringStatisticsImpl.Builder statisticsBuilder;
     private final List<MonitoringStatisticsListener> statisticsCallbackList;
     private final ScheduledExecutorService scheduler;
+    private final MethodSelectionCaches methodSelectionCaches;
 
 
     /**
@@ -92,6 +96,7 @@ class MonitoringStatisticsProcessor {
         this.statisticsCallbackList = serviceLocator.getAllServices(MonitoringStatisticsListener.class);
         this.scheduler = serviceLocator.getService(ScheduledExecutorService.class,
                 new RuntimeExecutorsBinder.BackgroundSchedulerLiteral());
+        this.methodSelectionCaches = serviceLocator.getService(MethodSelectionCaches.class);
     }
 
     /**
@@ -108,6 +113,7 @@ class MonitoringStatisticsProcessor {
                     processRequestItems();
                     processResponseCodeEvents();
                     processExceptionMapperEvents();
+                    processMethodSelectionStatistics();
                 } catch (Throwable t) {
                     LOGGER.log(Level.SEVERE, LocalizationMessages.ERROR_MONITORING_STATISTICS_GENERATION(), t);
                     // rethrowing exception stops further task execution
@@ -157,48 +163,62 @@ class MonitoringStatisticsProcessor {
     }
 
     private void processExceptionMapperEvents() {
-        final Queue<RequestEvent> eventQueue = monitoringEventListener.getExceptionMapperEvents();
-        while (!eventQueue.isEmpty()) {
-            final RequestEvent event = eventQueue.remove();
-            final ExceptionMapperStatisticsImpl.Builder mapperStats = statisticsBuilder.getExceptionMapperStatisticsBuilder();
+        final ExceptionMapperStatisticsImpl.Builder mapperStats = statisticsBuilder.getExceptionMapperStatisticsBuilder();
 
-            if (event.getExceptionMapper() != null) {
-                mapperStats.addExceptionMapperExecution(event.getExceptionMapper().getClass(), 1);
+        for (Map.Entry<Class<?>, AtomicLong> entry : monitoringEventListener.getExceptionMapperExecutions().entrySet()) {
+            final long count = entry.getValue().getAndSet(0);
+            if (count != 0) {
+                mapperStats.addExceptionMapperExecution(entry.getKey(), count);
             }
-
-            mapperStats.addMapping(event.isResponseSuccessfullyMapped(), 1);
         }
 
+        final long successful = monitoringEventListener.getSuccessfulMappings().getAndSet(0);
+        if (successful != 0) {
+            mapperStats.addMapping(true, successful);
+        }
+        final long unsuccessful = monitoringEventListener.getUnsuccessfulMappings().getAndSet(0);
+        if (unsuccessful != 0) {
+            mapperStats.addMapping(false, unsuccessful);
+        }
     }
 
     private void processRequestItems() {
-        final Queue<MonitoringEventListener.RequestStats> requestQueuedItems = monitoringEventListener.getRequestQueuedItems();
-
-        while (!requestQueuedItems.isEmpty()) {
-            MonitoringEventListener.RequestStats event = requestQueuedItems.remove();
-            final MonitoringEventListener.TimeStats requestStats = event.getRequestStats();
-            statisticsBuilder.getRequestStatisticsBuilder().addExecution(requestStats.getStartTime(),
-                    requestStats.getDuration());
-            final MonitoringEventListener.MethodStats methodStat = event.getMethodStats();
-
-            if (methodStat != null) {
-                final ResourceMethod method = methodStat.getMethod();
-                statisticsBuilder.addExecution(event.getRequestUri(), method,
-                        methodStat.getStartTime(), methodStat.getDuration(),
-                        requestStats.getStartTime(), requestStats.getDuration());
+        statisticsBuilder.getRequestStatisticsBuilder().addExecutions(monitoringEventListener.getRequestExecutions().drain());
+
+        for (Map<List<UriTemplate>, MonitoringEventListener.MethodExecutions> uriMap
+                : monitoringEventListener.getMethodExecutions().values()) {
+            for (MonitoringEventListener.MethodExecutions executions : uriMap.values()) {
+                final ExecutionAccumulator.Aggregate methodExecutions = executions.getMethodExecutions().drain();
+                final ExecutionAccumulator.Aggregate requestExecutions = executions.getRequestExecutions().drain();
+
+                if (methodExecutions != null || requestExecutions != null) {
+                    statisticsBuilder.addExecutions(executions.getUri(), executions.getMethod(),
+                            methodExecutions, requestExecutions);
+                }
             }
         }
     }
 
 
-    private void processResponseCodeEvents() {
-        final Queue<Integer> responseEvents = monitoringEventListener.getResponseStatuses();
-        Integer code;
-        while (!responseEvents.isEmpty()) {
-            code = responseEvents.remove();
-            statisticsBuilder.addResponseCode(code);
+    private void processMethodSelectionStatistics() {
+        if (methodSelectionCaches != null) {
+            final CacheStats cacheStats = methodSelectionCaches.getStatistics();
+            statisticsBuilder.setMethodSelectionStatisticsImpl(new MethodSelectionStatisticsImpl(cacheStats.hitCount(),
+                    cacheStats.missCount(), cacheStats.evictionCount(), methodSelectionCaches.getSize()));
         }
+    }
+
+    private void processResponseCodeEvents() {
+        final MonitoringEventListener.ResponseStatusCounters responseStatuses = monitoringEventListener.getResponseStatuses();
+        final ResponseStatisticsImpl.Builder responseStatisticsBuilder = statisticsBuilder.getResponseStatisticsBuilder();
 
+        for (Map.Entry<Integer, Long> entry : responseStatuses.drain().entrySet()) {
+            responseStatisticsBuilder.addResponseCodes(entry.getKey(), entry.getValue());
+        }
+        final int lastStatus = responseStatuses.getLastStatus();
+        if (lastStatus != -1) {
+            responseStatisticsBuilder.setLastResponseCode(lastStatus);
+        }
     }
 
 
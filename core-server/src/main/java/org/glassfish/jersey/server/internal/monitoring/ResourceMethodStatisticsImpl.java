@@ -94,6 +94,18 @@ class ResourceMethodStatisticsImpl implements ResourceMethodStatistics {
             resourceMethodExecutionStatisticsBuilder.addExecution(methodStartTime, methodDuration);
             requestExecutionStatisticsBuilder.addExecution(requestStartTime, requestDuration);
         }
+
+        /**
+         * Add aggregated executions of the resource method.
+         *
+         * @param methodExecutions Aggregated executions of the resource method itself.
+         * @param requestExecutions Aggregated processing of the requests matched to the resource method.
+         */
+        void addResourceMethodExecutions(ExecutionAccumulator.Aggregate methodExecutions,
+                                         ExecutionAccumulator.Aggregate requestExecutions) {
+            resourceMethodExecutionStatisticsBuilder.addExecutions(methodExecutions);
+            requestExecutionStatisticsBuilder.addExecutions(requestExecutions);
+        }
     }
 
     private final ExecutionStatisticsImpl resourceMethodExecutionStatisticsImpl;
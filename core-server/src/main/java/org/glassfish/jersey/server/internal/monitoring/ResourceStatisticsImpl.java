@@ -123,6 +123,21 @@ class ResourceStatisticsImpl implements ResourceStatistics {
             builder.addResourceMethodExecution(methodStartTime, methodDuration, requestStartTime, requestDuration);
         }
 
+        /**
+         * Add aggregated executions of a resource method in the resource.
+         *
+         * @param resourceMethod Resource method executed.
+         * @param methodExecutions Aggregated executions of the resource method itself.
+         * @param requestExecutions Aggregated processing of the requests matched to the resource method.
+         */
+        void addExecutions(ResourceMethod resourceMethod, ExecutionAccumulator.Aggregate methodExecutions,
+                           ExecutionAccumulator.Aggregate requestExecutions) {
+            resourceExecutionStatisticsBuilder.addExecutions(methodExecutions);
+            requestExecutionStatisticsBuilder.addExecutions(requestExecutions);
+
+            getOrCreate(resourceMethod).addResourceMethodExecutions(methodExecutions, requestExecutions);
+        }
+
         /**
          * Add a resource method to the statistics.
          *
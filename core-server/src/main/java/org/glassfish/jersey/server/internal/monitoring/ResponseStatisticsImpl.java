@@ -60,12 +60,31 @@ class ResponseStatisticsImpl implements ResponseStatistics {
         private Integer lastResponseCode = null;
 
         void addResponseCode(int responseCode) {
+            addResponseCodes(responseCode, 1);
             lastResponseCode = responseCode;
+        }
+
+        /**
+         * Add multiple occurrences of a response status code.
+         *
+         * @param responseCode Response status code.
+         * @param count Number of responses with the {@code responseCode}.
+         */
+        void addResponseCodes(int responseCode, long count) {
             Long currentValue = responseCodes.get(responseCode);
             if (currentValue == null) {
                 currentValue = 0l;
             }
-            responseCodes.put(responseCode, currentValue + 1);
+            responseCodes.put(responseCode, currentValue + count);
+        }
+
+        /**
+         * Set the last response status code.
+         *
+         * @param responseCode Last response status code.
+         */
+        void setLastResponseCode(int responseCode) {
+            lastResponseCode = responseCode;
         }
 
         ResponseStatisticsImpl build() {
@@ -74,21 +74,29 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
         private long lastUnitMin = -1;
         private long lastUnitMax = -1;
         private long lastUnitDuration = 0;
+        // histograms are created lazily to keep the footprint of idle statistics low
+        private LatencyHistogram lastUnitHistogram;
+        private LatencyHistogram windowHistogram;
+        private LatencyHistogram.Compact histogramSnapshot = LatencyHistogram.Compact.EMPTY;
+        private boolean histogramChanged;
 
         private static class Unit {
             private final long count;
             private final long minimumDuration;
             private final long maximumDuration;
             private final long duration;
+            private final LatencyHistogram.Compact histogram;
 
-            private Unit(long count, long minimumDuration, long maximumDuration, long duration) {
+            private Unit(long count, long minimumDuration, long maximumDuration, long duration,
+                         LatencyHistogram.Compact histogram) {
                 this.count = count;
                 this.minimumDuration = minimumDuration;
                 this.maximumDuration = maximumDuration;
                 this.duration = duration;
+                this.histogram = histogram;
             }
 
-            private static Unit EMPTY_UNIT = new Unit(0, -1, -1, 0);
+            private static Unit EMPTY_UNIT = new Unit(0, -1, -1, 0, LatencyHistogram.Compact.EMPTY);
         }
 
         /**
@@ -138,18 +146,49 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
          * @param duration Duration of request processing.
          */
         void addRequest(long requestTime, long duration) {
+            addRequests(requestTime, 1, duration, duration, duration, null);
+            lastUnitHistogram().record(duration);
+        }
+
+        /**
+         * Add aggregated request executions.
+         *
+         * @param requestTime Time of the latest of the aggregated executions.
+         * @param count Number of aggregated executions.
+         * @param duration Total duration of the aggregated executions.
+         * @param minimumDuration Minimum duration of an aggregated execution ({@code -1} if unknown).
+         * @param maximumDuration Maximum duration of an aggregated execution ({@code -1} if unknown).
+         * @param histogram Histogram of the aggregated execution durations (might be {@code null}).
+         */
+        void addRequests(long requestTime, long count, long duration, long minimumDuration, long maximumDuration,
+                         LatencyHistogram histogram) {
             closeLastUnitIfNeeded(requestTime);
 
-            lastUnitCount++;
+            if (histogram != null) {
+                lastUnitHistogram().add(histogram);
+            }
+
+            lastUnitCount += count;
             lastUnitDuration += duration;
 
-            if (duration < lastUnitMin || lastUnitMin == -1) {
-                lastUnitMin = duration;
+            if (minimumDuration != -1 && (minimumDuration < lastUnitMin || lastUnitMin == -1)) {
+                lastUnitMin = minimumDuration;
+            }
+
+            if (maximumDuration != -1 && (maximumDuration > lastUnitMax || lastUnitMax == -1)) {
+                lastUnitMax = maximumDuration;
             }
+        }
 
-            if (duration > lastUnitMax || lastUnitMax == -1) {
-                lastUnitMax = duration;
+        private LatencyHistogram lastUnitHistogram() {
+            if (lastUnitHistogram == null) {
+                lastUnitHistogram = new LatencyHistogram();
+            }
+            if (interval == 0) {
+                // the last unit histogram of the unlimited window is the window histogram
+                histogramChanged = true;
             }
+            return lastUnitHistogram;
         }
 
         private void closeLastUnitIfNeeded(long requestTime) {
@@ -159,7 +198,8 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
                 }
                 if (lastUnitEnd < requestTime) {
                     // close the old unit
-                    add(new Unit(lastUnitCount, lastUnitMin, lastUnitMax, lastUnitDuration));
+                    add(new Unit(lastUnitCount, lastUnitMin, lastUnitMax, lastUnitDuration,
+                            lastUnitHistogram == null ? LatencyHistogram.Compact.EMPTY : lastUnitHistogram.compact()));
                     lastUnitEnd += unit;
                     resetLastUnit();
 
@@ -176,6 +216,9 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             lastUnitMin = -1;
             lastUnitMax = -1;
             lastUnitDuration = 0;
+            if (lastUnitHistogram != null) {
+                lastUnitHistogram.reset();
+            }
         }
 
         private void add(Unit unit) {
@@ -186,6 +229,17 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
                 final Unit removedUnit = unitQueue.remove();
                 totalCount -= removedUnit.count;
                 totalDuration -= removedUnit.duration;
+                if (removedUnit.histogram.getTotalCount() != 0) {
+                    windowHistogram.subtract(removedUnit.histogram);
+                    histogramChanged = true;
+                }
+            }
+            if (unit.histogram.getTotalCount() != 0) {
+                if (windowHistogram == null) {
+                    windowHistogram = new LatencyHistogram();
+                }
+                windowHistogram.add(unit.histogram);
+                histogramChanged = true;
             }
             totalCount += lastUnitCount;
             totalDuration += lastUnitDuration;
@@ -195,6 +249,12 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             this.unitQueue.clear();
             lastUnitEnd = requestTime + unit;
             resetLastUnit();
+            totalCount = 0;
+            totalDuration = 0;
+            if (windowHistogram != null) {
+                windowHistogram.reset();
+                histogramChanged = true;
+            }
 
             // fill with empty unit to keep result consistent
             for (int i = 0; i < unitsPerInterval; i++) {
@@ -222,11 +282,12 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             if (interval == 0) {
                 final long diff = currentTime - startTime;
                 if (diff < MINIMUM_UNIT_SIZE) {
-                    return new TimeWindowStatisticsImpl(interval, 0, 0, 0, 0, 0);
+                    return new TimeWindowStatisticsImpl(interval, 0, 0, 0, 0, 0, LatencyHistogram.Compact.EMPTY);
                 } else {
                     double requestsPerSecond = (double) (1000 * lastUnitCount) / diff;
                     long avg = lastUnitCount == 0 ? -1 : lastUnitDuration / lastUnitCount;
-                    return new TimeWindowStatisticsImpl(interval, requestsPerSecond, lastUnitMin, lastUnitMax, avg, lastUnitCount);
+                    return new TimeWindowStatisticsImpl(interval, requestsPerSecond, lastUnitMin, lastUnitMax, avg, lastUnitCount,
+                            histogramSnapshot(lastUnitHistogram));
                 }
             }
 
@@ -253,7 +314,16 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             }
 
             long avg = totalCount == 0 ? -1 : totalDuration / totalCount;
-            return new TimeWindowStatisticsImpl(interval, requestsPerSecond, min, max, avg, totalCount);
+            return new TimeWindowStatisticsImpl(interval, requestsPerSecond, min, max, avg, totalCount,
+                    histogramSnapshot(windowHistogram));
+        }
+
+        private LatencyHistogram.Compact histogramSnapshot(LatencyHistogram histogram) {
+            if (histogramChanged) {
+                histogramSnapshot = histogram == null ? LatencyHistogram.Compact.EMPTY : histogram.compact();
+                histogramChanged = false;
+            }
+            return histogramSnapshot;
         }
 
         public long getInterval() {
@@ -270,15 +340,19 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
 
     private long totalCount;
 
+    private final LatencyHistogram.Compact histogram;
+
 
     private TimeWindowStatisticsImpl(long interval, double requestsPerSecond, long minimumDuration,
-                                     long maximumDuration, long averageDuration, long totalCount) {
+                                     long maximumDuration, long averageDuration, long totalCount,
+                                     LatencyHistogram.Compact histogram) {
         this.interval = interval;
         this.requestsPerSecond = requestsPerSecond;
         this.minimumDuration = minimumDuration;
         this.maximumDuration = maximumDuration;
         this.averageDuration = averageDuration;
         this.totalCount = totalCount;
+        this.histogram = histogram;
     }
 
 
@@ -302,6 +376,12 @@ public class TimeWindowStatisticsImpl implements TimeWindowStatistics {
         return maximumDuration;
     }
 
+    @Override
+    public long getDurationPercentile(double percentile) {
+        final long value = histogram.getPercentile(percentile);
+        return value > maximumDuration && maximumDuration != -1 ? maximumDuration : value;
+    }
+
     @Override
     public long getRequestCount() {
         return totalCount;
@@ -65,6 +65,11 @@ import com.google.common.collect.Maps;
  * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
  */
 public class ExecutionStatisticsDynamicBean implements DynamicMBean {
+    /**
+     * Percentiles of processing time exposed for each time window.
+     */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
     private volatile ExecutionStatistics executionStatistics;
     private final Map<String, Value<Object>> attributeValues = Maps.newHashMap();
 
@@ -73,7 +78,7 @@ public class ExecutionStatisticsDynamicBean implements DynamicMBean {
 
     private MBeanInfo initMBeanInfo(final ExecutionStatistics initialStatistics) {
         final Map<Long, TimeWindowStatistics> statsMap = initialStatistics.getTimeWindowStatistics();
-        MBeanAttributeInfo[] attrs = new MBeanAttributeInfo[statsMap.size() * 5];
+        MBeanAttributeInfo[] attrs = new MBeanAttributeInfo[statsMap.size() * (5 + PERCENTILES.length)];
         int i = 0;
         for (final TimeWindowStatistics stats : statsMap.values()) {
             final long interval = stats.getTimeWindow();
@@ -112,6 +117,22 @@ public class ExecutionStatisticsDynamicBean implements DynamicMBean {
                 }
             });
 
+            for (final double percentile : PERCENTILES) {
+                final String percentileString = percentile == Math.rint(percentile)
+                        ? String.valueOf((long) percentile) : String.valueOf(percentile);
+                name = "Percentile" + percentileString + "Time[ms]_" + postfix;
+                attrs[i++] = new MBeanAttributeInfo(name, "long", percentileString
+                        + "th percentile of request processing time in milliseconds in last " + postfix + ".",
+                        true, false, false);
+
+                attributeValues.put(name, new Value<Object>() {
+                    @Override
+                    public Object get() {
+                        return executionStatistics.getTimeWindowStatistics().get(interval).getDurationPercentile(percentile);
+                    }
+                });
+            }
+
 
             name = "RequestRate[requestsPerSeconds]_" + postfix;
             attrs[i++] = new MBeanAttributeInfo(name, "double", "Average requests per second in last "
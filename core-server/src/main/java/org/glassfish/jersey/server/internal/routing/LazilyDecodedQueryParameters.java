@@ -0,0 +1,228 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
+
+/**
+ * Read-only multivalued map of decoded query parameters that decodes the parameter values lazily.
+ * <p>
+ * The map is backed by the map of query parameters with decoded names and encoded values. The values
+ * of a query parameter are decoded only once the parameter is retrieved, so that a resource method
+ * reading a single query parameter does not pay for decoding all the query parameters of the request.
+ * Operations that expose all the parameter values (e.g. {@link #entrySet()} or {@link #values()})
+ * decode all the remaining parameters.
+ * </p>
+ * <p>
+ * The map is not thread-safe and is meant to be accessed only via an
+ * {@link org.glassfish.jersey.internal.util.collection.ImmutableMultivaluedMap immutable view}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class LazilyDecodedQueryParameters implements MultivaluedMap<String, String> {
+
+    private final MultivaluedMap<String, String> encoded;
+    private final MultivaluedStringMap decoded;
+    private boolean decodedAll;
+
+    /**
+     * Create new lazily decoded query parameter map.
+     *
+     * @param encoded query parameters with decoded names and encoded values.
+     */
+    LazilyDecodedQueryParameters(final MultivaluedMap<String, String> encoded) {
+        this.encoded = encoded;
+        this.decoded = new MultivaluedStringMap();
+        this.decodedAll = encoded.isEmpty();
+    }
+
+    @Override
+    public List<String> get(final Object key) {
+        List<String> values = decoded.get(key);
+        if (values == null && !decodedAll) {
+            final List<String> encodedValues = encoded.get(key);
+            if (encodedValues != null) {
+                values = decode(encodedValues);
+                decoded.put((String) key, values);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String getFirst(final String key) {
+        final List<String> values = get(key);
+        return (values == null || values.isEmpty()) ? null : values.get(0);
+    }
+
+    @Override
+    public int size() {
+        return encoded.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return encoded.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return encoded.containsKey(key);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return encoded.keySet();
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return decodeAll().containsValue(value);
+    }
+
+    @Override
+    public Collection<List<String>> values() {
+        return decodeAll().values();
+    }
+
+    @Override
+    public Set<Entry<String, List<String>>> entrySet() {
+        return decodeAll().entrySet();
+    }
+
+    @Override
+    public boolean equalsIgnoreValueOrder(final MultivaluedMap<String, String> otherMap) {
+        return decodeAll().equalsIgnoreValueOrder(otherMap);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return decodeAll().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return decodeAll().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return decodeAll().toString();
+    }
+
+    private MultivaluedStringMap decodeAll() {
+        if (!decodedAll) {
+            for (String key : encoded.keySet()) {
+                get(key);
+            }
+            decodedAll = true;
+        }
+        return decoded;
+    }
+
+    private static List<String> decode(final List<String> values) {
+        final List<String> result = new ArrayList<String>(values.size());
+        try {
+            for (String value : values) {
+                result.add(URLDecoder.decode(value, "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException ex) {
+            // This should never occur
+            throw new IllegalArgumentException(ex);
+        }
+        return result;
+    }
+
+    @Override
+    public void putSingle(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(final String key, final String... newValues) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(final String key, final List<String> valueList) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addFirst(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> put(final String key, final List<String> value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> remove(final Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(final Map<? extends String, ? extends List<String>> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+}
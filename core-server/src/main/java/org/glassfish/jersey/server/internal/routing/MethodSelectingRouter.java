@@ -57,8 +57,11 @@ import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotAllowedException;
 import javax.ws.rs.NotSupportedException;
 import javax.ws.rs.Produces;
+import javax.ws.rs.RuntimeType;
 import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -68,11 +71,13 @@ import javax.ws.rs.ext.MessageBodyWriter;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.message.internal.MediaTypes;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.process.RespondingContext;
 import org.glassfish.jersey.server.model.Invocable;
@@ -80,6 +85,7 @@ import org.glassfish.jersey.server.model.Parameter;
 import org.glassfish.jersey.server.model.ResourceMethod;
 
 import com.google.common.base.Function;
+import com.google.common.cache.Cache;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Primitives;
@@ -91,6 +97,13 @@ import com.google.common.primitives.Primitives;
  * The method selection algorithm selects the handling method based on the HTTP request
  * method name, requested media type as well as defined resource method media type
  * capabilities.
+ * <p>
+ * The outcome of the method selection depends only on the request HTTP method and on the values of
+ * the {@code Content-Type} and {@code Accept} request headers. The selection results are therefore
+ * cached per (HTTP method, {@code Content-Type}, {@code Accept}) tuple in a bounded cache (see
+ * {@link ServerProperties#METHOD_SELECTION_CACHE_SIZE}). The cache lives as long as the router, i.e. it is
+ * discarded together with the runtime model when the application is reloaded.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -99,11 +112,20 @@ final class MethodSelectingRouter implements Router {
 
     private static final Logger LOGGER = Logger.getLogger(MethodSelectingRouter.class.getName());
 
+    /**
+     * Default maximum number of cached method selections per router.
+     */
+    static final int DEFAULT_METHOD_SELECTION_CACHE_SIZE = 64;
+
     private final Provider<RespondingContext> respondingContextFactory;
     private final MessageBodyWorkers workers;
 
     private final Map<String, List<ConsumesProducesAcceptor>> consumesProducesAcceptors;
     private final Router router;
+    /**
+     * Method selection cache or {@code null} if the method selection results are not cached.
+     */
+    private final Cache<SelectionKey, MethodSelection> selectionCache;
 
     /**
      * Injectable builder of a {@link MethodSelectingRouter} instance.
@@ -111,6 +133,10 @@ final class MethodSelectingRouter implements Router {
     static class Builder {
         @Inject
         private Provider<RespondingContext> respondingContextFactory;
+        @Inject
+        private Configuration config;
+        @Inject
+        private MethodSelectionCaches selectionCaches;
 
         /**
          * Create a new {@link MethodSelectingRouter} for all the methods on the same path.
@@ -125,18 +151,51 @@ final class MethodSelectingRouter implements Router {
         public MethodSelectingRouter build(
                 final MessageBodyWorkers workers, final List<MethodAcceptorPair> methodAcceptorPairs) {
 
+            return build(workers, methodAcceptorPairs, true);
+        }
+
+        /**
+         * Create a new {@link MethodSelectingRouter} for all the methods on the same path.
+         *
+         * The router selects the method that best matches the request based on
+         * produce/consume information from the resource method models.
+         *
+         * @param workers             message body workers.
+         * @param methodAcceptorPairs [method model, method methodAcceptorPair] pairs.
+         * @param cacheSelection      if {@code true}, the method selection results are cached by the router
+         *                            (unless disabled via {@link ServerProperties#METHOD_SELECTION_CACHE_SIZE}).
+         *                            Caching should be turned off for short-lived routers, e.g. the routers of
+         *                            sub-resource models returned from sub-resource locators.
+         * @return new {@link MethodSelectingRouter}
+         */
+        public MethodSelectingRouter build(final MessageBodyWorkers workers,
+                                           final List<MethodAcceptorPair> methodAcceptorPairs,
+                                           final boolean cacheSelection) {
+
+            Cache<SelectionKey, MethodSelection> selectionCache = null;
+            if (cacheSelection) {
+                final int cacheSize = PropertiesHelper.getValue(config.getProperties(), RuntimeType.SERVER,
+                        ServerProperties.METHOD_SELECTION_CACHE_SIZE, DEFAULT_METHOD_SELECTION_CACHE_SIZE, Integer.class);
+                if (cacheSize > 0) {
+                    selectionCache = selectionCaches.create(cacheSize);
+                }
+            }
+
             return new MethodSelectingRouter(respondingContextFactory,
                     workers,
-                    methodAcceptorPairs);
+                    methodAcceptorPairs,
+                    selectionCache);
         }
     }
 
     private MethodSelectingRouter(
             Provider<RespondingContext> respondingContextFactory,
             MessageBodyWorkers msgWorkers,
-            List<MethodAcceptorPair> methodAcceptorPairs) {
+            List<MethodAcceptorPair> methodAcceptorPairs,
+            Cache<SelectionKey, MethodSelection> selectionCache) {
         this.respondingContextFactory = respondingContextFactory;
         this.workers = msgWorkers;
+        this.selectionCache = selectionCache;
 
         this.consumesProducesAcceptors = new HashMap<String, List<ConsumesProducesAcceptor>>();
 
@@ -405,6 +464,79 @@ final class MethodSelectingRouter implements Router {
         }
     }
 
+    /**
+     * Method selection cache key - the request data the outcome of the method selection depends on.
+     */
+    private static final class SelectionKey {
+
+        private final String httpMethod;
+        private final String contentType;
+        private final String accept;
+        private final int hash;
+
+        SelectionKey(final ContainerRequest requestContext) {
+            this.httpMethod = requestContext.getMethod();
+            this.contentType = requestContext.getHeaderString(HttpHeaders.CONTENT_TYPE);
+            this.accept = requestContext.getHeaderString(HttpHeaders.ACCEPT);
+
+            int result = httpMethod.hashCode();
+            result = 31 * result + (contentType != null ? contentType.hashCode() : 0);
+            result = 31 * result + (accept != null ? accept.hashCode() : 0);
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SelectionKey)) {
+                return false;
+            }
+
+            final SelectionKey that = (SelectionKey) o;
+            return hash == that.hash
+                    && httpMethod.equals(that.httpMethod)
+                    && (contentType != null ? contentType.equals(that.contentType) : that.contentType == null)
+                    && (accept != null ? accept.equals(that.accept) : that.accept == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Result of the method selection for a particular {@link SelectionKey request data}.
+     */
+    private static final class MethodSelection {
+
+        /**
+         * Selection result in case there is no method consuming the request entity media type.
+         */
+        static final MethodSelection NOT_SUPPORTED = new MethodSelection(null, null);
+        /**
+         * Selection result in case there is no method producing a media type acceptable by the client.
+         */
+        static final MethodSelection NOT_ACCEPTABLE = new MethodSelection(null, null);
+
+        /**
+         * Selected method acceptor or {@code null} if no method has been selected.
+         */
+        final RequestSpecificConsumesProducesAcceptor selected;
+        /**
+         * Pre-selected response media type or {@code null} if the response media type has to be determined
+         * from the actual response entity.
+         */
+        final MediaType responseMediaType;
+
+        MethodSelection(final RequestSpecificConsumesProducesAcceptor selected, final MediaType responseMediaType) {
+            this.selected = selected;
+            this.responseMediaType = responseMediaType;
+        }
+    }
+
 
     private Router createInternalRouter() {
         return new Router() {
@@ -515,6 +647,68 @@ final class MethodSelectingRouter implements Router {
                     Response.status(Status.METHOD_NOT_ALLOWED).allow(consumesProducesAcceptors.keySet()).build());
         }
 
+        final MethodSelection selection;
+        if (selectionCache != null) {
+            final SelectionKey key = new SelectionKey(requestContext);
+            MethodSelection cached = selectionCache.getIfPresent(key);
+            if (cached == null) {
+                cached = selectMethod(requestContext, acceptors);
+                selectionCache.put(key, cached);
+            }
+            selection = cached;
+        } else {
+            selection = selectMethod(requestContext, acceptors);
+        }
+
+        if (selection == MethodSelection.NOT_SUPPORTED) {
+            throw new NotSupportedException();
+        } else if (selection == MethodSelection.NOT_ACCEPTABLE) {
+            throw new NotAcceptableException();
+        }
+
+        final List<MediaType> acceptableMediaTypes =
+                selection.responseMediaType == null ? requestContext.getAcceptableMediaTypes() : null;
+
+        respondingContextFactory.get().push(new Function<ContainerResponse, ContainerResponse>() {
+            @Override
+            public ContainerResponse apply(final ContainerResponse responseContext) {
+                // we only need to compute and set the effective media type if it hasn't been set already
+                // and either there is an entity, or we are responding to a HEAD request
+                if (responseContext.getMediaType() == null
+                        && (responseContext.hasEntity()
+                                || HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
+
+                    MediaType effectiveResponseType = selection.responseMediaType != null
+                            ? selection.responseMediaType
+                            : determineResponseMediaType(responseContext.getEntityClass(), responseContext.getEntityType(),
+                                    selection.selected, acceptableMediaTypes);
+
+                    if (isWildcard(effectiveResponseType)) {
+                        if (effectiveResponseType.isWildcardType()
+                                || effectiveResponseType.getType().equalsIgnoreCase("application")) {
+                            effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+                        } else {
+                            throw new NotAcceptableException();
+                        }
+                    }
+                    responseContext.setMediaType(effectiveResponseType);
+                }
+
+                return responseContext;
+            }
+        });
+        return selection.selected.methodAcceptorPair.router;
+    }
+
+    /**
+     * Select the method to be invoked for the request.
+     *
+     * @param requestContext request context.
+     * @param acceptors      acceptors bound to the request HTTP method.
+     * @return method selection result.
+     */
+    private MethodSelection selectMethod(final ContainerRequest requestContext,
+                                         final List<ConsumesProducesAcceptor> acceptors) {
         final List<ConsumesProducesAcceptor> satisfyingAcceptors = new LinkedList<ConsumesProducesAcceptor>();
         final Set<ResourceMethod> differentInvokableMethods = Sets.newIdentityHashSet();
         for (ConsumesProducesAcceptor cpi : acceptors) {
@@ -524,7 +718,7 @@ final class MethodSelectingRouter implements Router {
             }
         }
         if (satisfyingAcceptors.isEmpty()) {
-            throw new NotSupportedException();
+            return MethodSelection.NOT_SUPPORTED;
         }
 
         final List<MediaType> acceptableMediaTypes = requestContext.getAcceptableMediaTypes();
@@ -542,36 +736,11 @@ final class MethodSelectingRouter implements Router {
                 reportMethodSelectionAmbiguity(acceptableMediaTypes, methodSelector.selected, methodSelector.sameFitnessAcceptors);
             }
 
-            respondingContextFactory.get().push(new Function<ContainerResponse, ContainerResponse>() {
-                @Override
-                public ContainerResponse apply(final ContainerResponse responseContext) {
-                    // we only need to compute and set the effective media type if it hasn't been set already
-                    // and either there is an entity, or we are responding to a HEAD request
-                    if (responseContext.getMediaType() == null
-                            && (responseContext.hasEntity()
-                                    || HttpMethod.HEAD.equals(responseContext.getRequestContext().getMethod()))) {
-
-                        MediaType effectiveResponseType = determineResponseMediaType(responseContext.getEntityClass(),
-                                responseContext.getEntityType(), methodSelector.selected, acceptableMediaTypes);
-
-                        if (isWildcard(effectiveResponseType)) {
-                            if (effectiveResponseType.isWildcardType()
-                                    || effectiveResponseType.getType().equalsIgnoreCase("application")) {
-                                effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
-                            } else {
-                                throw new NotAcceptableException();
-                            }
-                        }
-                        responseContext.setMediaType(effectiveResponseType);
-                    }
-
-                    return responseContext;
-                }
-            });
-            return selected.methodAcceptorPair.router;
+            return new MethodSelection(selected, usePreSelectedMediaType(selected, acceptableMediaTypes)
+                    ? selected.produces.getCombinedMediaType() : null);
         }
 
-        throw new NotAcceptableException();
+        return MethodSelection.NOT_ACCEPTABLE;
     }
 
     /**
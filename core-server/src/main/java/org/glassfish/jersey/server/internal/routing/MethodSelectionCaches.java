@@ -0,0 +1,105 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.MapMaker;
+
+/**
+ * Registry of the method selection caches used by the {@link MethodSelectingRouter method selecting routers}
+ * of an application.
+ * <p>
+ * The registry creates the bounded, concurrent caches and keeps track of them in order to provide aggregated
+ * cache statistics for monitoring purposes. The caches are referenced weakly, so that a cache of a router
+ * that is no longer in use can be garbage-collected together with the router.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class MethodSelectionCaches {
+
+    private final Set<Cache<?, ?>> caches =
+            Collections.newSetFromMap(new MapMaker().weakKeys().<Cache<?, ?>, Boolean>makeMap());
+
+    /**
+     * Create a new registered method selection cache.
+     *
+     * @param maximumSize maximum number of cache entries.
+     * @param <K>         cache key type.
+     * @param <V>         cache value type.
+     * @return new method selection cache.
+     */
+    <K, V> Cache<K, V> create(final int maximumSize) {
+        final Cache<K, V> cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Get the statistics aggregated over all the method selection caches in use.
+     *
+     * @return aggregated method selection cache statistics.
+     */
+    public CacheStats getStatistics() {
+        CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+        for (Cache<?, ?> cache : caches) {
+            stats = stats.plus(cache.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Get the number of entries currently stored in all the method selection caches in use.
+     *
+     * @return number of cached method selections.
+     */
+    public long getSize() {
+        long size = 0;
+        for (Cache<?, ?> cache : caches) {
+            size += cache.size();
+        }
+        return size;
+    }
+}
@@ -43,14 +43,21 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.regex.MatchResult;
 
+import javax.ws.rs.RuntimeType;
+import javax.ws.rs.core.Configuration;
+
 import javax.inject.Inject;
 import javax.inject.Provider;
 
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.message.internal.TracingLogger;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.ServerTraceEvent;
 import org.glassfish.jersey.uri.PathPattern;
 
+import com.google.common.collect.Lists;
+
 /**
  * Matches the un-matched right-hand request path to a configured
  * {@link PathPattern path pattern}.
@@ -70,35 +77,70 @@ class PathPatternRouter implements Router {
 
         @Inject
         private Provider<RoutingContext> contextProvider;
+        @Inject
+        private Configuration config;
 
         /**
          * Build a path pattern request router.
+         * <p>
+         * Unless disabled via {@link ServerProperties#ROUTING_PREFIX_TREE_DISABLE}, the routes are indexed
+         * in a {@link PathPrefixTree literal path prefix tree} so that only the routes that may possibly
+         * match the request path are tried.
+         * </p>
          *
          * @param routes next-level request pre-processing stages to be returned in case the request
          *               matching in the built router is successful.
          * @return a path pattern request router.
          */
         public PathPatternRouter build(final List<Route<PathPattern>> routes) {
-            return new PathPatternRouter(contextProvider, routes);
+            final boolean prefixTreeDisabled = PropertiesHelper.getValue(config.getProperties(), RuntimeType.SERVER,
+                    ServerProperties.ROUTING_PREFIX_TREE_DISABLE, Boolean.FALSE, Boolean.class);
+
+            return new PathPatternRouter(contextProvider, routes, !prefixTreeDisabled);
         }
     }
 
+    /**
+     * Minimal number of routes for which the routes are indexed in a prefix tree.
+     */
+    private static final int PREFIX_TREE_THRESHOLD = 2;
+
     private final Provider<RoutingContext> contextProvider;
     private final List<Route<PathPattern>> acceptedRoutes;
+    /**
+     * Literal prefix tree of the accepted routes or {@code null} if the routes are matched sequentially.
+     */
+    private final PathPrefixTree prefixTree;
 
     /**
      * Constructs route methodAcceptorPair that uses {@link PathPattern} instances for
      * patch matching.
      *
-     * @param provider {@link RoutingContext} injection provider.
-     * @param routes   next-level request routers to be returned in case the router matching
-     *                 the built router is successful.
+     * @param provider      {@link RoutingContext} injection provider.
+     * @param routes        next-level request routers to be returned in case the router matching
+     *                      the built router is successful.
+     * @param usePrefixTree if {@code true}, the routes are indexed in a literal path prefix tree.
      */
     private PathPatternRouter(final Provider<RoutingContext> provider,
-                              final List<Route<PathPattern>> routes) {
+                              final List<Route<PathPattern>> routes,
+                              final boolean usePrefixTree) {
 
         this.contextProvider = provider;
-        this.acceptedRoutes = routes;
+        this.acceptedRoutes = Lists.newArrayList(routes);
+        this.prefixTree = usePrefixTree ? createPrefixTree(acceptedRoutes) : null;
+    }
+
+    private static PathPrefixTree createPrefixTree(final List<Route<PathPattern>> routes) {
+        if (routes.size() < PREFIX_TREE_THRESHOLD) {
+            return null;
+        }
+
+        final List<String> regexes = Lists.newArrayListWithCapacity(routes.size());
+        for (Route<PathPattern> route : routes) {
+            regexes.add(route.routingPattern().getRegex());
+        }
+        final PathPrefixTree tree = new PathPrefixTree(regexes);
+        return tree.isSelective() ? tree : null;
     }
 
     @Override
@@ -110,6 +152,12 @@ class PathPatternRouter implements Router {
         final TracingLogger tracingLogger = TracingLogger.getInstance(request);
         tracingLogger.log(ServerTraceEvent.MATCH_PATH_FIND, path);
 
+        if (prefixTree != null && path != null
+                && !tracingLogger.isLogEnabled(ServerTraceEvent.MATCH_PATH_NOT_MATCHED)
+                && !tracingLogger.isLogEnabled(ServerTraceEvent.MATCH_PATH_SKIPPED)) {
+            return applyCandidates(request, rc, path, tracingLogger);
+        }
+
         Router.Continuation result = null;
         final Iterator<Route<PathPattern>> iterator = acceptedRoutes.iterator();
         while (iterator.hasNext()) {
@@ -142,4 +190,30 @@ class PathPatternRouter implements Router {
 
         return result;
     }
+
+    /**
+     * Match only the routes pre-selected by the prefix tree. The candidates are tried
+     * in the original route order, so the selected route is the same as the one selected
+     * by matching all the routes sequentially.
+     */
+    private Router.Continuation applyCandidates(final ContainerRequest request,
+                                                final RoutingContext rc,
+                                                final String path,
+                                                final TracingLogger tracingLogger) {
+        for (int index : prefixTree.candidates(path)) {
+            final Route<PathPattern> acceptedRoute = acceptedRoutes.get(index);
+            final PathPattern routePattern = acceptedRoute.routingPattern();
+            final MatchResult m = routePattern.match(path);
+            if (m != null) {
+                // Push match result information and rest of path to match
+                rc.pushMatchResult(m);
+
+                tracingLogger.log(ServerTraceEvent.MATCH_PATH_SELECTED, routePattern.getRegex());
+                return Router.Continuation.of(request, acceptedRoute.next());
+            }
+        }
+
+        // No match
+        return Router.Continuation.of(request);
+    }
 }
@@ -0,0 +1,280 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Literal path prefix tree used to pre-select candidate routes of a {@link PathPatternRouter}.
+ * <p>
+ * Every indexed route is represented by the literal prefix of its routing regular expression,
+ * i.e. by the leading characters that any successfully matched path must start with. For a given
+ * path the tree returns indexes of all the routes whose literal prefix is a prefix of the path,
+ * in the ascending order. Routes with an empty literal prefix (e.g. patterns starting with
+ * a template variable) are always returned as candidates. Since the tree only filters out routes
+ * that cannot possibly match the path, matching the returned candidates in the returned order
+ * yields the same result as matching all the routes in their original order.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class PathPrefixTree {
+
+    private static final int[] NO_ROUTES = new int[0];
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Build a new prefix tree for the list of routing regular expressions.
+     *
+     * @param regexes routing regular expressions. Indexes of the regular expressions in the list
+     *                are the route indexes returned from {@link #candidates(CharSequence)}.
+     */
+    PathPrefixTree(final List<String> regexes) {
+        final NodeBuilder rootBuilder = new NodeBuilder();
+        int index = 0;
+        for (String regex : regexes) {
+            final String prefix = literalPrefix(regex);
+            NodeBuilder current = rootBuilder;
+            for (int i = 0; i < prefix.length(); i++) {
+                current = current.child(prefix.charAt(i));
+            }
+            current.addRoute(index++);
+        }
+        this.root = rootBuilder.build();
+        this.size = index;
+    }
+
+    /**
+     * Get indexes of the routes that may match the path, in the ascending order.
+     *
+     * @param path path to be matched.
+     * @return candidate route indexes.
+     */
+    int[] candidates(final CharSequence path) {
+        int count = 0;
+        int lists = 0;
+        Node current = root;
+        int position = 0;
+        while (current != null) {
+            if (current.routes.length > 0) {
+                count += current.routes.length;
+                lists++;
+            }
+            current = (position < path.length()) ? current.child(path.charAt(position++)) : null;
+        }
+
+        if (count == 0) {
+            return NO_ROUTES;
+        }
+
+        final int[] result = new int[count];
+        count = 0;
+        current = root;
+        position = 0;
+        while (current != null) {
+            System.arraycopy(current.routes, 0, result, count, current.routes.length);
+            count += current.routes.length;
+            current = (position < path.length()) ? current.child(path.charAt(position++)) : null;
+        }
+
+        if (lists > 1) {
+            // route indexes stored in each node are sorted, only the merged result needs sorting
+            Arrays.sort(result);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the tree is able to filter out any candidates, i.e. whether at least one
+     * of the indexed routes has a non-empty literal prefix.
+     *
+     * @return {@code true} if the tree is able to filter the candidate routes, {@code false} otherwise.
+     */
+    boolean isSelective() {
+        return root.routes.length < size;
+    }
+
+    /**
+     * Compute the literal prefix of a regular expression.
+     * <p>
+     * The literal prefix is the longest sequence of leading characters that every input
+     * fully matched by the regular expression must start with. The computation is conservative:
+     * whenever a construct that is not a plain (or escaped) literal character is encountered,
+     * the prefix ends. An empty string is returned for regular expressions that contain
+     * a top-level alternation.
+     * </p>
+     *
+     * @param regex regular expression.
+     * @return literal prefix of the regular expression, possibly empty.
+     */
+    static String literalPrefix(final String regex) {
+        if (regex == null || regex.length() == 0 || hasTopLevelAlternation(regex)) {
+            return "";
+        }
+
+        final StringBuilder prefix = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            if (c == '\\') {
+                if (next == regex.length()) {
+                    break;
+                }
+                c = regex.charAt(next++);
+                if (Character.isLetterOrDigit(c)) {
+                    // character classes, back references, quotations, boundaries...
+                    break;
+                }
+            } else if (".^$|?*+()[]{}".indexOf(c) >= 0) {
+                break;
+            }
+
+            if (next < regex.length() && "?*{".indexOf(regex.charAt(next)) >= 0) {
+                // the literal character is optional or repeated possibly zero times
+                break;
+            }
+
+            prefix.append(c);
+            if (next < regex.length() && regex.charAt(next) == '+') {
+                break;
+            }
+            i = next;
+        }
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(final String regex) {
+        int groupDepth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return false;
+                    }
+                    i = end + 1;
+                } else {
+                    i++;
+                }
+            } else if (classDepth > 0) {
+                if (c == '[') {
+                    classDepth++;
+                } else if (c == ']') {
+                    classDepth--;
+                }
+            } else if (c == '[') {
+                classDepth++;
+                // a closing bracket right after the opening one (or its negation) is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == '(') {
+                groupDepth++;
+            } else if (c == ')') {
+                groupDepth--;
+            } else if (c == '|' && groupDepth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] routes;
+
+        private Node(final char[] keys, final Node[] children, final int[] routes) {
+            this.keys = keys;
+            this.children = children;
+            this.routes = routes;
+        }
+
+        private Node child(final char c) {
+            final int index = Arrays.binarySearch(keys, c);
+            return (index < 0) ? null : children[index];
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<Character, NodeBuilder> children = Maps.newTreeMap();
+        private int[] routes = NO_ROUTES;
+
+        private NodeBuilder child(final char c) {
+            NodeBuilder child = children.get(c);
+            if (child == null) {
+                child = new NodeBuilder();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        private void addRoute(final int index) {
+            routes = Arrays.copyOf(routes, routes.length + 1);
+            routes[routes.length - 1] = index;
+        }
+
+        private Node build() {
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, routes);
+        }
+    }
+}
@@ -43,6 +43,8 @@ import java.util.regex.Pattern;
 
 import javax.ws.rs.container.ResourceInfo;
 
+import javax.inject.Singleton;
+
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.ExtendedUriInfo;
 import org.glassfish.jersey.uri.PathPattern;
@@ -107,6 +109,8 @@ public class RouterBinder extends AbstractBinder {
         bindAsContract(MethodSelectingRouter.Builder.class);
         bindAsContract(RoutingStage.Builder.class);
         bindAsContract(RoutedInflectorExtractorStage.class);
+
+        bindAsContract(MethodSelectionCaches.class).in(Singleton.class);
     }
 
 }
@@ -217,7 +217,7 @@ public final class RuntimeModelBuilder {
                         resourceClosedPattern,
                         uriPushingRouter,
                         resourcePushingRouter,
-                        methodSelectingAcceptorBuilder.build(workers, methodAcceptors), subResourceMode);
+                        methodSelectingAcceptorBuilder.build(workers, methodAcceptors, !subResourceMode), subResourceMode);
             }
 
             RouteToPathBuilder<PathPattern> srRoutedBuilder = null;
@@ -236,7 +236,7 @@ public final class RuntimeModelBuilder {
                                 .route(childClosedPattern)
                                 .to(uriPushingRouter)
                                 .to(childResourcePushingRouter)
-                                .to(methodSelectingAcceptorBuilder.build(workers, childMethodAcceptors));
+                                .to(methodSelectingAcceptorBuilder.build(workers, childMethodAcceptors, !subResourceMode));
                     }
 
                     // sub resource locator
@@ -43,7 +43,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.security.PrivilegedAction;
-import java.util.List;
 
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.ProcessingException;
@@ -71,9 +70,9 @@ import org.glassfish.jersey.server.model.ResourceMethod;
 import org.glassfish.jersey.server.model.ResourceModel;
 import org.glassfish.jersey.server.model.internal.ModelErrors;
 import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.spi.internal.ParameterExtractionPlan;
 import org.glassfish.jersey.server.spi.internal.ParameterValueHelper;
 
-import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.api.ServiceLocator;
 
 /**
@@ -90,7 +89,7 @@ class SubResourceLocatorRouter implements Router {
 
     private final ServiceLocator locator;
     private final ResourceMethod locatorModel;
-    private final List<Factory<?>> valueProviders;
+    private final ParameterExtractionPlan extractionPlan;
     private final RuntimeModelBuilder runtimeModelBuilder;
     private final JerseyResourceContext resourceContext;
     private final boolean disableValidation;
@@ -111,7 +110,8 @@ class SubResourceLocatorRouter implements Router {
         this.locator = locator;
         this.runtimeModelBuilder = runtimeModelBuilder;
         this.locatorModel = locatorModel;
-        this.valueProviders = ParameterValueHelper.createValueProviders(locator, locatorModel.getInvocable());
+        this.extractionPlan = ParameterExtractionPlan.compile(
+                ParameterValueHelper.createValueProviders(locator, locatorModel.getInvocable()));
         this.resourceContext = locator.getService(JerseyResourceContext.class);
 
         final Configuration config = locator.getService(Configuration.class);
@@ -216,7 +216,7 @@ class SubResourceLocatorRouter implements Router {
     private Object getResource(RoutingContext routingCtx, ContainerRequest request) {
         final Object resource = routingCtx.peekMatchedResource();
         final Method handlingMethod = locatorModel.getInvocable().getHandlingMethod();
-        final Object[] parameterValues = ParameterValueHelper.getParameterValues(valueProviders);
+        final Object[] parameterValues = extractionPlan.getParameterValues(request);
 
         request.triggerEvent(RequestEvent.Type.LOCATOR_MATCHED);
 
@@ -99,6 +99,7 @@ public class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
     private ImmutableMultivaluedMap<String, String> decodedTemplateValuesView;
 
     private ImmutableMultivaluedMap<String, String> encodedQueryParamsView;
+    private MultivaluedMap<String, String> encodedQueryParams;
     private ImmutableMultivaluedMap<String, String> decodedQueryParamsView;
 
     private final LinkedList<String> paths = Lists.newLinkedList();
@@ -417,8 +418,9 @@ public class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
                 return decodedQueryParamsView;
             }
 
-            decodedQueryParamsView =
-                    new ImmutableMultivaluedMap<String, String>(UriComponent.decodeQuery(getRequestUri(), true));
+            // values are decoded lazily, only the query parameters actually retrieved get decoded
+            decodedQueryParamsView = new ImmutableMultivaluedMap<String, String>(
+                    new LazilyDecodedQueryParameters(getEncodedQueryParameters()));
 
             return decodedQueryParamsView;
         } else {
@@ -426,14 +428,20 @@ public class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
                 return encodedQueryParamsView;
             }
 
-            encodedQueryParamsView =
-                    new ImmutableMultivaluedMap<String, String>(UriComponent.decodeQuery(getRequestUri(), false));
+            encodedQueryParamsView = new ImmutableMultivaluedMap<String, String>(getEncodedQueryParameters());
 
             return encodedQueryParamsView;
 
         }
     }
 
+    private MultivaluedMap<String, String> getEncodedQueryParameters() {
+        if (encodedQueryParams == null) {
+            encodedQueryParams = UriComponent.decodeQuery(getRequestUri(), false);
+        }
+        return encodedQueryParams;
+    }
+
     /**
      * Invalidate internal URI component cache views.
      * <p>
@@ -443,6 +451,7 @@ public class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
     public void invalidateUriComponentViews() {
         this.decodedQueryParamsView = null;
         this.encodedQueryParamsView = null;
+        this.encodedQueryParams = null;
     }
 
     @Override
@@ -0,0 +1,205 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.ResourceFinder;
+import org.glassfish.jersey.server.internal.LocalizationMessages;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Scanner of the {@link javax.ws.rs.Path &#64;Path} and {@link javax.ws.rs.ext.Provider &#64;Provider} annotated
+ * classes provided by a set of {@link ResourceFinder resource finders}.
+ * <p>
+ * The class files are scanned either sequentially on the calling thread or, if the requested parallelism is greater
+ * than one, concurrently by a pool of scanning threads. In the parallel mode, the {@link PackageNamesScanner package
+ * scanners} are split into the resource finders of the individual jars and directories, which are then scanned
+ * independently. Each scanning thread uses its own {@link AnnotationAcceptingListener listener}, so that the class file
+ * buffer of the listener is reused for all the class files scanned by the thread. The classes discovered in the
+ * individual jars and directories are merged in the order of the resource finders, i.e. the result does not depend
+ * on the scheduling of the scanning threads.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class AnnotatedClassScanner {
+
+    private static final Logger LOGGER = Logger.getLogger(AnnotatedClassScanner.class.getName());
+
+    /**
+     * Scan the resources provided by the resource finders for the annotated classes.
+     *
+     * @param finders     resource finders providing the scanned resources.
+     * @param classLoader class loader used to load the annotated classes.
+     * @param parallelism maximum number of threads scanning the resources concurrently.
+     * @return annotated classes.
+     */
+    public static Set<Class<?>> scan(final Collection<ResourceFinder> finders,
+                                     final ClassLoader classLoader,
+                                     final int parallelism) {
+        if (parallelism <= 1) {
+            return scanSequentially(finders, classLoader);
+        }
+
+        final List<ResourceFinder> units = new ArrayList<ResourceFinder>();
+        for (ResourceFinder finder : finders) {
+            if (finder instanceof PackageNamesScanner) {
+                units.addAll(((PackageNamesScanner) finder).drainResourceFinders());
+            } else {
+                units.add(finder);
+            }
+        }
+        if (units.size() <= 1) {
+            // nothing to parallelize
+            return scanSequentially(units, classLoader);
+        }
+
+        final List<Set<Class<?>>> results = scanConcurrently(units, classLoader, Math.min(parallelism, units.size()));
+        final Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        for (Set<Class<?>> result : results) {
+            classes.addAll(result);
+        }
+        return classes;
+    }
+
+    private static Set<Class<?>> scanSequentially(final Collection<ResourceFinder> finders,
+                                                  final ClassLoader classLoader) {
+        final AnnotationAcceptingListener listener =
+                AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(classLoader);
+        for (ResourceFinder finder : finders) {
+            scan(finder, listener);
+        }
+        return listener.getAnnotatedClasses();
+    }
+
+    private static List<Set<Class<?>>> scanConcurrently(final List<ResourceFinder> units,
+                                                        final ClassLoader classLoader,
+                                                        final int threads) {
+        final List<Set<Class<?>>> results = new ArrayList<Set<Class<?>>>(
+                Collections.<Set<Class<?>>>nCopies(units.size(), null));
+
+        final AtomicInteger nextUnit = new AtomicInteger();
+        final Callable<Void> worker = new Callable<Void>() {
+            @Override
+            public Void call() {
+                final AnnotationAcceptingListener listener =
+                        AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(classLoader);
+                int unit;
+                while ((unit = nextUnit.getAndIncrement()) < units.size()) {
+                    scan(units.get(unit), listener);
+
+                    final Set<Class<?>> found = listener.getAnnotatedClasses();
+                    results.set(unit, new LinkedHashSet<Class<?>>(found));
+                    found.clear();
+                }
+                return null;
+            }
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("jersey-server-scanner-%d").setDaemon(true).build());
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceFinderException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ResourceFinderException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static void scan(final ResourceFinder finder, final AnnotationAcceptingListener listener) {
+        while (finder.hasNext()) {
+            final String next = finder.next();
+            if (listener.accept(next)) {
+                final InputStream in = finder.open();
+                try {
+                    listener.process(next, in);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, LocalizationMessages.RESOURCE_CONFIG_UNABLE_TO_PROCESS(next));
+                } finally {
+                    try {
+                        in.close();
+                    } catch (IOException ex) {
+                        LOGGER.log(Level.FINER, "Error closing resource stream.", ex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private AnnotatedClassScanner() {
+    }
+}
@@ -45,6 +45,7 @@ import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -74,6 +75,8 @@ import org.objectweb.asm.Opcodes;
  * <p>
  * Such an annotated Java class of a Java class file is loaded if the class
  * is public or is an inner class that is static and public.
+ * <p>
+ * The listener is not thread-safe, concurrent scanning requires a listener per scanning thread.
  *
  * @author Paul Sandoz
  */
@@ -87,6 +90,8 @@ public final class AnnotationAcceptingListener implements ResourceProcessor {
 
     private final AnnotatedClassVisitor classVisitor;
 
+    private byte[] buffer = new byte[8192];
+
     /**
      * Create a scanning listener to check for Java classes in Java
      * class files annotated with {@link javax.ws.rs.Path} or {@link javax.ws.rs.ext.Provider}.
@@ -166,7 +171,18 @@ public final class AnnotationAcceptingListener implements ResourceProcessor {
     }
 
     public void process(String name, InputStream in) throws IOException {
-        new ClassReader(in).accept(classVisitor, 0);
+        // the class file is read into a buffer reused for all the processed class files
+        int length = 0;
+        int read;
+        while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        // only the class and inner class declarations and the class annotations are visited
+        new ClassReader(buffer, 0, length).accept(classVisitor,
+                ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
     }
 
     //
@@ -0,0 +1,219 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.glassfish.jersey.server.scanning.AnnotationIndexProcessor;
+
+/**
+ * Build-time index of the {@link javax.ws.rs.Path &#64;Path} and {@link javax.ws.rs.ext.Provider &#64;Provider}
+ * annotated classes.
+ * <p>
+ * The index is stored in the {@value #RESOURCE_NAME} resources, typically generated by the
+ * {@link AnnotationIndexProcessor annotation index processor} during the compilation. Each line of an index resource
+ * contains a binary name of a single indexed class, empty lines and lines starting with {@code '#'} are ignored.
+ * The index loaded by the {@link #load(ClassLoader)} method merges all the index resources visible to the class
+ * loader, i.e. the indexes of all the indexed libraries on the class path. The index covers only the class path
+ * roots (jars or directories) that contain an index resource, see {@link #getUnindexedLocations(ClassLoader, String)}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class AnnotationIndex {
+
+    /**
+     * Name of the annotation index resource.
+     */
+    public static final String RESOURCE_NAME = "META-INF/jersey/index";
+
+    private static final String CHARSET = "UTF-8";
+
+    private final Set<String> classNames;
+    private final Set<String> roots;
+
+    private AnnotationIndex(final Set<String> classNames, final Set<String> roots) {
+        this.classNames = Collections.unmodifiableSet(classNames);
+        this.roots = roots;
+    }
+
+    /**
+     * Load the annotation index from all the {@value #RESOURCE_NAME} resources visible to the class loader.
+     *
+     * @param classLoader class loader used to look up the index resources.
+     * @return loaded annotation index or {@code null} if there is no index resource available.
+     * @throws IOException in case the index resources cannot be read.
+     */
+    public static AnnotationIndex load(final ClassLoader classLoader) throws IOException {
+        final Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        final Set<String> classNames = new TreeSet<String>();
+        final Set<String> roots = new HashSet<String>();
+        while (resources.hasMoreElements()) {
+            final URL resource = resources.nextElement();
+            final InputStream in = resource.openStream();
+            try {
+                read(in, classNames);
+            } finally {
+                in.close();
+            }
+            roots.add(getRoot(resource, RESOURCE_NAME));
+        }
+        return new AnnotationIndex(classNames, roots);
+    }
+
+    /**
+     * Get the class path root of the resource.
+     *
+     * @param resource     resource URL.
+     * @param resourceName name of the resource.
+     * @return class path root of the resource or {@code null} if the URL does not end with the resource name.
+     */
+    private static String getRoot(final URL resource, final String resourceName) {
+        String url = resource.toExternalForm();
+        if (!resourceName.isEmpty() && url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url.endsWith(resourceName) ? url.substring(0, url.length() - resourceName.length()) : null;
+    }
+
+    /**
+     * Get the locations of the package in the class path roots (jars or directories) that do not contain
+     * an index resource. The classes of the package in such locations are not indexed.
+     *
+     * @param classLoader class loader used to look up the package.
+     * @param packageName package name.
+     * @return URLs of the unindexed package locations, empty if the package is fully indexed.
+     * @throws IOException in case the package cannot be looked up.
+     */
+    public List<String> getUnindexedLocations(final ClassLoader classLoader, final String packageName) throws IOException {
+        final String packagePath = packageName.replace('.', '/');
+        final List<String> unindexed = new ArrayList<String>();
+        final Enumeration<URL> packageUrls = classLoader.getResources(packagePath);
+        while (packageUrls.hasMoreElements()) {
+            final URL packageUrl = packageUrls.nextElement();
+            if (!roots.contains(getRoot(packageUrl, packagePath))) {
+                unindexed.add(packageUrl.toExternalForm());
+            }
+        }
+        return unindexed;
+    }
+
+    /**
+     * Read the class names from the index resource stream.
+     *
+     * @param in         index resource stream.
+     * @param classNames collection the read class names are added to.
+     * @throws IOException in case the stream cannot be read.
+     */
+    static void read(final InputStream in, final Collection<String> classNames) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, CHARSET));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                classNames.add(line);
+            }
+        }
+    }
+
+    /**
+     * Write the class names in the index resource format.
+     *
+     * @param writer     index resource writer.
+     * @param classNames binary names of the indexed classes.
+     * @throws IOException in case the index cannot be written.
+     */
+    public static void write(final Writer writer, final Collection<String> classNames) throws IOException {
+        writer.write("# Jersey annotation index, generated by " + AnnotationIndexProcessor.class.getName() + "\n");
+        for (String className : new TreeSet<String>(classNames)) {
+            writer.write(className);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Get the binary names of all the indexed classes.
+     *
+     * @return sorted set of the indexed class names.
+     */
+    public Set<String> getClassNames() {
+        return classNames;
+    }
+
+    /**
+     * Get the binary names of the indexed classes from the given packages.
+     *
+     * @param packages  package names.
+     * @param recursive if {@code true}, the classes of the nested packages are included as well.
+     * @return sorted set of the indexed class names from the given packages.
+     */
+    public Set<String> getClassNames(final String[] packages, final boolean recursive) {
+        final Set<String> result = new TreeSet<String>();
+        for (String className : classNames) {
+            final int lastDot = className.lastIndexOf('.');
+            final String classPackage = (lastDot < 0) ? "" : className.substring(0, lastDot);
+            for (String p : packages) {
+                if (classPackage.equals(p)
+                        || (recursive && (p.isEmpty() || classPackage.startsWith(p + '.')))) {
+                    result.add(className);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -48,6 +48,7 @@ import java.net.URL;
 import java.security.AccessController;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.glassfish.jersey.internal.OsgiRegistry;
@@ -184,6 +185,37 @@ public class PackageNamesScanner implements ResourceFinder {
         init();
     }
 
+    /**
+     * Remove the resource finders of all the scanned jars and directories from the scanner.
+     * <p>
+     * The resource finders are independent of each other and can be iterated over concurrently.
+     * Once the method returns, the scanner does not provide any resources until it is {@link #reset() reset}.
+     * </p>
+     *
+     * @return resource finders of the scanned jars and directories.
+     */
+    public List<ResourceFinder> drainResourceFinders() {
+        return resourceFinderStack.drain();
+    }
+
+    /**
+     * Get the names of the scanned packages.
+     *
+     * @return names of the scanned packages.
+     */
+    public String[] getPackages() {
+        return packages.clone();
+    }
+
+    /**
+     * Get the recursion strategy of the package scanning.
+     *
+     * @return {@code true} if the nested packages are scanned as well, {@code false} otherwise.
+     */
+    public boolean isRecursive() {
+        return recursive;
+    }
+
     private void init() {
         resourceFinderStack = new ResourceFinderStack();
 
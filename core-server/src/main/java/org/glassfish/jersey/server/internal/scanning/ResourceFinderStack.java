@@ -40,8 +40,10 @@
 package org.glassfish.jersey.server.internal.scanning;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Stack;
 
@@ -104,6 +106,27 @@ public class ResourceFinderStack implements ResourceFinder {
         stack.push(iterator);
     }
 
+    /**
+     * Remove all the resource finders not yet iterated over from the stack.
+     * <p>
+     * The removed resource finders are independent of each other, so that they can be iterated over
+     * concurrently, e.g. when {@link org.glassfish.jersey.server.ServerProperties#PROVIDER_SCANNING_PARALLEL
+     * scanning jars and directories in parallel}. The stack is empty once the method returns.
+     * </p>
+     *
+     * @return resource finders in the order in which they would be iterated over by the stack.
+     */
+    public List<ResourceFinder> drain() {
+        final List<ResourceFinder> finders = new ArrayList<ResourceFinder>(stack.size() + 1);
+        if (current != null) {
+            finders.add(current);
+            current = null;
+        }
+        finders.addAll(stack);
+        stack.clear();
+        return finders;
+    }
+
     @Override
     public void reset() {
         throw new UnsupportedOperationException();
@@ -41,6 +41,7 @@ package org.glassfish.jersey.server.model;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
@@ -50,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.container.DynamicFeature;
@@ -57,6 +59,7 @@ import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ReaderInterceptor;
 import javax.ws.rs.ext.WriterInterceptor;
@@ -67,6 +70,8 @@ import javax.inject.Provider;
 import org.glassfish.jersey.internal.inject.Injections;
 import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.util.Producer;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.BoundMessageBodyWorker;
 import org.glassfish.jersey.model.ContractProvider;
 import org.glassfish.jersey.model.NameBound;
 import org.glassfish.jersey.model.internal.ComponentBag;
@@ -112,6 +117,9 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
     private final List<RankedProvider<ContainerResponseFilter>> responseFilters = Lists.newArrayList();
     private final Iterable<ReaderInterceptor> readerInterceptors;
     private final Iterable<WriterInterceptor> writerInterceptors;
+    private final Annotation[] methodAnnotations;
+    private final BoundMessageBodyWorker boundReader;
+    private final BoundMessageBodyWorker boundWriter;
 
     /**
      * Resource method invoker "assisted" injection helper.
@@ -183,6 +191,11 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
         this.resourceMethod = invocable.getHandlingMethod();
         this.resourceClass = invocable.getHandler().getHandlerClass();
 
+        this.methodAnnotations = (resourceMethod == null) ? new Annotation[0] : resourceMethod.getDeclaredAnnotations();
+        final MessageBodyWorkers workers = (resourceMethod == null) ? null : locator.getService(MessageBodyWorkers.class);
+        this.boundReader = (workers == null) ? null : bindReader(workers, method);
+        this.boundWriter = (workers == null) ? null : bindWriter(workers, method, methodAnnotations);
+
         // Configure dynamic features.
         final ResourceMethodConfig config = new ResourceMethodConfig(globalConfig.getProperties());
         for (final DynamicFeature dynamicFeature : processingProviders.getDynamicFeatures()) {
@@ -263,6 +276,49 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
         this.responseFilters.addAll(_responseFilters);
     }
 
+    /**
+     * Select the message body reader for the entity parameter of the resource method in advance.
+     *
+     * @param workers message body workers.
+     * @param method  resource method.
+     * @return bound message body reader or {@code null} if the reader cannot be determined statically.
+     */
+    private static BoundMessageBodyWorker bindReader(final MessageBodyWorkers workers, final ResourceMethod method) {
+        for (final Parameter parameter : method.getInvocable().getParameters()) {
+            if (parameter.getSource() == Parameter.Source.ENTITY) {
+                final Class<?> rawType = parameter.getRawType();
+                if (Request.class.isAssignableFrom(rawType) || ContainerRequestContext.class.isAssignableFrom(rawType)) {
+                    return null;
+                }
+                return BoundMessageBodyWorker.bindReader(workers, rawType, parameter.getType(), parameter.getAnnotations(),
+                        method.getConsumedTypes());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Select the message body writer for the declared response entity type of the resource method in advance.
+     *
+     * @param workers           message body workers.
+     * @param method            resource method.
+     * @param methodAnnotations resource method annotations used as the response entity annotations.
+     * @return bound message body writer or {@code null} if the writer cannot be determined statically.
+     */
+    private static BoundMessageBodyWorker bindWriter(final MessageBodyWorkers workers,
+                                                     final ResourceMethod method,
+                                                     final Annotation[] methodAnnotations) {
+        final Invocable invocable = method.getInvocable();
+        final Class<?> rawType = invocable.getRawResponseType();
+        // the entity class must be known upfront - abstract and Object return types are resolved at runtime only
+        if (rawType == null || rawType == Object.class || rawType == Void.class || rawType.isPrimitive()
+                || Modifier.isAbstract(rawType.getModifiers()) || Response.class.isAssignableFrom(rawType)) {
+            return null;
+        }
+        return BoundMessageBodyWorker.bindWriter(workers, rawType, invocable.getResponseType(), methodAnnotations,
+                method.getProducedTypes());
+    }
+
     private <T> void addNameBoundProviders(Collection<RankedProvider<T>> targetCollection, final NameBound nameBound,
                                            final MultivaluedMap<Class<? extends Annotation>,
                                                    RankedProvider<T>> nameBoundProviders, final MultivaluedMap<RankedProvider<T>,
@@ -347,6 +403,8 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
 
     private Response invoke(ContainerRequest requestContext, Object resource) {
 
+        requestContext.setBoundMessageBodyWorkers(boundReader, boundWriter);
+
         Response jaxrsResponse;
         requestContext.triggerEvent(RequestEvent.Type.RESOURCE_METHOD_START);
         try {
@@ -368,13 +426,12 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
 
                 final Invocable invocable = method.getInvocable();
                 final Annotation[] entityAnn = response.getEntityAnnotations();
-                final Annotation[] methodAnn = invocable.getHandlingMethod().getDeclaredAnnotations();
-                if (methodAnn.length > 0) {
+                if (methodAnnotations.length > 0) {
                     if (entityAnn.length == 0) {
-                        response.setEntityAnnotations(methodAnn);
+                        response.setEntityAnnotations(methodAnnotations.clone());
                     } else {
-                        Annotation[] mergedAnn = Arrays.copyOf(methodAnn, methodAnn.length + entityAnn.length);
-                        System.arraycopy(entityAnn, 0, mergedAnn, methodAnn.length, entityAnn.length);
+                        Annotation[] mergedAnn = Arrays.copyOf(methodAnnotations, methodAnnotations.length + entityAnn.length);
+                        System.arraycopy(entityAnn, 0, mergedAnn, methodAnnotations.length, entityAnn.length);
                         response.setEntityAnnotations(mergedAnn);
                     }
                 }
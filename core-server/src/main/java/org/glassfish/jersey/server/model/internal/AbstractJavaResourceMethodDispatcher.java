@@ -47,7 +47,6 @@ import java.security.PrivilegedAction;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 
@@ -118,7 +117,7 @@ abstract class AbstractJavaResourceMethodDispatcher implements ResourceMethodDis
      * @throws ProcessingException in case of a processing error.
      * @see ResourceMethodDispatcher#dispatch(Object, org.glassfish.jersey.server.ContainerRequest)
      */
-    protected abstract Response doDispatch(Object resource, Request request) throws ProcessingException;
+    protected abstract Response doDispatch(Object resource, ContainerRequest request) throws ProcessingException;
 
     /**
      * Use the underlying invocation handler to invoke the underlying Java method
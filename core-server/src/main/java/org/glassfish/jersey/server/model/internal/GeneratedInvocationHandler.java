@@ -0,0 +1,392 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.security.AccessController;
+import java.lang.ref.WeakReference;
+import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Resource method invocation handler that invokes the resource method directly using a dedicated invoker class
+ * generated for the method, instead of using reflection.
+ * <p>
+ * The generated invoker casts the target and the arguments to the declared types and invokes the method
+ * using a plain {@code invokevirtual} (or {@code invokeinterface}) instruction, so that the call is monomorphic
+ * and can be inlined by the JIT compiler. Invokers can be generated only for public methods of public classes
+ * with public parameter and return types. Invocations on targets that are not instances of the method declaring
+ * class (e.g. proxies) and invocations with {@code null} primitive arguments fall back to reflection.
+ * Only the exceptions thrown by the invoked method are wrapped into an {@link InvocationTargetException}; if the
+ * arguments do not match the method parameters, the invocation falls back to reflection as well, which either
+ * converts the arguments or reports the mismatch with an {@link IllegalArgumentException}.
+ * </p>
+ * <p>
+ * The invoker classes of all the resource methods loaded by the same class loader are defined by a single
+ * invoker class loader.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class GeneratedInvocationHandler implements InvocationHandler {
+
+    private static final Logger LOGGER = Logger.getLogger(GeneratedInvocationHandler.class.getName());
+
+    private static final AtomicInteger INVOKER_COUNTER = new AtomicInteger();
+    private static final String INVOKER_PACKAGE = "org/glassfish/jersey/server/model/internal/generated/";
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String INVOCATION_TARGET_EXCEPTION = Type.getInternalName(InvocationTargetException.class);
+    private static final String INVOKE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class),
+            new Type[] {Type.getType(Object.class), Type.getType(Method.class), Type.getType(Object[].class)});
+
+    /**
+     * Invoker class loaders per resource class loader. The invoker class loaders are weakly referenced as they
+     * reference their parent resource class loaders; they are kept reachable by the generated invokers.
+     */
+    private static final Map<ClassLoader, WeakReference<InvokerClassLoader>> LOADERS =
+            new WeakHashMap<ClassLoader, WeakReference<InvokerClassLoader>>();
+
+    private final Method method;
+    private final Class<?> declaringClass;
+    private final int parameterCount;
+    private final int[] primitiveParameters;
+    private final InvocationHandler invoker;
+
+    private GeneratedInvocationHandler(final Method method, final InvocationHandler invoker) {
+        this.method = method;
+        this.declaringClass = method.getDeclaringClass();
+        this.invoker = invoker;
+
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        this.parameterCount = parameterTypes.length;
+        int count = 0;
+        for (Class<?> type : parameterTypes) {
+            if (type.isPrimitive()) {
+                count++;
+            }
+        }
+        this.primitiveParameters = new int[count];
+        for (int i = 0, j = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive()) {
+                primitiveParameters[j++] = i;
+            }
+        }
+    }
+
+    /**
+     * Create a generated invocation handler for the given method.
+     *
+     * @param method resource method.
+     * @return generated invocation handler or {@code null} if an invoker cannot be generated for the method.
+     */
+    static InvocationHandler create(final Method method) {
+        if (!isSupported(method)) {
+            return null;
+        }
+
+        try {
+            final InvocationHandler invoker = AccessController.doPrivileged(new PrivilegedAction<InvocationHandler>() {
+                @Override
+                public InvocationHandler run() {
+                    return generateInvoker(method);
+                }
+            });
+            return new GeneratedInvocationHandler(method, invoker);
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "Unable to generate invoker for the resource method " + method
+                    + ", reflection will be used.", t);
+            return null;
+        }
+    }
+
+    @Override
+    public Object invoke(final Object target, final Method method, final Object[] args)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        if (method != this.method || !declaringClass.isInstance(target) || !hasArguments(args)) {
+            return method.invoke(target, args);
+        }
+
+        try {
+            return invoker.invoke(target, method, args);
+        } catch (InvocationTargetException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // the arguments do not match the parameter types, the method has not been invoked
+            return method.invoke(target, args);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // not thrown by the generated invokers
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Check that the number of the arguments matches the method parameters and that no primitive argument
+     * is {@code null}.
+     */
+    private boolean hasArguments(final Object[] args) {
+        if (args == null) {
+            return parameterCount == 0;
+        }
+        if (args.length != parameterCount) {
+            return false;
+        }
+        for (int i : primitiveParameters) {
+            if (args[i] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSupported(final Method method) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers())
+                || Modifier.isStatic(method.getModifiers())
+                || declaringClass.getClassLoader() == null
+                || Proxy.isProxyClass(declaringClass)
+                || !isPublic(declaringClass)
+                || !isPublic(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isPublic(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!c.isPrimitive() && !Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static InvocationHandler generateInvoker(final Method method) {
+        final String className = INVOKER_PACKAGE + method.getDeclaringClass().getSimpleName()
+                + "$" + method.getName() + "$Invoker" + INVOKER_COUNTER.incrementAndGet();
+        final byte[] bytes = generateInvokerClass(className, method);
+
+        final InvokerClassLoader loader = invokerClassLoader(method.getDeclaringClass().getClassLoader());
+        try {
+            return (InvocationHandler) loader.define(className.replace('/', '.'), bytes).newInstance();
+        } catch (InstantiationException e) {
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InvokerClassLoader invokerClassLoader(final ClassLoader parent) {
+        synchronized (LOADERS) {
+            final WeakReference<InvokerClassLoader> reference = LOADERS.get(parent);
+            InvokerClassLoader loader = reference == null ? null : reference.get();
+            if (loader == null) {
+                loader = new InvokerClassLoader(parent);
+                LOADERS.put(parent, new WeakReference<InvokerClassLoader>(loader));
+            }
+            return loader;
+        }
+    }
+
+    /**
+     * Generate an {@link InvocationHandler} implementation that invokes the method directly.
+     * <p>
+     * Exceptions thrown by the invoked method are wrapped into an {@link InvocationTargetException}, exceptions
+     * thrown while casting the target and the arguments are propagated as they are.
+     * </p>
+     */
+    private static byte[] generateInvokerClass(final String className, final Method method) {
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, OBJECT,
+                new String[] {Type.getInternalName(InvocationHandler.class)});
+
+        final MethodVisitor constructor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V");
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null,
+                new String[] {Type.getInternalName(Throwable.class)});
+        mv.visitCode();
+
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String owner = Type.getInternalName(declaringClass);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+            unbox(mv, parameterTypes[i]);
+        }
+
+        final Label start = new Label();
+        final Label end = new Label();
+        final Label handler = new Label();
+        mv.visitTryCatchBlock(start, end, handler, Type.getInternalName(Throwable.class));
+        mv.visitLabel(start);
+        mv.visitMethodInsn(declaringClass.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+                owner, method.getName(), Type.getMethodDescriptor(method));
+        mv.visitLabel(end);
+
+        box(mv, method.getReturnType());
+        mv.visitInsn(Opcodes.ARETURN);
+
+        // throw new InvocationTargetException(throwable)
+        mv.visitLabel(handler);
+        mv.visitVarInsn(Opcodes.ASTORE, 4);
+        mv.visitTypeInsn(Opcodes.NEW, INVOCATION_TARGET_EXCEPTION);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitVarInsn(Opcodes.ALOAD, 4);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, INVOCATION_TARGET_EXCEPTION, "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {Type.getType(Throwable.class)}));
+        mv.visitInsn(Opcodes.ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(final MethodVisitor mv, final int value) {
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+
+    /**
+     * Convert the object on top of the stack to the given type.
+     */
+    private static void unbox(final MethodVisitor mv, final Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type != Object.class) {
+                mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+            }
+            return;
+        }
+
+        final Class<?> wrapper = wrapperOf(type);
+        final String wrapperName = Type.getInternalName(wrapper);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperName);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+                Type.getMethodDescriptor(Type.getType(type), new Type[0]));
+    }
+
+    /**
+     * Convert the value of the given type on top of the stack to an object.
+     */
+    private static void box(final MethodVisitor mv, final Class<?> type) {
+        if (type == void.class) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else if (type.isPrimitive()) {
+            final Class<?> wrapper = wrapperOf(type);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                    Type.getMethodDescriptor(Type.getType(wrapper), new Type[] {Type.getType(type)}));
+        }
+    }
+
+    private static Class<?> wrapperOf(final Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else if (primitive == char.class) {
+            return Character.class;
+        } else if (primitive == short.class) {
+            return Short.class;
+        } else if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        } else {
+            return Double.class;
+        }
+    }
+
+    /**
+     * Class loader defining the generated invoker classes. The resource class loader is used as the parent
+     * so that the invokers can link against the resource classes.
+     */
+    private static final class InvokerClassLoader extends ClassLoader {
+
+        private InvokerClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        private synchronized Class<?> define(final String name, final byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
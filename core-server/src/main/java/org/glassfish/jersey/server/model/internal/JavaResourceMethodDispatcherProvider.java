@@ -45,13 +45,13 @@ import java.util.List;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.GenericEntity;
-import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import javax.inject.Inject;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.model.Invocable;
-import org.glassfish.jersey.server.spi.internal.ParameterValueHelper;
+import org.glassfish.jersey.server.spi.internal.ParameterExtractionPlan;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodDispatcher;
 
 import org.glassfish.hk2.api.Factory;
@@ -107,18 +107,18 @@ class JavaResourceMethodDispatcherProvider implements ResourceMethodDispatcher.P
 
     private static abstract class AbstractMethodParamInvoker extends AbstractJavaResourceMethodDispatcher {
 
-        private final List<Factory<?>> valueProviders;
+        private final ParameterExtractionPlan extractionPlan;
 
         public AbstractMethodParamInvoker(
                 Invocable resourceMethod,
                 InvocationHandler handler,
                 List<Factory<?>> valueProviders) {
             super(resourceMethod, handler);
-            this.valueProviders = valueProviders;
+            this.extractionPlan = ParameterExtractionPlan.compile(valueProviders);
         }
 
-        final Object[] getParamValues() {
-            return ParameterValueHelper.getParameterValues(valueProviders);
+        final Object[] getParamValues(final ContainerRequest request) {
+            return extractionPlan.getParameterValues(request);
         }
     }
 
@@ -132,8 +132,8 @@ class JavaResourceMethodDispatcherProvider implements ResourceMethodDispatcher.P
         }
 
         @Override
-        protected Response doDispatch(Object resource, Request request) throws ProcessingException {
-            invoke(resource, getParamValues());
+        protected Response doDispatch(Object resource, ContainerRequest request) throws ProcessingException {
+            invoke(resource, getParamValues(request));
             return Response.noContent().build();
         }
     }
@@ -148,8 +148,8 @@ class JavaResourceMethodDispatcherProvider implements ResourceMethodDispatcher.P
         }
 
         @Override
-        protected Response doDispatch(Object resource, Request request) throws ProcessingException {
-            return Response.class.cast(invoke(resource, getParamValues()));
+        protected Response doDispatch(Object resource, ContainerRequest request) throws ProcessingException {
+            return Response.class.cast(invoke(resource, getParamValues(request)));
         }
     }
 
@@ -163,8 +163,8 @@ class JavaResourceMethodDispatcherProvider implements ResourceMethodDispatcher.P
         }
 
         @Override
-        protected Response doDispatch(Object resource, Request request) throws ProcessingException {
-            final Object o = invoke(resource, getParamValues());
+        protected Response doDispatch(Object resource, ContainerRequest request) throws ProcessingException {
+            final Object o = invoke(resource, getParamValues(request));
 
             if (o instanceof Response) {
                 return Response.class.cast(o);
@@ -191,8 +191,8 @@ class JavaResourceMethodDispatcherProvider implements ResourceMethodDispatcher.P
         }
 
         @Override
-        protected Response doDispatch(Object resource, Request request) throws ProcessingException {
-            final Object o = invoke(resource, getParamValues());
+        protected Response doDispatch(Object resource, ContainerRequest request) throws ProcessingException {
+            final Object o = invoke(resource, getParamValues(request));
             if (o != null) {
 
                 Response response = Response.ok().entity(o).build();
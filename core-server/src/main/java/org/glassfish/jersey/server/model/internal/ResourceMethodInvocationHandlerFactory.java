@@ -46,10 +46,15 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.ws.rs.RuntimeType;
+import javax.ws.rs.core.Configuration;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.inject.Providers;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.model.Invocable;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
@@ -67,6 +72,10 @@ import org.glassfish.hk2.api.ServiceLocator;
  * invocation handler} instance retrieved from the providers. If no custom providers
  * are available, or if none of the providers returns a non-null invocation handler,
  * in such case a default invocation handler provided by the factory is returned.
+ * <p />
+ * Unless {@link ServerProperties#RESOURCE_METHOD_INVOKER_GENERATION_DISABLE disabled}, the default invocation
+ * handler invokes the resource method using a generated invoker class, if possible, and falls back to reflection
+ * otherwise.
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -83,10 +92,15 @@ public final class ResourceMethodInvocationHandlerFactory implements ResourceMet
     };
     private static final Logger LOGGER = Logger.getLogger(ResourceMethodInvocationHandlerFactory.class.getName());
     private final Set<ResourceMethodInvocationHandlerProvider> providers;
+    private final boolean generateInvokers;
 
     @Inject
     ResourceMethodInvocationHandlerFactory(ServiceLocator locator) {
         providers = Providers.getProviders(locator, ResourceMethodInvocationHandlerProvider.class);
+
+        final Configuration config = locator.getService(Configuration.class);
+        generateInvokers = config == null || !PropertiesHelper.getValue(config.getProperties(), RuntimeType.SERVER,
+                ServerProperties.RESOURCE_METHOD_INVOKER_GENERATION_DISABLE, Boolean.FALSE, Boolean.class);
     }
 
     // ResourceMethodInvocationHandlerProvider
@@ -105,6 +119,13 @@ public final class ResourceMethodInvocationHandlerFactory implements ResourceMet
             }
         }
 
+        if (generateInvokers) {
+            final InvocationHandler handler = GeneratedInvocationHandler.create(resourceMethod.getHandlingMethod());
+            if (handler != null) {
+                return handler;
+            }
+        }
+
         return DEFAULT_HANDLER;
     }
 }
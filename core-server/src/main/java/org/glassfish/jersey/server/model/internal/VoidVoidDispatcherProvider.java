@@ -44,11 +44,11 @@ import java.lang.reflect.InvocationHandler;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.container.ResourceContext;
 import javax.ws.rs.core.Context;
-import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.model.Invocable;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodDispatcher;
 
@@ -73,7 +73,7 @@ final class VoidVoidDispatcherProvider implements ResourceMethodDispatcher.Provi
         }
 
         @Override
-        public Response doDispatch(Object resource, Request request) throws ProcessingException {
+        public Response doDispatch(Object resource, ContainerRequest request) throws ProcessingException {
             invoke(resource);
             return Response.noContent().build();
         }
@@ -0,0 +1,97 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.monitoring;
+
+/**
+ * Monitoring statistics of the resource method selection caches.
+ * <p/>
+ * Jersey caches the results of the resource method selection (based on the HTTP method and the {@code Content-Type}
+ * and {@code Accept} request headers) for each resource path (see
+ * {@link org.glassfish.jersey.server.ServerProperties#METHOD_SELECTION_CACHE_SIZE}). The statistics are aggregated
+ * over all the method selection caches in the application.
+ * <p/>
+ * Statistics retrieved from Jersey runtime might be mutable and thanks to it might provide inconsistent data
+ * as not all statistics are updated in the same time. To retrieve the immutable and consistent
+ * statistics data the method {@link #snapshot()} should be used.
+ *
+ * @author agent (agent at local)
+ * @see MonitoringStatistics See monitoring statistics for general details about statistics.
+ * @since 2.4
+ */
+public interface MethodSelectionStatistics {
+
+    /**
+     * Get the number of resource method selections served from the cache.
+     *
+     * @return Count of method selection cache hits.
+     */
+    public long getCacheHitCount();
+
+    /**
+     * Get the number of resource method selections that were not found in the cache and had to be computed.
+     *
+     * @return Count of method selection cache misses.
+     */
+    public long getCacheMissCount();
+
+    /**
+     * Get the number of cached resource method selections evicted from the cache because the cache was full.
+     *
+     * @return Count of method selection cache evictions.
+     */
+    public long getCacheEvictionCount();
+
+    /**
+     * Get the number of resource method selections currently cached.
+     *
+     * @return Number of cached method selections.
+     */
+    public long getCacheSize();
+
+    /**
+     * Get the immutable consistent snapshot of the monitoring statistics. Working with snapshots might
+     * have negative performance impact as snapshot must be created but ensures consistency of data over time.
+     * However, the usage of snapshot is encouraged to avoid working with inconsistent data. Not all statistics
+     * must be updated in the same time on mutable version of statistics.
+     *
+     * @return Snapshot of method selection statistics.
+     */
+    public MethodSelectionStatistics snapshot();
+}
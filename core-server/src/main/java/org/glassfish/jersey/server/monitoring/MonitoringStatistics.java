@@ -147,6 +147,14 @@ public interface MonitoringStatistics {
      */
     public ExceptionMapperStatistics getExceptionMapperStatistics();
 
+    /**
+     * Get statistics about resource method selection caches.
+     *
+     * @return Resource method selection statistics.
+     * @since 2.4
+     */
+    public MethodSelectionStatistics getMethodSelectionStatistics();
+
     /**
      * Get the immutable consistent snapshot of the monitoring statistics. Working with snapshots might
      * have negative performance impact as snapshot must be created but ensures consistency of data over time.
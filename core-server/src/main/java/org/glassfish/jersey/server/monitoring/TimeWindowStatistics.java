@@ -104,6 +104,21 @@ public interface TimeWindowStatistics {
      */
     public long getAverageDuration();
 
+    /**
+     * Returns the duration (processing time) in milliseconds below or equal to which the given percentage
+     * of request processing durations measured in the time window falls (e.g. {@code getDurationPercentile(99.9)}
+     * returns the 99.9th percentile of request processing time).
+     * <p/>
+     * Percentiles are computed from a fixed-size histogram of durations, so the returned value is approximate:
+     * its relative error is at most 1/16 (6.25%) of the exact percentile (durations shorter than 32 milliseconds
+     * are exact).
+     *
+     * @param percentile Percentile in the range from 0 to 100.
+     * @return Percentile of processing time of the request or -1 if no request has been processed.
+     * @since 2.4
+     */
+    public long getDurationPercentile(double percentile);
+
     /**
      * Returns the count of requests received measured in the time window.
      *
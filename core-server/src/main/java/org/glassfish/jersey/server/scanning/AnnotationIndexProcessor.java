@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.scanning;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.ext.Provider;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.glassfish.jersey.server.internal.scanning.AnnotationIndex;
+
+/**
+ * Annotation processor that generates the annotation index of the compiled {@link Path &#64;Path}
+ * and {@link Provider &#64;Provider} annotated classes.
+ * <p>
+ * The processor indexes the same classes that are accepted by the runtime package scanning, i.e. public classes
+ * and public static nested classes, and writes their names into the {@code META-INF/jersey/index}
+ * resource in the class output directory. The processor is not registered as a service, it needs to be enabled
+ * explicitly, e.g. using the {@code -processor org.glassfish.jersey.server.scanning.AnnotationIndexProcessor}
+ * compiler option or the {@code annotationProcessors} configuration of the Maven compiler plugin. Since the index
+ * is written from the classes compiled in a single compilation, the index should be generated by a full
+ * (non-incremental) build.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @see org.glassfish.jersey.server.ServerProperties#PROVIDER_SCANNING_INDEX
+ */
+@SupportedAnnotationTypes({"javax.ws.rs.Path", "javax.ws.rs.ext.Provider"})
+public final class AnnotationIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> classNames = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!classNames.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (isIndexed(element)) {
+                    classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+        // the annotations are not claimed, other processors may process them as well
+        return false;
+    }
+
+    private static boolean isIndexed(final Element element) {
+        if (!(element.getKind().isClass() || element.getKind().isInterface())
+                || element.getKind() == ElementKind.ANNOTATION_TYPE
+                || !element.getModifiers().contains(Modifier.PUBLIC)) {
+            return false;
+        }
+        // nested classes need to be static, top-level classes are enclosed by a package
+        final Element enclosing = element.getEnclosingElement();
+        return enclosing.getKind() == ElementKind.PACKAGE || element.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", AnnotationIndex.RESOURCE_NAME);
+            final Writer writer = new OutputStreamWriter(index.openOutputStream(), "UTF-8");
+            try {
+                AnnotationIndex.write(writer, classNames);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write the Jersey annotation index " + AnnotationIndex.RESOURCE_NAME + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.spi;
+
+/**
+ * Container response writer supporting non-blocking writing of the response entity.
+ * <p>
+ * The output stream returned from {@link #writeResponseStatusAndHeaders(long, org.glassfish.jersey.server.ContainerResponse)}
+ * blocks the writing thread once the underlying connection cannot accept more data. Jersey runtime uses this
+ * extension to avoid writing to the stream while the writing is not {@link #isWritePossible() possible}; instead,
+ * it registers a {@link WriteHandler write handler} that is {@link #notifyWritePossible(WriteHandler) notified}
+ * once the container is ready to accept more data, and the thread that would otherwise block is released.
+ * While the writing is possible, the response entity data written and flushed to the response entity output stream
+ * are queued by the container and written to the connection asynchronously.
+ * </p>
+ * <p>
+ * This extension is currently used to write {@link org.glassfish.jersey.server.ChunkedOutput chunked responses}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public interface NonBlockingContainerResponseWriter extends ContainerResponseWriter {
+
+    /**
+     * Handler notified once the container is ready to accept more response entity data.
+     */
+    public interface WriteHandler {
+
+        /**
+         * Invoked once the response entity data can be written without blocking.
+         */
+        public void onWritePossible();
+
+        /**
+         * Invoked in case the container failed to write the response entity data, e.g. because the connection
+         * has been closed by the client.
+         *
+         * @param error writing error.
+         */
+        public void onError(Throwable error);
+    }
+
+    /**
+     * Check whether the response entity data can be written to the response entity output stream without blocking.
+     *
+     * @return {@code true} if the data can be written without blocking, {@code false} otherwise.
+     */
+    public boolean isWritePossible();
+
+    /**
+     * Register a handler to be notified once the response entity data can be written without blocking.
+     * <p>
+     * The handler is notified only once per registration. If the writing is possible already, the handler may be
+     * notified immediately, possibly in the calling thread. At most one handler may be registered at a time.
+     * </p>
+     *
+     * @param handler write handler.
+     * @throws IllegalStateException in case another write handler is already registered.
+     */
+    public void notifyWritePossible(WriteHandler handler) throws IllegalStateException;
+}
@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.spi.internal;
+
+import java.util.List;
+
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.glassfish.jersey.message.internal.MessageBodyProviderNotFoundException;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.internal.inject.AbstractContainerRequestValueFactory;
+import org.glassfish.jersey.server.internal.process.MappableException;
+
+import org.glassfish.hk2.api.Factory;
+
+/**
+ * Parameter extraction plan of a {@link org.glassfish.jersey.server.model.Parameterized parameterized}
+ * resource model component.
+ * <p>
+ * The plan is compiled once from the list of the parameter {@link ParameterValueHelper#createValueProviders
+ * value providers} and is then used to fill the parameter value array for each request. Value providers that
+ * are able to {@link AbstractContainerRequestValueFactory#provide(ContainerRequest) extract the value directly
+ * from the container request} (e.g. {@code @PathParam}, {@code @QueryParam}, {@code @MatrixParam},
+ * {@code @HeaderParam} or {@code @CookieParam} value providers) are supplied with the current request, so that
+ * the request does not have to be looked up by each value provider separately. Other value providers are
+ * invoked as usual.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class ParameterExtractionPlan {
+
+    private static final ParameterExtractionPlan EMPTY = new ParameterExtractionPlan(new Factory<?>[0]);
+
+    private final Factory<?>[] valueProviders;
+    private final AbstractContainerRequestValueFactory<?>[] requestValueProviders;
+
+    private ParameterExtractionPlan(final Factory<?>[] valueProviders) {
+        this.valueProviders = valueProviders;
+        this.requestValueProviders = new AbstractContainerRequestValueFactory<?>[valueProviders.length];
+        for (int i = 0; i < valueProviders.length; i++) {
+            if (valueProviders[i] instanceof AbstractContainerRequestValueFactory) {
+                requestValueProviders[i] = (AbstractContainerRequestValueFactory<?>) valueProviders[i];
+            }
+        }
+    }
+
+    /**
+     * Compile a parameter extraction plan for the list of parameter value providers.
+     *
+     * @param valueProviders a list of value providers.
+     * @return compiled parameter extraction plan.
+     */
+    public static ParameterExtractionPlan compile(final List<Factory<?>> valueProviders) {
+        if (valueProviders.isEmpty()) {
+            return EMPTY;
+        }
+        return new ParameterExtractionPlan(valueProviders.toArray(new Factory<?>[valueProviders.size()]));
+    }
+
+    /**
+     * Get the number of parameters extracted by the plan.
+     *
+     * @return number of extracted parameters.
+     */
+    public int size() {
+        return valueProviders.length;
+    }
+
+    /**
+     * Get the array of parameter values for the container request.
+     *
+     * @param request container request being processed.
+     * @return array of parameter values provided by the value providers.
+     */
+    public Object[] getParameterValues(final ContainerRequest request) {
+        final int size = valueProviders.length;
+        final Object[] params = new Object[size];
+        if (size == 0) {
+            return params;
+        }
+
+        try {
+            for (int i = 0; i < size; i++) {
+                final AbstractContainerRequestValueFactory<?> requestValueProvider = requestValueProviders[i];
+                params[i] = (requestValueProvider != null)
+                        ? requestValueProvider.provide(request) : valueProviders[i].provide();
+            }
+            return params;
+        } catch (WebApplicationException e) {
+            throw e;
+        } catch (MessageBodyProviderNotFoundException e) {
+            throw new NotSupportedException(e);
+        } catch (ProcessingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new MappableException("Exception obtaining parameters", e);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import javax.inject.Provider;
+
+import org.glassfish.jersey.process.internal.RequestScope;
+import org.glassfish.jersey.server.filter.EncodingFilter;
+import org.glassfish.jersey.server.internal.process.AsyncContext;
+import org.glassfish.jersey.server.internal.routing.UriRoutingContext;
+import org.glassfish.jersey.spi.ContentEncoder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+
+/**
+ * {@link Broadcaster} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class BroadcasterTest {
+
+    /**
+     * Chunked output recording the written chunks, optionally blocking the writing thread until released.
+     */
+    private static class RecordingOutput extends ChunkedOutput<String> {
+
+        private final List<String> chunks = Lists.newCopyOnWriteArrayList();
+        private final CountDownLatch release;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        RecordingOutput(final CountDownLatch release) {
+            super(String.class);
+            this.release = release;
+        }
+
+        @Override
+        public void write(final String chunk) throws IOException {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            chunks.add(chunk);
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            closed.countDown();
+        }
+    }
+
+    @Produces("text/plain")
+    public static class CountingStringWriter implements MessageBodyWriter<String> {
+
+        private static final AtomicInteger WRITES = new AtomicInteger();
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == String.class;
+        }
+
+        @Override
+        public long getSize(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            WRITES.incrementAndGet();
+            entityStream.write(("[" + s + "]").getBytes());
+        }
+    }
+
+    public static class RecordingWriterInterceptor implements WriterInterceptor {
+
+        private static final List<Class<?>> ENTITY_TYPES = Lists.newCopyOnWriteArrayList();
+
+        @Override
+        public void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
+            ENTITY_TYPES.add(context.getEntity().getClass());
+            context.proceed();
+        }
+    }
+
+    /**
+     * Content encoder upper-casing the entity, driven by the {@code Content-Encoding} response header.
+     */
+    public static class UpperCaseEncoder extends ContentEncoder {
+
+        public UpperCaseEncoder() {
+            super("x-upper");
+        }
+
+        @Override
+        public InputStream decode(final String contentEncoding, final InputStream encodedStream) throws IOException {
+            return encodedStream;
+        }
+
+        @Override
+        public OutputStream encode(final String contentEncoding, final OutputStream entityStream) throws IOException {
+            return new FilterOutputStream(entityStream) {
+                @Override
+                public void write(final int b) throws IOException {
+                    out.write(Character.toUpperCase(b));
+                }
+            };
+        }
+    }
+
+    /**
+     * Writer interceptor upper-casing the entity, writing the encoded data only once the stream is closed
+     * like a compressing stream does.
+     */
+    public static class ClosingEncoderInterceptor implements WriterInterceptor {
+
+        @Override
+        public void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
+            final OutputStream entityStream = context.getOutputStream();
+            context.setOutputStream(new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    entityStream.write(toString().toUpperCase().getBytes());
+                    entityStream.close();
+                }
+            });
+            context.proceed();
+        }
+    }
+
+    /**
+     * Chunked output signalling that it has been connected to the response.
+     */
+    private static class ConnectedOutput extends ChunkedOutput<String> {
+
+        private final CountDownLatch connected = new CountDownLatch(1);
+
+        ConnectedOutput() {
+            super(String.class);
+        }
+
+        @Override
+        void setContext(final RequestScope requestScope,
+                        final RequestScope.Instance requestScopeInstance,
+                        final ContainerRequest requestContext,
+                        final ContainerResponse responseContext,
+                        final ServerRuntime.ConnectionCallbackRunner connectionCallbackRunner,
+                        final Provider<AsyncContext> asyncContext,
+                        final UriRoutingContext uriRoutingContext,
+                        final ScheduledExecutorService scheduler,
+                        final ExecutorService flushExecutor) throws IOException {
+            super.setContext(requestScope, requestScopeInstance, requestContext, responseContext, connectionCallbackRunner,
+                    asyncContext, uriRoutingContext, scheduler, flushExecutor);
+            connected.countDown();
+        }
+    }
+
+    @Path("/")
+    public static class BroadcastResource {
+
+        static volatile Broadcaster<String> broadcaster;
+        static final List<ConnectedOutput> outputs = Lists.newCopyOnWriteArrayList();
+
+        @GET
+        @Produces("text/plain")
+        public ChunkedOutput<String> get() {
+            final ConnectedOutput output = new ConnectedOutput();
+            broadcaster.add(output);
+            outputs.add(output);
+            return output;
+        }
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSynchronousBroadcast() throws Exception {
+        final Broadcaster<String> broadcaster = new Broadcaster<String>();
+        final RecordingOutput output = new RecordingOutput(new CountDownLatch(0));
+        broadcaster.add(output);
+
+        broadcaster.broadcast("a");
+        broadcaster.broadcast("b");
+
+        assertEquals(Lists.newArrayList("a", "b"), output.chunks);
+        assertEquals(0, broadcaster.getQueueDepth(output));
+        assertTrue(broadcaster.getQueueDepths().isEmpty());
+    }
+
+    @Test
+    public void testAsynchronousBroadcastOrder() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 100, Broadcaster.SlowConsumerPolicy.DROP_OLDEST);
+        final RecordingOutput first = new RecordingOutput(new CountDownLatch(0));
+        final RecordingOutput second = new RecordingOutput(new CountDownLatch(0));
+        broadcaster.add(first);
+        broadcaster.add(second);
+
+        final List<String> expected = Lists.newArrayList();
+        for (int i = 0; i < 50; i++) {
+            expected.add(String.valueOf(i));
+            broadcaster.broadcast(String.valueOf(i));
+        }
+        broadcaster.closeAll();
+
+        assertTrue(first.closed.await(10, TimeUnit.SECONDS));
+        assertTrue(second.closed.await(10, TimeUnit.SECONDS));
+        assertEquals(expected, first.chunks);
+        assertEquals(expected, second.chunks);
+        assertEquals(0, broadcaster.getDroppedChunkCount());
+    }
+
+    @Test
+    public void testChunkSerializedOnce() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 10, Broadcaster.SlowConsumerPolicy.DROP_OLDEST);
+        BroadcastResource.broadcaster = broadcaster;
+        BroadcastResource.outputs.clear();
+        final ApplicationHandler app = new ApplicationHandler(
+                new ResourceConfig(BroadcastResource.class, CountingStringWriter.class, ChunkedResponseWriter.class));
+
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        final Future<ContainerResponse> firstResponse = app.apply(RequestContextBuilder.from("/", "GET").build(), first);
+        final Future<ContainerResponse> secondResponse = app.apply(RequestContextBuilder.from("/", "GET").build(), second);
+        // wait until both chunked outputs are connected to their responses
+        while (BroadcastResource.outputs.size() < 2
+                || BroadcastResource.outputs.get(0).getSerializationKey() == null
+                || BroadcastResource.outputs.get(1).getSerializationKey() == null) {
+            Thread.sleep(10);
+        }
+
+        final int writes = CountingStringWriter.WRITES.get();
+        broadcaster.broadcast("a");
+        broadcaster.broadcast("b");
+        broadcaster.closeAll();
+
+        assertEquals(200, firstResponse.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(200, secondResponse.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(2, CountingStringWriter.WRITES.get() - writes);
+        assertEquals("[a][b]", first.toString());
+        assertEquals("[a][b]", second.toString());
+    }
+
+    @Test
+    public void testInterceptorsSeeChunkType() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 10, Broadcaster.SlowConsumerPolicy.DROP_OLDEST);
+        BroadcastResource.broadcaster = broadcaster;
+        BroadcastResource.outputs.clear();
+        RecordingWriterInterceptor.ENTITY_TYPES.clear();
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(BroadcastResource.class,
+                CountingStringWriter.class, RecordingWriterInterceptor.class, ChunkedResponseWriter.class));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Future<ContainerResponse> response = app.apply(RequestContextBuilder.from("/", "GET").build(), out);
+        awaitConnected(1);
+        RecordingWriterInterceptor.ENTITY_TYPES.clear();
+        // chunks are not shared among outputs with a writer interceptor
+        assertNull(BroadcastResource.outputs.get(0).getSerializationKey());
+
+        broadcaster.broadcast("a");
+        broadcaster.broadcast("b");
+        broadcaster.closeAll();
+
+        assertEquals(200, response.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals("[a][b]", out.toString());
+        assertEquals(Lists.<Class<?>>newArrayList(String.class, String.class), RecordingWriterInterceptor.ENTITY_TYPES);
+    }
+
+    @Test
+    public void testEncodingInterceptor() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 10, Broadcaster.SlowConsumerPolicy.DROP_OLDEST);
+        BroadcastResource.broadcaster = broadcaster;
+        BroadcastResource.outputs.clear();
+        final ResourceConfig resourceConfig = new ResourceConfig(BroadcastResource.class, CountingStringWriter.class,
+                ChunkedResponseWriter.class);
+        EncodingFilter.enableFor(resourceConfig, UpperCaseEncoder.class);
+        final ApplicationHandler app = new ApplicationHandler(resourceConfig);
+
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        final Future<ContainerResponse> encodedResponse = app.apply(
+                RequestContextBuilder.from("/", "GET").header(HttpHeaders.ACCEPT_ENCODING, "x-upper").build(), encoded);
+        awaitConnected(1);
+        final Future<ContainerResponse> plainResponse = app.apply(RequestContextBuilder.from("/", "GET").build(), plain);
+        awaitConnected(2);
+
+        broadcaster.broadcast("a");
+        broadcaster.broadcast("b");
+        broadcaster.closeAll();
+
+        final ContainerResponse response = encodedResponse.get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatus());
+        assertEquals("x-upper", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("[A][B]", encoded.toString());
+        assertEquals(200, plainResponse.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals("[a][b]", plain.toString());
+    }
+
+    @Test
+    public void testStatefulEncodingInterceptor() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 10, Broadcaster.SlowConsumerPolicy.DROP_OLDEST);
+        BroadcastResource.broadcaster = broadcaster;
+        BroadcastResource.outputs.clear();
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(BroadcastResource.class,
+                CountingStringWriter.class, ClosingEncoderInterceptor.class, ChunkedResponseWriter.class));
+
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        final Future<ContainerResponse> firstResponse = app.apply(RequestContextBuilder.from("/", "GET").build(), first);
+        awaitConnected(1);
+        final Future<ContainerResponse> secondResponse = app.apply(RequestContextBuilder.from("/", "GET").build(), second);
+        awaitConnected(2);
+
+        broadcaster.broadcast("a");
+        broadcaster.broadcast("b");
+        broadcaster.closeAll();
+
+        assertEquals(200, firstResponse.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(200, secondResponse.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals("[A][B]", first.toString());
+        assertEquals("[A][B]", second.toString());
+    }
+
+    private static void awaitConnected(final int outputs) throws InterruptedException {
+        while (BroadcastResource.outputs.size() < outputs) {
+            Thread.sleep(10);
+        }
+        assertTrue(BroadcastResource.outputs.get(outputs - 1).connected.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowConsumerDropOldest() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 2, Broadcaster.SlowConsumerPolicy.DROP_OLDEST);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingOutput slow = new RecordingOutput(release);
+        broadcaster.add(slow);
+
+        broadcaster.broadcast("a");
+        // wait until the slow output is blocked writing the first chunk
+        while (broadcaster.getQueueDepth(slow) != 0) {
+            Thread.sleep(10);
+        }
+        for (String chunk : new String[] {"b", "c", "d", "e"}) {
+            broadcaster.broadcast(chunk);
+        }
+        assertEquals(2, broadcaster.getQueueDepth(slow));
+        assertEquals(2, broadcaster.getDroppedChunkCount());
+
+        release.countDown();
+        broadcaster.closeAll();
+
+        assertTrue(slow.closed.await(10, TimeUnit.SECONDS));
+        assertEquals(Lists.newArrayList("a", "d", "e"), slow.chunks);
+    }
+
+    @Test
+    public void testSlowConsumerDisconnect() throws Exception {
+        final Broadcaster<String> broadcaster =
+                new Broadcaster<String>(executor, 1, Broadcaster.SlowConsumerPolicy.DISCONNECT);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingOutput slow = new RecordingOutput(release);
+        final CountDownLatch closeEvent = new CountDownLatch(1);
+        broadcaster.add(slow);
+        broadcaster.add(new BroadcasterListener<String>() {
+            @Override
+            public void onException(final ChunkedOutput<String> chunkedOutput, final Exception exception) {
+            }
+
+            @Override
+            public void onClose(final ChunkedOutput<String> chunkedOutput) {
+                closeEvent.countDown();
+            }
+        });
+
+        broadcaster.broadcast("a");
+        while (broadcaster.getQueueDepth(slow) != 0) {
+            Thread.sleep(10);
+        }
+        broadcaster.broadcast("b");
+        broadcaster.broadcast("c");
+        assertEquals(1, broadcaster.getDisconnectedCount());
+
+        release.countDown();
+        assertTrue(slow.closed.await(10, TimeUnit.SECONDS));
+        assertTrue(closeEvent.await(10, TimeUnit.SECONDS));
+        assertEquals(Lists.newArrayList("a"), slow.chunks);
+        assertFalse(broadcaster.getQueueDepths().containsKey(slow));
+    }
+}
@@ -39,16 +39,33 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.server.spi.NonBlockingContainerResponseWriter;
 
 import org.junit.Test;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
+import com.google.common.collect.Lists;
+
 /**
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  */
@@ -79,6 +96,262 @@ public class ChunkedOutputTest {
         }
     }
 
+    @Path("/coalesced")
+    public static class CoalescingResource {
+
+        static volatile ChunkedOutput<String> output;
+
+        @GET
+        public ChunkedOutput<String> get(@QueryParam("close") final boolean close) throws IOException {
+            output = new ChunkedOutput<String>(String.class,
+                    new ChunkedOutput.FlushPolicy(200, TimeUnit.MILLISECONDS, Integer.MAX_VALUE, 2));
+            for (String chunk : new String[] {"a", "b", "c", "d", "e"}) {
+                output.write(chunk);
+            }
+            if (close) {
+                output.close();
+            }
+            return output;
+        }
+    }
+
+    @Path("/stalled")
+    public static class StalledResource {
+
+        @GET
+        public ChunkedOutput<String> get() throws IOException {
+            final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class,
+                    new ChunkedOutput.FlushPolicy(10, TimeUnit.MILLISECONDS, Integer.MAX_VALUE, Integer.MAX_VALUE));
+            output.write("a");
+            return output;
+        }
+    }
+
+    @Path("/suspended")
+    public static class SuspendedResource {
+
+        @GET
+        public void get(@Suspended final AsyncResponse asyncResponse) {
+            asyncResponse.setTimeout(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Path("/nonblocking")
+    public static class NonBlockingResource {
+
+        static final CountDownLatch written = new CountDownLatch(1);
+
+        @GET
+        public ChunkedOutput<String> get() {
+            final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        output.write("a");
+                        output.write("b");
+                        output.write("c");
+                        output.close();
+                        written.countDown();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }.start();
+            return output;
+        }
+    }
+
+    /**
+     * Non-blocking response writer that accepts the data only when explicitly made writable.
+     */
+    private static class NonBlockingWriter implements NonBlockingContainerResponseWriter {
+
+        private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        private final CountDownLatch committed = new CountDownLatch(1);
+        private volatile boolean writable = false;
+        private volatile WriteHandler handler;
+
+        @Override
+        public OutputStream writeResponseStatusAndHeaders(final long contentLength, final ContainerResponse responseContext) {
+            return stream;
+        }
+
+        @Override
+        public boolean suspend(final long timeOut, final TimeUnit timeUnit, final TimeoutHandler timeoutHandler) {
+            return true;
+        }
+
+        @Override
+        public void setSuspendTimeout(final long timeOut, final TimeUnit timeUnit) {
+        }
+
+        @Override
+        public void commit() {
+            committed.countDown();
+        }
+
+        @Override
+        public void failure(final Throwable error) {
+            committed.countDown();
+        }
+
+        @Override
+        public boolean enableResponseBuffering() {
+            return false;
+        }
+
+        @Override
+        public boolean isWritePossible() {
+            return writable;
+        }
+
+        @Override
+        public void notifyWritePossible(final WriteHandler handler) {
+            if (this.handler != null) {
+                throw new IllegalStateException();
+            }
+            this.handler = handler;
+        }
+
+        private void makeWritable() {
+            writable = true;
+            final WriteHandler current = handler;
+            handler = null;
+            current.onWritePossible();
+        }
+    }
+
+    @Test
+    public void testNonBlockingChunks() throws Exception {
+        final ApplicationHandler applicationHandler = new ApplicationHandler(
+                new ResourceConfig(NonBlockingResource.class, ChunkedResponseWriter.class));
+
+        final NonBlockingWriter writer = new NonBlockingWriter();
+        final ContainerRequest request = RequestContextBuilder.from("/nonblocking", "GET").build();
+        request.setWriter(writer);
+        request.setSecurityContext(new SecurityContext() {
+            @Override
+            public Principal getUserPrincipal() {
+                return null;
+            }
+
+            @Override
+            public boolean isUserInRole(final String role) {
+                return false;
+            }
+
+            @Override
+            public boolean isSecure() {
+                return false;
+            }
+
+            @Override
+            public String getAuthenticationScheme() {
+                return null;
+            }
+        });
+        applicationHandler.handle(request);
+
+        // writing the chunks and closing the output does not block while the container does not accept the data
+        assertTrue(NonBlockingResource.written.await(10, TimeUnit.SECONDS));
+        assertEquals("", writer.stream.toString());
+        assertFalse(writer.committed.await(100, TimeUnit.MILLISECONDS));
+
+        writer.makeWritable();
+        assertTrue(writer.committed.await(10, TimeUnit.SECONDS));
+        assertEquals("abc", writer.stream.toString());
+    }
+
+    /**
+     * Output stream remembering its content on every flush.
+     */
+    private static class FlushRecordingStream extends ByteArrayOutputStream {
+
+        private final List<String> flushes = Lists.newCopyOnWriteArrayList();
+
+        @Override
+        public void flush() throws IOException {
+            final String content = toString();
+            if (!content.isEmpty() && (flushes.isEmpty() || !content.equals(flushes.get(flushes.size() - 1)))) {
+                flushes.add(content);
+            }
+        }
+    }
+
+    @Test
+    public void testCoalescedChunks() throws Exception {
+        final ApplicationHandler applicationHandler = new ApplicationHandler(
+                new ResourceConfig(CoalescingResource.class, ChunkedResponseWriter.class));
+
+        final FlushRecordingStream stream = new FlushRecordingStream();
+        final Future<ContainerResponse> response =
+                applicationHandler.apply(RequestContextBuilder.from("/coalesced", "GET").build(), stream);
+
+        // batches of 2 chunks are flushed immediately, the last chunk after the maximal delay
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!stream.toString().equals("abcde") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("abcde", stream.toString());
+        assertEquals(Lists.newArrayList("ab", "abcd", "abcde"), stream.flushes);
+
+        CoalescingResource.output.close();
+        assertEquals(200, response.get(10, TimeUnit.SECONDS).getStatus());
+    }
+
+    /**
+     * Output stream blocking every write until released.
+     */
+    private static class StalledStream extends ByteArrayOutputStream {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public synchronized void write(final byte[] b, final int off, final int len) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.write(b, off, len);
+        }
+    }
+
+    @Test
+    public void testStalledCoalescedFlushDoesNotDelayTimeouts() throws Exception {
+        final ApplicationHandler applicationHandler = new ApplicationHandler(
+                new ResourceConfig(StalledResource.class, SuspendedResource.class, ChunkedResponseWriter.class));
+
+        final StalledStream stalled = new StalledStream();
+        applicationHandler.apply(RequestContextBuilder.from("/stalled", "GET").build(), stalled);
+        try {
+            // the delayed flush of the coalesced chunk is stuck writing to the client
+            assertTrue(stalled.writing.await(10, TimeUnit.SECONDS));
+
+            final ContainerResponse response = applicationHandler.apply(
+                    RequestContextBuilder.from("/suspended", "GET").build()).get(5, TimeUnit.SECONDS);
+            assertEquals(503, response.getStatus());
+        } finally {
+            stalled.release.countDown();
+        }
+    }
+
+    @Test
+    public void testCoalescedChunksWrittenOnClose() throws Exception {
+        final ApplicationHandler applicationHandler = new ApplicationHandler(
+                new ResourceConfig(CoalescingResource.class, ChunkedResponseWriter.class));
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        final ContainerResponse response = applicationHandler.apply(
+                RequestContextBuilder.from("/coalesced?close=true", "GET").build(), stream).get(10, TimeUnit.SECONDS);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("abcde", stream.toString());
+    }
+
     @Test
     public void testChunkedResponse() throws Exception {
         final ResourceConfig resourceConfig = new ResourceConfig(MyResource.class, ChunkedResponseWriter.class);
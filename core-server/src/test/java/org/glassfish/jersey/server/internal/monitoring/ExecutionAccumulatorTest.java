@@ -0,0 +1,142 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link ExecutionAccumulator} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class ExecutionAccumulatorTest {
+
+    @Test
+    public void testDrain() {
+        final ExecutionAccumulator accumulator = new ExecutionAccumulator();
+        Assert.assertNull(accumulator.drain());
+
+        accumulator.add(1000, 30);
+        accumulator.add(3000, 10);
+        accumulator.add(2000, 50);
+
+        final ExecutionAccumulator.Aggregate aggregate = accumulator.drain();
+        Assert.assertEquals(3, aggregate.getCount());
+        Assert.assertEquals(90, aggregate.getDuration());
+        Assert.assertEquals(10, aggregate.getMinimumDuration());
+        Assert.assertEquals(50, aggregate.getMaximumDuration());
+        Assert.assertEquals(3000, aggregate.getLastStartTime());
+
+        Assert.assertNull(accumulator.drain());
+
+        accumulator.add(4000, 70);
+        final ExecutionAccumulator.Aggregate next = accumulator.drain();
+        Assert.assertEquals(1, next.getCount());
+        Assert.assertEquals(70, next.getMinimumDuration());
+        Assert.assertEquals(70, next.getMaximumDuration());
+    }
+
+    @Test
+    public void testConcurrentAddNoLostSamples() throws InterruptedException {
+        final ExecutionAccumulator accumulator = new ExecutionAccumulator();
+        final int threads = 8;
+        final int executionsPerThread = 20000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < executionsPerThread; j++) {
+                            accumulator.add(j, 1);
+                        }
+                        latch.countDown();
+                    }
+                });
+            }
+
+            long count = 0;
+            long duration = 0;
+            while (!latch.await(1, TimeUnit.MILLISECONDS)) {
+                final ExecutionAccumulator.Aggregate aggregate = accumulator.drain();
+                if (aggregate != null) {
+                    // every drained execution is reported together with its histogram bucket
+                    Assert.assertEquals(aggregate.getCount(), aggregate.getHistogram().getTotalCount());
+                    Assert.assertEquals(aggregate.getCount(), aggregate.getDuration());
+                    count += aggregate.getCount();
+                    duration += aggregate.getDuration();
+                }
+            }
+            final ExecutionAccumulator.Aggregate aggregate = accumulator.drain();
+            if (aggregate != null) {
+                count += aggregate.getCount();
+                duration += aggregate.getDuration();
+            }
+
+            Assert.assertEquals(threads * executionsPerThread, count);
+            Assert.assertEquals(threads * executionsPerThread, duration);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAggregatedTimeWindow() {
+        final long now = System.currentTimeMillis();
+        final TimeWindowStatisticsImpl.Builder builder = new TimeWindowStatisticsImpl.Builder(1000, TimeUnit.MILLISECONDS, now);
+        builder.addRequests(now, 3, 90, 10, 50, null);
+        builder.addRequests(now + 500, 2, 30, -1, 20, null);
+        builder.addRequest(now + 1001, 999);
+
+        final TimeWindowStatisticsImpl stats = builder.build(now + 1001);
+        Assert.assertEquals(5, stats.getRequestCount());
+        Assert.assertEquals(10, stats.getMinimumDuration());
+        Assert.assertEquals(50, stats.getMaximumDuration());
+        Assert.assertEquals(24, stats.getAverageDuration());
+    }
+}
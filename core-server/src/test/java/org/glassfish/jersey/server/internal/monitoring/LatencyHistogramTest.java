@@ -0,0 +1,149 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link LatencyHistogram} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        Assert.assertEquals(0, LatencyHistogram.bucket(-5));
+        Assert.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+
+        long previousHighest = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            final long highest = LatencyHistogram.highestDuration(bucket);
+            Assert.assertEquals(bucket, LatencyHistogram.bucket(highest));
+            Assert.assertEquals(bucket, LatencyHistogram.bucket(previousHighest + 1));
+            // relative precision
+            Assert.assertTrue("Bucket " + bucket, highest - previousHighest - 1 <= (previousHighest + 1) / 16);
+            previousHighest = highest;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(-1, histogram.compact().getPercentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        final LatencyHistogram.Compact compact = histogram.compact();
+        Assert.assertEquals(1000, compact.getTotalCount());
+        assertApproximately(500, compact.getPercentile(50));
+        assertApproximately(990, compact.getPercentile(99));
+        assertApproximately(999, compact.getPercentile(99.9));
+        Assert.assertEquals(1, compact.getPercentile(0));
+        assertApproximately(1000, compact.getPercentile(100));
+    }
+
+    @Test
+    public void testMerge() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(20);
+        other.record(3000);
+
+        histogram.add(other);
+        Assert.assertEquals(3, histogram.getTotalCount());
+        Assert.assertEquals(20, histogram.compact().getPercentile(50));
+
+        histogram.subtract(other.compact());
+        Assert.assertEquals(1, histogram.getTotalCount());
+        Assert.assertEquals(10, histogram.compact().getPercentile(99));
+    }
+
+    @Test
+    public void testTimeWindowPercentiles() {
+        final long now = System.currentTimeMillis();
+        final TimeWindowStatisticsImpl.Builder builder = new TimeWindowStatisticsImpl.Builder(1000, TimeUnit.MILLISECONDS, now);
+        for (int i = 0; i < 99; i++) {
+            builder.addRequest(now + i, 10);
+        }
+        builder.addRequest(now + 500, 900);
+
+        TimeWindowStatisticsImpl stats = builder.build(now + 1001);
+        Assert.assertEquals(100, stats.getRequestCount());
+        Assert.assertEquals(10, stats.getDurationPercentile(50));
+        Assert.assertEquals(10, stats.getDurationPercentile(99));
+        // clipped to the maximum duration
+        Assert.assertEquals(900, stats.getDurationPercentile(99.9));
+
+        // requests drop out of the time window
+        stats = builder.build(now + 2500);
+        Assert.assertEquals(0, stats.getRequestCount());
+        Assert.assertEquals(-1, stats.getDurationPercentile(50));
+    }
+
+    @Test
+    public void testAggregatedExecutionPercentiles() {
+        final ExecutionAccumulator accumulator = new ExecutionAccumulator();
+        for (int i = 1; i <= 100; i++) {
+            accumulator.add(1000, i);
+        }
+        final long now = System.currentTimeMillis();
+        final TimeWindowStatisticsImpl.Builder builder = new TimeWindowStatisticsImpl.Builder(0, TimeUnit.MILLISECONDS, now);
+        final ExecutionAccumulator.Aggregate aggregate = accumulator.drain();
+        builder.addRequests(now, aggregate.getCount(), aggregate.getDuration(), aggregate.getMinimumDuration(),
+                aggregate.getMaximumDuration(), aggregate.getHistogram());
+
+        final TimeWindowStatisticsImpl stats = builder.build(now + 1000);
+        Assert.assertEquals(100, stats.getRequestCount());
+        assertApproximately(50, stats.getDurationPercentile(50));
+        assertApproximately(99, stats.getDurationPercentile(99));
+        Assert.assertEquals(100, stats.getDurationPercentile(100));
+    }
+
+    private static void assertApproximately(long expected, long actual) {
+        Assert.assertTrue("Expected " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
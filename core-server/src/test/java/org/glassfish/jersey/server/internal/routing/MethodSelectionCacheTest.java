@@ -0,0 +1,149 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Tests caching of the resource method selection results in {@link MethodSelectingRouter}.
+ *
+ * @author agent (agent at local)
+ */
+public class MethodSelectionCacheTest {
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Produces("text/plain")
+        public String getPlain() {
+            return "plain";
+        }
+
+        @GET
+        @Produces("text/html")
+        public String getHtml() {
+            return "html";
+        }
+
+        @POST
+        @Consumes("text/plain")
+        @Produces("text/plain")
+        public String post(final String entity) {
+            return "post-" + entity;
+        }
+    }
+
+    private static ContainerResponse get(final ApplicationHandler app, final String... accept) throws Exception {
+        return app.apply(RequestContextBuilder.from("/", "GET").accept(accept).build()).get();
+    }
+
+    @Test
+    public void testSelectionIsCached() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+        final MethodSelectionCaches caches = app.getServiceLocator().getService(MethodSelectionCaches.class);
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = get(app, "text/plain");
+            assertEquals("plain", response.getEntity());
+            assertEquals(MediaType.TEXT_PLAIN_TYPE, response.getMediaType());
+
+            response = get(app, "text/html");
+            assertEquals("html", response.getEntity());
+            assertEquals(MediaType.TEXT_HTML_TYPE, response.getMediaType());
+
+            response = get(app, "text/html;q=0.5", "text/plain");
+            assertEquals("plain", response.getEntity());
+
+            response = get(app, "application/json");
+            assertEquals(406, response.getStatus());
+        }
+
+        final CacheStats stats = caches.getStatistics();
+        assertEquals(4, stats.missCount());
+        assertEquals(8, stats.hitCount());
+        assertEquals(4, caches.getSize());
+    }
+
+    @Test
+    public void testContentTypeIsPartOfTheKey() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        for (int i = 0; i < 2; i++) {
+            ContainerResponse response = app.apply(RequestContextBuilder.from("/", "POST")
+                    .type(MediaType.TEXT_PLAIN).entity("a").build()).get();
+            assertEquals("post-a", response.getEntity());
+
+            response = app.apply(RequestContextBuilder.from("/", "POST")
+                    .type(MediaType.APPLICATION_XML).entity("a").build()).get();
+            assertEquals(415, response.getStatus());
+        }
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class)
+                .property(ServerProperties.METHOD_SELECTION_CACHE_SIZE, 0));
+        final MethodSelectionCaches caches = app.getServiceLocator().getService(MethodSelectionCaches.class);
+
+        assertEquals("plain", get(app, "text/plain").getEntity());
+        assertEquals("plain", get(app, "text/plain").getEntity());
+
+        final CacheStats stats = caches.getStatistics();
+        assertEquals(0, stats.requestCount());
+        assertEquals(0, caches.getSize());
+    }
+}
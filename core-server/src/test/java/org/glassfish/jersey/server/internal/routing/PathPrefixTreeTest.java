@@ -0,0 +1,210 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+
+/**
+ * {@link PathPrefixTree} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class PathPrefixTreeTest {
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("", PathPrefixTree.literalPrefix(""));
+        assertEquals("", PathPrefixTree.literalPrefix(null));
+        assertEquals("/abc", PathPrefixTree.literalPrefix("/abc"));
+        assertEquals("/abc", PathPrefixTree.literalPrefix("/abc(/.*)?"));
+        assertEquals("/ab", PathPrefixTree.literalPrefix("/abc?"));
+        assertEquals("/ab", PathPrefixTree.literalPrefix("/abc*"));
+        assertEquals("/ab", PathPrefixTree.literalPrefix("/abc{0,2}"));
+        assertEquals("/abc", PathPrefixTree.literalPrefix("/abc+d"));
+        assertEquals("/a.b", PathPrefixTree.literalPrefix("/a\\.b"));
+        assertEquals("/a", PathPrefixTree.literalPrefix("/a\\db"));
+        assertEquals("/a", PathPrefixTree.literalPrefix("/a[bc]"));
+        assertEquals("", PathPrefixTree.literalPrefix("(?i)/abc"));
+        assertEquals("", PathPrefixTree.literalPrefix("/abc|/def"));
+        assertEquals("/a", PathPrefixTree.literalPrefix("/a(b|c)"));
+        assertEquals("/a", PathPrefixTree.literalPrefix("/a[|]"));
+        assertEquals("/a|b", PathPrefixTree.literalPrefix("/a\\|b"));
+        assertEquals("/a", PathPrefixTree.literalPrefix("/a\\Q|\\E"));
+    }
+
+    @Test
+    public void testCandidates() {
+        final PathPrefixTree tree = new PathPrefixTree(Arrays.asList("/a/b", "/a", "([^/]+)", "/b", "/a/c"));
+
+        assertTrue(tree.isSelective());
+        assertArrayEquals(new int[] {0, 1, 2}, tree.candidates("/a/b/c"));
+        assertArrayEquals(new int[] {1, 2}, tree.candidates("/a"));
+        assertArrayEquals(new int[] {1, 2, 4}, tree.candidates("/a/c"));
+        assertArrayEquals(new int[] {2, 3}, tree.candidates("/b"));
+        assertArrayEquals(new int[] {2}, tree.candidates("/x"));
+        assertArrayEquals(new int[] {2}, tree.candidates(""));
+    }
+
+    @Test
+    public void testNotSelective() {
+        assertFalse(new PathPrefixTree(Arrays.asList("([^/]+)", "(/.*)?", "")).isSelective());
+    }
+
+    @Test
+    public void testSameMatchAsSequential() {
+        final List<PathPattern> patterns = Lists.newArrayList(
+                new PathPattern("/customers/{id}"),
+                new PathPattern("/customers/{id: \\d+}/orders"),
+                PathPattern.asClosed(new PathPattern("/customers")),
+                new PathPattern("/{any}"),
+                new PathPattern("/cust{suffix}"),
+                new PathPattern("/orders/{id: a|b}"),
+                PathPattern.asClosed(new PathPattern("/orders")),
+                PathPattern.OPEN_ROOT_PATH_PATTERN);
+
+        final List<String> regexes = Lists.newArrayList();
+        for (PathPattern pattern : patterns) {
+            regexes.add(pattern.getRegex());
+        }
+        final PathPrefixTree tree = new PathPrefixTree(regexes);
+
+        final String[] paths = {"/customers", "/customers/", "/customers/1", "/customers/1/orders", "/custom",
+                "/orders", "/orders/a", "/orders/c", "/foo", "/", "", "/foo/bar"};
+        for (String path : paths) {
+            assertEquals("Path: " + path, firstMatch(patterns, path, null), firstMatch(patterns, path, tree.candidates(path)));
+        }
+    }
+
+    private static int firstMatch(final List<PathPattern> patterns, final String path, final int[] candidates) {
+        if (candidates == null) {
+            for (int i = 0; i < patterns.size(); i++) {
+                if (patterns.get(i).match(path) != null) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i : candidates) {
+                if (patterns.get(i).match(path) != null) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Path("a")
+    public static class ResourceA {
+
+        @GET
+        public String get() {
+            return "a";
+        }
+
+        @GET
+        @Path("{id}")
+        public String getId(@PathParam("id") String id) {
+            return "a-" + id;
+        }
+
+        @GET
+        @Path("b")
+        public String getB() {
+            return "a-b";
+        }
+    }
+
+    @Path("ab")
+    public static class ResourceAb {
+
+        @GET
+        public String get() {
+            return "ab";
+        }
+    }
+
+    @Path("{x}")
+    public static class ResourceTemplate {
+
+        @GET
+        public String get(@PathParam("x") String x) {
+            return "x-" + x;
+        }
+    }
+
+    @Test
+    public void testRoutingWithAndWithoutPrefixTree() throws ExecutionException, InterruptedException {
+        final ApplicationHandler indexed = new ApplicationHandler(
+                new ResourceConfig(ResourceA.class, ResourceAb.class, ResourceTemplate.class));
+        final ApplicationHandler sequential = new ApplicationHandler(
+                new ResourceConfig(ResourceA.class, ResourceAb.class, ResourceTemplate.class)
+                        .property(ServerProperties.ROUTING_PREFIX_TREE_DISABLE, true));
+
+        for (String path : new String[] {"/a", "/a/b", "/a/c", "/ab", "/abc", "/b", "/a/b/c"}) {
+            final ContainerResponse expected = sequential.apply(RequestContextBuilder.from(path, "GET").build()).get();
+            final ContainerResponse actual = indexed.apply(RequestContextBuilder.from(path, "GET").build()).get();
+
+            assertEquals("Path: " + path, expected.getStatus(), actual.getStatus());
+            assertEquals("Path: " + path, expected.getEntity(), actual.getEntity());
+        }
+        assertEquals("a-b", indexed.apply(RequestContextBuilder.from("/a/b", "GET").build()).get().getEntity());
+        assertEquals("x-abc", indexed.apply(RequestContextBuilder.from("/abc", "GET").build()).get().getEntity());
+    }
+}
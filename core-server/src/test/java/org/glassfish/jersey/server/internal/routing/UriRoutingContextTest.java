@@ -41,6 +41,7 @@ package org.glassfish.jersey.server.internal.routing;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -49,6 +50,7 @@ import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.core.UriInfo;
 
 import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.uri.UriComponent;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -56,6 +58,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -448,4 +452,24 @@ public class UriRoutingContextTest {
         assertEquals("+1%20", p.getFirst("x "));
         assertEquals("+2", p.getFirst(" y "));
     }
+
+    @Test
+    public void testGetQueryParametersLazilyDecoded() throws Exception {
+        final UriInfo ui = createContext("/widgets/10?a=%41+b&b=1&a=c%20d&c", "GET");
+        final MultivaluedMap<String, String> p = ui.getQueryParameters(true);
+
+        assertEquals(3, p.size());
+        assertTrue(p.containsKey("c"));
+        assertEquals("A b", p.getFirst("a"));
+        assertEquals(Arrays.asList("A b", "c d"), p.get("a"));
+        assertEquals("", p.getFirst("c"));
+        assertNull(p.get("d"));
+        assertNull(p.getFirst("d"));
+
+        assertEquals(UriComponent.decodeQuery("a=%41+b&b=1&a=c%20d&c", true), p);
+        assertTrue(p.containsValue(Arrays.asList("1")));
+        assertEquals(3, p.entrySet().size());
+
+        assertEquals("%41+b", ui.getQueryParameters(false).getFirst("a"));
+    }
 }
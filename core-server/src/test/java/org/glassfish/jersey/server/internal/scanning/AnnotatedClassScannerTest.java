@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ResourceFinder;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link AnnotatedClassScanner} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class AnnotatedClassScannerTest {
+
+    private static final String[] PACKAGES = {"org.glassfish.jersey.server"};
+
+    private static List<ResourceFinder> finders() {
+        return Arrays.<ResourceFinder>asList(new PackageNamesScanner(PACKAGES, true));
+    }
+
+    @Test
+    public void testParallelScanning() {
+        final ClassLoader classLoader = getClass().getClassLoader();
+
+        final Set<Class<?>> sequential = AnnotatedClassScanner.scan(finders(), classLoader, 1);
+        assertTrue(sequential.contains(ScannedResource.class));
+        assertFalse(sequential.contains(AnnotatedClassScannerTest.class));
+
+        for (int parallelism : new int[] {2, 4, 16}) {
+            final Set<Class<?>> parallel = AnnotatedClassScanner.scan(finders(), classLoader, parallelism);
+            assertEquals(sequential, parallel);
+            // merge order does not depend on the thread scheduling
+            assertEquals(Arrays.asList(AnnotatedClassScanner.scan(finders(), classLoader, parallelism).toArray()),
+                    Arrays.asList(parallel.toArray()));
+        }
+    }
+
+    @Test
+    public void testResourceConfigParallelScanning() {
+        final Set<Class<?>> sequential = new ResourceConfig().packages(PACKAGES).getClasses();
+        final Set<Class<?>> parallel = new ResourceConfig().packages(PACKAGES)
+                .property(ServerProperties.PROVIDER_SCANNING_PARALLEL, true).getClasses();
+
+        assertTrue(parallel.contains(ScannedResource.class));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testDrain() {
+        final ResourceFinderStack stack = new ResourceFinderStack();
+        final ResourceFinder first = new ResourceFinderStackTest.MyIterator();
+        final ResourceFinder second = new ResourceFinderStackTest.MyIterator();
+        stack.push(second);
+        stack.push(first);
+
+        final List<ResourceFinder> drained = stack.drain();
+        assertEquals(2, drained.size());
+        assertSame(first, drained.get(0));
+        assertSame(second, drained.get(1));
+        assertFalse(stack.hasNext());
+    }
+
+    @Path("scanned")
+    public static class ScannedResource {
+    }
+}
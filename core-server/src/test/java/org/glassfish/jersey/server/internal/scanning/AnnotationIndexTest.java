@@ -0,0 +1,300 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.Path;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.scanning.AnnotationIndexProcessor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link AnnotationIndex} and {@link AnnotationIndexProcessor} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class AnnotationIndexTest {
+
+    private File root;
+    private File classes;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("jersey-index", "");
+        root.delete();
+        classes = new File(root, "classes");
+        classes.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File source(final String className, final String content) throws IOException {
+        final File file = new File(root, "src/" + className.replace('.', '/') + ".java");
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private void compile(final File... sources) {
+        compile(classes, true, sources);
+    }
+
+    private void compile(final File output, final boolean index, final File... sources) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("JDK compiler not available.", compiler);
+
+        final String classPath = new File(Path.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                + File.pathSeparator
+                + new File(AnnotationIndexProcessor.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+
+        output.mkdirs();
+        final List<String> args = new ArrayList<String>(Arrays.asList(
+                "-classpath", classPath,
+                "-d", output.getPath()));
+        if (index) {
+            args.addAll(Arrays.asList("-processor", AnnotationIndexProcessor.class.getName()));
+        } else {
+            args.add("-proc:none");
+        }
+        for (File source : sources) {
+            args.add(source.getPath());
+        }
+        assertEquals(0, compiler.run(null, null, null, args.toArray(new String[args.size()])));
+    }
+
+    private void compileScenario() throws IOException {
+        compile(
+                source("test.app.Resource", "package test.app;\n"
+                        + "@javax.ws.rs.Path(\"resource\") public class Resource {\n"
+                        + "    @javax.ws.rs.Path(\"nested\") public static class Nested {}\n"
+                        + "    @javax.ws.rs.Path(\"inner\") public class Inner {}\n"
+                        + "}\n"),
+                source("test.app.sub.Provider", "package test.app.sub;\n"
+                        + "@javax.ws.rs.ext.Provider public class Provider {}\n"),
+                source("test.app.Hidden", "package test.app;\n"
+                        + "@javax.ws.rs.Path(\"hidden\") class Hidden {}\n"),
+                source("test.other.Other", "package test.other;\n"
+                        + "@javax.ws.rs.Path(\"other\") public class Other {}\n"
+                        + "class NotAnnotated {}\n"));
+    }
+
+    private static Set<String> names(final Set<Class<?>> classes) {
+        final Set<String> names = new HashSet<String>();
+        for (Class<?> c : classes) {
+            names.add(c.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testProcessor() throws IOException {
+        compileScenario();
+
+        final Set<String> indexed = new HashSet<String>();
+        final InputStream in = new FileInputStream(new File(classes, AnnotationIndex.RESOURCE_NAME));
+        try {
+            AnnotationIndex.read(in, indexed);
+        } finally {
+            in.close();
+        }
+
+        assertEquals(new HashSet<String>(Arrays.asList(
+                "test.app.Resource", "test.app.Resource$Nested", "test.app.sub.Provider", "test.other.Other")), indexed);
+    }
+
+    @Test
+    public void testPackageFilter() throws IOException {
+        final Set<String> classNames = new HashSet<String>();
+        AnnotationIndex.read(new ByteArrayInputStream(
+                "# comment\n\na.A\n a.b.B \na.b.c.C$D\nab.E\nF\n".getBytes("UTF-8")), classNames);
+        assertEquals(5, classNames.size());
+
+        final URLClassLoader loader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, null);
+        assertNull(AnnotationIndex.load(loader));
+
+        final File index = new File(classes, AnnotationIndex.RESOURCE_NAME);
+        index.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(index);
+        try {
+            for (String className : classNames) {
+                out.write((className + "\n").getBytes("UTF-8"));
+            }
+        } finally {
+            out.close();
+        }
+
+        final AnnotationIndex annotationIndex = AnnotationIndex.load(loader);
+        assertNotNull(annotationIndex);
+        assertEquals(classNames, annotationIndex.getClassNames());
+        assertEquals(new HashSet<String>(Arrays.asList("a.A")),
+                annotationIndex.getClassNames(new String[] {"a"}, false));
+        assertEquals(new HashSet<String>(Arrays.asList("a.A", "a.b.B", "a.b.c.C$D")),
+                annotationIndex.getClassNames(new String[] {"a"}, true));
+        assertEquals(new HashSet<String>(Arrays.asList("a.b.c.C$D", "ab.E")),
+                annotationIndex.getClassNames(new String[] {"a.b.c", "ab"}, true));
+        assertEquals(classNames, annotationIndex.getClassNames(new String[] {""}, true));
+    }
+
+    @Test
+    public void testResourceConfigIndexMode() throws IOException {
+        compileScenario();
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final URLClassLoader loader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, contextClassLoader);
+        Thread.currentThread().setContextClassLoader(loader);
+        try {
+            final Set<String> expected = new HashSet<String>(Arrays.asList(
+                    "test.app.Resource", "test.app.Resource$Nested", "test.app.sub.Provider"));
+
+            // index is used
+            final ResourceConfig indexed = new ResourceConfig().setClassLoader(loader).packages("test.app")
+                    .property(ServerProperties.PROVIDER_SCANNING_INDEX, true);
+            assertEquals(expected, names(indexed.getClasses()));
+
+            final ResourceConfig indexedProperty = new ResourceConfig().setClassLoader(loader)
+                    .property(ServerProperties.PROVIDER_PACKAGES, "test.app")
+                    .property(ServerProperties.PROVIDER_SCANNING_RECURSIVE, false)
+                    .property(ServerProperties.PROVIDER_SCANNING_INDEX, true);
+            assertEquals(new HashSet<String>(Arrays.asList("test.app.Resource", "test.app.Resource$Nested")),
+                    names(indexedProperty.getClasses()));
+
+            // only the indexed classes are registered
+            final OutputStream out = new FileOutputStream(new File(classes, AnnotationIndex.RESOURCE_NAME));
+            try {
+                out.write("test.app.Resource\n".getBytes("UTF-8"));
+            } finally {
+                out.close();
+            }
+            final ResourceConfig partial = new ResourceConfig().setClassLoader(loader).packages("test.app")
+                    .property(ServerProperties.PROVIDER_SCANNING_INDEX, true);
+            assertEquals(new HashSet<String>(Arrays.asList("test.app.Resource")), names(partial.getClasses()));
+
+            // the index is removed, the packages are scanned
+            assertTrue(new File(classes, AnnotationIndex.RESOURCE_NAME).delete());
+            final ResourceConfig scanned = new ResourceConfig().setClassLoader(loader).packages("test.app")
+                    .property(ServerProperties.PROVIDER_SCANNING_INDEX, true);
+            assertEquals(expected, names(scanned.getClasses()));
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Test
+    public void testUnindexedRootScanned() throws IOException {
+        compileScenario();
+        final File library = new File(root, "library");
+        compile(library, false, source("test.app.Library", "package test.app;\n"
+                + "@javax.ws.rs.Path(\"library\") public class Library {}\n"));
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final URLClassLoader loader = new URLClassLoader(
+                new URL[] {classes.toURI().toURL(), library.toURI().toURL()}, contextClassLoader);
+        Thread.currentThread().setContextClassLoader(loader);
+        try {
+            final AnnotationIndex index = AnnotationIndex.load(loader);
+            assertNotNull(index);
+            assertTrue(index.getUnindexedLocations(loader, "test.other").isEmpty());
+            assertEquals(1, index.getUnindexedLocations(loader, "test.app").size());
+
+            // the package located also in the library without an index is scanned
+            final ResourceConfig mixed = new ResourceConfig().setClassLoader(loader).packages("test.app", "test.other")
+                    .property(ServerProperties.PROVIDER_SCANNING_INDEX, true);
+            assertEquals(new HashSet<String>(Arrays.asList("test.app.Resource", "test.app.Resource$Nested",
+                    "test.app.sub.Provider", "test.app.Library", "test.other.Other")), names(mixed.getClasses()));
+
+            // the fully indexed package is looked up in the index only
+            final OutputStream out = new FileOutputStream(new File(classes, AnnotationIndex.RESOURCE_NAME));
+            try {
+                out.write("test.app.Resource\n".getBytes("UTF-8"));
+            } finally {
+                out.close();
+            }
+            final ResourceConfig indexed = new ResourceConfig().setClassLoader(loader).packages("test.other")
+                    .property(ServerProperties.PROVIDER_SCANNING_INDEX, true);
+            assertTrue(indexed.getClasses().isEmpty());
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.ReaderWriter;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests message body readers and writers selected in advance for resource methods.
+ *
+ * @author agent (agent at local)
+ */
+public class BoundMessageBodyWorkerTest {
+
+    public static class Bean {
+
+        final String value;
+
+        public Bean(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static class SubBean extends Bean {
+
+        public SubBean(final String value) {
+            super(value);
+        }
+    }
+
+    public abstract static class BeanWriter implements MessageBodyWriter<Bean> {
+
+        static final AtomicInteger WRITEABLE_CHECKS = new AtomicInteger();
+
+        private final MediaType mediaType;
+
+        protected BeanWriter(final MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            WRITEABLE_CHECKS.incrementAndGet();
+            return Bean.class.isAssignableFrom(type) && this.mediaType.isCompatible(mediaType);
+        }
+
+        @Override
+        public long getSize(Bean bean, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Bean bean, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write((this.mediaType.getSubtype() + ": " + type.getSimpleName() + " " + bean.value).getBytes());
+        }
+    }
+
+    @Produces("application/foo")
+    public static class FooBeanWriter extends BeanWriter {
+
+        public FooBeanWriter() {
+            super(new MediaType("application", "foo"));
+        }
+    }
+
+    @Produces("application/bar")
+    public static class BarBeanWriter extends BeanWriter {
+
+        public BarBeanWriter() {
+            super(new MediaType("application", "bar"));
+        }
+    }
+
+    @Consumes("text/plain")
+    public static class BeanReader implements MessageBodyReader<Bean> {
+
+        @Override
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == Bean.class;
+        }
+
+        @Override
+        public Bean readFrom(Class<Bean> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                             MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+                throws IOException, WebApplicationException {
+            return new Bean("read " + ReaderWriter.readFromAsString(entityStream, mediaType));
+        }
+    }
+
+    public static class BarInterceptor implements WriterInterceptor {
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+            context.setMediaType(new MediaType("application", "bar"));
+            context.proceed();
+        }
+    }
+
+    public static class PropertyNamesFilter implements ContainerResponseFilter {
+
+        @Override
+        public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+                throws IOException {
+            responseContext.getHeaders().putSingle("X-Property-Names", requestContext.getPropertyNames().toString());
+        }
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @POST
+        @Consumes("text/plain")
+        @Produces({"application/foo", "application/bar"})
+        public Bean post(final Bean bean) {
+            return bean;
+        }
+
+        @GET
+        @Path("sub")
+        @Produces("application/foo")
+        public Bean getSub() {
+            return new SubBean("sub");
+        }
+    }
+
+    private static String apply(final ApplicationHandler app, final ContainerRequest request) throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        app.apply(request, baos).get();
+        return baos.toString();
+    }
+
+    @Test
+    public void testBoundWorkers() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(
+                Resource.class, FooBeanWriter.class, BarBeanWriter.class, BeanReader.class));
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals("foo: Bean read content", apply(app, RequestContextBuilder.from("/", "POST")
+                    .entity("content").type(MediaType.TEXT_PLAIN_TYPE).accept("application/foo").build()));
+            assertEquals("bar: Bean read content", apply(app, RequestContextBuilder.from("/", "POST")
+                    .entity("content").type("text/plain;charset=UTF-8").accept("application/bar").build()));
+        }
+    }
+
+    @Test
+    public void testEntitySubclass() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(
+                Resource.class, FooBeanWriter.class, BarBeanWriter.class, BeanReader.class));
+
+        // entity class differs from the declared return type
+        assertEquals("foo: SubBean sub", apply(app, RequestContextBuilder.from("/sub", "GET").build()));
+    }
+
+    @Test
+    public void testMediaTypeChangedByInterceptor() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(
+                Resource.class, FooBeanWriter.class, BarBeanWriter.class, BeanReader.class, BarInterceptor.class));
+
+        assertEquals("bar: Bean read content", apply(app, RequestContextBuilder.from("/", "POST")
+                .entity("content").type(MediaType.TEXT_PLAIN_TYPE).accept("application/foo").build()));
+    }
+
+    @Test
+    public void testBoundWorkersNotExposedAsProperties() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(
+                Resource.class, FooBeanWriter.class, BarBeanWriter.class, BeanReader.class, PropertyNamesFilter.class));
+
+        final ContainerResponse response = app.apply(RequestContextBuilder.from("/", "POST")
+                .entity("content").type(MediaType.TEXT_PLAIN_TYPE).accept("application/foo").build()).get();
+        assertEquals(200, response.getStatus());
+        assertFalse(response.getHeaderString("X-Property-Names").contains("BoundMessageBodyWorker"));
+    }
+
+    @Test
+    public void testSelectionCachePopulatedAtStartup() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(
+                Resource.class, FooBeanWriter.class, BarBeanWriter.class, BeanReader.class));
+        final MessageBodyWorkers workers = app.getServiceLocator().getService(MessageBodyWorkers.class);
+        final Annotation[] annotations = Resource.class.getMethod("post", Bean.class).getDeclaredAnnotations();
+
+        BeanWriter.WRITEABLE_CHECKS.set(0);
+        assertTrue(workers.getMessageBodyWriter(Bean.class, Bean.class, annotations,
+                new MediaType("application", "bar")) instanceof BarBeanWriter);
+        // the writer has been selected during the application initialization already
+        assertEquals(0, BeanWriter.WRITEABLE_CHECKS.get());
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model.internal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.MethodHandler;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link GeneratedInvocationHandler} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class GeneratedInvocationHandlerTest {
+
+    public static class Target {
+
+        private int calls;
+
+        public String concat(final String prefix, final int count, final long suffix) {
+            calls++;
+            return prefix + count + suffix;
+        }
+
+        public void increment() {
+            calls++;
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+
+        public Object[] echo(final Object[] values, final boolean flag, final double d) {
+            return flag ? values : new Object[] {d};
+        }
+
+        public String fail(final String message) throws Exception {
+            throw new Exception(message);
+        }
+
+        public String cast(final Object value) {
+            return (String) value;
+        }
+    }
+
+    public static class SubTarget extends Target {
+
+        @Override
+        public int getCalls() {
+            return -1;
+        }
+    }
+
+    static class HiddenTarget {
+
+        public String get() {
+            return "hidden";
+        }
+    }
+
+    public static interface Api {
+
+        public String get();
+    }
+
+    public static class ApiImpl implements Api {
+
+        @Override
+        public String get() {
+            return "api";
+        }
+    }
+
+    private static InvocationHandler handler(final Class<?> type, final String name) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)) {
+                return GeneratedInvocationHandler.create(method);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static Method method(final Class<?> type, final String name) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    public void testInvoke() throws Throwable {
+        final Target target = new Target();
+
+        final Method concat = method(Target.class, "concat");
+        assertEquals("a1" + Long.MAX_VALUE, GeneratedInvocationHandler.create(concat)
+                .invoke(target, concat, new Object[] {"a", 1, Long.MAX_VALUE}));
+
+        final Method increment = method(Target.class, "increment");
+        assertNull(GeneratedInvocationHandler.create(increment).invoke(target, increment, null));
+
+        final Method getCalls = method(Target.class, "getCalls");
+        assertEquals(2, GeneratedInvocationHandler.create(getCalls).invoke(target, getCalls, new Object[0]));
+        assertEquals(-1, GeneratedInvocationHandler.create(getCalls).invoke(new SubTarget(), getCalls, new Object[0]));
+
+        final Method echo = method(Target.class, "echo");
+        final Object[] values = new Object[] {"x"};
+        assertSame(values, GeneratedInvocationHandler.create(echo).invoke(target, echo, new Object[] {values, true, 1d}));
+
+        final Method get = method(Api.class, "get");
+        assertEquals("api", GeneratedInvocationHandler.create(get).invoke(new ApiImpl(), get, new Object[0]));
+    }
+
+    @Test
+    public void testException() throws Throwable {
+        final Method fail = method(Target.class, "fail");
+        try {
+            GeneratedInvocationHandler.create(fail).invoke(new Target(), fail, new Object[] {"boom"});
+            fail("InvocationTargetException expected.");
+        } catch (InvocationTargetException ex) {
+            assertEquals(Exception.class, ex.getCause().getClass());
+            assertEquals("boom", ex.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testRuntimeException() throws Throwable {
+        final Method cast = method(Target.class, "cast");
+        try {
+            GeneratedInvocationHandler.create(cast).invoke(new Target(), cast, new Object[] {1});
+            fail("InvocationTargetException expected.");
+        } catch (InvocationTargetException ex) {
+            assertEquals(ClassCastException.class, ex.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testArgumentMismatch() throws Throwable {
+        final Target target = new Target();
+        final Method concat = method(Target.class, "concat");
+        final InvocationHandler handler = GeneratedInvocationHandler.create(concat);
+
+        // widening conversion of the primitive argument is performed by reflection
+        assertEquals("a12", handler.invoke(target, concat, new Object[] {"a", 1, 2}));
+        assertEquals(1, target.getCalls());
+
+        try {
+            handler.invoke(target, concat, new Object[] {1, 1, 2L});
+            fail("IllegalArgumentException expected.");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+        try {
+            handler.invoke(target, concat, new Object[] {"a", 1});
+            fail("IllegalArgumentException expected.");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+        assertEquals(1, target.getCalls());
+    }
+
+    @Test
+    public void testInvokerClassLoaderShared() throws Throwable {
+        final Field invoker = GeneratedInvocationHandler.class.getDeclaredField("invoker");
+        invoker.setAccessible(true);
+
+        final ClassLoader concatLoader = invoker.get(handler(Target.class, "concat")).getClass().getClassLoader();
+        final ClassLoader echoLoader = invoker.get(handler(Target.class, "echo")).getClass().getClassLoader();
+        assertSame(concatLoader, echoLoader);
+        assertSame(Target.class.getClassLoader(), concatLoader.getParent());
+    }
+
+    @Test
+    public void testReflectionFallback() throws Throwable {
+        assertNull(handler(HiddenTarget.class, "get"));
+
+        final Method concat = method(Target.class, "concat");
+        try {
+            // null primitive argument is rejected by reflection
+            GeneratedInvocationHandler.create(concat).invoke(new Target(), concat, new Object[] {"a", null, 1L});
+            fail("IllegalArgumentException expected.");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+
+        try {
+            // target of an unrelated type is rejected by reflection
+            GeneratedInvocationHandler.create(concat).invoke(new Object(), concat, new Object[] {"a", 1, 1L});
+            fail("IllegalArgumentException expected.");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+
+    @Path("resource")
+    public static class Resource {
+
+        @GET
+        public String get(@QueryParam("a") final int a, @QueryParam("b") final String b) {
+            return b + a;
+        }
+    }
+
+    @Test
+    public void testResourceMethodInvocation() throws Exception {
+        for (boolean disabled : new boolean[] {false, true}) {
+            final ApplicationHandler handler = new ApplicationHandler(new ResourceConfig(Resource.class)
+                    .property(ServerProperties.RESOURCE_METHOD_INVOKER_GENERATION_DISABLE, disabled));
+
+            final ContainerResponse response = handler.apply(
+                    RequestContextBuilder.from("/resource?a=5&b=x", "GET").build()).get();
+            assertEquals(200, response.getStatus());
+            assertEquals("x5", response.getEntity());
+
+            final InvocationHandler invocationHandler = handler.getServiceLocator()
+                    .getService(ResourceMethodInvocationHandlerFactory.class)
+                    .create(Invocable.create(MethodHandler.create(Resource.class), method(Resource.class, "get")));
+            assertNotNull(invocationHandler);
+            assertTrue(disabled != (invocationHandler instanceof GeneratedInvocationHandler));
+        }
+    }
+}
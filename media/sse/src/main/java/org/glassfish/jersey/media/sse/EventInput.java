@@ -39,8 +39,11 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -62,6 +65,12 @@ public class EventInput extends ChunkedInput<InboundEvent> {
      * SSE event chunk parser - SSE chunks are delimited with a fixed "\n\n" delimiter in the response stream.
      */
     private static final ChunkParser SSE_EVENT_PARSER = ChunkedInput.createParser("\n\n");
+    private static final Logger LOGGER = Logger.getLogger(EventInput.class.getName());
+
+    private final InboundEventParser eventParser;
+    private final Annotation[] annotations;
+    private final MultivaluedMap<String, String> headers;
+    private final MessageBodyWorkers messageBodyWorkers;
 
     /**
      * Package-private constructor used by the {@link org.glassfish.jersey.client.ChunkedInputReader}.
@@ -82,5 +91,52 @@ public class EventInput extends ChunkedInput<InboundEvent> {
         super(InboundEvent.class, inputStream, annotations, mediaType, headers, messageBodyWorkers, propertiesDelegate);
 
         super.setParser(SSE_EVENT_PARSER);
+
+        this.eventParser = new InboundEventParser(inputStream);
+        this.annotations = annotations;
+        this.headers = headers;
+        this.messageBodyWorkers = messageBodyWorkers;
+    }
+
+    /**
+     * Read next event from the response stream. The method returns {@code null}
+     * if the underlying entity input stream has been closed (either implicitly or explicitly
+     * by calling the {@link #close()} method).
+     * <p>
+     * Unless a custom {@link #setParser(ChunkParser) chunk parser} has been set, the events are parsed directly
+     * from the response entity stream using a buffered SSE parser, bypassing the chunk parser and the
+     * {@link javax.ws.rs.ext.MessageBodyReader} look-up for each event.
+     * </p>
+     * <p>
+     * Note: Access to internal event parser is not a thread-safe operation and has to be explicitly
+     * synchronized in case the event input is used from multiple threads.
+     * </p>
+     *
+     * @return next streamed event or {@code null} if the underlying entity input stream
+     *         has been closed while reading next event data.
+     * @throws IllegalStateException in case this event input has been closed.
+     */
+    @Override
+    public InboundEvent read() throws IllegalStateException {
+        if (getParser() != SSE_EVENT_PARSER) {
+            return super.read();
+        }
+
+        if (isClosed()) {
+            throw new IllegalStateException(LocalizationMessages.EVENT_INPUT_CLOSED());
+        }
+
+        try {
+            final InboundEvent.Builder eventBuilder =
+                    new InboundEvent.Builder(messageBodyWorkers, annotations, getChunkType(), headers);
+            if (eventParser.next(eventBuilder)) {
+                return eventBuilder.build();
+            }
+            close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, e.getMessage(), e);
+            close();
+        }
+        return null;
     }
 }
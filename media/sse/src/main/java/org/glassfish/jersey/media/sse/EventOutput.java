@@ -51,4 +51,20 @@ import org.glassfish.jersey.server.ChunkedOutput;
  */
 public class EventOutput extends ChunkedOutput<OutboundEvent> {
 
+    /**
+     * Create new outbound Server-Sent Events channel.
+     */
+    public EventOutput() {
+        super();
+    }
+
+    /**
+     * Create new outbound Server-Sent Events channel that coalesces events according to the flush policy.
+     *
+     * @param flushPolicy event flush policy. If {@code null}, every event is written as soon as possible.
+     * @since 2.4
+     */
+    public EventOutput(final FlushPolicy flushPolicy) {
+        super(flushPolicy);
+    }
 }
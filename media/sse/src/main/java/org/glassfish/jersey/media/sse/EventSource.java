@@ -47,10 +47,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -126,6 +128,14 @@ import org.glassfish.jersey.internal.util.ExtendedLogger;
  * HTTP connections, you may do so by invoking the {@link Builder#usePersistentConnections() usePersistentConnections()} method
  * on an event source builder prior to creating a new event source instance.
  * </p>
+ * <h3>Event source groups</h3>
+ * <p>
+ * By default, each event source uses its own thread to connect to the SSE endpoint and process the incoming events.
+ * Applications that use many event sources may {@link Builder#group(EventSourceGroup) build} the event sources in
+ * an {@link EventSourceGroup event source group} in order to share the executors and to apply a common reconnect
+ * policy with backoff and limits of the concurrent reconnects. A group does not multiplex the connections though:
+ * each connected event source still occupies a thread while it is reading the events.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -159,9 +169,13 @@ public class EventSource implements EventListener {
      */
     private final boolean disableKeepAlive;
     /**
-     * Incoming SSE event processing task executor.
+     * Event source group providing the incoming SSE event processing task executors.
+     */
+    private final EventSourceGroup group;
+    /**
+     * Flag indicating if the event source group has been created for this event source only.
      */
-    private final ScheduledExecutorService executor;
+    private final boolean privateGroup;
     /**
      * Event source internal state.
      */
@@ -174,6 +188,28 @@ public class EventSource implements EventListener {
      * A map of listeners bound to receive only events of a particular name.
      */
     private final ConcurrentMap<String, List<EventListener>> boundListeners = new ConcurrentHashMap<String, List<EventListener>>();
+    /**
+     * Last scheduled or submitted event processor task.
+     */
+    private volatile Future<?> pendingTask;
+    /**
+     * Event input of the current connection.
+     */
+    private volatile EventInput connectedInput;
+    /**
+     * Number of the running event processor tasks.
+     */
+    private int runningProcessors;
+    private final Object processorLock = new Object();
+    /**
+     * Event source statistics.
+     */
+    private final AtomicLong eventCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private volatile int consecutiveReconnectCount;
+    private volatile long lastEventTime;
+    private volatile long connectedTime;
+    private final EventSourceStatistics statistics = new Statistics();
 
     /**
      * Jersey {@link EventSource} builder class.
@@ -198,6 +234,7 @@ public class EventSource implements EventListener {
         private long reconnect = EventSource.RECONNECT_DEFAULT;
         private String name = null;
         private boolean disableKeepAlive = true;
+        private EventSourceGroup group = null;
 
         private Builder(final WebTarget endpoint) {
             this.endpoint = endpoint;
@@ -236,6 +273,28 @@ public class EventSource implements EventListener {
             return this;
         }
 
+        /**
+         * Build the event source in an {@link EventSourceGroup event source group}.
+         * <p>
+         * The event source will use the group executors instead of its own thread to connect to the SSE endpoint
+         * and process the incoming events, and will follow the group reconnect policy. Closing the group closes
+         * the event source.
+         * </p>
+         * <p>
+         * Building event sources in a group does not reduce the number of threads needed by the connected event
+         * sources: the events are read using a blocking I/O and each connected event source occupies a thread
+         * of the group executor for the whole duration of its connection.
+         * </p>
+         *
+         * @param group event source group.
+         * @return updated event source builder instance.
+         * @since 2.4
+         */
+        public Builder group(EventSourceGroup group) {
+            this.group = group;
+            return this;
+        }
+
         /**
          * Set the initial reconnect delay to be used by the event source.
          * <p>
@@ -271,7 +330,7 @@ public class EventSource implements EventListener {
          * @see #open()
          */
         public EventSource build() {
-            return new EventSource(endpoint, name, reconnect, disableKeepAlive, false);
+            return new EventSource(endpoint, name, reconnect, disableKeepAlive, group, false);
         }
 
         /**
@@ -292,7 +351,7 @@ public class EventSource implements EventListener {
          */
         public EventSource open() {
             // opening directly in the constructor is just plain ugly...
-            final EventSource source = new EventSource(endpoint, name, reconnect, disableKeepAlive, false);
+            final EventSource source = new EventSource(endpoint, name, reconnect, disableKeepAlive, group, false);
             source.open();
             return source;
         }
@@ -363,13 +422,14 @@ public class EventSource implements EventListener {
      * @throws NullPointerException in case the supplied web target is {@code null}.
      */
     public EventSource(final WebTarget endpoint, final boolean open) {
-        this(endpoint, null, RECONNECT_DEFAULT, true, open);
+        this(endpoint, null, RECONNECT_DEFAULT, true, null, open);
     }
 
     private EventSource(final WebTarget target,
                         final String name,
                         final long reconnectDelay,
                         final boolean disableKeepAlive,
+                        final EventSourceGroup group,
                         final boolean open) {
         if (target == null) {
             throw new NullPointerException("Web target is 'null'.");
@@ -378,13 +438,20 @@ public class EventSource implements EventListener {
         this.reconnectDelay = reconnectDelay;
         this.disableKeepAlive = disableKeepAlive;
 
-        final String esName = (name == null) ? createDefaultName(target) : name;
-        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
-            @Override
-            public Thread newThread(Runnable r) {
-                return new Thread(r, esName);
-            }
-        });
+        if (group == null) {
+            final String esName = (name == null) ? createDefaultName(target) : name;
+            this.group = EventSourceGroup.createPrivate(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    return new Thread(r, esName);
+                }
+            });
+            this.privateGroup = true;
+        } else {
+            group.add(this);
+            this.group = group;
+            this.privateGroup = false;
+        }
 
         if (open) {
             open();
@@ -412,12 +479,43 @@ public class EventSource implements EventListener {
         }
 
         EventProcessor processor = new EventProcessor(reconnectDelay, null);
-        executor.submit(processor);
+        submit(processor, 0);
 
         // return only after the first request to the SSE endpoint has been made
         processor.awaitFirstContact();
     }
 
+    private void submit(final EventProcessor processor, final long delay) {
+        try {
+            if (delay > 0) {
+                pendingTask = group.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isOpen()) {
+                            submit(processor, 0);
+                        }
+                    }
+                }, delay);
+            } else {
+                pendingTask = group.submit(processor);
+            }
+        } catch (RejectedExecutionException ex) {
+            // executors shut down - the event source is being closed
+            LOGGER.log(CONNECTION_ERROR_LEVEL, ex.getMessage(), ex);
+            shutdown();
+        }
+    }
+
+    /**
+     * Get the event source statistics.
+     *
+     * @return event source statistics.
+     * @since 2.4
+     */
+    public EventSourceStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * Check if this event source instance has already been {@link #open() opened}.
      *
@@ -524,7 +622,7 @@ public class EventSource implements EventListener {
     public boolean close(final long timeout, final TimeUnit unit) {
         shutdown();
         try {
-            if (!executor.awaitTermination(timeout, unit)) {
+            if (!awaitTermination(timeout, unit)) {
                 LOGGER.log(CONNECTION_ERROR_LEVEL,
                         LocalizationMessages.EVENT_SOURCE_SHUTDOWN_TIMEOUT(target.getUri().toString()));
                 return false;
@@ -538,11 +636,81 @@ public class EventSource implements EventListener {
         return true;
     }
 
+    private boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (privateGroup) {
+            return group.awaitTermination(timeout, unit);
+        }
+
+        final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        synchronized (processorLock) {
+            while (runningProcessors > 0) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                processorLock.wait(remaining);
+            }
+        }
+        return true;
+    }
+
     private void shutdown() {
         if (state.getAndSet(State.CLOSED) != State.CLOSED) {
             // shut down only if has not been shut down before
             LOGGER.debugLog("Shutting down event processing.");
-            executor.shutdownNow();
+            if (privateGroup) {
+                group.shutdown();
+            } else {
+                group.remove(this);
+                final Future<?> task = pendingTask;
+                if (task != null) {
+                    task.cancel(true);
+                }
+                final EventInput input = connectedInput;
+                if (input != null) {
+                    // unblock the event processor reading the events
+                    input.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Event source statistics view.
+     */
+    private class Statistics implements EventSourceStatistics {
+        @Override
+        public boolean isConnected() {
+            return connectedInput != null;
+        }
+
+        @Override
+        public long getEventCount() {
+            return eventCount.get();
+        }
+
+        @Override
+        public long getReconnectCount() {
+            return reconnectCount.get();
+        }
+
+        @Override
+        public int getConsecutiveReconnectCount() {
+            return consecutiveReconnectCount;
+        }
+
+        @Override
+        public long getLastEventTime() {
+            return lastEventTime;
+        }
+
+        @Override
+        public long getLag(final TimeUnit unit) {
+            if (connectedInput == null) {
+                return 0;
+            }
+            final long since = Math.max(lastEventTime, connectedTime);
+            return unit.convert(Math.max(0, System.currentTimeMillis() - since), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -586,6 +754,26 @@ public class EventSource implements EventListener {
         public void run() {
             LOGGER.debugLog("Listener task started.");
 
+            synchronized (processorLock) {
+                runningProcessors++;
+            }
+            try {
+                final boolean permitted = state.get() == State.OPEN;
+                if (permitted && !group.tryStartReconnect()) {
+                    LOGGER.debugLog("Concurrent reconnects limit reached - postponing the connection attempt.");
+                    submit(this, group.getReconnectPermitRetryDelay());
+                    return;
+                }
+                process(permitted);
+            } finally {
+                synchronized (processorLock) {
+                    runningProcessors--;
+                    processorLock.notifyAll();
+                }
+            }
+        }
+
+        private void process(final boolean permitted) {
             EventInput eventInput = null;
             try {
                 try {
@@ -593,9 +781,13 @@ public class EventSource implements EventListener {
                     if (state.get() == State.OPEN) { // attempt to connect only if even source is open
                         LOGGER.debugLog("Connecting...");
                         eventInput = request.get(EventInput.class);
+                        connected(eventInput);
                         LOGGER.debugLog("Connected!");
                     }
                 } finally {
+                    if (permitted) {
+                        group.finishReconnect();
+                    }
                     if (firstContactSignal != null) {
                         // release the signal regardless of event source state or connection request outcome
                         firstContactSignal.countDown();
@@ -633,6 +825,7 @@ public class EventSource implements EventListener {
                 // if we're here, an unrecoverable error has occurred - just turn off the lights...
                 EventSource.this.shutdown();
             } finally {
+                connectedInput = null;
                 if (eventInput != null && !eventInput.isClosed()) {
                     eventInput.close();
                 }
@@ -640,6 +833,15 @@ public class EventSource implements EventListener {
             }
         }
 
+        private void connected(final EventInput eventInput) {
+            connectedTime = System.currentTimeMillis();
+            connectedInput = eventInput;
+            if (state.get() != State.OPEN && !privateGroup) {
+                // closed concurrently - make sure the event input does not block the processor
+                eventInput.close();
+            }
+        }
+
         /**
          * Called by the event source when an inbound event is received.
          *
@@ -656,6 +858,10 @@ public class EventSource implements EventListener {
 
             LOGGER.debugLog("New event received.");
 
+            eventCount.incrementAndGet();
+            lastEventTime = System.currentTimeMillis();
+            consecutiveReconnectCount = 0;
+
             if (event.getId() != null) {
                 lastEventId = event.getId();
             }
@@ -712,13 +918,11 @@ public class EventSource implements EventListener {
                 return;
             }
 
+            reconnectCount.incrementAndGet();
+            final long effectiveDelay = group.getReconnectDelay(delay, ++consecutiveReconnectCount);
+
             // propagate the current reconnectDelay, but schedule based on the delay parameter
-            final EventProcessor processor = new EventProcessor(this);
-            if (delay > 0) {
-                executor.schedule(processor, delay, TimeUnit.MILLISECONDS);
-            } else {
-                executor.submit(processor);
-            }
+            submit(new EventProcessor(this), effectiveDelay);
         }
 
         private Invocation.Builder prepareHandshakeRequest() {
@@ -743,7 +947,10 @@ public class EventSource implements EventListener {
                 }
 
                 try {
-                    firstContactSignal.await();
+                    // stop waiting if the event source gets closed before the first contact is made
+                    while (!firstContactSignal.await(100, TimeUnit.MILLISECONDS) && state.get() == State.OPEN) {
+                        // keep waiting
+                    }
                 } catch (InterruptedException ex) {
                     LOGGER.log(CONNECTION_ERROR_LEVEL, LocalizationMessages.EVENT_SOURCE_OPEN_CONNECTION_INTERRUPTED(), ex);
                     Thread.currentThread().interrupt();
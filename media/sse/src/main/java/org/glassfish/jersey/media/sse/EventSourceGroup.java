@@ -0,0 +1,465 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group of {@link EventSource event sources} sharing the same executors and reconnect policy.
+ * <p>
+ * By default, each event source uses its own single-threaded executor to connect, reconnect and process
+ * the incoming events. Event sources {@link EventSource.Builder#group(EventSourceGroup) built in a group} share
+ * the group executors instead:
+ * <ul>
+ * <li>a scheduler, that is used to time the reconnect attempts (a single thread by default), and</li>
+ * <li>an executor, that is used to connect to the SSE endpoints and to read the incoming events. The default
+ * executor creates the threads on demand and releases the threads that are idle for a minute, so that the event
+ * sources waiting for a reconnect do not occupy any thread.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Note that a group does not multiplex the connections of its event sources. The events are read using a blocking
+ * I/O, so each <em>connected</em> event source still occupies one executor thread for as long as its connection is open,
+ * even if no events arrive. A group of N connected event sources thus needs N threads, the same as N event sources
+ * outside of a group; the group only saves the per-source scheduling threads and the threads of the event sources
+ * waiting for a reconnect, and coordinates the reconnects. Limiting the size of a custom
+ * {@link Builder#executor(ExecutorService) executor} below the number of connected event sources makes the event
+ * sources over the limit wait for a thread instead of reading their events.
+ * </p>
+ * <p>
+ * The group also applies a common reconnect policy to all its event sources. The reconnect delay of an event
+ * source (either the {@link EventSource.Builder#reconnectingEvery(long, java.util.concurrent.TimeUnit) configured}
+ * one or the one received from the SSE endpoint) is doubled with each consecutive reconnect attempt, up to the
+ * {@link Builder#maxReconnectDelay(long, java.util.concurrent.TimeUnit) maximum reconnect delay}, and randomized
+ * to spread the reconnect attempts of the event sources in time. The effective delay is never shorter than
+ * the reconnect delay of the event source. The number of the concurrently running connection
+ * attempts can be {@link Builder#maxConcurrentReconnects(int) limited}; the attempts over the limit are postponed.
+ * </p>
+ * <p>
+ * Instances of this class are thread safe.
+ * </p>
+ *
+ * @author agent (agent at local)
+ * @since 2.4
+ */
+public class EventSourceGroup {
+
+    /**
+     * Default maximum reconnect delay in milliseconds.
+     */
+    public static final long MAX_RECONNECT_DELAY_DEFAULT = 30000;
+    /**
+     * Delay [milliseconds] after which a connection attempt postponed due to the concurrent reconnects limit is retried.
+     */
+    private static final long RECONNECT_PERMIT_RETRY_DELAY = 100;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final boolean ownsScheduler;
+    private final boolean ownsExecutor;
+    private final boolean backoff;
+    private final long maxReconnectDelay;
+    private final int maxConcurrentReconnects;
+
+    private final AtomicInteger runningReconnects = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final List<EventSource> sources = new CopyOnWriteArrayList<EventSource>();
+    private final Random random = new Random();
+
+    /**
+     * {@link EventSourceGroup} builder.
+     *
+     * @since 2.4
+     */
+    public static class Builder {
+        private String name = "jersey-sse-event-source-group";
+        private ScheduledExecutorService scheduler;
+        private ExecutorService executor;
+        private long maxReconnectDelay = MAX_RECONNECT_DELAY_DEFAULT;
+        private int maxConcurrentReconnects = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * Set a custom name for the event source group. The name is used as a prefix of the names of the threads
+         * created by the default group executors.
+         *
+         * @param name custom event source group name.
+         * @return updated builder instance.
+         */
+        public Builder named(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Set a custom scheduler to be used to time the reconnect attempts of the event sources in the group.
+         * <p>
+         * The custom scheduler is not shut down when the group is {@link EventSourceGroup#close() closed}.
+         * </p>
+         *
+         * @param scheduler custom scheduler.
+         * @return updated builder instance.
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Set a custom executor to be used to connect the event sources in the group and to read the incoming
+         * events. Note that a thread of the executor is occupied by each connected event source for the whole
+         * duration of its connection, the executor needs to provide as many threads as there are connected
+         * event sources.
+         * <p>
+         * The custom executor is not shut down when the group is {@link EventSourceGroup#close() closed}.
+         * </p>
+         *
+         * @param executor custom executor.
+         * @return updated builder instance.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the maximum delay of a reconnect attempt. The default value is
+         * {@value EventSourceGroup#MAX_RECONNECT_DELAY_DEFAULT} ms.
+         *
+         * @param delay maximum reconnect delay.
+         * @param unit  time unit of the delay parameter.
+         * @return updated builder instance.
+         */
+        public Builder maxReconnectDelay(long delay, TimeUnit unit) {
+            this.maxReconnectDelay = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of the concurrently running connection attempts. Zero (the default value) means
+         * the number of the concurrent connection attempts is not limited.
+         *
+         * @param maxConcurrentReconnects maximum number of the concurrent connection attempts.
+         * @return updated builder instance.
+         */
+        public Builder maxConcurrentReconnects(int maxConcurrentReconnects) {
+            this.maxConcurrentReconnects = maxConcurrentReconnects;
+            return this;
+        }
+
+        /**
+         * Build new event source group.
+         *
+         * @return new event source group.
+         */
+        public EventSourceGroup build() {
+            final ScheduledExecutorService groupScheduler = scheduler != null ? scheduler :
+                    Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(name + "-scheduler"));
+            final ExecutorService groupExecutor = executor != null ? executor :
+                    new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                            new SynchronousQueue<Runnable>(), new DaemonThreadFactory(name));
+            return new EventSourceGroup(groupScheduler, groupExecutor, scheduler == null, executor == null,
+                    true, maxReconnectDelay, maxConcurrentReconnects);
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Create a new {@link EventSourceGroup.Builder event source group builder}.
+     *
+     * @return new event source group builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a private group of a single event source, using a single-threaded executor both to schedule
+     * the reconnect attempts and to read the events, with no reconnect backoff or limits.
+     *
+     * @param threadFactory thread factory of the event source thread.
+     * @return new private event source group.
+     */
+    static EventSourceGroup createPrivate(final ThreadFactory threadFactory) {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        return new EventSourceGroup(executor, executor, true, true, false, 0, 0);
+    }
+
+    private EventSourceGroup(final ScheduledExecutorService scheduler,
+                             final ExecutorService executor,
+                             final boolean ownsScheduler,
+                             final boolean ownsExecutor,
+                             final boolean backoff,
+                             final long maxReconnectDelay,
+                             final int maxConcurrentReconnects) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.ownsScheduler = ownsScheduler;
+        this.ownsExecutor = ownsExecutor;
+        this.backoff = backoff;
+        this.maxReconnectDelay = maxReconnectDelay;
+        this.maxConcurrentReconnects = maxConcurrentReconnects;
+    }
+
+    /**
+     * Get the event sources of the group.
+     *
+     * @return event sources built in the group and not closed yet.
+     */
+    public List<EventSource> getEventSources() {
+        return Collections.unmodifiableList(new ArrayList<EventSource>(sources));
+    }
+
+    /**
+     * Get the number of the currently running connection attempts of the event sources in the group.
+     *
+     * @return number of the running connection attempts.
+     */
+    public int getRunningReconnectCount() {
+        return runningReconnects.get();
+    }
+
+    /**
+     * Close all the event sources in the group and shut down the group executors, unless they have been
+     * supplied by the user.
+     *
+     * The method will wait up to 5 seconds for the event processing tasks of the event sources to complete.
+     */
+    public void close() {
+        close(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Close all the event sources in the group and shut down the group executors, unless they have been
+     * supplied by the user. The method waits for the event processing tasks of the event sources to complete
+     * for up to the specified amount of wait time.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the time unit of the timeout argument.
+     * @return {@code true} if the event processing tasks completed and {@code false} if the timeout elapsed
+     *         before their completion or the waiting was interrupted.
+     */
+    public boolean close(final long timeout, final TimeUnit unit) {
+        if (!closed.compareAndSet(false, true)) {
+            return true;
+        }
+
+        final List<EventSource> closing = new ArrayList<EventSource>(sources);
+        for (EventSource source : closing) {
+            // initiate the shutdown of all the sources first
+            source.close(0, TimeUnit.MILLISECONDS);
+        }
+        final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        boolean completed = true;
+        for (EventSource source : closing) {
+            completed &= source.close(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+        shutdown();
+        return completed;
+    }
+
+    /**
+     * Check if the group has been closed.
+     *
+     * @return {@code true} if the group has been closed, {@code false} otherwise.
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Shut down the executors owned by the group.
+     */
+    void shutdown() {
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+        if (ownsExecutor && executor != scheduler) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Await termination of the executors owned by the group.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the time unit of the timeout argument.
+     * @return {@code true} if the executors terminated, {@code false} if the timeout elapsed before termination.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Add a new event source to the group.
+     *
+     * @param source event source built in the group.
+     * @throws IllegalStateException in case the group has been closed.
+     */
+    void add(final EventSource source) throws IllegalStateException {
+        if (closed.get()) {
+            throw new IllegalStateException(LocalizationMessages.EVENT_SOURCE_GROUP_CLOSED());
+        }
+        sources.add(source);
+    }
+
+    /**
+     * Remove a closed event source from the group.
+     *
+     * @param source closed event source.
+     */
+    void remove(final EventSource source) {
+        sources.remove(source);
+    }
+
+    /**
+     * Submit an event source task for execution.
+     *
+     * @param task event source task.
+     * @return future of the task.
+     */
+    Future<?> submit(final Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Schedule an event source task for execution after the given delay.
+     *
+     * @param task  event source task.
+     * @param delay delay in milliseconds.
+     * @return future of the scheduled task.
+     */
+    Future<?> schedule(final Runnable task, final long delay) {
+        return scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Compute the delay of a reconnect attempt.
+     *
+     * @param delay    reconnect delay of the event source in milliseconds.
+     * @param attempts number of the consecutive reconnect attempts including the computed one.
+     * @return reconnect delay in milliseconds.
+     */
+    long getReconnectDelay(final long delay, final int attempts) {
+        if (!backoff || delay <= 0) {
+            return delay;
+        }
+
+        final long max = Math.max(delay, maxReconnectDelay);
+        long backoffDelay = delay;
+        for (int i = 1; i < attempts && backoffDelay < max; i++) {
+            backoffDelay *= 2;
+        }
+        backoffDelay = Math.min(backoffDelay, max);
+
+        // randomize the second half of the delay, but never go below the event source reconnect delay
+        final long half = backoffDelay / 2;
+        return Math.max(delay, half + (long) (random.nextDouble() * (backoffDelay - half)));
+    }
+
+    /**
+     * Get the delay after which a postponed connection attempt is retried.
+     *
+     * @return retry delay in milliseconds.
+     */
+    long getReconnectPermitRetryDelay() {
+        return RECONNECT_PERMIT_RETRY_DELAY + random.nextInt((int) RECONNECT_PERMIT_RETRY_DELAY);
+    }
+
+    /**
+     * Try to start a new connection attempt.
+     *
+     * @return {@code true} if the connection attempt may proceed, {@code false} if it has to be postponed
+     *         due to the concurrent reconnects limit.
+     */
+    boolean tryStartReconnect() {
+        if (maxConcurrentReconnects <= 0) {
+            runningReconnects.incrementAndGet();
+            return true;
+        }
+        int running;
+        do {
+            running = runningReconnects.get();
+            if (running >= maxConcurrentReconnects) {
+                return false;
+            }
+        } while (!runningReconnects.compareAndSet(running, running + 1));
+        return true;
+    }
+
+    /**
+     * Finish a connection attempt started by {@link #tryStartReconnect()}.
+     */
+    void finishReconnect() {
+        runningReconnects.decrementAndGet();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of an {@link EventSource event source}.
+ *
+ * @author agent (agent at local)
+ * @see EventSource#getStatistics()
+ * @since 2.4
+ */
+public interface EventSourceStatistics {
+
+    /**
+     * Check if the event source is currently connected to the SSE endpoint.
+     *
+     * @return {@code true} if the event source is connected, {@code false} otherwise.
+     */
+    public boolean isConnected();
+
+    /**
+     * Get the number of the received events.
+     *
+     * @return number of the received events.
+     */
+    public long getEventCount();
+
+    /**
+     * Get the number of the reconnect attempts scheduled by the event source.
+     *
+     * @return number of the reconnect attempts.
+     */
+    public long getReconnectCount();
+
+    /**
+     * Get the number of the reconnect attempts scheduled since the last event has been received.
+     *
+     * @return number of the consecutive reconnect attempts.
+     */
+    public int getConsecutiveReconnectCount();
+
+    /**
+     * Get the time the last event has been received.
+     *
+     * @return time of the last received event in milliseconds since the epoch, or {@code 0} if no event
+     *         has been received yet.
+     */
+    public long getLastEventTime();
+
+    /**
+     * Get the event source lag, i.e. the time elapsed since the last event has been received or, if no event has
+     * been received over the current connection yet, since the connection has been established.
+     *
+     * @param unit time unit of the returned value.
+     * @return event source lag or {@code 0} if the event source is not connected.
+     */
+    public long getLag(TimeUnit unit);
+}
@@ -61,6 +61,7 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
  */
 public class InboundEvent {
     private static final GenericType<String> STRING_AS_GENERIC_TYPE = new GenericType<String>(String.class);
+    private static final byte[] EMPTY_DATA = new byte[0];
 
     private final String name;
     private final String id;
@@ -79,7 +80,8 @@ public class InboundEvent {
         private String name;
         private String id;
         private long reconnectDelay = SseFeature.RECONNECT_NOT_SET;
-        private final ByteArrayOutputStream dataStream;
+        private ByteArrayOutputStream dataStream;
+        private byte[] data;
 
         private final MessageBodyWorkers workers;
         private final Annotation[] annotations;
@@ -105,8 +107,6 @@ public class InboundEvent {
             this.annotations = annotations;
             this.mediaType = mediaType;
             this.headers = headers;
-
-            this.dataStream = new ByteArrayOutputStream();
         }
 
         /**
@@ -165,6 +165,13 @@ public class InboundEvent {
             }
 
             try {
+                if (dataStream == null) {
+                    dataStream = new ByteArrayOutputStream();
+                    if (this.data != null) {
+                        dataStream.write(this.data);
+                        this.data = null;
+                    }
+                }
                 this.dataStream.write(data);
             } catch (IOException ex) {
                 // ignore - this is not possible with ByteArrayOutputStream
@@ -172,6 +179,22 @@ public class InboundEvent {
             return this;
         }
 
+        /**
+         * Set the inbound event data, replacing any data added before.
+         * <p>
+         * The data array is used directly as the event data, without copying. The caller must not modify
+         * the array once it has been passed to the builder.
+         * </p>
+         *
+         * @param data byte array containing data stored in the incoming event.
+         * @return updated builder instance.
+         */
+        Builder data(byte[] data) {
+            this.data = data;
+            this.dataStream = null;
+            return this;
+        }
+
         /**
          * Build a new inbound event instance using the supplied data.
          *
@@ -182,7 +205,7 @@ public class InboundEvent {
                     name,
                     id,
                     reconnectDelay,
-                    dataStream.toByteArray(),
+                    dataStream != null ? dataStream.toByteArray() : (data != null ? data : EMPTY_DATA),
                     workers,
                     annotations,
                     mediaType,
@@ -350,7 +373,7 @@ public class InboundEvent {
                     annotations,
                     effectiveMediaType,
                     headers,
-                    new ByteArrayInputStream(stripLastLineBreak(data)));
+                    new ByteArrayInputStream(data, 0, dataLength(data)));
         } catch (IOException ex) {
             throw new ProcessingException(ex);
         }
@@ -431,17 +454,17 @@ public class InboundEvent {
     }
 
     /**
-     * String last line break from data. (Last line-break should not be considered as part of received data).
+     * Get length of the data without the last line break. (Last line-break should not be considered as part of
+     * received data).
      *
      * @param data data
-     * @return updated byte array.
+     * @return length of the data without the last line break.
      */
-    private static byte[] stripLastLineBreak(final byte[] data) {
-
+    private static int dataLength(final byte[] data) {
         if (data.length > 0 && data[data.length - 1] == '\n') {
-            return Arrays.copyOf(data, data.length - 1);
+            return data.length - 1;
         }
 
-        return data;
+        return data.length;
     }
 }
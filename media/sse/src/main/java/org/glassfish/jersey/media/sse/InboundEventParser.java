@@ -0,0 +1,294 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Buffered Server-Sent Events parser.
+ * <p>
+ * The parser reads the entity stream in blocks, scans the blocks for line terminators ({@code CRLF}, {@code LF}
+ * or {@code CR}) and processes the event fields directly from the read buffer; only lines spanning the read buffer
+ * boundary are copied to an auxiliary line buffer. Both buffers as well as the event data buffer are reused across
+ * the parsed events, so that the only per-event copy is the final event data byte array.
+ * </p>
+ * <p>
+ * Parsing is based on the <a href="http://dev.w3.org/html5/eventsource/">Server-Sent Events specification</a>.
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+final class InboundEventParser {
+
+    private static final Logger LOGGER = Logger.getLogger(InboundEventParser.class.getName());
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] DATA_FIELD = {'d', 'a', 't', 'a'};
+    private static final byte[] EVENT_FIELD = {'e', 'v', 'e', 'n', 't'};
+    private static final byte[] ID_FIELD = {'i', 'd'};
+    private static final byte[] RETRY_FIELD = {'r', 'e', 't', 'r', 'y'};
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean skipLf;
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private byte[] data = new byte[1024];
+    private int dataLength;
+
+    /**
+     * Create new parser reading the events from the input stream.
+     *
+     * @param in input stream.
+     */
+    InboundEventParser(final InputStream in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    /**
+     * Create new parser reading the events from the input stream.
+     *
+     * @param in         input stream.
+     * @param bufferSize size of the read buffer.
+     */
+    InboundEventParser(final InputStream in, final int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Parse the next event from the input stream.
+     * <p>
+     * The method blocks until an event is terminated by an empty line or until the end of the stream is reached.
+     * Empty lines that do not terminate any event lines are skipped.
+     * </p>
+     *
+     * @param builder builder of the parsed event.
+     * @return {@code true} if an event has been parsed into the builder, {@code false} if the end of the stream
+     *         has been reached without reading any event line.
+     * @throws IOException in case of reading the input stream failed.
+     */
+    boolean next(final InboundEvent.Builder builder) throws IOException {
+        dataLength = 0;
+        lineLength = 0;
+        boolean eventLines = false;
+
+        int start = position;
+        while (true) {
+            if (position == limit) {
+                appendLine(start, position);
+                if (!fill()) {
+                    if (lineLength > 0) {
+                        processLine(line, 0, lineLength, builder);
+                        lineLength = 0;
+                        eventLines = true;
+                    }
+                    break;
+                }
+                start = position;
+            }
+
+            if (skipLf) {
+                skipLf = false;
+                if (buffer[position] == '\n') {
+                    start = ++position;
+                    continue;
+                }
+            }
+
+            // scan for the line terminator
+            byte b = 0;
+            while (position < limit && (b = buffer[position]) != '\n' && b != '\r') {
+                position++;
+            }
+            if (position == limit) {
+                continue;
+            }
+
+            final byte[] lineBytes;
+            final int lineOffset;
+            final int length;
+            if (lineLength > 0) {
+                // line spanning the read buffer boundary
+                appendLine(start, position);
+                lineBytes = line;
+                lineOffset = 0;
+                length = lineLength;
+                lineLength = 0;
+            } else {
+                lineBytes = buffer;
+                lineOffset = start;
+                length = position - start;
+            }
+            position++;
+            skipLf = b == '\r';
+
+            if (length == 0) {
+                if (eventLines) {
+                    break;
+                }
+            } else {
+                processLine(lineBytes, lineOffset, length, builder);
+                eventLines = true;
+            }
+            start = position;
+        }
+
+        if (dataLength > 0) {
+            builder.data(Arrays.copyOf(data, dataLength));
+        }
+        return eventLines;
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void appendLine(final int from, final int to) {
+        final int length = to - from;
+        if (length > 0) {
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            }
+            System.arraycopy(buffer, from, line, lineLength, length);
+            lineLength += length;
+        }
+    }
+
+    private void appendData(final byte[] bytes, final int offset, final int length) {
+        if (dataLength + length + 1 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + length + 1));
+        }
+        System.arraycopy(bytes, offset, data, dataLength, length);
+        dataLength += length;
+        data[dataLength++] = '\n';
+    }
+
+    private void processLine(final byte[] bytes, final int offset, final int length, final InboundEvent.Builder builder) {
+        if (bytes[offset] == ':') {
+            // comment
+            return;
+        }
+
+        final int end = offset + length;
+        int nameEnd = offset;
+        while (nameEnd < end && bytes[nameEnd] != ':') {
+            nameEnd++;
+        }
+        int valueStart = nameEnd < end ? nameEnd + 1 : end;
+        if (valueStart < end && bytes[valueStart] == ' ') {
+            // first space in value has to be skipped
+            valueStart++;
+        }
+        final int nameLength = nameEnd - offset;
+        final int valueLength = end - valueStart;
+
+        if (equals(DATA_FIELD, bytes, offset, nameLength)) {
+            appendData(bytes, valueStart, valueLength);
+        } else if (equals(EVENT_FIELD, bytes, offset, nameLength)) {
+            builder.name(new String(bytes, valueStart, valueLength, UTF8));
+        } else if (equals(ID_FIELD, bytes, offset, nameLength)) {
+            builder.id(new String(bytes, valueStart, valueLength, UTF8));
+        } else if (equals(RETRY_FIELD, bytes, offset, nameLength)) {
+            final long delay = parseDelay(bytes, valueStart, valueLength);
+            if (delay >= 0) {
+                builder.reconnectDelay(delay);
+            } else if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(LocalizationMessages.IN_EVENT_RETRY_PARSE_ERROR(
+                        new String(bytes, valueStart, valueLength, UTF8)));
+            }
+        } else if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(LocalizationMessages.IN_EVENT_FIELD_NOT_RECOGNIZED(
+                    new String(bytes, offset, nameLength, UTF8), new String(bytes, valueStart, valueLength, UTF8)));
+        }
+    }
+
+    private static boolean equals(final byte[] field, final byte[] bytes, final int offset, final int length) {
+        if (field.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (field[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the reconnection delay consisting of ASCII digits only.
+     *
+     * @return parsed delay or {@code -1} if the value is not a valid delay.
+     */
+    private static long parseDelay(final byte[] bytes, final int offset, final int length) {
+        if (length == 0 || length > 18) {
+            return -1;
+        }
+        long delay = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            delay = delay * 10 + digit;
+        }
+        return delay;
+    }
+}
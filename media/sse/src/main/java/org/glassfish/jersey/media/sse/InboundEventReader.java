@@ -39,14 +39,10 @@
  */
 package org.glassfish.jersey.media.sse;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import javax.ws.rs.ConstrainedTo;
 import javax.ws.rs.RuntimeType;
@@ -62,23 +58,19 @@ import org.glassfish.jersey.message.MessageBodyWorkers;
 
 /**
  * Client-side single inbound Server-Sent Event reader.
+ * <p>
+ * Note that unless a custom {@link org.glassfish.jersey.client.ChunkParser chunk parser} is set, the {@link EventInput}
+ * parses the events directly from the response entity stream
+ * and does not use this reader.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 @ConstrainedTo(RuntimeType.CLIENT)
 class InboundEventReader implements MessageBodyReader<InboundEvent> {
-    private static final Logger LOGGER = Logger.getLogger(InboundEventReader.class.getName());
-    private static final byte[] EOL_DATA = new byte[]{'\n'};
-
     @Inject
     private Provider<MessageBodyWorkers> messageBodyWorkers;
 
-    private static enum State {
-        NEW_LINE,
-        COMMENT,
-        FIELD,
-    }
-
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return InboundEvent.class.equals(type) && SseFeature.SERVER_SENT_EVENTS_TYPE.isCompatible(mediaType);
@@ -91,111 +83,9 @@ class InboundEventReader implements MessageBodyReader<InboundEvent> {
                                  MediaType mediaType,
                                  MultivaluedMap<String, String> headers,
                                  InputStream entityStream) throws IOException, WebApplicationException {
-        /**
-         * SSE Event parsing based on:
-         *
-         * http://dev.w3.org/html5/eventsource/
-         * last editors draft from 13 March 2012
-         */
-        final ByteArrayOutputStream tokenData = new ByteArrayOutputStream();
-        InboundEvent.Builder eventBuilder = new InboundEvent.Builder(messageBodyWorkers.get(), annotations, mediaType, headers);
-
-        int b = -1;
-        State currentState = State.NEW_LINE;
-        loop:
-        do {
-            switch (currentState) {
-                case NEW_LINE:
-                    b = entityStream.read();
-                    if (b == '\n' || b == -1) {
-                        break loop;
-                    }
-
-                    if (b == ':') {
-                        currentState = State.COMMENT;
-                    } else {
-                        tokenData.write(b);
-                        currentState = State.FIELD;
-                    }
-                    break;
-                case COMMENT:
-                    // skipping comment data
-                    b = readLineUntil(entityStream, '\n', null);
-                    currentState = State.NEW_LINE;
-                    break;
-                case FIELD:
-                    // read field name
-                    b = readLineUntil(entityStream, ':', tokenData);
-                    final String fieldName = tokenData.toString();
-                    tokenData.reset();
-
-                    if (b == ':') {
-                        // read field value
-                        b = entityStream.read();
-                        if (b == ' ') {
-                            // first space in value has to be skipped
-                            b = entityStream.read();
-                        }
-
-                        if (b != '\n' && b != -1) {
-                            tokenData.write(b);
-                            b = readLineUntil(entityStream, '\n', tokenData);
-                        }
-                    }
-
-                    processField(eventBuilder, fieldName, tokenData.toByteArray());
-                    tokenData.reset();
-
-                    currentState = State.NEW_LINE;
-                    break;
-            }
-        } while (b != -1);
-
+        final InboundEvent.Builder eventBuilder =
+                new InboundEvent.Builder(messageBodyWorkers.get(), annotations, mediaType, headers);
+        new InboundEventParser(entityStream).next(eventBuilder);
         return eventBuilder.build();
     }
-
-    /**
-     * Read input stream until a delimiter or {@code EOL ('\n')} or {@code EOF} is reached
-     * and write the read data to the supplied output stream if not {@code null}, or discard
-     * the data if the output stream is {@code null}.
-     *
-     * @param in        input stream to be read.
-     * @param delimiter delimiter to break the read (apart from {@code EOL ('\n')} or {@code EOF}).
-     * @param out       output stream to write the read data to. May be {@code null}, in which case the
-     *                  read data are silently discarded.
-     * @return value of the last byte read.
-     * @throws IOException in case the reading or writing of the data failed.
-     */
-    private int readLineUntil(InputStream in, int delimiter, OutputStream out) throws IOException {
-        int b;
-        while ((b = in.read()) != -1) {
-            if (b == delimiter || b == '\n') {
-                break;
-            } else if (out != null) {
-                out.write(b);
-            }
-        }
-
-        return b;
-    }
-
-    private void processField(InboundEvent.Builder inboundEventBuilder, String name, byte[] value) {
-        final String valueString = new String(value);
-        if ("event".equals(name)) {
-            inboundEventBuilder.name(valueString);
-        } else if ("data".equals(name)) {
-            inboundEventBuilder.write(value);
-            inboundEventBuilder.write(EOL_DATA);
-        } else if ("id".equals(name)) {
-            inboundEventBuilder.id(valueString);
-        } else if ("retry".equals(name)) {
-            try {
-                inboundEventBuilder.reconnectDelay(Long.parseLong(valueString));
-            } catch (NumberFormatException ex) {
-                LOGGER.log(Level.FINE, LocalizationMessages.IN_EVENT_RETRY_PARSE_ERROR(valueString), ex);
-            }
-        } else {
-            LOGGER.fine(LocalizationMessages.IN_EVENT_FIELD_NOT_RECOGNIZED(name, valueString));
-        }
-    }
 }
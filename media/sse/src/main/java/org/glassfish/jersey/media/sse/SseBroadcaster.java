@@ -39,10 +39,16 @@
  */
 package org.glassfish.jersey.media.sse;
 
+import java.util.concurrent.ExecutorService;
+
 import org.glassfish.jersey.server.Broadcaster;
 
 /**
  * Used for broadcasting SSE to multiple {@link EventOutput} instances.
+ * <p>
+ * Asynchronous broadcasters serialize each broadcast event only once for all the event outputs that
+ * use the same event stream media type, see {@link Broadcaster} for details.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
@@ -73,4 +79,42 @@ public class SseBroadcaster extends Broadcaster<OutboundEvent> {
     protected SseBroadcaster(final Class<? extends SseBroadcaster> subclass) {
         super(subclass);
     }
+
+    /**
+     * Creates a new asynchronous instance.
+     * If this constructor is called by a subclass, it assumes the the reason for the subclass to exist is to implement
+     * {@link #onClose(org.glassfish.jersey.server.ChunkedOutput)} and {@link #onException(org.glassfish.jersey.server.ChunkedOutput, Exception)} methods, so it adds
+     * the newly created instance as the listener. To avoid this, subclasses may call
+     * {@link #SseBroadcaster(Class, ExecutorService, int, SlowConsumerPolicy)} passing their class as an argument.
+     *
+     * @param executor           executor used to write events to the registered event outputs.
+     * @param queueCapacity      maximum number of events pending to be written to a single event output.
+     * @param slowConsumerPolicy policy applied when the queue of an event output is full.
+     * @see Broadcaster#Broadcaster(ExecutorService, int, SlowConsumerPolicy)
+     * @since 2.4
+     */
+    public SseBroadcaster(final ExecutorService executor, final int queueCapacity, final SlowConsumerPolicy slowConsumerPolicy) {
+        this(SseBroadcaster.class, executor, queueCapacity, slowConsumerPolicy);
+    }
+
+    /**
+     * Can be used by subclasses to create an asynchronous broadcaster and override the default functionality
+     * of adding self to the set of {@link org.glassfish.jersey.server.BroadcasterListener listeners}.
+     * If creating a direct instance of a subclass passed in the parameter,
+     * the broadcaster will not register itself as a listener.
+     *
+     * @param subclass           subclass of SseBroadcaster that should not be registered as a listener - if creating a direct
+     *                           instance of this subclass, this constructor will not register the new instance as a listener.
+     * @param executor           executor used to write events to the registered event outputs.
+     * @param queueCapacity      maximum number of events pending to be written to a single event output.
+     * @param slowConsumerPolicy policy applied when the queue of an event output is full.
+     * @see #SseBroadcaster(ExecutorService, int, SlowConsumerPolicy)
+     * @since 2.4
+     */
+    protected SseBroadcaster(final Class<? extends SseBroadcaster> subclass,
+                             final ExecutorService executor,
+                             final int queueCapacity,
+                             final SlowConsumerPolicy slowConsumerPolicy) {
+        super(subclass, executor, queueCapacity, slowConsumerPolicy);
+    }
 }
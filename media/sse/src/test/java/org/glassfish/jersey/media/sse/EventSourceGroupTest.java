@@ -0,0 +1,194 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link EventSourceGroup} tests.
+ *
+ * @author agent (agent at local)
+ */
+public class EventSourceGroupTest {
+
+    private HttpServer server;
+    private Client client;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                connections.incrementAndGet();
+                exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                final OutputStream out = exchange.getResponseBody();
+                out.write("retry: 10\ndata: first\n\ndata: second\n\n".getBytes("UTF-8"));
+                out.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        client = ClientBuilder.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    private WebTarget target() {
+        return client.target("http://localhost:" + server.getAddress().getPort()).path("events");
+    }
+
+    @Test
+    public void testReconnectDelayBackoff() {
+        final EventSourceGroup group = EventSourceGroup.builder().maxReconnectDelay(1, TimeUnit.SECONDS).build();
+        try {
+            assertEquals(100, group.getReconnectDelay(100, 1));
+            for (int i = 0; i < 100; i++) {
+                final long second = group.getReconnectDelay(100, 2);
+                assertTrue(second >= 100 && second <= 200);
+                final long capped = group.getReconnectDelay(100, 20);
+                assertTrue(capped >= 500 && capped <= 1000);
+            }
+        } finally {
+            group.close();
+        }
+
+        final EventSourceGroup privateGroup = EventSourceGroup.createPrivate(Executors.defaultThreadFactory());
+        try {
+            assertEquals(100, privateGroup.getReconnectDelay(100, 20));
+        } finally {
+            privateGroup.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentReconnectsLimit() {
+        final EventSourceGroup group = EventSourceGroup.builder().maxConcurrentReconnects(2).build();
+        try {
+            assertTrue(group.tryStartReconnect());
+            assertTrue(group.tryStartReconnect());
+            assertFalse(group.tryStartReconnect());
+            assertEquals(2, group.getRunningReconnectCount());
+
+            group.finishReconnect();
+            assertTrue(group.tryStartReconnect());
+        } finally {
+            group.close();
+        }
+    }
+
+    @Test
+    public void testSourcesInGroup() throws InterruptedException {
+        final EventSourceGroup group = EventSourceGroup.builder().maxConcurrentReconnects(1).build();
+        final int sourceCount = 5;
+        final CountDownLatch received = new CountDownLatch(sourceCount * 4);
+
+        final EventSource[] sources = new EventSource[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            sources[i] = EventSource.target(target()).group(group).build();
+            sources[i].register(new EventListener() {
+                @Override
+                public void onEvent(final InboundEvent inboundEvent) {
+                    received.countDown();
+                }
+            });
+            sources[i].open();
+        }
+        assertEquals(sourceCount, group.getEventSources().size());
+
+        // each source receives two events per connection and reconnects after the server closes the stream
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        for (EventSource source : sources) {
+            final EventSourceStatistics statistics = source.getStatistics();
+            assertTrue(statistics.getEventCount() >= 2);
+            assertTrue(statistics.getReconnectCount() >= 1);
+            assertTrue(statistics.getLastEventTime() > 0);
+        }
+        assertTrue(connections.get() >= sourceCount * 2);
+
+        group.close();
+        assertTrue(group.getEventSources().isEmpty());
+        for (EventSource source : sources) {
+            assertFalse(source.isOpen());
+            assertFalse(source.getStatistics().isConnected());
+        }
+    }
+
+    @Test
+    public void testCloseSourceInGroup() {
+        final EventSourceGroup group = EventSourceGroup.builder().build();
+        try {
+            final EventSource source = EventSource.target(target()).group(group).open();
+            assertTrue(source.close(5, TimeUnit.SECONDS));
+            assertFalse(source.isOpen());
+            assertTrue(group.getEventSources().isEmpty());
+        } finally {
+            group.close();
+        }
+    }
+}
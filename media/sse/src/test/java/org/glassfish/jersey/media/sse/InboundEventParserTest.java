@@ -0,0 +1,150 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link InboundEventParser} unit tests.
+ *
+ * @author agent (agent at local)
+ */
+public class InboundEventParserTest {
+
+    private static final int[] BUFFER_SIZES = {1, 2, 3, 7, 8192};
+
+    private static List<InboundEvent> parse(final String stream, final int bufferSize) throws IOException {
+        final InboundEventParser parser =
+                new InboundEventParser(new ByteArrayInputStream(stream.getBytes("UTF-8")), bufferSize);
+        final List<InboundEvent> events = new ArrayList<InboundEvent>();
+        InboundEvent.Builder builder = new InboundEvent.Builder(null, null, null, null);
+        while (parser.next(builder)) {
+            events.add(builder.build());
+            builder = new InboundEvent.Builder(null, null, null, null);
+        }
+        return events;
+    }
+
+    private static String data(final InboundEvent event) throws IOException {
+        return new String(event.getRawData(), "UTF-8");
+    }
+
+    @Test
+    public void testEventFields() throws IOException {
+        for (int bufferSize : BUFFER_SIZES) {
+            final List<InboundEvent> events = parse(
+                    "event: greeting\nid: 1\nretry: 500\ndata: hello\ndata:world\n\n"
+                            + ": comment\ndata: second\n\n", bufferSize);
+
+            assertEquals(2, events.size());
+            final InboundEvent first = events.get(0);
+            assertEquals("greeting", first.getName());
+            assertEquals("1", first.getId());
+            assertEquals(500, first.getReconnectDelay());
+            assertEquals("hello\nworld\n", data(first));
+
+            final InboundEvent second = events.get(1);
+            assertNull(second.getName());
+            assertFalse(second.isReconnectDelaySet());
+            assertEquals("second\n", data(second));
+        }
+    }
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        for (int bufferSize : BUFFER_SIZES) {
+            final List<InboundEvent> events = parse("data: a\r\ndata: b\r\n\r\ndata: c\rdata: d\r\rdata: e\n\n", bufferSize);
+
+            assertEquals(3, events.size());
+            assertEquals("a\nb\n", data(events.get(0)));
+            assertEquals("c\nd\n", data(events.get(1)));
+            assertEquals("e\n", data(events.get(2)));
+        }
+    }
+
+    @Test
+    public void testBlankLinesCommentsAndEndOfStream() throws IOException {
+        for (int bufferSize : BUFFER_SIZES) {
+            final List<InboundEvent> events = parse("\n\n: keep-alive\n\n\n\ndata\nevent: last", bufferSize);
+
+            assertEquals(2, events.size());
+            assertTrue(events.get(0).isEmpty());
+            assertEquals("\n", data(events.get(1)));
+            assertEquals("last", events.get(1).getName());
+        }
+        assertTrue(parse("", 8192).isEmpty());
+        assertTrue(parse("\n\r\n", 8192).isEmpty());
+    }
+
+    @Test
+    public void testInvalidAndUnknownFields() throws IOException {
+        for (int bufferSize : BUFFER_SIZES) {
+            final List<InboundEvent> events = parse("retry: 1x\nunknown: value\nid\ndata:  two spaces\n\n", bufferSize);
+
+            assertEquals(1, events.size());
+            assertFalse(events.get(0).isReconnectDelaySet());
+            assertEquals("", events.get(0).getId());
+            assertEquals(" two spaces\n", data(events.get(0)));
+        }
+    }
+
+    @Test
+    public void testLongLinesAndData() throws IOException {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+        for (int bufferSize : BUFFER_SIZES) {
+            final List<InboundEvent> events = parse("data: " + value + "\ndata: " + value + "\n\n", bufferSize);
+
+            assertEquals(1, events.size());
+            assertEquals(value + "\n" + value + "\n", data(events.get(0)));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ChunkedInput;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Base for the asynchronous request processing tests of the containers that support suspending the requests.
+ *
+ * The concrete tests run the container with a single request processing thread, so the tests would not complete
+ * unless the suspended requests released the container thread.
+ *
+ * @author agent (agent at local)
+ */
+public abstract class AbstractContainerAsyncTest extends JerseyTest {
+
+    private static final int REQUEST_COUNT = 10;
+    private static final int CHUNK_COUNT = 3;
+
+    @Path("async")
+    public static class AsyncResource {
+
+        private static final ConcurrentLinkedQueue<AsyncResponse> SUSPENDED =
+                new ConcurrentLinkedQueue<AsyncResponse>();
+
+        @GET
+        @Path("poll")
+        public void poll(@Suspended final AsyncResponse asyncResponse) {
+            SUSPENDED.add(asyncResponse);
+        }
+
+        @POST
+        @Path("release")
+        public String release(final String message) {
+            int released = 0;
+            AsyncResponse asyncResponse;
+            while ((asyncResponse = SUSPENDED.poll()) != null) {
+                asyncResponse.resume(message);
+                released++;
+            }
+            return String.valueOf(released);
+        }
+
+        @GET
+        @Path("timeout")
+        public void timeout(@Suspended final AsyncResponse asyncResponse) {
+            asyncResponse.setTimeout(200, TimeUnit.MILLISECONDS);
+        }
+
+        @GET
+        @Path("chunks")
+        public ChunkedOutput<String> chunks() {
+            final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < CHUNK_COUNT; i++) {
+                            Thread.sleep(50);
+                            output.write("chunk-" + i + "\r\n");
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        try {
+                            output.close();
+                        } catch (Exception ignored) {
+                            // ignore
+                        }
+                    }
+                }
+            }.start();
+            return output;
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(AsyncResource.class);
+    }
+
+    private void awaitSuspended(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (AsyncResource.SUSPENDED.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, AsyncResource.SUSPENDED.size());
+    }
+
+    @Test
+    public void testLongPoll() throws Exception {
+        final List<Future<String>> polls = new ArrayList<Future<String>>();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            polls.add(target("async/poll").request().async().get(String.class));
+        }
+        awaitSuspended(REQUEST_COUNT);
+
+        assertEquals(String.valueOf(REQUEST_COUNT),
+                target("async/release").request().post(Entity.text("released"), String.class));
+        for (Future<String> poll : polls) {
+            assertEquals("released", poll.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final Future<Response> poll = target("async/poll").request().async().get();
+        awaitSuspended(1);
+
+        final Response response = target("async/timeout").request().get();
+        assertEquals(503, response.getStatus());
+
+        target("async/release").request().post(Entity.text("released"));
+        assertEquals("released", poll.get(10, TimeUnit.SECONDS).readEntity(String.class));
+    }
+
+    @Test
+    public void testChunkedStreaming() throws Exception {
+        final List<Future<String>> streams = new ArrayList<Future<String>>();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            streams.add(target("async/chunks").request().async().get(String.class));
+        }
+        for (Future<String> stream : streams) {
+            assertEquals("chunk-0\r\nchunk-1\r\nchunk-2\r\n", stream.get(10, TimeUnit.SECONDS));
+        }
+
+        final ChunkedInput<String> input = target("async/chunks").request().get()
+                .readEntity(new GenericType<ChunkedInput<String>>() {
+                });
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            assertEquals("chunk-" + i, input.read());
+        }
+        assertNull(input.read());
+        assertTrue(input.isClosed());
+    }
+}
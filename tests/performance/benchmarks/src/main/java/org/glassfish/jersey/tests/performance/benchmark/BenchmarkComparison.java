@@ -0,0 +1,227 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files and prints a report of the relative score changes.
+ * <p>
+ * The result files are expected in the JMH CSV format, i.e. produced by running the benchmarks with the
+ * {@code -rf csv -rff <file>} options. Usage:
+ * </p>
+ * <pre>
+ * java -cp target/benchmarks.jar org.glassfish.jersey.tests.performance.benchmark.BenchmarkComparison \
+ *      baseline.csv current.csv [threshold-percent]
+ * </pre>
+ * <p>
+ * A benchmark is reported as a regression if its score got worse by more than the threshold (5% by default) and
+ * the difference exceeds the combined score errors of both runs. For the average and sample time modes a higher score
+ * is worse, for the throughput mode a lower score is worse. The program exits with status {@code 1} if any regression
+ * has been found.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD = 5.0;
+
+    private BenchmarkComparison() {
+        // prevents instantiation
+    }
+
+    /**
+     * Single benchmark result.
+     */
+    private static class Result {
+
+        private final String mode;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Result(final String mode, final double score, final double error, final String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        private boolean isThroughput() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.csv> <current.csv> [threshold-percent]");
+            System.exit(2);
+        }
+        final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        final Map<String, Result> baseline = read(args[0]);
+        final Map<String, Result> current = read(args[1]);
+
+        int regressions = 0;
+        System.out.println(String.format("%-60s %14s %14s %9s  %s", "Benchmark", "Baseline", "Current", "Change", "Unit"));
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            final Result now = entry.getValue();
+            final Result before = baseline.get(entry.getKey());
+            if (before == null || !before.unit.equals(now.unit) || before.score == 0) {
+                System.out.println(String.format("%-60s %14s %14.3f %9s  %s", entry.getKey(), "-", now.score, "new", now.unit));
+                continue;
+            }
+
+            final double change = (now.score - before.score) / before.score * 100;
+            final double worse = now.isThroughput() ? -change : change;
+            final boolean significant = Math.abs(now.score - before.score) > before.error + now.error;
+            String verdict = "";
+            if (significant && worse > threshold) {
+                verdict = "  REGRESSION";
+                regressions++;
+            } else if (significant && worse < -threshold) {
+                verdict = "  improvement";
+            }
+            System.out.println(String.format("%-60s %14.3f %14.3f %+8.1f%%  %s%s",
+                    entry.getKey(), before.score, now.score, change, now.unit, verdict));
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.println(String.format("%-60s %14.3f %14s %9s", name, baseline.get(name).score, "-", "removed"));
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("%d regression(s) found (threshold %.1f%%).", regressions, threshold));
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(final String file) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            final List<String> header = parseLine(reader.readLine());
+            final int benchmark = header.indexOf("Benchmark");
+            final int mode = header.indexOf("Mode");
+            final int score = header.indexOf("Score");
+            final int error = header.indexOf("Score Error (99.9%)");
+            final int unit = header.indexOf("Unit");
+            if (benchmark < 0 || mode < 0 || score < 0 || unit < 0) {
+                throw new IOException("Not a JMH CSV result file: " + file);
+            }
+
+            final Map<String, Result> results = new LinkedHashMap<String, Result>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                final List<String> values = parseLine(line);
+                // parameter columns follow the unit column
+                final StringBuilder name = new StringBuilder(simpleName(values.get(benchmark)));
+                for (int i = unit + 1; i < header.size() && i < values.size(); i++) {
+                    if (!values.get(i).isEmpty()) {
+                        name.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(values.get(i));
+                    }
+                }
+                results.put(name.toString(), new Result(
+                        values.get(mode),
+                        parseDouble(values.get(score)),
+                        error < 0 ? 0 : parseDouble(values.get(error)),
+                        values.get(unit)));
+            }
+            return results;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String simpleName(final String benchmark) {
+        // strip the package name, keep the benchmark class and method names
+        final int method = benchmark.lastIndexOf('.');
+        return method > 0 ? benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1) : benchmark;
+    }
+
+    private static double parseDouble(final String value) {
+        try {
+            final double result = Double.parseDouble(value);
+            // score error of single iteration runs is NaN
+            return Double.isNaN(result) ? 0 : result;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static List<String> parseLine(final String line) {
+        final List<String> values = new ArrayList<String>();
+        if (line == null) {
+            return values;
+        }
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.internal.inject.Injections;
+import org.glassfish.jersey.process.internal.RequestScope;
+import org.glassfish.jersey.process.internal.RequestScoped;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of entering a {@link RequestScope request scope} and of looking up request-scoped services.
+ * <p>
+ * The {@code enterScope} benchmark runs an empty task in a new request scope, the {@code lookup} benchmark
+ * additionally retrieves a few request-scoped services (twice each) inside the scope. Run the benchmarks with
+ * the {@code -prof gc} option to see the per-scope allocation rate.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestScopeBenchmark {
+
+    private ServiceLocator locator;
+    private RequestScope requestScope;
+
+    public static class First {
+    }
+
+    public static class Second {
+    }
+
+    public static class Third {
+    }
+
+    public static class Fourth {
+    }
+
+    @Setup
+    public void setup() {
+        locator = Injections.createLocator(new RequestScope.Binder(), new AbstractBinder() {
+            @Override
+            protected void configure() {
+                bindAsContract(First.class).in(RequestScoped.class);
+                bindAsContract(Second.class).in(RequestScoped.class);
+                bindAsContract(Third.class).in(RequestScoped.class);
+                bindAsContract(Fourth.class).in(RequestScoped.class);
+            }
+        });
+        requestScope = locator.getService(RequestScope.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        locator.shutdown();
+    }
+
+    @Benchmark
+    public void enterScope(final Blackhole blackhole) {
+        requestScope.runInScope(new Runnable() {
+            @Override
+            public void run() {
+                blackhole.consume(this);
+            }
+        });
+    }
+
+    @Benchmark
+    public void lookup(final Blackhole blackhole) {
+        requestScope.runInScope(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 2; i++) {
+                    blackhole.consume(locator.getService(First.class));
+                    blackhole.consume(locator.getService(Second.class));
+                    blackhole.consume(locator.getService(Third.class));
+                    blackhole.consume(locator.getService(Fourth.class));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.MethodHandler;
+import org.glassfish.jersey.server.model.internal.ResourceMethodInvocationHandlerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the resource method invocation using generated invoker classes with the reflective invocation.
+ * <p>
+ * The {@code invoke} benchmark measures the bare resource method invocation via the resource method invocation
+ * handler, the {@code request} benchmark measures the whole request processing. The benchmarks are run both with
+ * and without the {@link ServerProperties#RESOURCE_METHOD_INVOKER_GENERATION_DISABLE invoker generation}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceMethodDispatchBenchmark {
+
+    private static final URI BASE_URI = URI.create("/");
+    private static final URI REQUEST_URI = URI.create("/resource?count=42&name=jersey");
+
+    @Param({"false", "true"})
+    private boolean invokerGenerationDisabled;
+
+    private ApplicationHandler handler;
+    private InvocationHandler invocationHandler;
+    private Method method;
+    private Resource resource;
+    private Object[] args;
+
+    @Path("resource")
+    public static class Resource {
+
+        @GET
+        public String get(@QueryParam("count") final int count, @QueryParam("name") final String name) {
+            return name;
+        }
+    }
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        final ResourceConfig config = new ResourceConfig(Resource.class)
+                .property(ServerProperties.RESOURCE_METHOD_INVOKER_GENERATION_DISABLE, invokerGenerationDisabled);
+        handler = new ApplicationHandler(config);
+
+        method = Resource.class.getMethod("get", int.class, String.class);
+        invocationHandler = handler.getServiceLocator().getService(ResourceMethodInvocationHandlerFactory.class)
+                .create(Invocable.create(MethodHandler.create(Resource.class), method));
+        resource = new Resource();
+        args = new Object[] {42, "jersey"};
+    }
+
+    @Benchmark
+    public Object invoke() throws Throwable {
+        return invocationHandler.invoke(resource, method, args);
+    }
+
+    @Benchmark
+    public ContainerResponse request() throws ExecutionException, InterruptedException {
+        return handler.apply(new ContainerRequest(BASE_URI, REQUEST_URI, "GET", null, new MapPropertiesDelegate())).get();
+    }
+}
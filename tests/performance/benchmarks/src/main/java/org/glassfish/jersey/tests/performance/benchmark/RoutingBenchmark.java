@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.ContainerRequestContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.Resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-request routing cost as the number of root resources in the application grows.
+ * <p>
+ * The application consists of {@code resourceCount} programmatic root resources {@code /resource<i>}, each of them
+ * with a resource method and a templated sub-resource method {@code /resource<i>/{id}}. The requests are routed to the
+ * resources registered last, i.e. to the resources that are reached last by a sequential path matching. The benchmark is
+ * run both with and without the {@link ServerProperties#ROUTING_PREFIX_TREE_DISABLE routing prefix tree}.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    private static final URI BASE_URI = URI.create("/");
+
+    @Param({"10", "100", "1000"})
+    private int resourceCount;
+
+    @Param({"false", "true"})
+    private boolean prefixTreeDisabled;
+
+    private ApplicationHandler handler;
+    private URI resourceUri;
+    private URI subResourceUri;
+
+    @Setup
+    public void setup() {
+        final ResourceConfig config = new ResourceConfig();
+        for (int i = 0; i < resourceCount; i++) {
+            final Resource.Builder builder = Resource.builder("resource" + i);
+            builder.addMethod("GET").handledBy(new ConstantInflector("resource" + i));
+            builder.addChildResource("{id}").addMethod("GET").handledBy(new ConstantInflector("sub-resource" + i));
+            config.registerResources(builder.build());
+        }
+        config.property(ServerProperties.ROUTING_PREFIX_TREE_DISABLE, prefixTreeDisabled);
+
+        handler = new ApplicationHandler(config);
+        resourceUri = URI.create("/resource" + (resourceCount - 1));
+        subResourceUri = URI.create("/resource" + (resourceCount - 1) + "/42");
+    }
+
+    @Benchmark
+    public ContainerResponse resource() throws ExecutionException, InterruptedException {
+        return handler.apply(request(resourceUri)).get();
+    }
+
+    @Benchmark
+    public ContainerResponse subResource() throws ExecutionException, InterruptedException {
+        return handler.apply(request(subResourceUri)).get();
+    }
+
+    private static ContainerRequest request(final URI requestUri) {
+        return new ContainerRequest(BASE_URI, requestUri, "GET", null, new MapPropertiesDelegate());
+    }
+
+    private static class ConstantInflector implements Inflector<ContainerRequestContext, String> {
+
+        private final String value;
+
+        private ConstantInflector(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String apply(final ContainerRequestContext requestContext) {
+            return value;
+        }
+    }
+}
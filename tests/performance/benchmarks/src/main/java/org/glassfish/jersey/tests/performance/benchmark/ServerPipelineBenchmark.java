@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.message.internal.NullOutputStream;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.tests.performance.benchmark.scenario.Scenario;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the end-to-end cost of the server request processing pipeline.
+ * <p>
+ * The requests of the {@link Scenario scenarios} are processed in-memory by the {@link ApplicationHandler}, i.e. the
+ * benchmark includes request matching, filters, parameter extraction and injection, resource method invocation,
+ * interceptors and message body reading and writing, but excludes any container and network I/O. The response entity
+ * is written into a {@link NullOutputStream}.
+ * </p>
+ * <p>
+ * To record a baseline, run the benchmark with a fixed configuration and store the results in the CSV format, e.g.
+ * {@code java -jar target/benchmarks.jar ServerPipelineBenchmark -rf csv -rff baseline.csv}. Results of a later run
+ * can be compared against the baseline using the {@link BenchmarkComparison} report.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServerPipelineBenchmark {
+
+    @Param
+    private Scenario scenario;
+
+    private ApplicationHandler handler;
+
+    @Setup
+    public void setup() throws ExecutionException, InterruptedException {
+        handler = new ApplicationHandler(scenario.createConfiguration());
+
+        final ContainerResponse response = handler.apply(scenario.createRequest(), new NullOutputStream()).get();
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException(
+                    "Unexpected response status of scenario " + scenario + ": " + response.getStatus());
+        }
+    }
+
+    @Benchmark
+    public ContainerResponse apply() throws ExecutionException, InterruptedException {
+        return handler.apply(scenario.createRequest(), new NullOutputStream()).get();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the application startup cost of the component discovery with and without the
+ * {@link ServerProperties#PROVIDER_SCANNING_INDEX build-time annotation index} and with and without the
+ * {@link ServerProperties#PROVIDER_SCANNING_PARALLEL parallel package scanning}.
+ * <p>
+ * The benchmark application consists of the resources and providers of the benchmark scenarios, discovered
+ * from the {@code org.glassfish.jersey.tests.performance.benchmark} package. The annotation index of the benchmark
+ * classes is generated during the build of the benchmarks module. When run from the benchmarks uber-jar, the package
+ * scanning has to go through all the entries of the jar, which approximates the scanning of a large class path.
+ * The {@code discovery} benchmark measures the component discovery only, the {@code startup} benchmark measures
+ * the whole application handler initialization.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String PACKAGE = StartupBenchmark.class.getPackage().getName();
+
+    @Param({"false", "true"})
+    private boolean indexEnabled;
+
+    @Param({"false", "true"})
+    private boolean parallelScanning;
+
+    private ResourceConfig config() {
+        return new ResourceConfig()
+                .packages(PACKAGE)
+                .property(ServerProperties.PROVIDER_SCANNING_INDEX, indexEnabled)
+                .property(ServerProperties.PROVIDER_SCANNING_PARALLEL, parallelScanning);
+    }
+
+    @Benchmark
+    public Set<Class<?>> discovery() {
+        return config().getClasses();
+    }
+
+    @Benchmark
+    public ApplicationHandler startup() {
+        return new ApplicationHandler(config());
+    }
+}
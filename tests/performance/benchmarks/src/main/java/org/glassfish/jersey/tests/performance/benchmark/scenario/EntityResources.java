@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark.scenario;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jersey.message.internal.ReaderWriter;
+
+/**
+ * Resources and providers of the entity (message body worker) scenarios. These mirror the {@code mbw-*}
+ * performance test cases.
+ *
+ * @author agent (agent at local)
+ */
+public final class EntityResources {
+
+    /**
+     * Custom media type handled by the {@link PersonProvider}.
+     */
+    public static final String APPLICATION_PERSON = "application/person";
+
+    private EntityResources() {
+        // prevents instantiation
+    }
+
+    /**
+     * Test entity bean.
+     */
+    @XmlRootElement
+    public static class Person {
+
+        public String name;
+        public int age;
+        public String address;
+
+        public Person() {
+        }
+
+        public Person(final String name, final int age, final String address) {
+            this.name = name;
+            this.age = age;
+            this.address = address;
+        }
+    }
+
+    /**
+     * Plain text entity resource.
+     */
+    @Path("text")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class TextResource {
+
+        @GET
+        public String get() {
+            return "text";
+        }
+
+        @POST
+        @Consumes(MediaType.TEXT_PLAIN)
+        public String post(final String text) {
+            return text;
+        }
+    }
+
+    /**
+     * Bean entity resource producing and consuming XML and the custom person media type.
+     */
+    @Path("person")
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, APPLICATION_PERSON})
+    public static class PersonResource {
+
+        @GET
+        public Person get() {
+            return new Person("Joe", 42, "Prague");
+        }
+
+        @POST
+        @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, APPLICATION_PERSON})
+        public Person post(final Person person) {
+            return person;
+        }
+    }
+
+    /**
+     * Custom message body provider of the {@link Person} bean.
+     */
+    @Produces(APPLICATION_PERSON)
+    @Consumes(APPLICATION_PERSON)
+    public static class PersonProvider implements MessageBodyReader<Person>, MessageBodyWriter<Person> {
+
+        @Override
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == Person.class;
+        }
+
+        @Override
+        public Person readFrom(Class<Person> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                               MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+                throws IOException, WebApplicationException {
+            final String[] fields = ReaderWriter.readFromAsString(entityStream, mediaType).split(",");
+            return new Person(fields[0], Integer.parseInt(fields[1]), fields[2]);
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == Person.class;
+        }
+
+        @Override
+        public long getSize(Person person, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Person person, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            ReaderWriter.writeToAsString(person.name + "," + person.age + "," + person.address, entityStream, mediaType);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark.scenario;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.MatrixParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+/**
+ * Resources of the parameter and injection scenarios. These mirror the {@code param-srl} and {@code proxy-injection}
+ * performance test cases.
+ *
+ * @author agent (agent at local)
+ */
+public final class ParamResources {
+
+    private ParamResources() {
+        // prevents instantiation
+    }
+
+    /**
+     * Resource with a sub-resource locator and a sub-resource method extracting path, matrix and query parameters.
+     */
+    @Path("param")
+    public static class SrlResource {
+
+        /**
+         * Sub-resource returned by the {@link SrlResource#locator(String) sub-resource locator}.
+         */
+        public static class SubResource {
+
+            private final String p;
+
+            SubResource(final String p) {
+                this.p = p;
+            }
+
+            @GET
+            @Produces(MediaType.TEXT_PLAIN)
+            public String get(@MatrixParam("m") final String m, @QueryParam("q") final String q) {
+                return "p=" + p + ", m=" + m + ", q=" + q;
+            }
+        }
+
+        @Path("srl/{p}")
+        public SubResource locator(@PathParam("p") final String p) {
+            return new SubResource(p);
+        }
+
+        @GET
+        @Path("srm/{p}")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get(@PathParam("p") final String p, @MatrixParam("m") final String m, @QueryParam("q") final String q) {
+            return "p=" + p + ", m=" + m + ", q=" + q;
+        }
+    }
+
+    /**
+     * Resource with field injected proxiable parameters.
+     */
+    @Path("field-injected")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class FieldInjectedResource {
+
+        @Context
+        private SecurityContext securityContext;
+        @Context
+        private UriInfo uriInfo;
+        @Context
+        private HttpHeaders httpHeaders;
+        @Context
+        private Request request;
+
+        @GET
+        public String get() {
+            return securityContext.getAuthenticationScheme() + uriInfo.getPath() + httpHeaders.getLength()
+                    + request.getMethod();
+        }
+    }
+
+    /**
+     * Resource with method injected proxiable parameters.
+     */
+    @Path("method-injected")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class MethodInjectedResource {
+
+        @GET
+        public String get(@Context final SecurityContext securityContext, @Context final UriInfo uriInfo,
+                          @Context final HttpHeaders httpHeaders, @Context final Request request) {
+            return securityContext.getAuthenticationScheme() + uriInfo.getPath() + httpHeaders.getLength()
+                    + request.getMethod();
+        }
+    }
+}
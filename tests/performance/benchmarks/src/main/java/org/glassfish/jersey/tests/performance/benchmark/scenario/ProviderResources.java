@@ -0,0 +1,274 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark.scenario;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.NameBinding;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.DynamicFeature;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.FeatureContext;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Resources, filters and interceptors of the provider scenarios. These mirror the {@code filter-*} and
+ * {@code interceptor-*} performance test cases: the same filter (interceptor) is bound globally, by a name binding
+ * annotation and by a {@link DynamicFeature dynamic feature}.
+ *
+ * @author agent (agent at local)
+ */
+public final class ProviderResources {
+
+    private ProviderResources() {
+        // prevents instantiation
+    }
+
+    /**
+     * Name binding annotation of the name bound filter and interceptor.
+     */
+    @NameBinding
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public static @interface Bound {
+    }
+
+    /**
+     * Text echo resource processed by globally bound providers.
+     */
+    @Path("global")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class GlobalResource {
+
+        @GET
+        public String get() {
+            return "text";
+        }
+
+        @POST
+        public String post(final String text) {
+            return text;
+        }
+    }
+
+    /**
+     * Text echo resource processed by name bound providers.
+     */
+    @Path("name")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.TEXT_PLAIN)
+    @Bound
+    public static class NameBoundResource {
+
+        @GET
+        public String get() {
+            return "text";
+        }
+
+        @POST
+        public String post(final String text) {
+            return text;
+        }
+    }
+
+    /**
+     * Text echo resource processed by dynamically bound providers.
+     */
+    @Path("dynamic")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class DynamicallyBoundResource {
+
+        @GET
+        public String get() {
+            return "text";
+        }
+
+        @POST
+        public String post(final String text) {
+            return text;
+        }
+    }
+
+    /**
+     * Request and response filter prepending and appending a constant to the entity.
+     */
+    public static class Filter implements ContainerRequestFilter, ContainerResponseFilter {
+
+        @Override
+        public void filter(final ContainerRequestContext requestContext) throws IOException {
+            if (requestContext.hasEntity()) {
+                requestContext.setEntityStream(new SequenceInputStream(
+                        new ByteArrayInputStream("IN".getBytes()), requestContext.getEntityStream()));
+            }
+        }
+
+        @Override
+        public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext)
+                throws IOException {
+            if (responseContext.hasEntity()) {
+                responseContext.setEntity(responseContext.getEntity() + "OUT", null, MediaType.TEXT_PLAIN_TYPE);
+            }
+        }
+    }
+
+    /**
+     * {@link Filter} bound globally.
+     */
+    public static class GlobalFilter extends Filter {
+    }
+
+    /**
+     * {@link Filter} bound by the {@link Bound} name binding.
+     */
+    @Bound
+    public static class NameBoundFilter extends Filter {
+    }
+
+    /**
+     * {@link Filter} bound by the {@link DynamicBindingFeature}.
+     */
+    public static class DynamicallyBoundFilter extends Filter {
+    }
+
+    /**
+     * Reader and writer interceptor prepending and appending a constant to the entity.
+     */
+    public static class Interceptor implements ReaderInterceptor, WriterInterceptor {
+
+        @Override
+        public Object aroundReadFrom(final ReaderInterceptorContext context) throws IOException, WebApplicationException {
+            final Object entity = context.proceed();
+            return entity instanceof String ? "IN" + entity : entity;
+        }
+
+        @Override
+        public void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
+            if (context.getEntity() instanceof String) {
+                context.setEntity(context.getEntity() + "OUT");
+            }
+            context.proceed();
+        }
+    }
+
+    /**
+     * {@link Interceptor} bound globally.
+     */
+    public static class GlobalInterceptor extends Interceptor {
+    }
+
+    /**
+     * {@link Interceptor} bound by the {@link Bound} name binding.
+     */
+    @Bound
+    public static class NameBoundInterceptor extends Interceptor {
+    }
+
+    /**
+     * {@link Interceptor} bound by the {@link DynamicBindingFeature}.
+     */
+    public static class DynamicallyBoundInterceptor extends Interceptor {
+    }
+
+    /**
+     * Dynamic feature binding the {@link DynamicallyBoundFilter} and {@link DynamicallyBoundInterceptor} to the methods
+     * of the {@link DynamicallyBoundResource}.
+     */
+    public static class DynamicBindingFeature implements DynamicFeature {
+
+        private final Class<?> provider;
+
+        /**
+         * Create new dynamic feature binding the given provider class.
+         *
+         * @param provider filter or interceptor class to be bound.
+         */
+        protected DynamicBindingFeature(final Class<?> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void configure(final ResourceInfo resourceInfo, final FeatureContext context) {
+            if (DynamicallyBoundResource.class.equals(resourceInfo.getResourceClass())) {
+                context.register(provider);
+            }
+        }
+    }
+
+    /**
+     * Dynamic feature binding the {@link DynamicallyBoundFilter}.
+     */
+    public static class DynamicFilterFeature extends DynamicBindingFeature {
+
+        public DynamicFilterFeature() {
+            super(DynamicallyBoundFilter.class);
+        }
+    }
+
+    /**
+     * Dynamic feature binding the {@link DynamicallyBoundInterceptor}.
+     */
+    public static class DynamicInterceptorFeature extends DynamicBindingFeature {
+
+        public DynamicInterceptorFeature() {
+            super(DynamicallyBoundInterceptor.class);
+        }
+    }
+}
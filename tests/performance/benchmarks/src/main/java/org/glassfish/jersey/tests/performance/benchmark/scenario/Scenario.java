@@ -0,0 +1,226 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark.scenario;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.security.Principal;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * End-to-end server request pipeline scenarios.
+ * <p>
+ * Each scenario defines a minimal application (a set of resource and provider classes) together with a single
+ * representative request sent to the application. The scenarios cover the same ground as the performance test cases
+ * in {@code tests/performance/test-cases}, so that the results of the in-memory benchmarks can be correlated with the
+ * results of the (networked) performance tests.
+ * </p>
+ *
+ * @author agent (agent at local)
+ */
+public enum Scenario {
+
+    /**
+     * {@code GET} of a plain text entity ({@code mbw-text-plain}).
+     */
+    TEXT_PLAIN_GET(HttpMethod.GET, "/text", null, null, MediaType.TEXT_PLAIN,
+            EntityResources.TextResource.class),
+    /**
+     * {@code POST} of a plain text entity ({@code mbw-text-plain}).
+     */
+    TEXT_PLAIN_POST(HttpMethod.POST, "/text", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            EntityResources.TextResource.class),
+    /**
+     * {@code GET} of a bean written by a custom message body writer ({@code mbw-custom-provider}).
+     */
+    CUSTOM_PROVIDER_GET(HttpMethod.GET, "/person", null, null, EntityResources.APPLICATION_PERSON,
+            EntityResources.PersonResource.class, EntityResources.PersonProvider.class),
+    /**
+     * {@code POST} of a bean read and written by a custom message body provider ({@code mbw-custom-provider}).
+     */
+    CUSTOM_PROVIDER_POST(HttpMethod.POST, "/person", EntityResources.APPLICATION_PERSON, "Joe,42,Prague",
+            EntityResources.APPLICATION_PERSON,
+            EntityResources.PersonResource.class, EntityResources.PersonProvider.class),
+    /**
+     * {@code GET} of a JAXB bean written as XML ({@code mbw-xml-jaxb}).
+     */
+    XML_JAXB_GET(HttpMethod.GET, "/person", null, null, MediaType.APPLICATION_XML,
+            EntityResources.PersonResource.class),
+    /**
+     * {@code POST} of a JAXB bean read and written as XML ({@code mbw-xml-jaxb}).
+     */
+    XML_JAXB_POST(HttpMethod.POST, "/person", MediaType.APPLICATION_XML,
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<person><name>Joe</name><age>42</age><address>Prague</address></person>",
+            MediaType.APPLICATION_XML,
+            EntityResources.PersonResource.class),
+    /**
+     * {@code POST} processed by a globally bound filter ({@code filter-global}).
+     */
+    FILTER_GLOBAL(HttpMethod.POST, "/global", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            ProviderResources.GlobalResource.class, ProviderResources.GlobalFilter.class),
+    /**
+     * {@code POST} processed by a name bound filter ({@code filter-name}).
+     */
+    FILTER_NAME(HttpMethod.POST, "/name", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            ProviderResources.NameBoundResource.class, ProviderResources.NameBoundFilter.class),
+    /**
+     * {@code POST} processed by a dynamically bound filter ({@code filter-dynamic}).
+     */
+    FILTER_DYNAMIC(HttpMethod.POST, "/dynamic", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            ProviderResources.DynamicallyBoundResource.class, ProviderResources.DynamicFilterFeature.class),
+    /**
+     * {@code POST} processed by a globally bound interceptor ({@code interceptor-global}).
+     */
+    INTERCEPTOR_GLOBAL(HttpMethod.POST, "/global", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            ProviderResources.GlobalResource.class, ProviderResources.GlobalInterceptor.class),
+    /**
+     * {@code POST} processed by a name bound interceptor ({@code interceptor-name}).
+     */
+    INTERCEPTOR_NAME(HttpMethod.POST, "/name", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            ProviderResources.NameBoundResource.class, ProviderResources.NameBoundInterceptor.class),
+    /**
+     * {@code POST} processed by a dynamically bound interceptor ({@code interceptor-dynamic}).
+     */
+    INTERCEPTOR_DYNAMIC(HttpMethod.POST, "/dynamic", MediaType.TEXT_PLAIN, "text", MediaType.TEXT_PLAIN,
+            ProviderResources.DynamicallyBoundResource.class, ProviderResources.DynamicInterceptorFeature.class),
+    /**
+     * {@code GET} dispatched via a sub-resource locator with path, matrix and query parameters ({@code param-srl}).
+     */
+    PARAM_SRL(HttpMethod.GET, "/param/srl/p;m=m?q=q", null, null, MediaType.TEXT_PLAIN,
+            ParamResources.SrlResource.class),
+    /**
+     * {@code GET} dispatched to a sub-resource method with path, matrix and query parameters ({@code param-srl}).
+     */
+    PARAM_SRM(HttpMethod.GET, "/param/srm/p;m=m?q=q", null, null, MediaType.TEXT_PLAIN,
+            ParamResources.SrlResource.class),
+    /**
+     * {@code GET} of a resource with field injected proxiable parameters ({@code proxy-injection}).
+     */
+    PROXY_FIELD_INJECTION(HttpMethod.GET, "/field-injected", null, null, MediaType.TEXT_PLAIN,
+            ParamResources.FieldInjectedResource.class),
+    /**
+     * {@code GET} of a resource with method injected proxiable parameters ({@code proxy-injection}).
+     */
+    PROXY_METHOD_INJECTION(HttpMethod.GET, "/method-injected", null, null, MediaType.TEXT_PLAIN,
+            ParamResources.MethodInjectedResource.class);
+
+    private static final URI BASE_URI = URI.create("/");
+
+    private static final SecurityContext SECURITY_CONTEXT = new SecurityContext() {
+
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(final String role) {
+            return false;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public String getAuthenticationScheme() {
+            return null;
+        }
+    };
+
+    private final String method;
+    private final URI requestUri;
+    private final String contentType;
+    private final byte[] entity;
+    private final String accept;
+    private final Class<?>[] components;
+
+    private Scenario(final String method, final String path, final String contentType, final String entity,
+                     final String accept, final Class<?>... components) {
+        this.method = method;
+        this.requestUri = URI.create(path);
+        this.contentType = contentType;
+        this.entity = entity == null ? null : entity.getBytes(Charset.forName("UTF-8"));
+        this.accept = accept;
+        this.components = components;
+    }
+
+    /**
+     * Create new resource configuration of the scenario application.
+     *
+     * @return new resource configuration containing the scenario resources and providers.
+     */
+    public ResourceConfig createConfiguration() {
+        return new ResourceConfig(components);
+    }
+
+    /**
+     * Create new request of the scenario.
+     * <p>
+     * A new request instance has to be created for every invocation since the request (and namely its entity stream)
+     * cannot be reused.
+     * </p>
+     *
+     * @return new scenario request.
+     */
+    public ContainerRequest createRequest() {
+        final ContainerRequest request = new ContainerRequest(
+                BASE_URI, requestUri, method, SECURITY_CONTEXT, new MapPropertiesDelegate());
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        if (entity != null) {
+            request.header(HttpHeaders.CONTENT_TYPE, contentType);
+            request.setEntityStream(new ByteArrayInputStream(entity));
+        }
+        return request;
+    }
+}